@@ -0,0 +1,49 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks in this module, writing results as JSON unless told otherwise.
+ *
+ * Accepts the usual JMH command-line options, for example {@code -f 1 -wi 3 -i 5 RouterBenchmark}; results go to
+ * {@code jmh-result.json} in the working directory unless {@code -rf} or {@code -rff} are given.
+ *
+ * @since 3.31
+ */
+public class BenchmarkMain
+{
+  static final String DEFAULT_RESULT_FORMAT = "json";
+
+  static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  private BenchmarkMain() {
+    // no instances
+  }
+
+  public static void main(final String[] args) throws Exception {
+    List<String> options = new ArrayList<>(Arrays.asList(args));
+    if (!options.contains("-rf")) {
+      options.add(0, DEFAULT_RESULT_FORMAT);
+      options.add(0, "-rf");
+    }
+    if (!options.contains("-rff")) {
+      options.add(0, DEFAULT_RESULT_FILE);
+      options.add(0, "-rff");
+    }
+    org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+  }
+}
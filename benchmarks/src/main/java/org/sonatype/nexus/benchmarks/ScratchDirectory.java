@@ -0,0 +1,55 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Locates scratch space for benchmarks which touch the filesystem.
+ *
+ * Prefers the tmpfs mounted at {@code /dev/shm} so results reflect the code rather than the disk; set
+ * {@code nexus.benchmarks.dir} to measure against a particular filesystem instead.
+ *
+ * @since 3.31
+ */
+public final class ScratchDirectory
+{
+  public static final String DIRECTORY_PROPERTY = "nexus.benchmarks.dir";
+
+  private static final Path TMPFS = Paths.get("/dev/shm");
+
+  private ScratchDirectory() {
+    // no instances
+  }
+
+  /**
+   * Creates a new empty directory under the scratch space; callers are expected to delete it when done.
+   */
+  public static Path create(final String prefix) throws IOException {
+    String configured = System.getProperty(DIRECTORY_PROPERTY);
+    Path parent;
+    if (configured != null) {
+      parent = Files.createDirectories(Paths.get(configured));
+    }
+    else if (Files.isDirectory(TMPFS) && Files.isWritable(TMPFS)) {
+      parent = TMPFS;
+    }
+    else {
+      parent = Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+    return Files.createTempDirectory(parent, prefix);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.benchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sonatype.nexus.repository.Format;
+import org.sonatype.nexus.repository.Repository;
+
+import com.google.common.base.Defaults;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Minimal in-memory stand-ins for the collaborators of benchmarked code, so benchmarks run without a container.
+ *
+ * @since 3.31
+ */
+public final class Stubs
+{
+  private Stubs() {
+    // no instances
+  }
+
+  /**
+   * Returns an implementation of the given interface which answers the named methods with the given values, whatever
+   * their arguments, and every other method with the default value of its return type.
+   *
+   * @param answers pairs of method name and value
+   */
+  public static <T> T stub(final Class<T> type, final Object... answers) {
+    checkArgument(answers.length % 2 == 0, "Expected pairs of method name and value");
+    Map<String, Object> answersByName = new HashMap<>();
+    for (int i = 0; i < answers.length; i += 2) {
+      answersByName.put((String) answers[i], answers[i + 1]);
+    }
+    String description = "stub " + type.getSimpleName();
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+        (proxy, method, args) -> answer(proxy, method, args, answersByName, description)));
+  }
+
+  /**
+   * Returns a {@link Repository} that only knows its name and format.
+   */
+  public static Repository repository(final String name, final String format) {
+    return stub(Repository.class, "getName", name, "getFormat", new Format(format) { });
+  }
+
+  private static Object answer(
+      final Object proxy,
+      final Method method,
+      final Object[] args,
+      final Map<String, Object> answers,
+      final String description)
+  {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "toString":
+        return answers.getOrDefault("toString", description);
+      default:
+        return answers.containsKey(method.getName())
+            ? answers.get(method.getName())
+            : Defaults.defaultValue(method.getReturnType());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.benchmarks.ScratchDirectory;
+import org.sonatype.nexus.benchmarks.Stubs;
+import org.sonatype.nexus.blobstore.BlobStoreReconciliationLogger;
+import org.sonatype.nexus.blobstore.DefaultBlobIdLocationResolver;
+import org.sonatype.nexus.blobstore.MockBlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.file.internal.FileBlobStoreMetricsStore;
+import org.sonatype.nexus.blobstore.file.internal.SimpleFileOperations;
+import org.sonatype.nexus.blobstore.quota.BlobStoreQuotaService;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+import org.sonatype.nexus.common.io.DirectoryHelper;
+import org.sonatype.nexus.common.log.DryRunPrefix;
+import org.sonatype.nexus.common.node.NodeAccess;
+import org.sonatype.nexus.scheduling.internal.PeriodicJobServiceImpl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_NAME_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.CREATED_BY_HEADER;
+
+/**
+ * Create, get and delete of blobs in a {@link FileBlobStore} on scratch space, see {@link ScratchDirectory}.
+ *
+ * @since 3.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class FileBlobStoreBenchmark
+{
+  private static final int STORED_BLOBS = 1000;
+
+  private static final Map<String, String> HEADERS = ImmutableMap.of(
+      CREATED_BY_HEADER, "benchmark",
+      BLOB_NAME_HEADER, "org/example/example.bin");
+
+  @Param({"4096", "1048576"})
+  public int size;
+
+  private Path directory;
+
+  private FileBlobStore blobStore;
+
+  private byte[] content;
+
+  private BlobId[] stored;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    directory = ScratchDirectory.create("file-blobstore-");
+
+    NodeAccess nodeAccess = Stubs.stub(NodeAccess.class,
+        "getId", UUID.randomUUID().toString(), "isOldestNode", true);
+    ApplicationDirectories applicationDirectories = Stubs.stub(ApplicationDirectories.class,
+        "getWorkDirectory", directory.toFile());
+    SimpleFileOperations fileOperations = new SimpleFileOperations();
+
+    FileBlobStoreMetricsStore metricsStore = new FileBlobStoreMetricsStore(new PeriodicJobServiceImpl(), nodeAccess,
+        Stubs.stub(BlobStoreQuotaService.class), 60, fileOperations);
+
+    BlobStoreConfiguration configuration = new MockBlobStoreConfiguration();
+    configuration.setName("benchmark");
+    configuration.attributes(FileBlobStore.CONFIG_KEY).set(FileBlobStore.PATH_KEY, directory.toString());
+
+    blobStore = new FileBlobStore(new DefaultBlobIdLocationResolver(), fileOperations, applicationDirectories,
+        metricsStore, nodeAccess, new DryRunPrefix(""), new BlobStoreReconciliationLogger(applicationDirectories));
+    blobStore.init(configuration);
+    blobStore.start();
+
+    content = new byte[size];
+    new Random(size).nextBytes(content);
+
+    stored = new BlobId[STORED_BLOBS];
+    for (int i = 0; i < STORED_BLOBS; i++) {
+      stored[i] = blobStore.create(new ByteArrayInputStream(content), HEADERS).getId();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    try {
+      blobStore.stop();
+    }
+    finally {
+      DirectoryHelper.delete(directory);
+    }
+  }
+
+  /**
+   * Blobs are deleted straight away so the store stays the same size however many operations are measured.
+   */
+  @Benchmark
+  public boolean createThenDelete() {
+    Blob blob = blobStore.create(new ByteArrayInputStream(content), HEADERS);
+    return blobStore.deleteHard(blob.getId());
+  }
+
+  @Benchmark
+  public long get(final Cursor cursor) throws IOException {
+    Blob blob = blobStore.get(stored[cursor.next(STORED_BLOBS)]);
+    try (InputStream in = blob.getInputStream()) {
+      return ByteStreams.exhaust(in);
+    }
+  }
+
+  /**
+   * Per-thread position in the stored blobs.
+   */
+  @State(Scope.Thread)
+  public static class Cursor
+  {
+    private int position = new Random().nextInt(STORED_BLOBS);
+
+    int next(final int bound) {
+      position = (position + 1) % bound;
+      return position;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.hash;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.sonatype.nexus.common.hash.HashAlgorithm.MD5;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA1;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA256;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA512;
+
+/**
+ * Hashing of uploaded content with the digests stored for every blob, through {@link MultiHashingInputStream} and
+ * {@link ParallelMultiHasher} against updating one Guava {@link Hasher} per digest in turn.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiHashingBenchmark
+{
+  private static final List<HashAlgorithm> ALGORITHMS = ImmutableList.of(MD5, SHA1, SHA256, SHA512);
+
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  @Param({"16384", "1048576", "16777216"})
+  public int size;
+
+  private byte[] content;
+
+  private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+  @Setup
+  public void setUp() {
+    content = new byte[size];
+    new Random(size).nextBytes(content);
+  }
+
+  @Benchmark
+  public Map<HashAlgorithm, HashCode> multiHashingInputStream() throws IOException {
+    try (MultiHashingInputStream in = new MultiHashingInputStream(ALGORITHMS, new ByteArrayInputStream(content))) {
+      while (in.read(buffer) >= 0) {
+        // consume
+      }
+      return in.hashes();
+    }
+  }
+
+  @Benchmark
+  public Map<HashAlgorithm, HashCode> parallelMultiHasher() {
+    ParallelMultiHasher hasher = new ParallelMultiHasher(ALGORITHMS);
+    for (int off = 0; off < content.length; off += READ_BUFFER_SIZE) {
+      hasher.update(content, off, Math.min(READ_BUFFER_SIZE, content.length - off));
+    }
+    try {
+      return hasher.hashes();
+    }
+    finally {
+      hasher.release();
+    }
+  }
+
+  @Benchmark
+  public HashCode[] sequentialHashers() {
+    Hasher[] hashers = new Hasher[ALGORITHMS.size()];
+    for (int i = 0; i < hashers.length; i++) {
+      hashers[i] = ALGORITHMS.get(i).function().newHasher();
+    }
+    for (int off = 0; off < content.length; off += READ_BUFFER_SIZE) {
+      int len = Math.min(READ_BUFFER_SIZE, content.length - off);
+      for (Hasher hasher : hashers) {
+        hasher.putBytes(content, off, len);
+      }
+    }
+    HashCode[] hashes = new HashCode[hashers.length];
+    for (int i = 0; i < hashers.length; i++) {
+      hashes[i] = hashers[i].hash();
+    }
+    return hashes;
+  }
+}
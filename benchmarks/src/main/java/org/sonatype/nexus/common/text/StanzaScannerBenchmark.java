@@ -0,0 +1,94 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.text;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Scanning of a large stanza file, such as an APT {@code Packages} or R {@code PACKAGES} index, with and without a
+ * projection of the fields of interest.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StanzaScannerBenchmark
+{
+  private static final Collection<String> PROJECTION = ImmutableList.of("Package", "Version");
+
+  @Param({"10000"})
+  public int stanzas;
+
+  private byte[] content;
+
+  @Setup
+  public void setUp() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < stanzas; i++) {
+      text.append("Package: package-").append(i).append('\n')
+          .append("Version: 1.").append(i).append("-1\n")
+          .append("Architecture: amd64\n")
+          .append("Depends: libc6 (>= 2.17), libssl1.1 (>= 1.1.0)\n")
+          .append("Description: example package ").append(i).append('\n')
+          .append(" A longer description of the package which continues\n")
+          .append(" over several lines, as most descriptions do.\n")
+          .append("SHA256: d7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592\n")
+          .append('\n');
+    }
+    content = text.toString().getBytes(UTF_8);
+  }
+
+  @Benchmark
+  public long scanAll() throws IOException {
+    return scan(null);
+  }
+
+  @Benchmark
+  public long scanProjected() throws IOException {
+    return scan(PROJECTION);
+  }
+
+  private long scan(final Collection<String> fields) throws IOException {
+    long values = 0;
+    try (StanzaScanner scanner = new StanzaScanner(new ByteArrayInputStream(content), fields)) {
+      while (scanner.next()) {
+        for (int i = 0; i < scanner.size(); i++) {
+          values += scanner.value(i).length();
+        }
+      }
+    }
+    return values;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.content.maven.internal.recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.content.maven.store.GAV;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Working out which {@code maven-metadata.xml} files to delete or rebuild after a bulk delete of components, with
+ * {@link MavenMetadataReconciliation}, from the deleted coordinates and the GAVs remaining in their namespaces.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenMetadataReconciliationBenchmark
+{
+  private static final int ARTIFACTS_PER_GROUP = 10;
+
+  private static final int VERSIONS_PER_ARTIFACT = 20;
+
+  @Param({"100", "10000"})
+  public int deleted;
+
+  private Collection<List<String>> deletedGabvs;
+
+  private Collection<GAV> remainingGavs;
+
+  @Setup
+  public void setUp() {
+    // delete every other version, so some artifacts keep versions and others disappear altogether
+    deletedGabvs = new ArrayList<>(deleted);
+    remainingGavs = new ArrayList<>();
+    int component = 0;
+    for (int g = 0; deletedGabvs.size() < deleted; g++) {
+      for (int a = 0; a < ARTIFACTS_PER_GROUP && deletedGabvs.size() < deleted; a++) {
+        for (int v = 0; v < VERSIONS_PER_ARTIFACT && deletedGabvs.size() < deleted; v++, component++) {
+          String group = "org.example.group" + g;
+          String artifact = "artifact" + a;
+          String version = "1." + v;
+          if (a % 3 == 0 || component % 2 == 0) {
+            deletedGabvs.add(Arrays.asList(group, artifact, version));
+          }
+          else {
+            remainingGavs.add(new GAV(group, artifact, version, 1));
+          }
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public MavenMetadataReconciliation reconcile() {
+    return MavenMetadataReconciliation.reconcile(deletedGabvs, remainingGavs);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.datastore.mybatis.handlers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.common.collect.NestedAttributesMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round-trips of asset attributes through {@link AttributesTypeHandler} to and from a JSON column of an in-memory
+ * H2 database, as done whenever content metadata is stored or fetched.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributesTypeHandlerBenchmark
+{
+  /**
+   * Number of format-specific attributes, in addition to the usual checksum and content attributes.
+   */
+  @Param({"8", "128"})
+  public int formatAttributes;
+
+  private final AttributesTypeHandler handler = new AttributesTypeHandler();
+
+  private Connection connection;
+
+  private PreparedStatement update;
+
+  private PreparedStatement select;
+
+  private Map<String, ?> attributes;
+
+  @Setup
+  public void setUp() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:attributes-" + formatAttributes);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE asset (asset_id INT PRIMARY KEY, attributes JSON NOT NULL)");
+    }
+
+    NestedAttributesMap nested = new NestedAttributesMap();
+    nested.child("checksum").set("sha1", "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12");
+    nested.child("checksum").set("sha256", "d7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592");
+    nested.child("checksum").set("md5", "9e107d9d372bb6826bd81d3542a419d6");
+    nested.child("content").set("last_modified", System.currentTimeMillis());
+    nested.child("content").set("etag", "W/\"5c4e1f7a\"");
+    NestedAttributesMap format = nested.child("maven2");
+    for (int i = 0; i < formatAttributes; i++) {
+      format.set("attribute" + i, i % 2 == 0 ? "value-" + i : Arrays.asList("a" + i, "b" + i));
+    }
+    attributes = nested.backing();
+
+    try (PreparedStatement insert = connection.prepareStatement("INSERT INTO asset VALUES (1, ?)")) {
+      handler.setParameter(insert, 1, attributes, null);
+      insert.executeUpdate();
+    }
+    update = connection.prepareStatement("UPDATE asset SET attributes = ? WHERE asset_id = 1");
+    select = connection.prepareStatement("SELECT attributes FROM asset WHERE asset_id = 1");
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  @Benchmark
+  public int write() throws SQLException {
+    handler.setParameter(update, 1, attributes, null);
+    return update.executeUpdate();
+  }
+
+  @Benchmark
+  public Map<String, ?> read() throws SQLException {
+    try (ResultSet resultSet = select.executeQuery()) {
+      resultSet.next();
+      return handler.getResult(resultSet, "attributes");
+    }
+  }
+}
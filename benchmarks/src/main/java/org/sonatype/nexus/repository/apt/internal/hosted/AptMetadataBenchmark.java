@@ -0,0 +1,137 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.apt.internal.hosted;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.repository.apt.internal.debian.ControlFile;
+import org.sonatype.nexus.repository.apt.internal.debian.ControlFileParser;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generation of APT hosted metadata: writing the per-architecture {@code Packages} indexes, plain and compressed,
+ * from the stored index sections of each package, and parsing a {@code Packages} file back as done when merging.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AptMetadataBenchmark
+{
+  private static final String[] ARCHITECTURES = {"amd64", "arm64", "i386", "all"};
+
+  @Param({"100", "5000"})
+  public int packages;
+
+  private final ControlFileParser parser = new ControlFileParser();
+
+  private String[] sections;
+
+  private String[] architectures;
+
+  private byte[] packagesFile;
+
+  @Setup
+  public void setUp() {
+    sections = new String[packages];
+    architectures = new String[packages];
+    StringBuilder packagesText = new StringBuilder();
+    for (int i = 0; i < packages; i++) {
+      architectures[i] = ARCHITECTURES[i % ARCHITECTURES.length];
+      sections[i] = indexSection("package-" + i, "1." + i + "-1", architectures[i]);
+      packagesText.append(sections[i]).append("\n\n");
+    }
+    packagesFile = packagesText.toString().getBytes(UTF_8);
+  }
+
+  /**
+   * Same steps as rebuilding the indexes of a hosted repository, minus fetching the sections from the database.
+   */
+  @Benchmark
+  public long buildPackageIndexes() throws IOException {
+    long size = 0;
+    try (CompressingTempFileStore store = new CompressingTempFileStore()) {
+      Map<String, Writer> writers = new HashMap<>();
+      try {
+        for (int i = 0; i < packages; i++) {
+          Writer writer = writers.computeIfAbsent(architectures[i], store::openOutput);
+          writer.write(sections[i]);
+          writer.write("\n\n");
+        }
+      }
+      finally {
+        for (Writer writer : writers.values()) {
+          writer.close();
+        }
+      }
+      for (CompressingTempFileStore.FileMetadata metadata : store.getFiles().values()) {
+        size += metadata.gzSize() + metadata.bzSize() + metadata.plainSize();
+      }
+    }
+    return size;
+  }
+
+  @Benchmark
+  public ControlFile parsePackages() throws IOException {
+    return parser.parseControlFile(new ByteArrayInputStream(packagesFile));
+  }
+
+  @Benchmark
+  public ControlFile parsePackagesProjected() throws IOException {
+    return parser.parseControlFile(new ByteArrayInputStream(packagesFile),
+        ImmutableList.of("Package", "Version", "Architecture"));
+  }
+
+  private static String indexSection(final String name, final String version, final String architecture) {
+    return "Package: " + name + "\n" +
+        "Version: " + version + "\n" +
+        "Architecture: " + architecture + "\n" +
+        "Maintainer: Example Maintainers <maintainers@example.org>\n" +
+        "Installed-Size: 1024\n" +
+        "Depends: libc6 (>= 2.17), libssl1.1 (>= 1.1.0)\n" +
+        "Section: utils\n" +
+        "Priority: optional\n" +
+        "Homepage: https://example.org/" + name + "\n" +
+        "Description: example package " + name + "\n" +
+        " A longer description of the package which continues\n" +
+        " over several lines, as most descriptions do.\n" +
+        "Filename: pool/" + name.charAt(0) + "/" + name + "/" + name + "_" + version + "_" + architecture + ".deb\n" +
+        "Size: 123456\n" +
+        "MD5sum: 9e107d9d372bb6826bd81d3542a419d6\n" +
+        "SHA1: 2fd4e1c67a2d28fced849ee1bb76e7391b93eb12\n" +
+        "SHA256: d7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592";
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.utils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tracking of pending ids by concurrent writers with {@link PendingIds}, against sets of boxed ids per key, and with
+ * a flusher draining pages of ids while writers keep adding.
+ *
+ * @since 3.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PendingIdsBenchmark
+{
+  private static final String[] KEYS = {"maven-releases", "maven-snapshots", "npm-hosted", "raw-hosted"};
+
+  private static final int MAX_PENDING = 100_000;
+
+  private static final int PAGE_SIZE = 1000;
+
+  private final PendingIds<String> pendingIds = new PendingIds<>(MAX_PENDING);
+
+  private final ConcurrentMap<String, Set<Integer>> boxedIds = new ConcurrentHashMap<>();
+
+  @Benchmark
+  @Threads(4)
+  public boolean addThenRemove(final Writer writer) {
+    int id = writer.nextId();
+    String key = KEYS[id & (KEYS.length - 1)];
+    pendingIds.add(key, id);
+    return pendingIds.remove(key, id);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean addThenRemoveBoxed(final Writer writer) {
+    int id = writer.nextId();
+    Set<Integer> ids = boxedIds.computeIfAbsent(KEYS[id & (KEYS.length - 1)], key -> ConcurrentHashMap.newKeySet());
+    ids.add(id);
+    return ids.remove(id);
+  }
+
+  /**
+   * Writers add ids and flush themselves only when over capacity, as callers of {@link PendingIds} do.
+   */
+  @Benchmark
+  @Group("flush")
+  @GroupThreads(3)
+  public boolean add(final Writer writer) {
+    if (pendingIds.isOverCapacity()) {
+      pendingIds.drain(PAGE_SIZE);
+    }
+    int id = writer.nextId();
+    return pendingIds.add(KEYS[id & (KEYS.length - 1)], id);
+  }
+
+  @Benchmark
+  @Group("flush")
+  @GroupThreads(1)
+  public Map<String, int[]> drain() {
+    return pendingIds.drain(PAGE_SIZE);
+  }
+
+  /**
+   * Hands each thread its own range of ids, which are positive as database ids are.
+   */
+  @State(Scope.Thread)
+  public static class Writer
+  {
+    private static final AtomicInteger RANGES = new AtomicInteger();
+
+    private final int base = RANGES.incrementAndGet() << 24;
+
+    private int next;
+
+    int nextId() {
+      next = (next + 1) & 0xFFFFFF;
+      return base | (next == 0 ? ++next : next);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.golang.internal.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building and updating the cached version index of a go module with many versions, and answering {@code @v/list}
+ * and {@code @latest} from it.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GolangModuleVersionsBenchmark
+{
+  @Param({"100", "10000"})
+  public int versions;
+
+  private List<String> shuffled;
+
+  private GolangModuleVersions index;
+
+  private String added;
+
+  private String removed;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(versions);
+    shuffled = new ArrayList<>(versions);
+    for (int i = 0; i < versions; i++) {
+      int major = i / 1000;
+      int minor = (i / 10) % 100;
+      int patch = i % 10;
+      switch (random.nextInt(10)) {
+        case 0:
+          shuffled.add(String.format("v%d.%d.%d-rc.%d", major, minor, patch, random.nextInt(5)));
+          break;
+        case 1:
+          shuffled.add(String.format("v%d.%d.%d-0.2021%08d-abcdef%06d", major, minor, patch, i, i));
+          break;
+        default:
+          shuffled.add(String.format("v%d.%d.%d", major, minor, patch));
+      }
+    }
+    Collections.shuffle(shuffled, random);
+    index = GolangModuleVersions.of(shuffled);
+    added = "v999.0.0";
+    removed = shuffled.get(versions / 2);
+  }
+
+  @Benchmark
+  public GolangModuleVersions build() {
+    return GolangModuleVersions.of(shuffled);
+  }
+
+  @Benchmark
+  public GolangModuleVersions addVersion() {
+    return index.with(added);
+  }
+
+  @Benchmark
+  public GolangModuleVersions removeVersion() {
+    return index.without(removed);
+  }
+
+  /**
+   * Serving {@code @v/list} and {@code @latest} right after an upload, before the list body has been cached.
+   */
+  @Benchmark
+  public byte[] listAfterUpload() {
+    GolangModuleVersions updated = index.with(added);
+    updated.getLatest();
+    return updated.getList();
+  }
+}
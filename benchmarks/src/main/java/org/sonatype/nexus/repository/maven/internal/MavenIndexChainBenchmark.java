@@ -0,0 +1,148 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.maven.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.repository.maven.internal.MavenIndexChain.PublishedIndex;
+
+import org.apache.maven.index.reader.WritableResourceHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Publishing a Maven index with {@link MavenIndexChain}, both as a new chain and as an increment on top of a previous
+ * publish in which a small share of the artifacts changed.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MavenIndexChainBenchmark
+{
+  private static final String INDEX_ID = "maven-releases";
+
+  private static final int MAX_INCREMENTS = 30;
+
+  @Param({"10000", "100000"})
+  public int artifacts;
+
+  private List<Map<String, String>> records;
+
+  private Map<String, byte[]> published;
+
+  @Setup
+  public void setUp() throws IOException {
+    List<Map<String, String>> previousRecords = new ArrayList<>(artifacts);
+    records = new ArrayList<>(artifacts);
+    for (int i = 0; i < artifacts; i++) {
+      previousRecords.add(artifact(i, "1"));
+      // one percent of the artifacts changed since the previous publish
+      records.add(artifact(i, i % 100 == 0 ? "2" : "1"));
+    }
+    MemoryResourceHandler resourceHandler = new MemoryResourceHandler(new HashMap<>());
+    MavenIndexChain.write(resourceHandler, INDEX_ID, null, previousRecords.iterator(), new Date(), MAX_INCREMENTS,
+        emptyMap());
+    published = resourceHandler.files;
+  }
+
+  @Benchmark
+  public Set<String> publishFull() throws IOException {
+    return MavenIndexChain.write(new MemoryResourceHandler(new HashMap<>()), INDEX_ID, null, records.iterator(),
+        new Date(), MAX_INCREMENTS, emptyMap());
+  }
+
+  @Benchmark
+  public Set<String> publishIncrement() throws IOException {
+    MemoryResourceHandler resourceHandler = new MemoryResourceHandler(new HashMap<>(published));
+    PublishedIndex previous = MavenIndexChain.read(resourceHandler, INDEX_ID);
+    return MavenIndexChain.write(resourceHandler, INDEX_ID, previous, records.iterator(), new Date(), MAX_INCREMENTS,
+        emptyMap());
+  }
+
+  private static Map<String, String> artifact(final int i, final String modified) {
+    Map<String, String> record = new HashMap<>();
+    record.put("u", MavenIndexChain.uinfo("org.example.group" + i / 50, "artifact" + i % 50, "1.0", null, "jar"));
+    record.put("i", "jar|0|0|0|0|0|jar");
+    record.put("m", modified);
+    return record;
+  }
+
+  private static class MemoryResourceHandler
+      implements WritableResourceHandler
+  {
+    private final Map<String, byte[]> files;
+
+    MemoryResourceHandler(final Map<String, byte[]> files) {
+      this.files = files;
+    }
+
+    @Override
+    public WritableResource locate(final String name) {
+      return new WritableResource()
+      {
+        private ByteArrayOutputStream out;
+
+        @Override
+        public InputStream read() {
+          byte[] bytes = files.get(name);
+          return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        }
+
+        @Override
+        public OutputStream write() {
+          out = new ByteArrayOutputStream();
+          return out;
+        }
+
+        @Override
+        public void close() {
+          if (out != null) {
+            files.put(name, out.toByteArray());
+          }
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      // nop
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.maven.internal.group;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.benchmarks.Stubs;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.maven.MavenPath;
+import org.sonatype.nexus.repository.maven.internal.Maven2MavenPathParser;
+import org.sonatype.nexus.repository.maven.internal.MavenModels;
+import org.sonatype.nexus.repository.maven.internal.group.RepositoryMetadataMerger.Envelope;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merging of group members' {@code maven-metadata.xml}, both on the parsed model and end-to-end from member content
+ * to the serialised result. Members share most versions, as members proxying the same upstream do.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryMetadataMergerBenchmark
+{
+  private static final String METADATA_PATH = "org/example/example/maven-metadata.xml";
+
+  @Param({"2", "8"})
+  public int members;
+
+  @Param({"100", "1000"})
+  public int versions;
+
+  private final RepositoryMetadataMerger merger = new RepositoryMetadataMerger();
+
+  private final MavenPath mavenPath = new Maven2MavenPathParser().parsePath(METADATA_PATH);
+
+  private List<Envelope> envelopes;
+
+  private Map<Repository, Content> contents;
+
+  @Setup
+  public void setUp() throws IOException {
+    envelopes = new ArrayList<>(members);
+    contents = new LinkedHashMap<>();
+    for (int member = 0; member < members; member++) {
+      Metadata metadata = metadata(member);
+      envelopes.add(new Envelope("member-" + member, metadata));
+
+      ByteArrayOutputStream xml = new ByteArrayOutputStream();
+      MavenModels.writeMetadata(xml, metadata);
+      contents.put(Stubs.repository("member-" + member, "maven2"),
+          new Content(new BytesPayload(xml.toByteArray(), "application/xml")));
+    }
+  }
+
+  @Benchmark
+  public Metadata mergeModel() {
+    return merger.merge(envelopes);
+  }
+
+  @Benchmark
+  public byte[] mergeXml() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    merger.merge(out, mavenPath, contents);
+    return out.toByteArray();
+  }
+
+  /**
+   * Each member holds the same run of versions shifted by a few, so merging adds some and deduplicates the rest.
+   */
+  private Metadata metadata(final int member) {
+    Versioning versioning = new Versioning();
+    for (int i = 0; i < versions; i++) {
+      int version = i + member * 5;
+      versioning.addVersion(String.format("%d.%d.%d", version / 100, (version / 10) % 10, version % 10));
+    }
+    versioning.setLastUpdated(String.format("2021%02d01000000", member % 12 + 1));
+    Metadata metadata = new Metadata();
+    metadata.setGroupId("org.example");
+    metadata.setArtifactId("example");
+    metadata.setVersioning(versioning);
+    return metadata;
+  }
+}
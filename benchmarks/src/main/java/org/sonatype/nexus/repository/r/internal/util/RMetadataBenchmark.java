@@ -0,0 +1,146 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.r.internal.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.sonatype.nexus.repository.view.Content;
+
+import com.google.common.io.ByteStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.sonatype.nexus.repository.r.internal.RAttributes.P_DEPENDS;
+import static org.sonatype.nexus.repository.r.internal.RAttributes.P_IMPORTS;
+import static org.sonatype.nexus.repository.r.internal.RAttributes.P_LICENSE;
+import static org.sonatype.nexus.repository.r.internal.RAttributes.P_NEEDS_COMPILATION;
+import static org.sonatype.nexus.repository.r.internal.RAttributes.P_PACKAGE;
+import static org.sonatype.nexus.repository.r.internal.RAttributes.P_VERSION;
+
+/**
+ * Generation of R {@code PACKAGES.gz} metadata with {@link RPackagesUtils}: parsing, building and the sorted merge of
+ * group members' files.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RMetadataBenchmark
+{
+  private static final int MEMBERS = 3;
+
+  @Param({"1000", "20000"})
+  public int packages;
+
+  private List<Map<String, String>> entries;
+
+  private byte[] packagesFile;
+
+  private byte[][] memberFiles;
+
+  @Setup
+  public void setUp() throws IOException {
+    entries = new ArrayList<>(packages);
+    for (int i = 0; i < packages; i++) {
+      entries.add(entry(String.format("pkg%06d", i), "1.0." + i));
+    }
+    packagesFile = write(entries);
+
+    // members hold overlapping slices of the same sorted package list
+    memberFiles = new byte[MEMBERS][];
+    for (int member = 0; member < MEMBERS; member++) {
+      List<Map<String, String>> slice = new ArrayList<>();
+      for (int i = member; i < packages; i += 2) {
+        slice.add(entries.get(i));
+      }
+      memberFiles[member] = write(slice);
+    }
+  }
+
+  @Benchmark
+  public List<Map<String, String>> parse() {
+    return RPackagesUtils.parseMetadata(new ByteArrayInputStream(packagesFile));
+  }
+
+  @Benchmark
+  public long build() throws IOException {
+    Content content = RPackagesUtils.buildPackages(entries);
+    return content.getSize();
+  }
+
+  @Benchmark
+  public long mergeMembers() throws IOException {
+    List<RPackagesReader> readers = new ArrayList<>(MEMBERS);
+    for (byte[] memberFile : memberFiles) {
+      readers.add(new RPackagesReader(new ByteArrayInputStream(memberFile), RPackagesUtils.PACKAGE_FIELDS));
+    }
+    try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(ByteStreams.nullOutputStream()), UTF_8)) {
+      long count = 0;
+      for (Iterator<Map<String, String>> merged = RPackagesUtils.mergeSorted(readers); merged.hasNext(); count++) {
+        RPackagesUtils.writePackageInfo(writer, merged.next());
+      }
+      return count;
+    }
+    finally {
+      for (RPackagesReader reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  private static Map<String, String> entry(final String name, final String version) {
+    Map<String, String> entry = new LinkedHashMap<>();
+    entry.put(P_PACKAGE, name);
+    entry.put(P_VERSION, version);
+    entry.put(P_DEPENDS, "R (>= 3.5.0)");
+    entry.put(P_IMPORTS, "methods, stats, utils");
+    entry.put(P_LICENSE, "GPL-3");
+    entry.put(P_NEEDS_COMPILATION, "no");
+    return entry;
+  }
+
+  private static byte[] write(final List<Map<String, String>> entries) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (Writer writer = new OutputStreamWriter(out, UTF_8)) {
+      for (Map<String, String> entry : entries) {
+        RPackagesUtils.writePackageInfo(writer, entry);
+      }
+    }
+    return out.toByteArray();
+  }
+}
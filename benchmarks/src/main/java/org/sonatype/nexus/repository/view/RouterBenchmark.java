@@ -0,0 +1,133 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.benchmarks.Stubs;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.golang.internal.GolangRecipeSupport;
+import org.sonatype.nexus.repository.r.internal.RRecipeSupport;
+import org.sonatype.nexus.repository.r.internal.hosted.RHostedRecipe;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+import static org.sonatype.nexus.repository.http.HttpMethods.PUT;
+
+/**
+ * Dispatch of a mix of requests through the routes of real hosted recipes, in the order those recipes register them.
+ * Handlers answer immediately so only matching and context setup are measured.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark
+{
+  private static final Response OK = new Response.Builder().status(Status.success(200)).build();
+
+  private static final Response NOT_FOUND = new Response.Builder().status(Status.failure(404)).build();
+
+  private static final Handler OK_HANDLER = context -> OK;
+
+  private static final Handler NOT_FOUND_HANDLER = context -> NOT_FOUND;
+
+  @Param({"go", "r", "raw"})
+  public String format;
+
+  private Repository repository;
+
+  private Router router;
+
+  private Request[] requests;
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Router.Builder builder = new Router.Builder();
+    List<Request> mix = new ArrayList<>();
+    switch (format) {
+      case "go":
+        for (Matcher matcher : new Matcher[]{
+            GolangRecipeSupport.infoMatcher(), GolangRecipeSupport.listMatcher(), GolangRecipeSupport.latestMatcher(),
+            GolangRecipeSupport.packageMatcher(), GolangRecipeSupport.moduleMatcher(),
+            GolangRecipeSupport.uploadMatcher()}) {
+          builder.route(route(new Route.Builder().matcher(matcher)));
+        }
+        mix.add(request(GET, "/github.com/sonatype/example/@v/v1.2.3.info"));
+        mix.add(request(GET, "/github.com/sonatype/example/@v/list"));
+        mix.add(request(GET, "/github.com/sonatype/example/@latest"));
+        mix.add(request(GET, "/github.com/sonatype/example/@v/v1.2.3.zip"));
+        mix.add(request(GET, "/github.com/sonatype/example/@v/v1.2.3.mod"));
+        mix.add(request(PUT, "/github.com/sonatype/example/@v/v1.2.4.zip"));
+        mix.add(request(GET, "/github.com/sonatype/example"));
+        break;
+      case "r":
+        builder.route(route(RHostedRecipe.packagesGzMatcher()));
+        builder.route(route(RRecipeSupport.archiveMatcher()));
+        builder.route(route(RRecipeSupport.uploadMatcher()));
+        builder.route(route(RHostedRecipe.notSupportedMetadataMatcher()));
+        mix.add(request(GET, "/src/contrib/PACKAGES.gz"));
+        mix.add(request(GET, "/src/contrib/example_1.0.0.tar.gz"));
+        mix.add(request(PUT, "/src/contrib/example_1.0.1.tar.gz"));
+        mix.add(request(GET, "/src/contrib/PACKAGES"));
+        mix.add(request(GET, "/src/contrib/"));
+        break;
+      case "raw":
+        builder.route(route(new Route.Builder().matcher(new TokenMatcher("{path:/.+}"))));
+        mix.add(request(GET, "/org/example/file.txt"));
+        mix.add(request(PUT, "/org/example/file.txt"));
+        mix.add(request(GET, "/"));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown format: " + format);
+    }
+    router = builder.defaultHandlers(NOT_FOUND_HANDLER).create();
+    repository = Stubs.repository("benchmark-" + format, format);
+    requests = mix.toArray(new Request[0]);
+  }
+
+  @Benchmark
+  public Response dispatch() throws Exception {
+    Request request = requests[next];
+    next = (next + 1) % requests.length;
+    return router.dispatch(repository, request, null);
+  }
+
+  private static Route route(final Route.Builder builder) {
+    return builder.handler(OK_HANDLER).create();
+  }
+
+  private static Request request(final String action, final String path) {
+    return new Request.Builder().action(action).path(path).build();
+  }
+}
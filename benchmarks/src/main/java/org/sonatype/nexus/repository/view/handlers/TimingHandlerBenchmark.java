@@ -0,0 +1,104 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view.handlers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.benchmarks.Stubs;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.view.DefaultRoute;
+import org.sonatype.nexus.repository.view.Handler;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.Route;
+import org.sonatype.nexus.repository.view.Router;
+import org.sonatype.nexus.repository.view.Status;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+
+import com.codahale.metrics.MetricRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.util.Collections.singletonList;
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+
+/**
+ * Overhead of {@link TimingHandler} and {@link RequestMetrics} on a single-route dispatch; the difference between
+ * {@code none} and {@code metrics} is what every request pays for per-route metrics and should stay well under a microsecond.
+ *
+ * @since 3.31
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TimingHandlerBenchmark
+{
+  private static final Response OK = new Response.Builder().status(Status.success(200)).build();
+
+  private static final Handler OK_HANDLER = context -> OK;
+
+  private static final Handler NOT_FOUND_HANDLER =
+      context -> new Response.Builder().status(Status.failure(404)).build();
+
+  /**
+   * {@code none} dispatches without a timing handler, {@code timing} only times the request and {@code metrics} also
+   * records per-route request metrics.
+   */
+  @Param({"none", "timing", "metrics"})
+  public String mode;
+
+  private final Repository repository = Stubs.repository("benchmark-raw", "raw");
+
+  private final Request request = new Request.Builder().action(GET).path("/org/example/file.txt").build();
+
+  private Router router;
+
+  @Setup
+  public void setUp() {
+    Route.Builder route = new Route.Builder().name("content").matcher(new TokenMatcher("{path:/.+}"));
+    switch (mode) {
+      case "none":
+        break;
+      case "timing":
+        route.handler(new TimingHandler(null, null));
+        break;
+      case "metrics":
+        route.handler(new TimingHandler(null, new RequestMetrics(new MetricRegistry(), true, Time.seconds(60))));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mode: " + mode);
+    }
+    router = new Router(singletonList(route.handler(OK_HANDLER).create()),
+        new DefaultRoute(singletonList(NOT_FOUND_HANDLER)));
+  }
+
+  @Benchmark
+  public Response dispatch() throws Exception {
+    return router.dispatch(repository, request, null);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view.matchers.token;
+
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.benchmarks.Stubs;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+
+/**
+ * Parsing of {@link TokenMatcher} patterns, as done when recipes are configured, and matching of request paths against
+ * them, as done on every request.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenMatcherBenchmark
+{
+  /**
+   * Pairs of pattern and matching path taken from the raw, golang and maven-style layouts.
+   */
+  @Param({
+      "{path:/.+}|/org/example/file.txt",
+      "/{module:.+}/@v/{version:.+}.{extension:zip}|/github.com/sonatype/example/@v/v1.2.3.zip",
+      "/{path:.+}/{name}-{version}.{extension}|/org/sonatype/example/example-1.2.3.jar"
+  })
+  public String patternAndPath;
+
+  private String pattern;
+
+  private TokenMatcher matcher;
+
+  private Context context;
+
+  @Setup
+  public void setUp() {
+    int split = patternAndPath.indexOf('|');
+    pattern = patternAndPath.substring(0, split);
+    matcher = new TokenMatcher(pattern);
+    Repository repository = Stubs.repository("benchmark", "raw");
+    context = new Context(repository,
+        new Request.Builder().action(GET).path(patternAndPath.substring(split + 1)).build());
+    if (!matcher.matches(context)) {
+      throw new IllegalStateException("Path does not match " + pattern);
+    }
+  }
+
+  @Benchmark
+  public TokenMatcher parse() {
+    return new TokenMatcher(pattern);
+  }
+
+  @Benchmark
+  public boolean match() {
+    return matcher.matches(context);
+  }
+}
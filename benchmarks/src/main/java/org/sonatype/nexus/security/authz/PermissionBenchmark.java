@@ -0,0 +1,112 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.security.authz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.shiro.authz.Permission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checking a repository view permission against the permissions held by a user, by testing each
+ * {@link WildcardPermission2} in turn as {@code AuthorizingRealm} does and through a {@link PermissionIndex}.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionBenchmark
+{
+  private static final String[] FORMATS = {"maven2", "npm", "docker", "pypi", "raw", "go", "r", "apt"};
+
+  private static final String[] ACTIONS = {"browse", "read", "edit", "add", "delete"};
+
+  /**
+   * Number of repository view permissions held, as granted by roles covering that many repositories.
+   */
+  @Param({"10", "100", "1000"})
+  public int held;
+
+  private List<Permission> permissions;
+
+  private PermissionIndex index;
+
+  private Permission[] checks;
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(held);
+    permissions = new ArrayList<>(held + 2);
+    permissions.add(new WildcardPermission2("nexus:search:read"));
+    permissions.add(new WildcardPermission2("nexus:repository-view:npm:*:browse,read"));
+    for (int i = 0; i < held; i++) {
+      permissions.add(new WildcardPermission2(String.format("nexus:repository-view:%s:repo-%d:%s",
+          FORMATS[i % FORMATS.length], i, ACTIONS[random.nextInt(ACTIONS.length)])));
+    }
+    index = PermissionIndex.of(permissions);
+
+    // a mix of checks which are granted and denied, as when browsing a list of repositories
+    checks = new Permission[64];
+    for (int i = 0; i < checks.length; i++) {
+      String format = FORMATS[random.nextInt(FORMATS.length)];
+      checks[i] = new WildcardPermission2(String.format("nexus:repository-view:%s:repo-%d:%s",
+          format, random.nextInt(held * 2), ACTIONS[random.nextInt(2)]));
+    }
+  }
+
+  @Benchmark
+  public boolean linearScan() {
+    Permission check = nextCheck();
+    for (Permission permission : permissions) {
+      if (permission.implies(check)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Benchmark
+  public boolean permissionIndex() {
+    return index.implies(nextCheck());
+  }
+
+  @Benchmark
+  public PermissionIndex buildIndex() {
+    return PermissionIndex.of(permissions);
+  }
+
+  private Permission nextCheck() {
+    Permission check = checks[next];
+    next = (next + 1) & (checks.length - 1);
+    return check;
+  }
+}
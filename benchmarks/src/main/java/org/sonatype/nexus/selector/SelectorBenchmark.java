@@ -0,0 +1,105 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of the content selectors granted to a user against an asset: each {@link JexlSelector} or
+ * {@link CselSelector} in turn, as permission checks used to, and all of them at once with
+ * {@link CompositeSelector#anyOf}.
+ *
+ * @since 3.31
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorBenchmark
+{
+  @Param({"1", "10", "100"})
+  public int selectors;
+
+  private List<Selector> jexlSelectors;
+
+  private List<Selector> cselSelectors;
+
+  private Selector composite;
+
+  private VariableSource matchLast;
+
+  private VariableSource matchNone;
+
+  @Setup
+  public void setUp() {
+    JexlEngine engine = new JexlEngine();
+    CselToSql cselToSql = new OrientCselToSql();
+    jexlSelectors = new ArrayList<>(selectors);
+    cselSelectors = new ArrayList<>(selectors);
+    for (int i = 0; i < selectors; i++) {
+      String expression = "format == \"maven2\" and path =^ \"/org/example/group" + i + "/\"";
+      jexlSelectors.add(new JexlSelector(engine.buildExpression(expression, false)));
+      cselSelectors.add(new CselSelector(cselToSql, engine.buildExpression(expression, false)));
+    }
+    composite = CompositeSelector.anyOf(cselSelectors);
+    matchLast = source("/org/example/group" + (selectors - 1) + "/artifact/1.0/artifact-1.0.jar");
+    matchNone = source("/com/example/other/artifact/1.0/artifact-1.0.jar");
+  }
+
+  @Benchmark
+  public boolean jexlInTurn() {
+    return anyMatch(jexlSelectors, matchLast) | anyMatch(jexlSelectors, matchNone);
+  }
+
+  @Benchmark
+  public boolean cselInTurn() {
+    return anyMatch(cselSelectors, matchLast) | anyMatch(cselSelectors, matchNone);
+  }
+
+  @Benchmark
+  public boolean compositeAnyOf() {
+    return composite.evaluate(matchLast) | composite.evaluate(matchNone);
+  }
+
+  private static boolean anyMatch(final List<Selector> selectors, final VariableSource source) {
+    for (Selector selector : selectors) {
+      if (selector.evaluate(source)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static VariableSource source(final String path) {
+    return new VariableSourceBuilder()
+        .addResolver(new ConstantVariableResolver("maven2", "format"))
+        .addResolver(new ConstantVariableResolver(path, "path"))
+        .build();
+  }
+}
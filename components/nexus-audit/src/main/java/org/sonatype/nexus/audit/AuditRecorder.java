@@ -23,7 +23,8 @@ public interface AuditRecorder
   boolean isEnabled();
 
   /**
-   * Record audit data and fires {@link AuditDataRecordedEvent}.
+   * Record audit data and fires {@link AuditDataRecordedEvent}, or {@link AuditDataBatchRecordedEvent} when the data
+   * is recorded asynchronously.
    */
   void record(AuditData data);
 }
@@ -0,0 +1,58 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.backup.console;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.sonatype.nexus.internal.backup.BackupChain;
+
+/**
+ * Verifies or restores an incremental database backup without a running instance.
+ *
+ * <pre>
+ * java -jar lib/support/nexus-backup-console.jar verify component-2021-05-01-01-00-00.manifest
+ * java -jar lib/support/nexus-backup-console.jar restore component-2021-05-01-01-00-00.manifest component.bak
+ * </pre>
+ *
+ * The restored archive can then be restored the same way as a full backup.
+ *
+ * @since 3.31
+ */
+public class Main
+{
+  private Main() {
+    // empty
+  }
+
+  public static void main(final String[] args) throws Exception {
+    if (args.length == 2 && "verify".equals(args[0])) {
+      BackupChain chain = BackupChain.open(new File(args[1]));
+      int segments = chain.verify();
+      System.out.println("Verified " + segments + " segments across " + chain.getManifests().size() + " backups");
+    }
+    else if (args.length == 3 && "restore".equals(args[0])) {
+      BackupChain chain = BackupChain.open(new File(args[1]));
+      try (OutputStream out = new FileOutputStream(args[2])) {
+        chain.restore(out);
+      }
+      System.out.println("Restored " + chain.getHead().getId() + " to " + args[2] + " from " +
+          chain.getManifests().size() + " backups");
+    }
+    else {
+      System.err.println("usage: verify <manifest> | restore <manifest> <archive>");
+      System.exit(1);
+    }
+  }
+}
@@ -12,9 +12,15 @@
  */
 package org.sonatype.nexus.blobstore.api;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
+import com.google.common.io.ByteStreams;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * A handle for binary data stored within a {@link BlobStore}.
  *
@@ -42,6 +48,33 @@ public interface Blob
    */
   InputStream getInputStream();
 
+  /**
+   * Opens an input stream to {@code length} bytes of the blob's content, starting at {@code offset}. Implementations
+   * should position the read directly at the offset instead of reading and discarding the preceding content, which is
+   * what this default implementation does.
+   *
+   * @throws BlobStoreException may be thrown if the blob is {@link BlobStore#delete deleted} or
+   *                            {@link BlobStore#delete hard deleted}.
+   * @since 3.31
+   */
+  default InputStream getInputStream(final long offset, final long length) {
+    checkArgument(offset >= 0 && length >= 0, "Invalid range: offset=%s, length=%s", offset, length);
+    InputStream in = getInputStream();
+    try {
+      ByteStreams.skipFully(in, offset);
+    }
+    catch (IOException e) {
+      try {
+        in.close();
+      }
+      catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw new UncheckedIOException(e);
+    }
+    return ByteStreams.limit(in, length);
+  }
+
   /**
    * Provides metrics about this Blob.
    *
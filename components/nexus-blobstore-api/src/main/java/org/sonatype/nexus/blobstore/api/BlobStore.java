@@ -15,6 +15,7 @@ package org.sonatype.nexus.blobstore.api;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
@@ -180,6 +181,23 @@ public interface BlobStore
    */
   boolean delete(BlobId blobId, String reason);
 
+  /**
+   * Removes a batch of blobs from the blob store, as if by calling {@link #delete(BlobId, String)} for each of them.
+   * Implementations may record the whole batch in a single operation against the underlying storage mechanism.
+   *
+   * @return the number of blobs that were deleted
+   * @since 3.31
+   */
+  default int deleteBatch(final Collection<BlobId> blobIds, final String reason) {
+    int deleted = 0;
+    for (BlobId blobId : blobIds) {
+      if (delete(blobId, reason)) {
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
   /**
    * Removes a blob from the blob store immediately, disregarding any locking or concurrent access by other threads.
    * This should be considered exceptional (e.g. administrative) usage.
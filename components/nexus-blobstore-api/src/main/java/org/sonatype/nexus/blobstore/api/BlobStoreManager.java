@@ -12,6 +12,7 @@
  */
 package org.sonatype.nexus.blobstore.api;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -98,6 +99,16 @@ public interface BlobStoreManager
    */
   Optional<String> getParent(String blobStoreName);
 
+  /**
+   * Returns the blob stores whose configuration depends on the blob store, such as a group it is a member of or a
+   * tiered blob store it is a tier of
+   * @param blobStoreName
+   * @return the names of the dependent blob stores
+   *
+   * @since 3.31
+   */
+  Collection<String> getDependents(String blobStoreName);
+
   /**
    * @return an empty {@link BlobStoreConfiguration} for use with this manager
    * @since 3.20
@@ -26,13 +26,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -43,6 +51,9 @@ import org.sonatype.nexus.blobstore.BlobIdLocationResolver;
 import org.sonatype.nexus.blobstore.BlobStoreReconciliationLogger;
 import org.sonatype.nexus.blobstore.BlobStoreSupport;
 import org.sonatype.nexus.blobstore.BlobSupport;
+import org.sonatype.nexus.blobstore.CompactionStep;
+import org.sonatype.nexus.blobstore.IncrementalCompaction;
+import org.sonatype.nexus.blobstore.PartitionedBlobStore;
 import org.sonatype.nexus.blobstore.StreamMetrics;
 import org.sonatype.nexus.blobstore.api.Blob;
 import org.sonatype.nexus.blobstore.api.BlobAttributes;
@@ -69,10 +80,12 @@ import org.sonatype.nexus.scheduling.TaskInterruptedException;
 
 import com.codahale.metrics.annotation.Timed;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.HashCode;
+import com.google.common.io.ByteStreams;
 import com.squareup.tape.QueueFile;
 import org.joda.time.DateTime;
 
@@ -84,6 +97,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.FileVisitOption.FOLLOW_LINKS;
 import static java.util.Arrays.stream;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.removeEnd;
 import static org.sonatype.nexus.blobstore.DefaultBlobIdLocationResolver.TEMPORARY_BLOB_ID_PREFIX;
@@ -103,6 +118,7 @@ import static org.sonatype.nexus.scheduling.CancelableHelper.checkCancellation;
 @Named(FileBlobStore.TYPE)
 public class FileBlobStore
     extends BlobStoreSupport<FileAttributesLocation>
+    implements IncrementalCompaction, PartitionedBlobStore
 {
   public static final String BASEDIR = "blobs";
 
@@ -134,6 +150,15 @@ public class FileBlobStore
   @VisibleForTesting
   static final int MAX_COLLISION_RETRIES = 8;
 
+  private static final String VOLUME_DIR_PREFIX = "vol-";
+
+  private static final String CONTENT_TMP_DIR = "tmp";
+
+  /**
+   * Separates the blob ids of a batch delete, which share a single element of the deleted blob index.
+   */
+  private static final char BATCH_SEPARATOR = '\n';
+
   private Path contentDir;
 
   private final FileOperations fileOperations;
@@ -148,6 +173,21 @@ public class FileBlobStore
 
   private QueueFile deletedBlobIndex;
 
+  // serializes consumers of the deleted blob index, i.e. the compact task and incremental compaction
+  private final Lock compactionLock = new ReentrantLock();
+
+  /**
+   * Blob ids of the head element of the deleted blob index that {@link #compactNext} has yet to process; guarded by
+   * {@link #compactionLock}.
+   */
+  private final Deque<BlobId> pendingHeadIds = new ArrayDeque<>();
+
+  /**
+   * Blob ids waiting in the deleted blob index beyond the first of each element, so the compaction backlog counts
+   * blobs rather than elements. Approximate while batches are deleted during a compact, which recounts it afterwards.
+   */
+  private final AtomicLong batchedBlobCount = new AtomicLong();
+
   private final NodeAccess nodeAccess;
 
   private boolean supportsHardLinkCopy;
@@ -215,12 +255,14 @@ public class FileBlobStore
     try {
       maybeUpgradeLegacyIndexFile(deletedIndexFile.toPath());
       deletedBlobIndex = new QueueFile(deletedIndexFile);
+      batchedBlobCount.set(countBatchedBlobIds());
     }
     catch (IOException e) {
       log.error("Unable to load deletions index file {}, run the compact blobstore task to rebuild", deletedIndexFile,
           e);
       createEmptyDeletionsIndex(deletedIndexFile);
       deletedBlobIndex = new QueueFile(deletedIndexFile);
+      batchedBlobCount.set(0);
       metadata.setProperty(REBUILD_DELETED_BLOB_INDEX_KEY, "true");
       metadata.store();
     }
@@ -247,6 +289,7 @@ public class FileBlobStore
   @Override
   protected void doStop() throws Exception {
     liveBlobs = null;
+    pendingHeadIds.clear();
     try {
       deletedBlobIndex.close();
     }
@@ -464,6 +507,42 @@ public class FileBlobStore
 
   @Override
   protected boolean doDelete(final BlobId blobId, final String reason) {
+    return softDelete(blobId, reason, false);
+  }
+
+  /**
+   * Soft deletes every blob of the batch and then records those deleted as a single element of the deleted blob
+   * index, so the whole batch costs one synced write to the index rather than one per blob.
+   *
+   * As with single deletes, blobs are marked deleted before they are recorded, so compaction never sees an id whose
+   * blob is not yet deleted and the batch never has to wait for a running compact.
+   */
+  @Override
+  protected int doDeleteBatch(final Collection<BlobId> blobIds, final String reason) {
+    List<BlobId> deleted = new ArrayList<>(blobIds.size());
+    for (BlobId blobId : blobIds) {
+      if (softDelete(blobId, reason, true)) {
+        deleted.add(blobId);
+      }
+    }
+    if (deleted.isEmpty()) {
+      return 0;
+    }
+    try {
+      deletedBlobIndex.add(deleted.stream().map(BlobId::toString)
+          .collect(joining(String.valueOf(BATCH_SEPARATOR))).getBytes(UTF_8));
+      batchedBlobCount.addAndGet(deleted.size() - 1L);
+    }
+    catch (IOException e) {
+      throw new BlobStoreException("Unable to record batch of " + deleted.size() + " deleted blobs", e, null);
+    }
+    return deleted.size();
+  }
+
+  /**
+   * Marks the blob as deleted and, unless it already is, records it in the deleted blob index.
+   */
+  private boolean softDelete(final BlobId blobId, final String reason, final boolean indexed) {
     final FileBlob blob = liveBlobs.getUnchecked(blobId);
 
     Lock lock = blob.lock();
@@ -489,7 +568,9 @@ public class FileBlobStore
       blobAttributes.store();
 
       // record blob for hard-deletion when the next compact task runs
-      deletedBlobIndex.add(blobId.toString().getBytes(UTF_8));
+      if (!indexed) {
+        deletedBlobIndex.add(blobId.toString().getBytes(UTF_8));
+      }
       blob.markStale();
 
       return true;
@@ -549,7 +630,11 @@ public class FileBlobStore
 
   @Override
   protected void doCompact(@Nullable final BlobStoreUsageChecker inUseChecker) {
+    compactionLock.lock();
     try {
+      // the full compact works on whole index elements, so any partially processed head is started over
+      pendingHeadIds.clear();
+
       PropertiesFile metadata = new PropertiesFile(getAbsoluteBlobDir().resolve(METADATA_FILENAME).toFile());
       metadata.load();
       boolean deletedBlobIndexRebuildRequired =
@@ -578,11 +663,125 @@ public class FileBlobStore
     catch (Exception e) {
       throw new BlobStoreException(e, null);
     }
+    finally {
+      try {
+        batchedBlobCount.set(countBatchedBlobIds());
+      }
+      catch (IOException e) {
+        log.warn("Unable to count batched deletes in the deleted blob index", e);
+      }
+      compactionLock.unlock();
+    }
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public long getCompactionBacklog() {
+    return deletedBlobIndex.size() + batchedBlobCount.get();
+  }
+
+  /**
+   * Processes the head of the deleted blob index, which is the oldest soft delete. Returns {@code null} without
+   * waiting while the compact task holds the index.
+   */
+  @Nullable
+  @Override
+  @Guarded(by = STARTED)
+  public CompactionStep compactNext(@Nullable final BlobStoreUsageChecker inUseChecker, final Duration gracePeriod) {
+    if (!compactionLock.tryLock()) {
+      return null;
+    }
+    try {
+      while (pendingHeadIds.isEmpty()) {
+        byte[] bytes = deletedBlobIndex.peek();
+        if (bytes == null) {
+          return null;
+        }
+        pendingHeadIds.addAll(toBlobIds(bytes));
+        if (pendingHeadIds.isEmpty()) {
+          deletedBlobIndex.remove();
+        }
+      }
+      BlobId blobId = pendingHeadIds.peek();
+      FileBlobAttributes attributes = getFileBlobAttributes(blobId);
+      if (attributes == null || !attributes.isDeleted()) {
+        // hard deleted or undeleted since it was queued
+        popPendingHeadId();
+        return CompactionStep.skipped(blobId);
+      }
+      if (!IncrementalCompaction.isPastGracePeriod(attributes, gracePeriod)) {
+        return null;
+      }
+      FileBlob blob = liveBlobs.getIfPresent(blobId);
+      if (blob != null && !blob.isStale()) {
+        // still in use, so move it to end of the queue
+        deletedBlobIndex.add(blobId.toString().getBytes(UTF_8));
+        popPendingHeadId();
+        return CompactionStep.skipped(blobId);
+      }
+      popPendingHeadId();
+      long size = attributes.getMetrics().getContentSize();
+      if (maybeCompactBlob(inUseChecker, blobId)) {
+        return CompactionStep.reclaimed(blobId, size);
+      }
+      return CompactionStep.skipped(blobId);
+    }
+    catch (IOException e) {
+      throw new BlobStoreException(e, null);
+    }
+    finally {
+      compactionLock.unlock();
+    }
+  }
+
+  /**
+   * Drops the head of {@link #pendingHeadIds}, removing the head element of the deleted blob index once all of its
+   * blob ids have been processed.
+   */
+  private void popPendingHeadId() throws IOException {
+    pendingHeadIds.remove();
+    if (pendingHeadIds.isEmpty()) {
+      deletedBlobIndex.remove();
+    }
+    else {
+      batchedBlobCount.decrementAndGet();
+    }
+  }
+
+  private long countBatchedBlobIds() throws IOException {
+    AtomicLong count = new AtomicLong();
+    deletedBlobIndex.forEach((in, length) -> {
+      byte[] bytes = new byte[length];
+      ByteStreams.readFully(in, bytes);
+      count.addAndGet(Math.max(0, toBlobIds(bytes).size() - 1));
+    });
+    return count.get();
+  }
+
+  /**
+   * Splits an element of the deleted blob index into its blob ids; elements written by a batch delete hold several.
+   */
+  private static List<BlobId> toBlobIds(final byte[] bytes) {
+    return Splitter.on(BATCH_SEPARATOR).omitEmptyStrings().trimResults().splitToList(new String(bytes, UTF_8))
+        .stream()
+        .map(BlobId::new)
+        .collect(toList());
+  }
+
+  @Override
+  public Optional<Path> getLocalStoragePath() {
+    return Optional.ofNullable(contentDir);
   }
 
   private boolean maybeCompactBlob(@Nullable final BlobStoreUsageChecker inUseChecker, final BlobId blobId)
   {
     Optional<FileBlobAttributes> attributesOption = ofNullable((FileBlobAttributes) getBlobAttributes(blobId));
+    if (attributesOption.isPresent() && !attributesOption.get().isDeleted()) {
+      // undeleted, or never marked deleted because a batch delete failed part way through
+      log.debug("Skipping blob id: {}, in blob store: {}, which is not deleted", blobId,
+          blobStoreConfiguration.getName());
+      return false;
+    }
     if (!attributesOption.isPresent() || !undelete(inUseChecker, blobId, attributesOption.get(), false)) {
       // attributes file is missing or blob id not in use, so it's safe to delete the file
       log.debug("Hard deleting blob id: {}, in blob store: {}", blobId, blobStoreConfiguration.getName());
@@ -781,16 +980,20 @@ public class FileBlobStore
       if (bytes == null) {
         return;
       }
-      BlobId blobId = new BlobId(new String(bytes, UTF_8));
-      FileBlob blob = liveBlobs.getIfPresent(blobId);
-      if (blob == null || blob.isStale()) {
-        maybeCompactBlob(inUseChecker, blobId);
-        deletedBlobIndex.remove();
+      List<BlobId> inUse = new ArrayList<>();
+      for (BlobId blobId : toBlobIds(bytes)) {
+        FileBlob blob = liveBlobs.getIfPresent(blobId);
+        if (blob == null || blob.isStale()) {
+          maybeCompactBlob(inUseChecker, blobId);
+        }
+        else {
+          inUse.add(blobId);
+        }
       }
-      else {
-        // still in use, so move it to end of the queue
-        deletedBlobIndex.remove();
-        deletedBlobIndex.add(bytes);
+      deletedBlobIndex.remove();
+      // still in use, so move them to end of the queue
+      for (BlobId blobId : inUse) {
+        deletedBlobIndex.add(blobId.toString().getBytes(UTF_8));
       }
       progressLogger.info("Elapsed time: {}, processed: {}/{}", progressLogger.getElapsed(),
           counter + 1, numBlobs);
@@ -939,6 +1142,23 @@ public class FileBlobStore
         throw new BlobStoreException(e, getId());
       }
     }
+
+    @Override
+    protected InputStream doGetInputStream(final long offset, final long length) {
+      Path contentPath = contentPath(getId());
+      try {
+        checkExists(contentPath, getId());
+        return performanceLogger.maybeWrapForPerformanceLogging(
+            new BufferedInputStream(ByteStreams.limit(fileOperations.openInputStream(contentPath, offset), length)));
+      }
+      catch (BlobStoreException e) {
+        markStale();
+        throw e;
+      }
+      catch (Exception e) {
+        throw new BlobStoreException(e, getId());
+      }
+    }
   }
 
   private interface BlobIngester
@@ -964,6 +1184,49 @@ public class FileBlobStore
     }
   }
 
+  /**
+   * Partitions are the chapter directories of each volume, plus any other top-level content directory as a whole.
+   */
+  @Override
+  public List<String> getBlobIdPartitions() {
+    List<String> partitions = new ArrayList<>();
+    try (Stream<Path> topLevel = Files.list(contentDir)) {
+      for (Path dir : (Iterable<Path>) topLevel.filter(Files::isDirectory).sorted()::iterator) {
+        String name = dir.getFileName().toString();
+        if (CONTENT_TMP_DIR.equals(name)) {
+          continue;
+        }
+        if (name.startsWith(VOLUME_DIR_PREFIX)) {
+          try (Stream<Path> chapters = Files.list(dir)) {
+            chapters.filter(Files::isDirectory).sorted()
+                .forEach(chapter -> partitions.add(name + "/" + chapter.getFileName()));
+          }
+        }
+        else {
+          partitions.add(name);
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return partitions;
+  }
+
+  @Override
+  public Stream<BlobId> getBlobIdStream(final String partition) {
+    checkArgument(!partition.contains(".."), "path traversal not allowed");
+    try {
+      return getAttributeFilePaths(partition)
+          .map(FileAttributesLocation::new)
+          .map(this::getBlobIdFromAttributeFilePath)
+          .map(BlobId::new);
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public Stream<BlobId> getDirectPathBlobIdStream(final String prefix) {
     checkArgument(!prefix.contains(".."), "path traversal not allowed");
@@ -89,6 +89,13 @@ public interface FileOperations
 
   InputStream openInputStream(Path path) throws IOException;
 
+  /**
+   * Opens a stream positioned at the given offset of the file, without reading the content before it.
+   *
+   * @since 3.31
+   */
+  InputStream openInputStream(Path path, long offset) throws IOException;
+
   /**
    * Returns true if the file existed before deletion, false otherwise.
    */
@@ -15,6 +15,8 @@ package org.sonatype.nexus.blobstore.file.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.FileSystemException;
@@ -179,6 +181,20 @@ public class SimpleFileOperations
     return Files.newInputStream(path, StandardOpenOption.READ);
   }
 
+  @Override
+  public InputStream openInputStream(final Path path, final long offset) throws IOException {
+    checkNotNull(path);
+    checkArgument(offset >= 0, "Negative offset: %s", offset);
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return Channels.newInputStream(channel.position(offset));
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
   @Override
   public boolean delete(final Path path) throws IOException {
     checkNotNull(path);
@@ -20,6 +20,7 @@ import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
@@ -55,6 +56,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.lang3.tuple.Pair.of;
 import static org.awaitility.Awaitility.await;
@@ -62,6 +64,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
@@ -76,6 +79,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sonatype.nexus.blobstore.DefaultBlobIdLocationResolver.TEMPORARY_BLOB_ID_PREFIX;
+import static org.sonatype.nexus.blobstore.DirectPathLocationStrategy.DIRECT_PATH_ROOT;
 import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_FILE_ATTRIBUTES_SUFFIX;
 import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_FILE_CONTENT_SUFFIX;
 import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_NAME_HEADER;
@@ -209,6 +213,22 @@ public class FileBlobStoreIT
     //assertThat("compacting should reclaim deleted blobs' space", storeMetrics3.getTotalSize(), is(equalTo(0L)));
   }
 
+  @Test
+  public void rangedReadsStartAtTheOffset() throws Exception {
+    final byte[] content = "0123456789".getBytes(UTF_8);
+    final Blob blob = underTest.create(new ByteArrayInputStream(content), TEST_HEADERS);
+
+    try (InputStream in = blob.getInputStream(3, 4)) {
+      assertThat(new String(ByteStreams.toByteArray(in), UTF_8), is("3456"));
+    }
+    try (InputStream in = blob.getInputStream(8, 5)) {
+      assertThat(new String(ByteStreams.toByteArray(in), UTF_8), is("89"));
+    }
+    try (InputStream in = blob.getInputStream(0, 0)) {
+      assertThat(in.read(), is(-1));
+    }
+  }
+
   @Test
   public void createAndDeleteBlobWithDirectPathSuccessful() throws IOException {
     final byte[] content = new byte[TEST_DATA_LENGTH];
@@ -307,6 +327,29 @@ public class FileBlobStoreIT
     assertThat(blobIds, containsInAnyOrder(regularBlob.getId(), directPathBlob.getId()));
   }
 
+  @Test
+  public void itWillReturnAllBlobIdsAcrossPartitions() {
+    byte[] content = "hello".getBytes();
+    Blob regularBlob = underTest.create(new ByteArrayInputStream(content), ImmutableMap.of(
+        BLOB_NAME_HEADER, "example",
+        CREATED_BY_HEADER, "test"));
+
+    Blob directPathBlob = underTest.create(new ByteArrayInputStream(content), ImmutableMap.of(
+        CREATED_BY_HEADER, "test",
+        BLOB_NAME_HEADER, "health-check/repositoryName/file.txt",
+        DIRECT_PATH_BLOB_HEADER, "true"
+    ));
+
+    List<String> partitions = underTest.getBlobIdPartitions();
+    assertThat(partitions, hasItem(DIRECT_PATH_ROOT));
+    assertThat(partitions, not(hasItem("tmp")));
+
+    List<BlobId> blobIds = partitions.stream()
+        .flatMap(underTest::getBlobIdStream)
+        .collect(Collectors.toList());
+    assertThat(blobIds, containsInAnyOrder(regularBlob.getId(), directPathBlob.getId()));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void getDirectPathBlobIdStreamPreventsTraversal() {
     underTest.getDirectPathBlobIdStream("../content");
@@ -680,6 +723,49 @@ public class FileBlobStoreIT
     assertThat(bytesPath4.toFile().exists(), is(false));
   }
 
+  @Test
+  public void batchDeleteIsReclaimedByCompact() throws Exception {
+    byte[] content = new byte[TEST_DATA_LENGTH];
+    final Blob blob1 = underTest.create(new ByteArrayInputStream(content), TEST_HEADERS);
+    final Blob blob2 = underTest.create(new ByteArrayInputStream(content), TEST_HEADERS);
+    final Blob blob3 = underTest.create(new ByteArrayInputStream(content), TEST_HEADERS);
+
+    assertThat(underTest.deleteBatch(Arrays.asList(blob1.getId(), blob2.getId(), blob3.getId()), "test"), is(3));
+
+    assertThat(underTest.get(blob1.getId()), is(nullValue()));
+    assertThat(underTest.get(blob2.getId()), is(nullValue()));
+    assertThat(underTest.get(blob3.getId()), is(nullValue()));
+    assertThat(underTest.getCompactionBacklog(), is(3L));
+
+    underTest.compact();
+
+    assertThat(underTest.getCompactionBacklog(), is(0L));
+    assertThat(underTest.get(blob1.getId(), true), is(nullValue()));
+    assertThat(underTest.get(blob2.getId(), true), is(nullValue()));
+    assertThat(underTest.get(blob3.getId(), true), is(nullValue()));
+  }
+
+  @Test
+  public void compactNextDrainsBatchDeleteOneBlobAtATime() throws Exception {
+    byte[] content = new byte[TEST_DATA_LENGTH];
+    final Blob blob1 = underTest.create(new ByteArrayInputStream(content), TEST_HEADERS);
+    final Blob blob2 = underTest.create(new ByteArrayInputStream(content), TEST_HEADERS);
+
+    underTest.deleteBatch(Arrays.asList(blob1.getId(), blob2.getId()), "test");
+    assertThat(underTest.getCompactionBacklog(), is(2L));
+
+    assertThat(underTest.compactNext(null, Duration.ZERO).getBlobId(), is(blob1.getId()));
+    assertThat(underTest.getCompactionBacklog(), is(1L));
+    assertThat(underTest.get(blob1.getId(), true), is(nullValue()));
+    assertThat(underTest.get(blob2.getId(), true), not(nullValue()));
+
+    assertThat(underTest.compactNext(null, Duration.ZERO).getBlobId(), is(blob2.getId()));
+    assertThat(underTest.getCompactionBacklog(), is(0L));
+    assertThat(underTest.get(blob2.getId(), true), is(nullValue()));
+
+    assertThat(underTest.compactNext(null, Duration.ZERO), is(nullValue()));
+  }
+
   private void verifyMoveOperations(Blob blob) throws IOException {
     Pair<Path, Path> paths = verifyBlobPaths(blob);
 
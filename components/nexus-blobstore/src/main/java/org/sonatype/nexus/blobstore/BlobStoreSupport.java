@@ -14,6 +14,7 @@ package org.sonatype.nexus.blobstore;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -154,6 +155,35 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
 
   protected abstract boolean doDelete(BlobId blobId, String reason);
 
+  @Override
+  @Guarded(by = STARTED)
+  public int deleteBatch(final Collection<BlobId> blobIds, final String reason) {
+    checkNotNull(blobIds);
+
+    long start = System.nanoTime();
+    try {
+      return doDeleteBatch(blobIds, reason);
+    }
+    finally {
+      updateTimer("deleteBatch", System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Deletes each blob in turn; subclasses can override this to record the whole batch at once.
+   *
+   * @since 3.31
+   */
+  protected int doDeleteBatch(final Collection<BlobId> blobIds, final String reason) {
+    int deleted = 0;
+    for (BlobId blobId : blobIds) {
+      if (doDelete(blobId, reason)) {
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
   @Override
   @Guarded(by = STARTED)
   public boolean undelete(@Nullable final BlobStoreUsageChecker inUseChecker, final BlobId blobId,
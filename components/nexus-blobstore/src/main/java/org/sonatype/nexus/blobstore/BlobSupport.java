@@ -23,6 +23,7 @@ import org.sonatype.nexus.blobstore.api.Blob;
 import org.sonatype.nexus.blobstore.api.BlobId;
 import org.sonatype.nexus.blobstore.api.BlobMetrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -91,10 +92,29 @@ public abstract class BlobSupport
     return inputStream;
   }
 
+  @Override
+  public InputStream getInputStream(final long offset, final long length) {
+    checkArgument(offset >= 0 && length >= 0, "Invalid range: offset=%s, length=%s", offset, length);
+    InputStream inputStream = doGetInputStream(offset, length);
+    if (!inputStream.markSupported()) {
+      return new BufferedInputStream(inputStream);
+    }
+    return inputStream;
+  }
+
   /**
    * Gets the natural input stream for the given blob
    *
    * @since 3.19
    */
   protected abstract InputStream doGetInputStream();
+
+  /**
+   * Gets the natural input stream for a range of the given blob; by default this skips over the preceding content.
+   *
+   * @since 3.31
+   */
+  protected InputStream doGetInputStream(final long offset, final long length) {
+    return Blob.super.getInputStream(offset, length);
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore;
+
+import org.sonatype.nexus.blobstore.api.BlobId;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Outcome of {@link IncrementalCompaction#compactNext}.
+ *
+ * @since 3.31
+ */
+public final class CompactionStep
+{
+  private final BlobId blobId;
+
+  private final boolean reclaimed;
+
+  private final long reclaimedBytes;
+
+  private CompactionStep(final BlobId blobId, final boolean reclaimed, final long reclaimedBytes) {
+    this.blobId = checkNotNull(blobId);
+    this.reclaimed = reclaimed;
+    this.reclaimedBytes = reclaimedBytes;
+  }
+
+  /**
+   * The blob was hard deleted, freeing the given number of bytes.
+   */
+  public static CompactionStep reclaimed(final BlobId blobId, final long reclaimedBytes) {
+    return new CompactionStep(blobId, true, reclaimedBytes);
+  }
+
+  /**
+   * The blob was left in place, because it is still in use, was undeleted or is already gone.
+   */
+  public static CompactionStep skipped(final BlobId blobId) {
+    return new CompactionStep(blobId, false, 0L);
+  }
+
+  public BlobId getBlobId() {
+    return blobId;
+  }
+
+  public boolean isReclaimed() {
+    return reclaimed;
+  }
+
+  public long getReclaimedBytes() {
+    return reclaimedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "blobId=" + blobId +
+        ", reclaimed=" + reclaimed +
+        ", reclaimedBytes=" + reclaimedBytes +
+        '}';
+  }
+}
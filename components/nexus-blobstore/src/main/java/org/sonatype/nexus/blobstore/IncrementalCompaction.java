@@ -0,0 +1,60 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.blobstore.api.BlobAttributes;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
+
+/**
+ * A {@link BlobStore} which can reclaim its soft-deleted blobs one at a time, oldest deletion first, so that
+ * compaction can run continuously in the background instead of as one large pass.
+ *
+ * @since 3.31
+ */
+public interface IncrementalCompaction
+{
+  /**
+   * @return the number of soft-deleted blobs known to be waiting for compaction
+   */
+  long getCompactionBacklog();
+
+  /**
+   * Hard deletes the oldest soft-deleted blob if it was deleted at least {@code gracePeriod} ago and is not in use.
+   *
+   * @return the outcome of the step, or {@code null} if no soft-deleted blob is due yet
+   */
+  @Nullable
+  CompactionStep compactNext(@Nullable BlobStoreUsageChecker inUseChecker, Duration gracePeriod);
+
+  /**
+   * @return the local directory holding the blobs, when the blob store is backed by a local disk
+   */
+  default Optional<Path> getLocalStoragePath() {
+    return Optional.empty();
+  }
+
+  /**
+   * @return true if the soft delete recorded in the given attributes is older than the grace period
+   */
+  static boolean isPastGracePeriod(final BlobAttributes attributes, final Duration gracePeriod) {
+    return attributes.getDeletedDateTime() == null ||
+        attributes.getDeletedDateTime().getMillis() + gracePeriod.toMillis() <= System.currentTimeMillis();
+  }
+}
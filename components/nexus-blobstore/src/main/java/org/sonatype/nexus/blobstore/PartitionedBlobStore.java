@@ -0,0 +1,41 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+
+/**
+ * A {@link BlobStore} whose blob ids can be listed in independent partitions, such as the volume/chapter directories
+ * of a file blob store or the matching key prefixes of an S3 bucket, so long running scans can process partitions in
+ * parallel and resume partition by partition.
+ *
+ * @since 3.31
+ */
+public interface PartitionedBlobStore
+{
+  /**
+   * @return the names of all partitions, relative to the content root of the blob store; the order is stable
+   */
+  List<String> getBlobIdPartitions();
+
+  /**
+   * Get a {@link Stream} of the {@link BlobId}s stored in the given partition.
+   *
+   * @param partition one of the names returned by {@link #getBlobIdPartitions()}
+   */
+  Stream<BlobId> getBlobIdStream(String partition);
+}
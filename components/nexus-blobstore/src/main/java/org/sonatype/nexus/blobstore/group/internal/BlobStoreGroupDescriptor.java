@@ -198,6 +198,14 @@ public class BlobStoreGroupDescriptor
             format("Blob Store '%s' is already a member of Blob Store Group '%s'", memberName, groupName));
       });
 
+      // nor be used by any other blob store, such as a tiered blob store
+      blobStoreManager.getDependents(memberName).stream().filter(sameGroup.negate()).findFirst()
+          .ifPresent(dependent -> {
+            throw new ValidationErrorsException(
+                format("Blob Store '%s' is used by Blob Store '%s' and is not eligible to be a group member",
+                    memberName, dependent));
+          });
+
       // target member may not be set as repository storage
       int repoCount = blobStoreUtil.usageCount(memberName);
       if (repoCount > 0) {
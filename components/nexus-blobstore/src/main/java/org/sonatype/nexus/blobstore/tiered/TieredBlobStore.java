@@ -0,0 +1,833 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.blobstore.MemoryBlobSession;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobAttributes;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobMetrics;
+import org.sonatype.nexus.blobstore.api.BlobSession;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.api.BlobStoreException;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.api.BlobStoreMetrics;
+import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
+import org.sonatype.nexus.blobstore.api.RawObjectAccess;
+import org.sonatype.nexus.blobstore.tiered.internal.TieredBlobStoreMetrics;
+import org.sonatype.nexus.blobstore.tiered.internal.TieringCounters;
+import org.sonatype.nexus.common.stateguard.Guarded;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.common.stateguard.Transitions;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.Striped;
+import org.joda.time.DateTime;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.asList;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.capacityTierName;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.demoteAfterDays;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.fastTierCapacity;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.fastTierName;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.promoteAfterReads;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.FAILED;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.NEW;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.SHUTDOWN;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.STARTED;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.STOPPED;
+import static org.sonatype.nexus.scheduling.CancelableHelper.checkCancellation;
+
+/**
+ * A {@link BlobStore} which keeps recently read blobs in a fast tier (typically a local file blob store) in front
+ * of a cheaper capacity tier (typically object storage).
+ *
+ * New blobs are written to the fast tier while it is below its capacity. Blobs which have not been read for a while
+ * are moved to the capacity tier by {@link #rebalance()}, and blobs read repeatedly from the capacity tier are moved
+ * back to the fast tier in the background. Blobs keep their {@link BlobId} when they move between tiers.
+ *
+ * @since 3.31
+ */
+@Named(TieredBlobStore.TYPE)
+public class TieredBlobStore
+    extends StateGuardLifecycleSupport
+    implements BlobStore
+{
+  public static final String TYPE = "Tiered";
+
+  public static final String CONFIG_KEY = "tiered";
+
+  public static final String FAST_TIER_KEY = "fastTier";
+
+  public static final String CAPACITY_TIER_KEY = "capacityTier";
+
+  public static final String FAST_TIER_CAPACITY_KEY = "fastTierCapacityMb";
+
+  public static final String DEMOTE_AFTER_DAYS_KEY = "demoteAfterDays";
+
+  public static final String PROMOTE_AFTER_READS_KEY = "promoteAfterReads";
+
+  public static final int DEFAULT_DEMOTE_AFTER_DAYS = 30;
+
+  public static final int DEFAULT_PROMOTE_AFTER_READS = 3;
+
+  /**
+   * Header holding the time, in milliseconds since the epoch, a blob in the fast tier was last read.
+   */
+  public static final String LAST_ACCESSED_HEADER = "BlobStore.last-accessed";
+
+  private final BlobStoreManager blobStoreManager;
+
+  private final Time accessResolution;
+
+  // reads of capacity tier blobs which are not yet eligible for promotion
+  private final LoadingCache<BlobId, AtomicInteger> capacityTierReads;
+
+  // last access time recorded per fast tier blob, cached blob headers are not refreshed by setBlobAttributes
+  private final Cache<BlobId, Long> recordedAccesses;
+
+  // serialises moves between tiers against deletes of the same blob
+  private final Striped<Lock> blobLocks = Striped.lock(64);
+
+  private final Set<BlobId> pendingPromotions = ConcurrentHashMap.newKeySet();
+
+  private final TieringCounters counters = new TieringCounters();
+
+  private MetricRegistry metricRegistry;
+
+  private BlobStoreConfiguration blobStoreConfiguration;
+
+  private Supplier<BlobStore> fastTier;
+
+  private Supplier<BlobStore> capacityTier;
+
+  private long fastTierCapacity;
+
+  private int demoteAfterDays;
+
+  private int promoteAfterReads;
+
+  private ExecutorService promotionExecutor;
+
+  @Inject
+  public TieredBlobStore(final BlobStoreManager blobStoreManager,
+                         @Named("${nexus.blobstore.tiered.accessResolution:-1h}") final Time accessResolution,
+                         @Named("${nexus.blobstore.tiered.trackedReads:-100000}") final int trackedReads,
+                         @Named("${nexus.blobstore.tiered.readWindow:-7d}") final Time readWindow)
+  {
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+    this.accessResolution = checkNotNull(accessResolution);
+    this.capacityTierReads = CacheBuilder.newBuilder()
+        .maximumSize(trackedReads)
+        .expireAfterWrite(readWindow.value(), readWindow.unit())
+        .build(CacheLoader.from(blobId -> new AtomicInteger()));
+    this.recordedAccesses = CacheBuilder.newBuilder()
+        .maximumSize(trackedReads)
+        .expireAfterWrite(accessResolution.toMillis(), MILLISECONDS)
+        .build();
+  }
+
+  @Inject
+  public void setMetricRegistry(final MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
+  @Override
+  public void init(final BlobStoreConfiguration configuration) {
+    this.blobStoreConfiguration = configuration;
+    this.fastTier = Suppliers.memoize(() -> tier(fastTierName(configuration)));
+    this.capacityTier = Suppliers.memoize(() -> tier(capacityTierName(configuration)));
+    this.fastTierCapacity = fastTierCapacity(configuration);
+    this.demoteAfterDays = demoteAfterDays(configuration);
+    this.promoteAfterReads = promoteAfterReads(configuration);
+  }
+
+  private BlobStore tier(final String name) {
+    BlobStore blobStore = blobStoreManager.get(name);
+    if (blobStore == null) {
+      throw new BlobStoreException("Blob Store '" + name + "' not found", null);
+    }
+    return blobStore;
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    promotionExecutor = Executors.newSingleThreadExecutor(
+        new NexusThreadFactory("tiered-promotion", blobStoreConfiguration.getName()));
+    if (metricRegistry != null) {
+      counters.register(metricRegistry, blobStoreConfiguration.getName());
+    }
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    promotionExecutor.shutdownNow();
+    promotionExecutor = null;
+    pendingPromotions.clear();
+    capacityTierReads.invalidateAll();
+    recordedAccesses.invalidateAll();
+  }
+
+  @Override
+  public BlobStoreConfiguration getBlobStoreConfiguration() {
+    return blobStoreConfiguration;
+  }
+
+  public BlobStore getFastTier() {
+    return fastTier.get();
+  }
+
+  public BlobStore getCapacityTier() {
+    return capacityTier.get();
+  }
+
+  private List<BlobStore> tiers() {
+    return asList(fastTier.get(), capacityTier.get());
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public BlobSession<?> openSession() {
+    return new MemoryBlobSession(this);
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public Blob create(final InputStream blobData, final Map<String, String> headers) {
+    return create(blobData, headers, null);
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public Blob create(final InputStream blobData, final Map<String, String> headers, @Nullable final BlobId blobId) {
+    return writeTier().create(blobData, headers, blobId);
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public Blob create(final Path sourceFile, final Map<String, String> headers, final long size, final HashCode sha1) {
+    return writeTier().create(sourceFile, headers, size, sha1);
+  }
+
+  /**
+   * New blobs go to the fast tier unless it is full, in which case they go straight to the capacity tier.
+   */
+  private BlobStore writeTier() {
+    if (fastTierHasRoom()) {
+      return fastTier.get();
+    }
+    log.debug("Fast tier of {} is at capacity, writing to capacity tier", this);
+    return capacityTier.get();
+  }
+
+  private boolean fastTierHasRoom() {
+    return fastTierCapacity <= 0 || fastTier.get().getMetrics().getTotalSize() < fastTierCapacity;
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public Blob copy(final BlobId blobId, final Map<String, String> headers) {
+    return locate(blobId)
+        .orElseThrow(() -> new BlobStoreException("Unable to find blob", blobId))
+        .copy(blobId, headers);
+  }
+
+  @Nullable
+  @Override
+  @Guarded(by = STARTED)
+  public Blob get(final BlobId blobId) {
+    return get(blobId, false);
+  }
+
+  @Nullable
+  @Override
+  @Guarded(by = STARTED)
+  public Blob get(final BlobId blobId, final boolean includeDeleted) {
+    Blob blob = fastTier.get().get(blobId, includeDeleted);
+    if (blob != null) {
+      if (!includeDeleted) {
+        recordFastTierRead(blobId, blob);
+      }
+      return new TieredBlob(blob, capacityTier);
+    }
+    blob = capacityTier.get().get(blobId, includeDeleted);
+    if (blob == null) {
+      return null;
+    }
+    if (!includeDeleted) {
+      recordCapacityTierRead(blobId);
+    }
+    return new TieredBlob(blob, fastTier);
+  }
+
+  /**
+   * Refreshes the {@link #LAST_ACCESSED_HEADER} of a fast tier blob, at most once per access resolution so that
+   * frequently read blobs do not rewrite their attributes on every read.
+   */
+  private void recordFastTierRead(final BlobId blobId, final Blob blob) {
+    long now = System.currentTimeMillis();
+    Long recorded = recordedAccesses.getIfPresent(blobId);
+    long lastAccessed = recorded != null ? recorded : lastAccessed(blob.getHeaders(), blob.getMetrics());
+    if (now - lastAccessed < accessResolution.toMillis()) {
+      return;
+    }
+    BlobAttributes attributes = fastTier.get().getBlobAttributes(blobId);
+    if (attributes == null || attributes.isDeleted()) {
+      return;
+    }
+    // the stored attributes may already have been refreshed by an earlier read
+    if (now - lastAccessed(attributes.getHeaders(), attributes.getMetrics()) >= accessResolution.toMillis()) {
+      fastTier.get().setBlobAttributes(blobId, new AccessedBlobAttributes(attributes, now));
+    }
+    recordedAccesses.put(blobId, now);
+  }
+
+  private void recordCapacityTierRead(final BlobId blobId) {
+    if (promoteAfterReads <= 0 || capacityTierReads.getUnchecked(blobId).incrementAndGet() < promoteAfterReads) {
+      return;
+    }
+    capacityTierReads.invalidate(blobId);
+    if (pendingPromotions.add(blobId)) {
+      try {
+        promotionExecutor.execute(() -> {
+          try {
+            promote(blobId);
+          }
+          catch (Exception e) {
+            log.warn("Unable to promote {} to the fast tier of {}", blobId, this, log.isDebugEnabled() ? e : null);
+          }
+          finally {
+            pendingPromotions.remove(blobId);
+          }
+        });
+      }
+      catch (RejectedExecutionException e) {
+        pendingPromotions.remove(blobId);
+        log.debug("Promotion of {} rejected, {} is stopping", blobId, this);
+      }
+    }
+  }
+
+  /**
+   * Moves a blob from the capacity tier to the fast tier, keeping its {@link BlobId}.
+   *
+   * @return {@code true} if the blob was moved
+   */
+  @VisibleForTesting
+  boolean promote(final BlobId blobId) throws IOException {
+    if (!fastTierHasRoom()) {
+      log.debug("Fast tier of {} is at capacity, not promoting {}", this, blobId);
+      return false;
+    }
+    Lock lock = blobLocks.get(blobId);
+    lock.lock();
+    try {
+      Blob source = capacityTier.get().get(blobId);
+      if (source == null) {
+        return false;
+      }
+      boolean copied = false;
+      if (!fastTier.get().exists(blobId)) {
+        Map<String, String> headers = new HashMap<>(source.getHeaders());
+        headers.put(LAST_ACCESSED_HEADER, Long.toString(System.currentTimeMillis()));
+        try (InputStream in = source.getInputStream()) {
+          fastTier.get().create(in, headers, blobId);
+        }
+        copied = true;
+      }
+      if (!move(blobId, capacityTier.get(), copied ? fastTier.get() : null)) {
+        return false;
+      }
+      counters.promoted(source.getMetrics().getContentSize());
+      log.debug("Promoted {} to the fast tier of {}", blobId, this);
+      return true;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Moves a blob from the fast tier to the capacity tier, keeping its {@link BlobId}.
+   *
+   * @return {@code true} if the blob was moved
+   */
+  @VisibleForTesting
+  boolean demote(final BlobId blobId) throws IOException {
+    Lock lock = blobLocks.get(blobId);
+    lock.lock();
+    try {
+      Blob source = fastTier.get().get(blobId);
+      if (source == null) {
+        return false;
+      }
+      try (InputStream in = source.getInputStream()) {
+        capacityTier.get().create(in, source.getHeaders(), blobId);
+      }
+      if (!move(blobId, fastTier.get(), capacityTier.get())) {
+        return false;
+      }
+      recordedAccesses.invalidate(blobId);
+      counters.demoted(source.getMetrics().getContentSize());
+      log.debug("Demoted {} to the capacity tier of {}", blobId, this);
+      return true;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Completes a move by removing the source copy, unless the blob was deleted while it was being copied in which
+   * case the new copy is removed instead so that no live orphan is left behind. Callers hold the blob lock.
+   *
+   * @param target the tier holding the new copy, {@code null} if it was already there before the move
+   */
+  private boolean move(final BlobId blobId, final BlobStore source, @Nullable final BlobStore target) {
+    BlobAttributes attributes = source.getBlobAttributes(blobId);
+    if (attributes == null || attributes.isDeleted()) {
+      log.debug("{} was deleted while moving between the tiers of {}", blobId, this);
+      if (target != null) {
+        target.deleteHard(blobId);
+      }
+      return false;
+    }
+    // the new copy is visible from here on, readers still holding the source copy fall back to it
+    source.deleteHard(blobId);
+    return true;
+  }
+
+  /**
+   * Demotes blobs of the fast tier which have not been read within the configured number of days, then keeps
+   * demoting the least recently read blobs while the fast tier is over its capacity.
+   *
+   * @return the number of demoted blobs
+   */
+  @Guarded(by = STARTED)
+  public long rebalance() throws IOException {
+    long cutoff = System.currentTimeMillis() - DAYS.toMillis(demoteAfterDays);
+    List<BlobId> cold = new ArrayList<>();
+    List<AccessRecord> warm = new ArrayList<>();
+    long warmSize = 0;
+
+    // collect first, the fast tier may not tolerate deletes while its blob ids are being walked
+    try (Stream<BlobId> blobIds = fastTier.get().getBlobIdStream()) {
+      Iterator<BlobId> iterator = blobIds.iterator();
+      while (iterator.hasNext()) {
+        checkCancellation();
+        BlobId blobId = iterator.next();
+        BlobAttributes attributes = fastTier.get().getBlobAttributes(blobId);
+        if (attributes == null || attributes.isDeleted() || isTemporary(attributes)) {
+          continue;
+        }
+        long lastAccessed = lastAccessed(attributes.getHeaders(), attributes.getMetrics());
+        if (lastAccessed < cutoff) {
+          cold.add(blobId);
+        }
+        else {
+          long size = attributes.getMetrics().getContentSize();
+          warm.add(new AccessRecord(blobId, lastAccessed, size));
+          warmSize += size;
+        }
+      }
+    }
+
+    long demoted = 0;
+    for (BlobId blobId : cold) {
+      checkCancellation();
+      if (demote(blobId)) {
+        demoted++;
+      }
+    }
+
+    if (fastTierCapacity > 0 && warmSize > fastTierCapacity) {
+      log.info("Fast tier of {} holds {} bytes over its capacity of {} bytes, demoting least recently read blobs",
+          this, warmSize - fastTierCapacity, fastTierCapacity);
+      warm.sort(comparingLong(record -> record.lastAccessed));
+      for (AccessRecord record : warm) {
+        if (warmSize <= fastTierCapacity) {
+          break;
+        }
+        checkCancellation();
+        if (demote(record.blobId)) {
+          demoted++;
+          warmSize -= record.size;
+        }
+      }
+    }
+    return demoted;
+  }
+
+  private static boolean isTemporary(final BlobAttributes attributes) {
+    return attributes.getHeaders().containsKey(TEMPORARY_BLOB_HEADER);
+  }
+
+  private static long lastAccessed(final Map<String, String> headers, final BlobMetrics metrics) {
+    String lastAccessed = headers.get(LAST_ACCESSED_HEADER);
+    if (lastAccessed != null) {
+      try {
+        return Long.parseLong(lastAccessed);
+      }
+      catch (NumberFormatException e) { // NOSONAR
+        // fall back to the creation time
+      }
+    }
+    return metrics.getCreationTime().getMillis();
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public boolean delete(final BlobId blobId, final String reason) {
+    capacityTierReads.invalidate(blobId);
+    recordedAccesses.invalidate(blobId);
+    Lock lock = blobLocks.get(blobId);
+    lock.lock();
+    try {
+      List<BlobStore> locations = tiers().stream()
+          .filter((BlobStore tier) -> tier.exists(blobId))
+          .collect(toList());
+
+      return !locations.isEmpty() && locations.stream().allMatch((BlobStore tier) -> tier.delete(blobId, reason));
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public boolean deleteHard(final BlobId blobId) {
+    capacityTierReads.invalidate(blobId);
+    recordedAccesses.invalidate(blobId);
+    Lock lock = blobLocks.get(blobId);
+    lock.lock();
+    try {
+      List<BlobStore> locations = tiers().stream()
+          .filter((BlobStore tier) -> tier.exists(blobId))
+          .collect(toList());
+
+      return !locations.isEmpty() && locations.stream().allMatch((BlobStore tier) -> tier.deleteHard(blobId));
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public BlobStoreMetrics getMetrics() {
+    return new TieredBlobStoreMetrics(fastTier.get().getMetrics(), capacityTier.get().getMetrics(), fastTierCapacity,
+        counters);
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public synchronized void compact() {
+    tiers().forEach(BlobStore::compact);
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public synchronized void compact(@Nullable final BlobStoreUsageChecker inUseChecker) {
+    tiers().forEach((BlobStore tier) -> tier.compact(inUseChecker));
+  }
+
+  @Override
+  public boolean undelete(@Nullable final BlobStoreUsageChecker inUseChecker,
+                          final BlobId blobId,
+                          final BlobAttributes attributes,
+                          final boolean isDryRun)
+  {
+    return tiers().stream()
+        .filter((BlobStore tier) -> tier.exists(blobId))
+        .map((BlobStore tier) -> tier.undelete(inUseChecker, blobId, attributes, isDryRun))
+        .reduce(false, Boolean::logicalOr);
+  }
+
+  @Override
+  public boolean isStorageAvailable() {
+    return tiers().stream().allMatch(BlobStore::isStorageAvailable);
+  }
+
+  @Override
+  public boolean isGroupable() {
+    return false;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return tiers().stream().allMatch(BlobStore::isEmpty);
+  }
+
+  /**
+   * Permanently stops this blob store regardless of the current state, disallowing restarts.
+   */
+  @Override
+  @Transitions(to = SHUTDOWN)
+  public void shutdown() throws Exception {
+    if (isStarted()) {
+      doStop();
+    }
+  }
+
+  @Override
+  public boolean exists(final BlobId blobId) {
+    return tiers().stream().anyMatch((BlobStore tier) -> tier.exists(blobId));
+  }
+
+  @Override
+  @Guarded(by = {NEW, STOPPED, FAILED, SHUTDOWN})
+  public void remove() {
+    // no-op
+  }
+
+  @Override
+  public Stream<BlobId> getBlobIdStream() {
+    return tiers().stream()
+        .map(BlobStore::getBlobIdStream)
+        .flatMap(identity());
+  }
+
+  @Override
+  public Stream<BlobId> getDirectPathBlobIdStream(final String prefix) {
+    return tiers().stream()
+        .map((BlobStore tier) -> tier.getDirectPathBlobIdStream(prefix))
+        .flatMap(identity());
+  }
+
+  @Nullable
+  @Override
+  public BlobAttributes getBlobAttributes(final BlobId blobId) {
+    return locate(blobId)
+        .map((BlobStore tier) -> tier.getBlobAttributes(blobId))
+        .orElse(null);
+  }
+
+  @Override
+  public void setBlobAttributes(final BlobId blobId, final BlobAttributes blobAttributes) {
+    locate(blobId)
+        .ifPresent((BlobStore tier) -> tier.setBlobAttributes(blobId, blobAttributes));
+  }
+
+  private Optional<BlobStore> locate(final BlobId blobId) {
+    return tiers().stream()
+        .filter((BlobStore tier) -> tier.exists(blobId))
+        .findFirst();
+  }
+
+  /**
+   * Raw objects are derived data such as cached encodings, they stay in the fast tier.
+   */
+  @Override
+  public RawObjectAccess getRawObjectAccess() {
+    return fastTier.get().getRawObjectAccess();
+  }
+
+  @Override
+  public String toString() {
+    String name = blobStoreConfiguration != null ? blobStoreConfiguration.getName() : null;
+    return getClass().getSimpleName() + "{" +
+        "name='" + name + '\'' +
+        '}';
+  }
+
+  private static class AccessRecord
+  {
+    private final BlobId blobId;
+
+    private final long lastAccessed;
+
+    private final long size;
+
+    AccessRecord(final BlobId blobId, final long lastAccessed, final long size) {
+      this.blobId = blobId;
+      this.lastAccessed = lastAccessed;
+      this.size = size;
+    }
+  }
+
+  /**
+   * A blob read from one tier which follows it to the other tier when it has been moved in the meantime.
+   */
+  private static class TieredBlob
+      implements Blob
+  {
+    private final Blob delegate;
+
+    private final Supplier<BlobStore> otherTier;
+
+    TieredBlob(final Blob delegate, final Supplier<BlobStore> otherTier) {
+      this.delegate = delegate;
+      this.otherTier = otherTier;
+    }
+
+    @Override
+    public BlobId getId() {
+      return delegate.getId();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+      return delegate.getHeaders();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      try {
+        return delegate.getInputStream();
+      }
+      catch (BlobStoreException e) {
+        return moved(e).getInputStream();
+      }
+    }
+
+    @Override
+    public InputStream getInputStream(final long offset, final long length) {
+      try {
+        return delegate.getInputStream(offset, length);
+      }
+      catch (BlobStoreException e) {
+        return moved(e).getInputStream(offset, length);
+      }
+    }
+
+    private Blob moved(final BlobStoreException e) {
+      Blob moved = otherTier.get().get(delegate.getId());
+      if (moved == null) {
+        throw e;
+      }
+      return moved;
+    }
+
+    @Override
+    public BlobMetrics getMetrics() {
+      return delegate.getMetrics();
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+
+  /**
+   * Attributes of a fast tier blob with an updated {@link #LAST_ACCESSED_HEADER}.
+   */
+  private static class AccessedBlobAttributes
+      implements BlobAttributes
+  {
+    private final BlobAttributes delegate;
+
+    private final Map<String, String> headers;
+
+    AccessedBlobAttributes(final BlobAttributes delegate, final long lastAccessed) {
+      this.delegate = delegate;
+      this.headers = new HashMap<>(delegate.getHeaders());
+      this.headers.put(LAST_ACCESSED_HEADER, Long.toString(lastAccessed));
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public BlobMetrics getMetrics() {
+      return delegate.getMetrics();
+    }
+
+    @Override
+    public boolean isDeleted() {
+      return delegate.isDeleted();
+    }
+
+    @Override
+    public void setDeleted(final boolean deleted) {
+      delegate.setDeleted(deleted);
+    }
+
+    @Override
+    public void setDeletedReason(final String deletedReason) {
+      delegate.setDeletedReason(deletedReason);
+    }
+
+    @Override
+    public String getDeletedReason() {
+      return delegate.getDeletedReason();
+    }
+
+    @Override
+    public DateTime getDeletedDateTime() {
+      return delegate.getDeletedDateTime();
+    }
+
+    @Override
+    public void setDeletedDateTime(final DateTime deletedDateTime) {
+      delegate.setDeletedDateTime(deletedDateTime);
+    }
+
+    @Override
+    public Properties getProperties() {
+      return delegate.getProperties();
+    }
+
+    @Override
+    public void updateFrom(final BlobAttributes blobAttributes) {
+      delegate.updateFrom(blobAttributes);
+    }
+
+    @Override
+    public void store() throws IOException {
+      delegate.store();
+    }
+  }
+}
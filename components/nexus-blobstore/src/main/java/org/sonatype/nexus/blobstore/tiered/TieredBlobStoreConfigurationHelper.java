@@ -0,0 +1,77 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered;
+
+import java.util.Optional;
+
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.CAPACITY_TIER_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.CONFIG_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.DEFAULT_DEMOTE_AFTER_DAYS;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.DEFAULT_PROMOTE_AFTER_READS;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.DEMOTE_AFTER_DAYS_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.FAST_TIER_CAPACITY_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.FAST_TIER_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.PROMOTE_AFTER_READS_KEY;
+
+/**
+ * Helper for tiered blob store attributes in {@link BlobStoreConfiguration}.
+ *
+ * @since 3.31
+ */
+public class TieredBlobStoreConfigurationHelper {
+
+  private static final long MEGABYTE = 1024L * 1024L;
+
+  private TieredBlobStoreConfigurationHelper() {
+    // Don't instantiate
+  }
+
+  public static String fastTierName(final BlobStoreConfiguration configuration) {
+    return configuration.attributes(CONFIG_KEY).require(FAST_TIER_KEY).toString();
+  }
+
+  public static String capacityTierName(final BlobStoreConfiguration configuration) {
+    return configuration.attributes(CONFIG_KEY).require(CAPACITY_TIER_KEY).toString();
+  }
+
+  /**
+   * @return the maximum number of bytes to keep in the fast tier, or {@code 0} when it is unbounded
+   */
+  public static long fastTierCapacity(final BlobStoreConfiguration configuration) {
+    return number(configuration, FAST_TIER_CAPACITY_KEY).map(mb -> mb.longValue() * MEGABYTE).orElse(0L);
+  }
+
+  public static int demoteAfterDays(final BlobStoreConfiguration configuration) {
+    return number(configuration, DEMOTE_AFTER_DAYS_KEY).map(Number::intValue).orElse(DEFAULT_DEMOTE_AFTER_DAYS);
+  }
+
+  /**
+   * @return the number of capacity tier reads that trigger promotion, or {@code 0} when promotion is disabled
+   */
+  public static int promoteAfterReads(final BlobStoreConfiguration configuration) {
+    return number(configuration, PROMOTE_AFTER_READS_KEY).map(Number::intValue).orElse(DEFAULT_PROMOTE_AFTER_READS);
+  }
+
+  private static Optional<Number> number(final BlobStoreConfiguration configuration, final String key) {
+    Object value = configuration.attributes(CONFIG_KEY).get(key);
+    if (value instanceof Number) {
+      return Optional.of((Number) value);
+    }
+    if (value != null && !value.toString().trim().isEmpty()) {
+      return Optional.of(Long.valueOf(value.toString().trim()));
+    }
+    return Optional.empty();
+  }
+}
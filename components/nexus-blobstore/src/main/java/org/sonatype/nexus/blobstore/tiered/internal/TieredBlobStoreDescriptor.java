@@ -0,0 +1,269 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered.internal;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.goodies.i18n.I18N;
+import org.sonatype.goodies.i18n.MessageBundle;
+import org.sonatype.nexus.blobstore.BlobStoreDescriptor;
+import org.sonatype.nexus.blobstore.BlobStoreDescriptorSupport;
+import org.sonatype.nexus.blobstore.BlobStoreUtil;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.quota.BlobStoreQuotaService;
+import org.sonatype.nexus.blobstore.tiered.TieredBlobStore;
+import org.sonatype.nexus.formfields.ComboboxFormField;
+import org.sonatype.nexus.formfields.FormField;
+import org.sonatype.nexus.formfields.NumberTextFormField;
+import org.sonatype.nexus.rest.ValidationErrorsException;
+
+import org.apache.commons.lang.StringUtils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Streams.stream;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.CAPACITY_TIER_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.CONFIG_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.DEFAULT_DEMOTE_AFTER_DAYS;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.DEFAULT_PROMOTE_AFTER_READS;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.DEMOTE_AFTER_DAYS_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.FAST_TIER_CAPACITY_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.FAST_TIER_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.PROMOTE_AFTER_READS_KEY;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.capacityTierName;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.demoteAfterDays;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.fastTierCapacity;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.fastTierName;
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStoreConfigurationHelper.promoteAfterReads;
+import static org.sonatype.nexus.formfields.FormField.MANDATORY;
+import static org.sonatype.nexus.formfields.FormField.OPTIONAL;
+
+/**
+ * A {@link BlobStoreDescriptor} for {@link TieredBlobStore}.
+ *
+ * @since 3.31
+ */
+@Named(TieredBlobStore.TYPE)
+public class TieredBlobStoreDescriptor
+    extends BlobStoreDescriptorSupport
+{
+  private interface Messages
+      extends MessageBundle
+  {
+    @DefaultMessage("Tiered")
+    String name();
+
+    @DefaultMessage("Fast tier")
+    String fastTierLabel();
+
+    @DefaultMessage("Blob store receiving new and recently read blobs")
+    String fastTierHelp();
+
+    @DefaultMessage("Capacity tier")
+    String capacityTierLabel();
+
+    @DefaultMessage("Blob store holding blobs which have not been read recently")
+    String capacityTierHelp();
+
+    @DefaultMessage("Fast tier capacity in MB")
+    String fastTierCapacityLabel();
+
+    @DefaultMessage("Size above which the least recently read blobs are moved to the capacity tier, 0 for no limit")
+    String fastTierCapacityHelp();
+
+    @DefaultMessage("Demote after days")
+    String demoteAfterDaysLabel();
+
+    @DefaultMessage("Blobs not read for this many days are moved to the capacity tier")
+    String demoteAfterDaysHelp();
+
+    @DefaultMessage("Promote after reads")
+    String promoteAfterReadsLabel();
+
+    @DefaultMessage("Blobs read this many times from the capacity tier are moved back to the fast tier, 0 to disable")
+    String promoteAfterReadsHelp();
+  }
+
+  private static final Messages messages = I18N.create(Messages.class);
+
+  private final BlobStoreManager blobStoreManager;
+
+  private final BlobStoreUtil blobStoreUtil;
+
+  private final FormField<String> fastTier;
+
+  private final FormField<String> capacityTier;
+
+  private final FormField<Number> fastTierCapacity;
+
+  private final FormField<Number> demoteAfterDays;
+
+  private final FormField<Number> promoteAfterReads;
+
+  @Inject
+  public TieredBlobStoreDescriptor(final BlobStoreManager blobStoreManager,
+                                   final BlobStoreUtil blobStoreUtil,
+                                   final BlobStoreQuotaService quotaService)
+  {
+    super(quotaService);
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+    this.blobStoreUtil = checkNotNull(blobStoreUtil);
+    this.fastTier = new ComboboxFormField<String>(
+        FAST_TIER_KEY,
+        messages.fastTierLabel(),
+        messages.fastTierHelp(),
+        MANDATORY
+    ).withStoreApi("coreui_Blobstore.readGroupable").withIdMapping("name");
+    this.capacityTier = new ComboboxFormField<String>(
+        CAPACITY_TIER_KEY,
+        messages.capacityTierLabel(),
+        messages.capacityTierHelp(),
+        MANDATORY
+    ).withStoreApi("coreui_Blobstore.readGroupable").withIdMapping("name");
+    this.fastTierCapacity = new NumberTextFormField(
+        FAST_TIER_CAPACITY_KEY,
+        messages.fastTierCapacityLabel(),
+        messages.fastTierCapacityHelp(),
+        OPTIONAL
+    ).withInitialValue(0).withMinimumValue(0);
+    this.demoteAfterDays = new NumberTextFormField(
+        DEMOTE_AFTER_DAYS_KEY,
+        messages.demoteAfterDaysLabel(),
+        messages.demoteAfterDaysHelp(),
+        OPTIONAL
+    ).withInitialValue(DEFAULT_DEMOTE_AFTER_DAYS).withMinimumValue(1);
+    this.promoteAfterReads = new NumberTextFormField(
+        PROMOTE_AFTER_READS_KEY,
+        messages.promoteAfterReadsLabel(),
+        messages.promoteAfterReadsHelp(),
+        OPTIONAL
+    ).withInitialValue(DEFAULT_PROMOTE_AFTER_READS).withMinimumValue(0);
+  }
+
+  @Override
+  public String getName() {
+    return messages.name();
+  }
+
+  @Override
+  public List<FormField> getFormFields() {
+    return asList(fastTier, capacityTier, fastTierCapacity, demoteAfterDays, promoteAfterReads);
+  }
+
+  @Override
+  public void validateConfig(final BlobStoreConfiguration config) {
+    super.validateConfig(config);
+    String name = config.getName();
+
+    String fastName = config.attributes(CONFIG_KEY).get(FAST_TIER_KEY, String.class);
+    String capacityName = config.attributes(CONFIG_KEY).get(CAPACITY_TIER_KEY, String.class);
+    if (StringUtils.isBlank(fastName) || StringUtils.isBlank(capacityName)) {
+      throw new ValidationErrorsException("Tiered blob store requires a fast tier and a capacity tier");
+    }
+    if (fastName.equals(capacityName)) {
+      throw new ValidationErrorsException("Tiered blob store requires two different blob stores as tiers");
+    }
+
+    validateSettings(config);
+    validateEligibleTier(name, fastName);
+    validateEligibleTier(name, capacityName);
+    validateTiersUnchangedOrEmpty(name, asList(fastName, capacityName));
+  }
+
+  private void validateSettings(final BlobStoreConfiguration config) {
+    try {
+      if (fastTierCapacity(config) < 0) {
+        throw new ValidationErrorsException("Fast tier capacity cannot be negative");
+      }
+      if (demoteAfterDays(config) < 1) {
+        throw new ValidationErrorsException("Blobs must stay in the fast tier for at least one day");
+      }
+      if (promoteAfterReads(config) < 0) {
+        throw new ValidationErrorsException("Promote after reads cannot be negative");
+      }
+    }
+    catch (NumberFormatException e) {
+      throw new ValidationErrorsException("Tiered blob store settings must be whole numbers");
+    }
+  }
+
+  private void validateEligibleTier(final String name, final String tierName) {
+    if (tierName.equals(name)) {
+      throw new ValidationErrorsException("Blob Store '" + name + "' cannot contain itself");
+    }
+
+    BlobStore tier = blobStoreManager.get(tierName);
+    if (tier == null) {
+      throw new ValidationErrorsException(format("Blob Store '%s' not found", tierName));
+    }
+    if (!tier.isGroupable()) {
+      throw new ValidationErrorsException(
+          format("Blob Store '%s' is of type '%s' and is not eligible to be a tier", tierName,
+              tier.getBlobStoreConfiguration().getType()));
+    }
+
+    blobStoreManager.getParent(tierName).ifPresent(groupName -> {
+      throw new ValidationErrorsException(
+          format("Blob Store '%s' is already a member of Blob Store Group '%s'", tierName, groupName));
+    });
+
+    stream(blobStoreManager.browse())
+        .map(BlobStore::getBlobStoreConfiguration)
+        .filter(other -> TieredBlobStore.TYPE.equals(other.getType()) && !name.equals(other.getName()))
+        .filter(other -> configHasDependencyOn(other, tierName))
+        .findFirst()
+        .ifPresent(other -> {
+          throw new ValidationErrorsException(
+              format("Blob Store '%s' is already a tier of Blob Store '%s'", tierName, other.getName()));
+        });
+
+    int repoCount = blobStoreUtil.usageCount(tierName);
+    if (repoCount > 0) {
+      throw new ValidationErrorsException(format(
+          "Blob Store '%s' is set as storage for %s repositories and is not eligible to be a tier",
+          tierName, repoCount));
+    }
+  }
+
+  private void validateTiersUnchangedOrEmpty(final String name, final List<String> tierNames) {
+    BlobStore blobStore = blobStoreManager.get(name);
+    if (blobStore == null) {
+      return;
+    }
+    BlobStoreConfiguration currentConfiguration = blobStore.getBlobStoreConfiguration();
+    if (currentConfiguration != null && TieredBlobStore.TYPE.equals(currentConfiguration.getType())) {
+      List<String> existingTierNames = asList(fastTierName(currentConfiguration), capacityTierName(currentConfiguration));
+      for (String existingTierName : existingTierNames) {
+        if (!tierNames.contains(existingTierName)) {
+          BlobStore existingTier = blobStoreManager.get(existingTierName);
+          if (existingTier != null && !existingTier.isEmpty()) {
+            throw new ValidationErrorsException(
+                format("Blob Store '%s' cannot be removed from Blob Store '%s' while it holds blobs",
+                    existingTierName, name));
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean configHasDependencyOn(final BlobStoreConfiguration config, final String blobStoreName) {
+    return blobStoreName.equals(fastTierName(config)) || blobStoreName.equals(capacityTierName(config));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered.internal;
+
+import org.sonatype.nexus.blobstore.api.BlobStoreMetrics;
+import org.sonatype.nexus.blobstore.group.internal.BlobStoreGroupMetrics;
+import org.sonatype.nexus.blobstore.tiered.TieredBlobStore;
+
+import static com.google.common.collect.ImmutableList.of;
+
+/**
+ * {@link BlobStoreMetrics} of a {@link TieredBlobStore}; combines the metrics of both tiers and reports
+ * the fast tier usage against its capacity along with the migrations performed since startup.
+ *
+ * @since 3.31
+ */
+public class TieredBlobStoreMetrics
+    extends BlobStoreGroupMetrics
+{
+  private final long fastTierSize;
+
+  private final long fastTierCapacity;
+
+  private final long capacityTierSize;
+
+  private final long promotedBlobCount;
+
+  private final long promotedBytes;
+
+  private final long demotedBlobCount;
+
+  private final long demotedBytes;
+
+  public TieredBlobStoreMetrics(final BlobStoreMetrics fastTierMetrics,
+                                final BlobStoreMetrics capacityTierMetrics,
+                                final long fastTierCapacity,
+                                final TieringCounters counters)
+  {
+    super(of(fastTierMetrics, capacityTierMetrics));
+    this.fastTierSize = fastTierMetrics.getTotalSize();
+    this.fastTierCapacity = fastTierCapacity;
+    this.capacityTierSize = capacityTierMetrics.getTotalSize();
+    this.promotedBlobCount = counters.getPromotedBlobCount();
+    this.promotedBytes = counters.getPromotedBytes();
+    this.demotedBlobCount = counters.getDemotedBlobCount();
+    this.demotedBytes = counters.getDemotedBytes();
+  }
+
+  public long getFastTierSize() {
+    return fastTierSize;
+  }
+
+  /**
+   * @return the configured fast tier capacity in bytes, {@code 0} if unbounded
+   */
+  public long getFastTierCapacity() {
+    return fastTierCapacity;
+  }
+
+  public long getCapacityTierSize() {
+    return capacityTierSize;
+  }
+
+  public long getPromotedBlobCount() {
+    return promotedBlobCount;
+  }
+
+  public long getPromotedBytes() {
+    return promotedBytes;
+  }
+
+  public long getDemotedBlobCount() {
+    return demotedBlobCount;
+  }
+
+  public long getDemotedBytes() {
+    return demotedBytes;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered.internal;
+
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.tiered.TieredBlobStore;
+import org.sonatype.nexus.scheduling.Cancelable;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
+import org.sonatype.nexus.scheduling.TaskSupport;
+
+import com.google.common.collect.ImmutableSet;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.blobstore.tiered.internal.TieredBlobStoreRebalanceTaskDescriptor.BLOB_STORE_NAME_FIELD_ID;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.BLOBSTORE_IO;
+
+/**
+ * Task demoting the cold blobs of a {@link TieredBlobStore}.
+ *
+ * @since 3.31
+ */
+@Named
+public class TieredBlobStoreRebalanceTask
+    extends TaskSupport
+    implements Cancelable, TaskResourceAware
+{
+  private final BlobStoreManager blobStoreManager;
+
+  @Inject
+  public TieredBlobStoreRebalanceTask(final BlobStoreManager blobStoreManager) {
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+  }
+
+  @Override
+  protected Object execute() throws Exception {
+    BlobStore blobStore = blobStoreManager.get(getBlobStoreField());
+    if (!(blobStore instanceof TieredBlobStore)) {
+      log.warn("Unable to find tiered blob store: {}", getBlobStoreField());
+      return null;
+    }
+    TieredBlobStore tieredBlobStore = (TieredBlobStore) blobStore;
+    long demoted = tieredBlobStore.rebalance();
+    TieredBlobStoreMetrics metrics = (TieredBlobStoreMetrics) tieredBlobStore.getMetrics();
+    log.info("Demoted {} blobs of {}; fast tier now holds {} bytes of {} (0 = unbounded), " +
+            "{} blobs promoted and {} demoted since startup",
+        demoted, getBlobStoreField(), metrics.getFastTierSize(), metrics.getFastTierCapacity(),
+        metrics.getPromotedBlobCount(), metrics.getDemotedBlobCount());
+    return demoted;
+  }
+
+  @Override
+  public Set<TaskResource> getResources() {
+    return ImmutableSet.of(TaskResource.of(BLOBSTORE_IO, getBlobStoreField()));
+  }
+
+  @Override
+  public String getMessage() {
+    return "Rebalancing tiers of " + getBlobStoreField() + " blob store";
+  }
+
+  private String getBlobStoreField() {
+    return getConfiguration().getString(BLOB_STORE_NAME_FIELD_ID);
+  }
+}
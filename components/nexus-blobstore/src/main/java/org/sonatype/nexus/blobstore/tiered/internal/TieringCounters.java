@@ -0,0 +1,71 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered.internal;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Tracks the blobs and bytes moved between the tiers of a tiered blob store.
+ *
+ * @since 3.31
+ */
+public class TieringCounters
+{
+  private Meter promotedBlobs = new Meter();
+
+  private Meter promotedBytes = new Meter();
+
+  private Meter demotedBlobs = new Meter();
+
+  private Meter demotedBytes = new Meter();
+
+  /**
+   * Publishes the counters to the given registry under the name of the blob store.
+   */
+  public void register(final MetricRegistry metricRegistry, final String blobStoreName) {
+    String prefix = name("org.sonatype.nexus.blobstore.tiered", blobStoreName);
+    promotedBlobs = metricRegistry.meter(name(prefix, "promoted", "blobs"));
+    promotedBytes = metricRegistry.meter(name(prefix, "promoted", "bytes"));
+    demotedBlobs = metricRegistry.meter(name(prefix, "demoted", "blobs"));
+    demotedBytes = metricRegistry.meter(name(prefix, "demoted", "bytes"));
+  }
+
+  public void promoted(final long size) {
+    promotedBlobs.mark();
+    promotedBytes.mark(size);
+  }
+
+  public void demoted(final long size) {
+    demotedBlobs.mark();
+    demotedBytes.mark(size);
+  }
+
+  public long getPromotedBlobCount() {
+    return promotedBlobs.getCount();
+  }
+
+  public long getPromotedBytes() {
+    return promotedBytes.getCount();
+  }
+
+  public long getDemotedBlobCount() {
+    return demotedBlobs.getCount();
+  }
+
+  public long getDemotedBytes() {
+    return demotedBytes.getCount();
+  }
+}
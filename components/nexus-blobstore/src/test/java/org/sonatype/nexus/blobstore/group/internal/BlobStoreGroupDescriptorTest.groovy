@@ -62,6 +62,7 @@ class BlobStoreGroupDescriptorTest
     blobStoreManager.get(_) >> { String name -> blobStores.computeIfAbsent(name, { k -> mockBlobStore(k, 'mock') }) }
     blobStoreManager.browse() >> blobStores.values()
     blobStoreManager.getParent(_) >> Optional.empty()
+    blobStoreManager.getDependents(_) >> []
     blobStoreUtil.usageCount(_) >> 0
     blobStoreGroupService.isEnabled() >> true
   }
@@ -123,6 +124,31 @@ class BlobStoreGroupDescriptorTest
       exception.message == "Blob Store 'store1' is already a member of Blob Store Group 'group1'"
   }
 
+  def 'blob stores used by another blob store cant be group members'() {
+    when: 'attempting to create a group with a tier of a tiered blob store'
+      blobStoreGroupDescriptor.
+          validateConfig(new MockBlobStoreConfiguration(name: 'invalidGroup', type: BlobStoreGroup.TYPE,
+              attributes: [group: [members: ['store1'], fillPolicy: WriteToFirstMemberFillPolicy.TYPE]]))
+
+    then: 'a validation exception is thrown'
+      blobStoreManager.getDependents('store1') >> ['tiered1']
+      def exception = thrown(ValidationErrorsException)
+      exception.message ==
+          "Blob Store 'store1' is used by Blob Store 'tiered1' and is not eligible to be a group member"
+  }
+
+  def 'group members remain eligible when updating their own group'() {
+    when: 'a group is updated with its existing member'
+      blobStoreGroupDescriptor.
+          validateConfig(new MockBlobStoreConfiguration(name: 'group1', type: BlobStoreGroup.TYPE,
+              attributes: [group: [members: ['store1'], fillPolicy: WriteToFirstMemberFillPolicy.TYPE]]))
+
+    then: 'validate succeeds'
+      blobStoreManager.getParent('store1') >> Optional.of('group1')
+      blobStoreManager.getDependents('store1') >> ['group1']
+      noExceptionThrown()
+  }
+
   def 'blob stores cant be group members if set as repo storage'() {
     when: 'attempting to create a group with that blob store'
       blobStoreGroupDescriptor.
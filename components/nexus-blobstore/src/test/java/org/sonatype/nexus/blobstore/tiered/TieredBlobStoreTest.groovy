@@ -0,0 +1,319 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.tiered
+
+import java.util.concurrent.TimeUnit
+
+import org.sonatype.goodies.common.Time
+import org.sonatype.nexus.blobstore.MockBlobStoreConfiguration
+import org.sonatype.nexus.blobstore.api.Blob
+import org.sonatype.nexus.blobstore.api.BlobAttributes
+import org.sonatype.nexus.blobstore.api.BlobId
+import org.sonatype.nexus.blobstore.api.BlobMetrics
+import org.sonatype.nexus.blobstore.api.BlobStore
+import org.sonatype.nexus.blobstore.api.BlobStoreException
+import org.sonatype.nexus.blobstore.api.BlobStoreManager
+import org.sonatype.nexus.blobstore.api.BlobStoreMetrics
+import org.sonatype.nexus.blobstore.tiered.internal.TieredBlobStoreMetrics
+
+import org.joda.time.DateTime
+import spock.lang.Specification
+
+import static org.sonatype.nexus.blobstore.tiered.TieredBlobStore.LAST_ACCESSED_HEADER
+
+/**
+ * {@link TieredBlobStore} tests.
+ */
+class TieredBlobStoreTest
+    extends Specification
+{
+  static final long MB = 1024L * 1024L
+
+  BlobStoreManager blobStoreManager = Mock()
+
+  BlobStore fast = Mock()
+
+  BlobStore capacity = Mock()
+
+  TieredBlobStore blobStore = new TieredBlobStore(blobStoreManager, new Time(1, TimeUnit.HOURS), 100,
+      new Time(7, TimeUnit.DAYS))
+
+  def config = new MockBlobStoreConfiguration(name: 'tiered')
+
+  def setup() {
+    blobStoreManager.get('fast') >> fast
+    blobStoreManager.get('capacity') >> capacity
+  }
+
+  def 'Create writes to the fast tier while it is below capacity'() {
+    given: 'a fast tier holding less than its capacity'
+      init(fastTierCapacityMb: 10)
+      fast.getMetrics() >> metrics(5 * MB)
+      def stream = new ByteArrayInputStream('hello'.bytes)
+      def blob = Mock(Blob)
+
+    when:
+      def created = blobStore.create(stream, [:])
+
+    then: 'the blob goes to the fast tier'
+      1 * fast.create(stream, [:], null) >> blob
+      0 * capacity.create(*_)
+      created == blob
+  }
+
+  def 'Create writes to the capacity tier once the fast tier is full'() {
+    given: 'a full fast tier'
+      init(fastTierCapacityMb: 10)
+      fast.getMetrics() >> metrics(10 * MB)
+      def stream = new ByteArrayInputStream('hello'.bytes)
+      def blob = Mock(Blob)
+
+    when:
+      def created = blobStore.create(stream, [:])
+
+    then: 'the blob goes to the capacity tier'
+      0 * fast.create(*_)
+      1 * capacity.create(stream, [:], null) >> blob
+      created == blob
+  }
+
+  def 'Get falls back to the capacity tier'() {
+    given:
+      init()
+      def blobId = new BlobId('cold')
+      def blob = Mock(Blob) {
+        getId() >> blobId
+      }
+
+    when:
+      def found = blobStore.get(blobId)
+
+    then:
+      1 * fast.get(blobId, false) >> null
+      1 * capacity.get(blobId, false) >> blob
+      found.id == blobId
+  }
+
+  def 'A blob moved to the other tier after it was read can still be streamed'() {
+    given:
+      init()
+      def blobId = new BlobId('moving')
+      def stale = Mock(Blob) {
+        getId() >> blobId
+        getInputStream() >> { throw new BlobStoreException('Blob has been deleted', blobId) }
+      }
+      def content = new ByteArrayInputStream('hello'.bytes)
+      def moved = Mock(Blob) {
+        getInputStream() >> content
+      }
+      capacity.get(blobId, false) >> stale
+
+    when:
+      def found = blobStore.get(blobId)
+      def stream = found.inputStream
+
+    then:
+      1 * fast.get(blobId) >> moved
+      stream == content
+  }
+
+  def 'Reading a fast tier blob refreshes its last access time once per resolution'() {
+    given:
+      init()
+      def blobId = new BlobId('hot')
+      def headers = [(LAST_ACCESSED_HEADER): lastAccessed as String]
+      def found = blob(headers, 10)
+      def stored = attributes(headers, 10)
+
+    when:
+      blobStore.get(blobId)
+
+    then:
+      1 * fast.get(blobId, false) >> found
+      (touched ? 1 : 0) * fast.getBlobAttributes(blobId) >> stored
+      (touched ? 1 : 0) * fast.setBlobAttributes(blobId, { it.headers[LAST_ACCESSED_HEADER] as long > lastAccessed })
+
+    where:
+      lastAccessed                                               || touched
+      System.currentTimeMillis()                                 || false
+      System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)    || true
+  }
+
+  def 'Repeated reads of a fast tier blob refresh its last access time only once'() {
+    given: 'a cached blob whose headers keep the stale access time'
+      init()
+      def blobId = new BlobId('hot')
+      def headers = [(LAST_ACCESSED_HEADER): (System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)) as String]
+      fast.get(blobId, false) >> blob(headers, 10)
+
+    when:
+      3.times { blobStore.get(blobId) }
+
+    then:
+      1 * fast.getBlobAttributes(blobId) >> attributes(headers, 10)
+      1 * fast.setBlobAttributes(blobId, _)
+  }
+
+  def 'Promotion moves a blob to the fast tier keeping its id'() {
+    given:
+      init()
+      def blobId = new BlobId('warm')
+      def source = blob(['BlobStore.blob-name': 'a.jar'], 42)
+      fast.getMetrics() >> metrics(0)
+      capacity.getMetrics() >> metrics(0)
+
+    when:
+      def promoted = blobStore.promote(blobId)
+
+    then:
+      1 * capacity.get(blobId) >> source
+      1 * fast.exists(blobId) >> false
+      1 * fast.create(_ as InputStream, { it['BlobStore.blob-name'] == 'a.jar' && it[LAST_ACCESSED_HEADER] }, blobId)
+      1 * capacity.getBlobAttributes(blobId) >> attributes([:], 42)
+      1 * capacity.deleteHard(blobId)
+      promoted
+
+    and: 'the migration is reported in the metrics'
+      def metrics = blobStore.getMetrics() as TieredBlobStoreMetrics
+      metrics.promotedBlobCount == 1
+      metrics.promotedBytes == 42
+  }
+
+  def 'Promotion is skipped while the fast tier is full'() {
+    given:
+      init(fastTierCapacityMb: 1)
+      fast.getMetrics() >> metrics(MB)
+
+    when:
+      def promoted = blobStore.promote(new BlobId('warm'))
+
+    then:
+      !promoted
+      0 * capacity.get(_)
+      0 * fast.create(*_)
+      0 * capacity.deleteHard(_)
+  }
+
+  def 'A blob deleted while it is being demoted leaves no copy behind'() {
+    given:
+      init()
+      def blobId = new BlobId('deleted')
+      fast.get(blobId) >> blob([:], 10)
+      fast.getBlobAttributes(blobId) >> attributes([:], 10, System.currentTimeMillis(), true)
+
+    when:
+      def demoted = blobStore.demote(blobId)
+
+    then: 'the capacity tier copy is removed and the deleted fast tier blob is left for compaction'
+      !demoted
+      1 * capacity.create(_ as InputStream, _, blobId)
+      1 * capacity.deleteHard(blobId)
+      0 * fast.deleteHard(blobId)
+  }
+
+  def 'Rebalance demotes blobs not read within the configured days'() {
+    given:
+      init(demoteAfterDays: 30)
+      def now = System.currentTimeMillis()
+      def coldId = new BlobId('cold')
+      def warmId = new BlobId('warm')
+      def temporaryId = new BlobId('temporary')
+      fast.getBlobIdStream() >> { [coldId, warmId, temporaryId].stream() }
+      def longAgo = now - TimeUnit.DAYS.toMillis(31)
+      fast.getBlobAttributes(coldId) >> attributes([(LAST_ACCESSED_HEADER): longAgo as String], 10)
+      fast.getBlobAttributes(warmId) >> attributes([(LAST_ACCESSED_HEADER): now as String], 10)
+      fast.getBlobAttributes(temporaryId) >> attributes([(BlobStore.TEMPORARY_BLOB_HEADER): 'true'], 10, longAgo)
+      fast.get(coldId) >> blob([:], 10)
+
+    when:
+      def demoted = blobStore.rebalance()
+
+    then: 'only the cold blob moves to the capacity tier'
+      demoted == 1
+      1 * capacity.create(_ as InputStream, _, coldId)
+      1 * fast.deleteHard(coldId)
+      0 * capacity.create(_, _, warmId)
+      0 * capacity.create(_, _, temporaryId)
+  }
+
+  def 'Rebalance demotes least recently read blobs while the fast tier is over capacity'() {
+    given:
+      init(fastTierCapacityMb: 2, demoteAfterDays: 30)
+      def now = System.currentTimeMillis()
+      def oldest = new BlobId('oldest')
+      def older = new BlobId('older')
+      def newest = new BlobId('newest')
+      fast.getBlobIdStream() >> { [newest, oldest, older].stream() }
+      fast.getBlobAttributes(oldest) >> attributes([(LAST_ACCESSED_HEADER): (now - 3000) as String], MB)
+      fast.getBlobAttributes(older) >> attributes([(LAST_ACCESSED_HEADER): (now - 2000) as String], MB)
+      fast.getBlobAttributes(newest) >> attributes([(LAST_ACCESSED_HEADER): (now - 1000) as String], MB)
+      fast.get(_ as BlobId) >> blob([:], MB)
+
+    when:
+      def demoted = blobStore.rebalance()
+
+    then: 'just enough of the least recently read blobs are demoted to get back under capacity'
+      demoted == 1
+      1 * capacity.create(_ as InputStream, _, oldest)
+      1 * fast.deleteHard(oldest)
+      0 * fast.deleteHard(older)
+      0 * fast.deleteHard(newest)
+  }
+
+  def 'Delete removes the blob from every tier holding it'() {
+    given:
+      init()
+      def blobId = new BlobId('both')
+      fast.exists(blobId) >> true
+      capacity.exists(blobId) >> true
+
+    when:
+      def deleted = blobStore.delete(blobId, 'test')
+
+    then:
+      1 * fast.delete(blobId, 'test') >> true
+      1 * capacity.delete(blobId, 'test') >> true
+      deleted
+  }
+
+  private void init(Map settings = [:]) {
+    config.attributes = [tiered: [fastTier: 'fast', capacityTier: 'capacity'] + settings]
+    blobStore.init(config)
+    blobStore.doStart()
+  }
+
+  private BlobStoreMetrics metrics(long totalSize) {
+    Mock(BlobStoreMetrics) {
+      getTotalSize() >> totalSize
+      getAvailableSpaceByFileStore() >> [:]
+    }
+  }
+
+  private Blob blob(Map headers, long size) {
+    Mock(Blob) {
+      getHeaders() >> headers
+      getMetrics() >> new BlobMetrics(new DateTime(), 'sha1', size)
+      getInputStream() >> new ByteArrayInputStream(new byte[0])
+    }
+  }
+
+  private BlobAttributes attributes(Map headers, long size, long created = System.currentTimeMillis(),
+                                    boolean deleted = false)
+  {
+    Mock(BlobAttributes) {
+      getHeaders() >> headers
+      getMetrics() >> new BlobMetrics(new DateTime(created), 'sha1', size)
+      isDeleted() >> deleted
+    }
+  }
+}
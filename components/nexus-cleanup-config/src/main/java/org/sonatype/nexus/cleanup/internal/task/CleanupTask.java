@@ -12,15 +12,22 @@
  */
 package org.sonatype.nexus.cleanup.internal.task;
 
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.sonatype.nexus.cleanup.service.CleanupService;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
 import org.sonatype.nexus.scheduling.TaskSupport;
 import org.sonatype.nexus.logging.task.TaskLogging;
 
+import com.google.common.collect.ImmutableSet;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sonatype.nexus.logging.task.TaskLogType.TASK_LOG_ONLY;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.DATABASE_WRITE;
 
 /**
  * Runs cleanup via the cleanup service.
@@ -31,6 +38,7 @@ import static org.sonatype.nexus.logging.task.TaskLogType.TASK_LOG_ONLY;
 @TaskLogging(TASK_LOG_ONLY)
 public class CleanupTask
     extends TaskSupport
+    implements TaskResourceAware
 {
   private final CleanupService cleanupService;
 
@@ -55,6 +63,11 @@ public class CleanupTask
     return null;
   }
 
+  @Override
+  public Set<TaskResource> getResources() {
+    return ImmutableSet.of(TaskResource.of(DATABASE_WRITE));
+  }
+
   @Override
   public String getMessage() {
     return "Run repository cleanup";
@@ -15,6 +15,8 @@ package org.sonatype.nexus.common.hash;
 import java.util.Map;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
@@ -29,13 +31,13 @@ import static java.util.Optional.ofNullable;
  */
 public class HashAlgorithm
 {
-  public static final HashAlgorithm MD5 = new HashAlgorithm("md5", Hashing.md5());
+  public static final HashAlgorithm MD5 = new HashAlgorithm("md5", Hashing.md5(), "MD5");
 
-  public static final HashAlgorithm SHA1 = new HashAlgorithm("sha1", Hashing.sha1());
+  public static final HashAlgorithm SHA1 = new HashAlgorithm("sha1", Hashing.sha1(), "SHA-1");
 
-  public static final HashAlgorithm SHA256 = new HashAlgorithm("sha256", Hashing.sha256());
+  public static final HashAlgorithm SHA256 = new HashAlgorithm("sha256", Hashing.sha256(), "SHA-256");
 
-  public static final HashAlgorithm SHA512 = new HashAlgorithm("sha512", Hashing.sha512());
+  public static final HashAlgorithm SHA512 = new HashAlgorithm("sha512", Hashing.sha512(), "SHA-512");
 
   public static final Map<String, HashAlgorithm> ALL_HASH_ALGORITHMS = ImmutableMap
       .of(MD5.name, MD5, SHA1.name, SHA1, SHA256.name, SHA256, SHA512.name, SHA512);
@@ -44,9 +46,21 @@ public class HashAlgorithm
 
   private final HashFunction function;
 
+  @Nullable
+  private final String digestName;
+
   public HashAlgorithm(String name, HashFunction function) {
+    this(name, function, null);
+  }
+
+  /**
+   * @param digestName the JCA {@link java.security.MessageDigest} name of the same algorithm, if there is one
+   * @since 3.31
+   */
+  public HashAlgorithm(String name, HashFunction function, @Nullable String digestName) {
     this.name = checkNotNull(name);
     this.function = checkNotNull(function);
+    this.digestName = digestName;
   }
 
   public String name() {
@@ -57,6 +71,16 @@ public class HashAlgorithm
     return function;
   }
 
+  /**
+   * Returns the JCA {@link java.security.MessageDigest} name of this algorithm, if known.
+   *
+   * @since 3.31
+   */
+  @Nullable
+  public String digestName() {
+    return digestName;
+  }
+
   public static Optional<HashAlgorithm> getHashAlgorithm(final String algorithm) {
     return ofNullable(ALL_HASH_ALGORITHMS.get(algorithm));
   }
@@ -15,15 +15,13 @@ package org.sonatype.nexus.common.hash;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import javax.annotation.Nonnull;
 
+import org.sonatype.nexus.common.hash.ParallelMultiHasher.State;
+
 import com.google.common.hash.HashCode;
-import com.google.common.hash.Hasher;
 import com.google.common.hash.HashingInputStream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -31,32 +29,38 @@ import static com.google.common.base.Preconditions.checkNotNull;
 /**
  * An {@link InputStream} that maintains multiple hashes and the number of bytes of data read from it.
  *
+ * Hashes are computed by a {@link ParallelMultiHasher}, so large streams are hashed by parallel digest lanes while
+ * the caller keeps reading.
+ *
  * @see HashingInputStream
  * @since 3.0
  */
 public class MultiHashingInputStream
     extends FilterInputStream
 {
-  private final Map<HashAlgorithm, Hasher> hashers = new LinkedHashMap<>();
-
-  private long count;
+  private final ParallelMultiHasher hasher;
 
   public MultiHashingInputStream(final Iterable<HashAlgorithm> algorithms, final InputStream inputStream) {
     super(checkNotNull(inputStream));
-    checkNotNull(algorithms);
-    for (HashAlgorithm algorithm : algorithms) {
-      hashers.put(algorithm, algorithm.function().newHasher());
-    }
+    this.hasher = new ParallelMultiHasher(checkNotNull(algorithms));
+  }
+
+  /**
+   * Continues hashing from a previous {@link #snapshot()}, for example when receiving the next chunk of an upload.
+   * The {@link #count()} includes the bytes hashed before the snapshot was taken.
+   *
+   * @since 3.31
+   */
+  public MultiHashingInputStream(final State state, final InputStream inputStream) {
+    super(checkNotNull(inputStream));
+    this.hasher = ParallelMultiHasher.resume(state);
   }
 
   @Override
   public int read() throws IOException {
     int b = in.read();
     if (b != -1) {
-      for (Hasher hasher : hashers.values()) {
-        hasher.putByte((byte) b);
-      }
-      count++;
+      hasher.update((byte) b);
     }
     return b;
   }
@@ -64,15 +68,32 @@ public class MultiHashingInputStream
   @Override
   public int read(@Nonnull final byte[] bytes, final int off, final int len) throws IOException {
     int numRead = in.read(bytes, off, len);
-    if (numRead != -1) {
-      for (Hasher hasher : hashers.values()) {
-        hasher.putBytes(bytes, off, numRead);
-      }
-      count += numRead;
+    if (numRead > 0) {
+      hasher.update(bytes, off, numRead);
     }
     return numRead;
   }
 
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    }
+    finally {
+      hasher.release();
+    }
+  }
+
+  /**
+   * Gives pooled hashing buffers back without closing the underlying stream, for streams owned by the caller.
+   * The hashes remain available.
+   *
+   * @since 3.31
+   */
+  public void release() {
+    hasher.release();
+  }
+
   @Override
   public boolean markSupported() {
     return false;
@@ -92,17 +113,22 @@ public class MultiHashingInputStream
    * Gets the {@link HashCode}s based on the data read from this stream.
    */
   public Map<HashAlgorithm, HashCode> hashes() {
-    Map<HashAlgorithm, HashCode> hashes = new HashMap<>(hashers.size());
-    for (Entry<HashAlgorithm, Hasher> entry : hashers.entrySet()) {
-      hashes.put(entry.getKey(), entry.getValue().hash());
-    }
-    return hashes;
+    return hasher.hashes();
+  }
+
+  /**
+   * Captures the digest state of the data read so far, see {@link #MultiHashingInputStream(State, InputStream)}.
+   *
+   * @since 3.31
+   */
+  public State snapshot() {
+    return hasher.snapshot();
   }
 
   /**
    * Gets the number of bytes read from this stream.
    */
   public long count() {
-    return count;
+    return hasher.count();
   }
 }
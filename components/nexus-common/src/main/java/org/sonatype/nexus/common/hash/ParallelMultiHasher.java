@@ -0,0 +1,485 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.common.property.SystemPropertiesHelper;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Computes several digests over the same data in a single pass.
+ *
+ * Small inputs, and inputs with a single digest, are hashed directly on the calling thread. Once more than one segment
+ * of data has been seen the hasher switches to parallel mode: data is copied into one of two large segment buffers, borrowed from a shared pool, and
+ * each full segment is handed to one lane per digest running on a shared pool of hashing threads while the caller
+ * fills the other segment. Each lane always finishes a segment before it is given the next, so digests see the data
+ * in order. No memory is allocated per update.
+ *
+ * Digests backed by a JCA {@link MessageDigest} can be {@link #snapshot() snapshotted} and later
+ * {@link #resume(State) resumed}, for example to continue hashing the next chunk of a chunked upload.
+ *
+ * Not thread-safe, expected to be fed by a single thread.
+ *
+ * @since 3.31
+ */
+public final class ParallelMultiHasher
+{
+  /**
+   * Size of the segments handed to digest lanes.
+   */
+  static final int SEGMENT_SIZE =
+      SystemPropertiesHelper.getInteger(ParallelMultiHasher.class.getName() + ".segmentSize", 1024 * 1024);
+
+  private static final int LANE_THREADS = SystemPropertiesHelper.getInteger(
+      ParallelMultiHasher.class.getName() + ".laneThreads", Runtime.getRuntime().availableProcessors());
+
+  private static final int POOLED_SEGMENTS =
+      SystemPropertiesHelper.getInteger(ParallelMultiHasher.class.getName() + ".pooledSegments", 2 * LANE_THREADS);
+
+  private static final BlockingQueue<byte[]> SEGMENT_POOL = new ArrayBlockingQueue<>(Math.max(1, POOLED_SEGMENTS));
+
+  private static volatile ExecutorService laneExecutor;
+
+  private static volatile boolean stopped;
+
+  private final Map<HashAlgorithm, Lane> lanes;
+
+  private final Lane[] laneArray;
+
+  private final int segmentSize;
+
+  private Segment filling;
+
+  private Segment inFlight;
+
+  private long count;
+
+  public ParallelMultiHasher(final Iterable<HashAlgorithm> algorithms) {
+    this(algorithms, SEGMENT_SIZE);
+  }
+
+  ParallelMultiHasher(final Iterable<HashAlgorithm> algorithms, final int segmentSize) {
+    checkNotNull(algorithms);
+    checkArgument(segmentSize > 0, "Segment size must be positive");
+    this.segmentSize = segmentSize;
+    this.lanes = new LinkedHashMap<>();
+    for (HashAlgorithm algorithm : algorithms) {
+      lanes.put(algorithm, Lane.create(algorithm));
+    }
+    this.laneArray = lanes.values().toArray(new Lane[0]);
+  }
+
+  private ParallelMultiHasher(final State state, final int segmentSize) {
+    this.segmentSize = segmentSize;
+    this.lanes = new LinkedHashMap<>();
+    for (Entry<HashAlgorithm, Lane> entry : state.lanes.entrySet()) {
+      lanes.put(entry.getKey(), entry.getValue().copy());
+    }
+    this.laneArray = lanes.values().toArray(new Lane[0]);
+    this.count = state.count;
+  }
+
+  /**
+   * Continues hashing from a previously taken {@link #snapshot()}; the state itself is left untouched.
+   */
+  public static ParallelMultiHasher resume(final State state) {
+    checkNotNull(state);
+    return new ParallelMultiHasher(state, SEGMENT_SIZE);
+  }
+
+  public void update(final byte b) {
+    if (filling == null) {
+      for (Lane lane : laneArray) {
+        lane.update(b);
+      }
+      count++;
+      if (count > segmentSize && laneArray.length > 1) {
+        startParallel();
+      }
+      return;
+    }
+    filling.data[filling.length++] = b;
+    count++;
+    if (filling.length == filling.data.length) {
+      dispatch();
+    }
+  }
+
+  public void update(final byte[] bytes, final int off, final int len) {
+    checkPositionIndexes(off, off + len, bytes.length);
+    int offset = off;
+    int remaining = len;
+    if (filling == null) {
+      if (count + len <= segmentSize || laneArray.length < 2) {
+        for (Lane lane : laneArray) {
+          lane.update(bytes, off, len);
+        }
+        count += len;
+        return;
+      }
+      startParallel();
+    }
+    while (remaining > 0) {
+      int chunk = Math.min(remaining, filling.data.length - filling.length);
+      System.arraycopy(bytes, offset, filling.data, filling.length, chunk);
+      filling.length += chunk;
+      offset += chunk;
+      remaining -= chunk;
+      if (filling.length == filling.data.length) {
+        dispatch();
+      }
+    }
+    count += len;
+  }
+
+  /**
+   * Number of bytes hashed so far, including any bytes hashed before the resumed {@link State}.
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the hashes of all data seen so far. More data may still be added afterwards.
+   */
+  public Map<HashAlgorithm, HashCode> hashes() {
+    flush();
+    Map<HashAlgorithm, HashCode> hashes = new LinkedHashMap<>(lanes.size());
+    for (Entry<HashAlgorithm, Lane> entry : lanes.entrySet()) {
+      hashes.put(entry.getKey(), entry.getValue().hash());
+    }
+    return hashes;
+  }
+
+  /**
+   * Captures the current digest state so hashing can later be {@link #resume(State) resumed} from this point.
+   *
+   * @throws IllegalStateException if any digest does not support copying its state
+   */
+  public State snapshot() {
+    flush();
+    Map<HashAlgorithm, Lane> copies = new LinkedHashMap<>(lanes.size());
+    for (Entry<HashAlgorithm, Lane> entry : lanes.entrySet()) {
+      copies.put(entry.getKey(), entry.getValue().copy());
+    }
+    return new State(copies, count);
+  }
+
+  /**
+   * Waits for outstanding segments and gives pooled buffers back; the hasher remains usable.
+   */
+  public void release() {
+    flush();
+    if (filling != null) {
+      SEGMENT_POOL.offer(filling.data);
+      SEGMENT_POOL.offer(inFlight.data);
+      filling = null;
+      inFlight = null;
+    }
+  }
+
+  private void startParallel() {
+    filling = new Segment(borrow());
+    inFlight = new Segment(borrow());
+  }
+
+  private byte[] borrow() {
+    byte[] data = SEGMENT_POOL.poll();
+    return data != null && data.length == segmentSize ? data : new byte[segmentSize];
+  }
+
+  private void flush() {
+    if (filling != null) {
+      dispatch();
+      inFlight.await();
+    }
+  }
+
+  /**
+   * Hands the filled segment to the lanes once they have finished the previous one, then swaps segments.
+   */
+  private void dispatch() {
+    inFlight.await();
+    Segment segment = filling;
+    if (segment.length == 0) {
+      return;
+    }
+    segment.dispatched(laneArray.length);
+    ExecutorService executor = laneExecutor();
+    for (Lane lane : laneArray) {
+      lane.segment = segment;
+      if (executor == null) {
+        lane.run();
+        continue;
+      }
+      try {
+        executor.execute(lane);
+      }
+      catch (RejectedExecutionException e) { // NOSONAR
+        lane.run();
+      }
+    }
+    filling = inFlight;
+    filling.length = 0;
+    inFlight = segment;
+  }
+
+  /**
+   * Allows digest lanes to run on the shared hashing threads again after a {@link #shutdown()}.
+   */
+  static synchronized void start() {
+    stopped = false;
+  }
+
+  /**
+   * Stops the shared hashing threads once queued segments are done; until {@link #start()} is called again digest
+   * lanes run on the calling thread.
+   */
+  static synchronized void shutdown() {
+    stopped = true;
+    if (laneExecutor != null) {
+      laneExecutor.shutdown();
+      laneExecutor = null;
+    }
+  }
+
+  /**
+   * Returns the shared hashing threads, or {@code null} if they have been shut down.
+   */
+  @Nullable
+  private static ExecutorService laneExecutor() {
+    ExecutorService executor = laneExecutor;
+    if (executor == null && !stopped) {
+      synchronized (ParallelMultiHasher.class) {
+        executor = laneExecutor;
+        if (executor == null && !stopped) {
+          ThreadPoolExecutor pool = new ThreadPoolExecutor(LANE_THREADS, LANE_THREADS, 60L, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              new ThreadFactoryBuilder().setDaemon(true).setNameFormat("hash-lane-%d").build());
+          pool.allowCoreThreadTimeOut(true);
+          laneExecutor = executor = pool;
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Digest state captured by {@link #snapshot()}.
+   */
+  public static final class State
+  {
+    private final Map<HashAlgorithm, Lane> lanes;
+
+    private final long count;
+
+    private State(final Map<HashAlgorithm, Lane> lanes, final long count) {
+      this.lanes = Collections.unmodifiableMap(lanes);
+      this.count = count;
+    }
+
+    public List<HashAlgorithm> algorithms() {
+      return new ArrayList<>(lanes.keySet());
+    }
+
+    public long count() {
+      return count;
+    }
+  }
+
+  /**
+   * Buffer of data handed to all lanes; tracks how many lanes are still working on it.
+   */
+  private static final class Segment
+  {
+    private final byte[] data;
+
+    private int length;
+
+    private int pending;
+
+    Segment(final byte[] data) {
+      this.data = data;
+    }
+
+    synchronized void dispatched(final int lanes) {
+      pending = lanes;
+    }
+
+    synchronized void laneDone() {
+      if (--pending == 0) {
+        notifyAll();
+      }
+    }
+
+    synchronized void await() {
+      boolean interrupted = false;
+      while (pending > 0) {
+        try {
+          wait();
+        }
+        catch (InterruptedException e) { // NOSONAR
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Single digest fed with whole segments.
+   */
+  private abstract static class Lane
+      implements Runnable
+  {
+    Segment segment;
+
+    static Lane create(final HashAlgorithm algorithm) {
+      String digestName = algorithm.digestName();
+      if (digestName != null) {
+        try {
+          return new DigestLane(MessageDigest.getInstance(digestName));
+        }
+        catch (NoSuchAlgorithmException e) { // NOSONAR
+          // fall back to the hash function
+        }
+      }
+      return new HasherLane(algorithm.function().newHasher());
+    }
+
+    abstract void update(byte b);
+
+    abstract void update(byte[] bytes, int off, int len);
+
+    abstract HashCode hash();
+
+    abstract Lane copy();
+
+    @Override
+    public void run() {
+      Segment current = segment;
+      try {
+        update(current.data, 0, current.length);
+      }
+      finally {
+        current.laneDone();
+      }
+    }
+  }
+
+  private static final class DigestLane
+      extends Lane
+  {
+    private final MessageDigest digest;
+
+    DigestLane(final MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    void update(final byte b) {
+      digest.update(b);
+    }
+
+    @Override
+    void update(final byte[] bytes, final int off, final int len) {
+      digest.update(bytes, off, len);
+    }
+
+    @Override
+    HashCode hash() {
+      return HashCode.fromBytes(clone(digest).digest());
+    }
+
+    @Override
+    Lane copy() {
+      return new DigestLane(clone(digest));
+    }
+
+    private static MessageDigest clone(final MessageDigest digest) {
+      try {
+        return (MessageDigest) digest.clone();
+      }
+      catch (CloneNotSupportedException e) {
+        throw new IllegalStateException("Digest state cannot be copied: " + digest.getAlgorithm(), e);
+      }
+    }
+  }
+
+  /**
+   * Lane for algorithms without a JCA digest; its hash can only be taken once and it cannot be copied.
+   */
+  private static final class HasherLane
+      extends Lane
+  {
+    private final Hasher hasher;
+
+    private HashCode hash;
+
+    HasherLane(final Hasher hasher) {
+      this.hasher = hasher;
+    }
+
+    @Override
+    void update(final byte b) {
+      checkState(hash == null, "Hash already computed");
+      hasher.putByte(b);
+    }
+
+    @Override
+    void update(final byte[] bytes, final int off, final int len) {
+      checkState(hash == null, "Hash already computed");
+      hasher.putBytes(bytes, off, len);
+    }
+
+    @Override
+    HashCode hash() {
+      if (hash == null) {
+        hash = hasher.hash();
+      }
+      return hash;
+    }
+
+    @Override
+    Lane copy() {
+      throw new IllegalStateException("Hash state cannot be copied");
+    }
+  }
+}
@@ -0,0 +1,405 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.text;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Scans files made of stanzas of RFC 822 style fields, such as Debian control files and R DESCRIPTION or PACKAGES
+ * files, one stanza at a time.
+ *
+ * Stanzas are separated by blank lines, lines starting with {@code #} are comments, and lines starting with whitespace
+ * continue the value of the previous field. Text is decoded into a single reusable buffer and fields are only recorded
+ * as offsets into it; names and values are turned into strings on demand. When constructed with a set of field names
+ * all other fields are skipped without being recorded.
+ *
+ * Values have the whitespace around their first line removed while continuation lines are kept as they are, joined by
+ * {@code \n}.
+ *
+ * @since 3.31
+ */
+public final class StanzaScanner
+    implements Closeable
+{
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final int INITIAL_FIELDS = 16;
+
+  private final Reader reader;
+
+  @Nullable
+  private final String[] projection;
+
+  private final StringBuilder valueBuilder = new StringBuilder();
+
+  private char[] buf = new char[BUFFER_SIZE];
+
+  private int limit;
+
+  private int pos;
+
+  private boolean eof;
+
+  private int stanzaStart;
+
+  private int lineStart;
+
+  private int lineEnd;
+
+  private long lineNumber;
+
+  /**
+   * Name start, name end, value start and value end of each field in the current stanza.
+   */
+  private int[] offsets = new int[INITIAL_FIELDS * 4];
+
+  private String[] names = new String[INITIAL_FIELDS];
+
+  private String[] values = new String[INITIAL_FIELDS];
+
+  private int size;
+
+  public StanzaScanner(final InputStream in) {
+    this(in, null);
+  }
+
+  /**
+   * @param fields the only fields to record, or {@code null} for all of them
+   */
+  public StanzaScanner(final InputStream in, @Nullable final Collection<String> fields) {
+    this(new InputStreamReader(checkNotNull(in), UTF_8), fields);
+  }
+
+  /**
+   * @param fields the only fields to record, or {@code null} for all of them
+   */
+  public StanzaScanner(final Reader reader, @Nullable final Collection<String> fields) {
+    this.reader = checkNotNull(reader);
+    this.projection = fields != null ? fields.toArray(new String[0]) : null;
+  }
+
+  /**
+   * Moves to the next stanza, skipping any blank lines before it. A stanza whose fields were all skipped because of
+   * the projection is still reported, with a {@link #size()} of zero.
+   *
+   * @return {@code false} once there are no more stanzas
+   * @throws IOException when reading fails or a line is neither a field, a continuation nor a comment
+   */
+  public boolean next() throws IOException {
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+    stanzaStart = pos;
+
+    boolean inStanza = false;
+    boolean inField = false;
+    boolean recording = false;
+    while (readLine()) {
+      if (isBlankLine()) {
+        if (inStanza) {
+          return true;
+        }
+        stanzaStart = pos;
+        continue;
+      }
+
+      char first = buf[lineStart];
+      if (first == '#') {
+        continue;
+      }
+      if (Character.isWhitespace(first)) {
+        if (!inField) {
+          throw invalidLine();
+        }
+        if (recording) {
+          offsets[(size - 1) * 4 + 3] = lineEnd;
+        }
+        continue;
+      }
+
+      int colon = nameEnd();
+      inStanza = true;
+      inField = true;
+      recording = addField(colon);
+    }
+    return inStanza;
+  }
+
+  /**
+   * Returns the number of fields recorded for the current stanza.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the name of a field of the current stanza.
+   */
+  public String name(final int index) {
+    checkElementIndex(index, size);
+    return names[index];
+  }
+
+  /**
+   * Returns the value of a field of the current stanza.
+   */
+  public String value(final int index) {
+    checkElementIndex(index, size);
+    String value = values[index];
+    if (value == null) {
+      value = values[index] = buildValue(offsets[index * 4 + 2], offsets[index * 4 + 3]);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of the first field of the current stanza with the given name, if any.
+   */
+  @Nullable
+  public String get(final String name) {
+    checkNotNull(name);
+    for (int i = 0; i < size; i++) {
+      if (names[i].equals(name)) {
+        return value(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Copies the fields of the current stanza in order; a later field replaces an earlier one of the same name.
+   */
+  public Map<String, String> toMap() {
+    Map<String, String> map = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put(names[i], value(i));
+    }
+    return map;
+  }
+
+  /**
+   * Returns the number of lines read so far.
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Reads the next line into {@link #lineStart} and {@link #lineEnd}, not counting its line terminator.
+   *
+   * @return {@code false} at the end of input
+   */
+  private boolean readLine() throws IOException {
+    lineStart = pos;
+    int i = pos;
+    while (true) {
+      while (i < limit) {
+        if (buf[i] == '\n') {
+          endLine(i, i + 1);
+          return true;
+        }
+        i++;
+      }
+      int scanned = i - lineStart;
+      if (!fill()) {
+        if (lineStart == limit) {
+          return false;
+        }
+        endLine(limit, limit);
+        return true;
+      }
+      i = lineStart + scanned;
+    }
+  }
+
+  private void endLine(final int end, final int next) {
+    lineEnd = end > lineStart && buf[end - 1] == '\r' ? end - 1 : end;
+    pos = next;
+    lineNumber++;
+  }
+
+  /**
+   * Reads more input, first discarding what precedes the current stanza and growing the buffer if it is still full.
+   */
+  private boolean fill() throws IOException {
+    if (eof) {
+      return false;
+    }
+    if (stanzaStart > 0) {
+      int shift = stanzaStart;
+      System.arraycopy(buf, shift, buf, 0, limit - shift);
+      limit -= shift;
+      pos -= shift;
+      lineStart -= shift;
+      stanzaStart = 0;
+      for (int i = 0; i < size * 4; i++) {
+        offsets[i] -= shift;
+      }
+    }
+    if (limit == buf.length) {
+      buf = Arrays.copyOf(buf, buf.length * 2);
+    }
+    int read = reader.read(buf, limit, buf.length - limit);
+    if (read < 0) {
+      eof = true;
+      return false;
+    }
+    limit += read;
+    return true;
+  }
+
+  private boolean isBlankLine() {
+    for (int i = lineStart; i < lineEnd; i++) {
+      if (buf[i] > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the position of the colon ending the field name on the current line.
+   */
+  private int nameEnd() throws IOException {
+    for (int i = lineStart; i < lineEnd; i++) {
+      char c = buf[i];
+      if (c == ':') {
+        if (i == lineStart) {
+          throw invalidLine();
+        }
+        return i;
+      }
+      if (c < '!' || c > '~') {
+        throw invalidLine();
+      }
+    }
+    throw invalidLine();
+  }
+
+  /**
+   * Records the field on the current line unless the projection excludes it.
+   */
+  private boolean addField(final int colon) {
+    if (size == names.length) {
+      offsets = Arrays.copyOf(offsets, size * 8);
+      names = Arrays.copyOf(names, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+    String name = fieldName(lineStart, colon - lineStart);
+    if (name == null) {
+      return false;
+    }
+    offsets[size * 4] = lineStart;
+    offsets[size * 4 + 1] = colon;
+    offsets[size * 4 + 2] = colon + 1;
+    offsets[size * 4 + 3] = lineEnd;
+    names[size] = name;
+    size++;
+    return true;
+  }
+
+  /**
+   * Returns the name of a field, reusing the string seen in the same position of the previous stanza as stanzas
+   * usually repeat their fields in the same order.
+   *
+   * @return {@code null} when the projection excludes the field
+   */
+  @Nullable
+  private String fieldName(final int start, final int length) {
+    if (projection != null) {
+      for (String name : projection) {
+        if (regionEquals(name, start, length)) {
+          return name;
+        }
+      }
+      return null;
+    }
+    String previous = names[size];
+    if (previous != null && regionEquals(previous, start, length)) {
+      return previous;
+    }
+    return new String(buf, start, length);
+  }
+
+  private boolean regionEquals(final String name, final int start, final int length) {
+    if (name.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (name.charAt(i) != buf[start + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String buildValue(final int start, final int end) {
+    int firstEnd = start;
+    while (firstEnd < end && buf[firstEnd] != '\n') {
+      firstEnd++;
+    }
+    int from = start;
+    int to = firstEnd;
+    while (from < to && buf[from] <= ' ') {
+      from++;
+    }
+    while (to > from && buf[to - 1] <= ' ') {
+      to--;
+    }
+    if (firstEnd == end) {
+      return new String(buf, from, to - from);
+    }
+
+    valueBuilder.setLength(0);
+    valueBuilder.append(buf, from, to - from);
+    int next = firstEnd + 1;
+    while (next < end) {
+      int lineFrom = next;
+      int lineTo = lineFrom;
+      while (lineTo < end && buf[lineTo] != '\n') {
+        lineTo++;
+      }
+      next = lineTo + 1;
+      if (lineTo > lineFrom && buf[lineTo - 1] == '\r') {
+        lineTo--;
+      }
+      if (lineTo > lineFrom && buf[lineFrom] == '#') {
+        continue;
+      }
+      valueBuilder.append('\n').append(buf, lineFrom, lineTo - lineFrom);
+    }
+    return valueBuilder.toString();
+  }
+
+  private IOException invalidLine() {
+    return new IOException("Invalid line: " + new String(buf, lineStart, lineEnd - lineStart));
+  }
+}
@@ -46,6 +46,25 @@ public class MultiHashingInputStreamTest
     assertThat(andUseHashingStream.count(), is(equalTo(byteArrayLength)));
   }
 
+  @Test
+  public void releaseLeavesTheUnderlyingStreamOpen() throws IOException {
+    boolean[] closed = new boolean[1];
+    ByteArrayInputStream in = new ByteArrayInputStream(new byte[100])
+    {
+      @Override
+      public void close() {
+        closed[0] = true;
+      }
+    };
+    MultiHashingInputStream hashingStream = new MultiHashingInputStream(Arrays.asList(HashAlgorithm.SHA512), in);
+    ByteStreams.copy(hashingStream, ByteStreams.nullOutputStream());
+
+    hashingStream.release();
+
+    assertThat(closed[0], is(false));
+    assertThat(hashingStream.count(), is(100L));
+  }
+
   private MultiHashingInputStream createAndUseHashingStream(final byte[] bytes) throws IOException {
     final MultiHashingInputStream hashingStream = new MultiHashingInputStream(
         Arrays.asList(HashAlgorithm.SHA512), new ByteArrayInputStream(bytes));
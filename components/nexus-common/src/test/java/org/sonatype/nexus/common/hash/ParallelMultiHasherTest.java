@@ -0,0 +1,127 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.hash;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ParallelMultiHasherTest
+{
+  private static final List<HashAlgorithm> ALGORITHMS =
+      Arrays.asList(HashAlgorithm.MD5, HashAlgorithm.SHA1, HashAlgorithm.SHA256, HashAlgorithm.SHA512);
+
+  private static final int SEGMENT_SIZE = 1024;
+
+  private final byte[] data = randomBytes(100_000);
+
+  @Test
+  public void smallInputIsHashedInline() {
+    assertHashes(Arrays.copyOf(data, SEGMENT_SIZE / 2), 100);
+  }
+
+  @Test
+  public void largeInputIsHashedInParallelLanes() {
+    assertHashes(data, 1);
+    assertHashes(data, 333);
+    assertHashes(data, SEGMENT_SIZE);
+    assertHashes(data, 10 * SEGMENT_SIZE + 7);
+  }
+
+  @Test
+  public void singleBytesAreHashed() {
+    ParallelMultiHasher underTest = new ParallelMultiHasher(ALGORITHMS, SEGMENT_SIZE);
+    for (int i = 0; i < 5 * SEGMENT_SIZE; i++) {
+      underTest.update(data[i]);
+    }
+    assertExpected(underTest, Arrays.copyOf(data, 5 * SEGMENT_SIZE));
+  }
+
+  @Test
+  public void hashesCanBeTakenRepeatedly() {
+    ParallelMultiHasher underTest = new ParallelMultiHasher(ALGORITHMS, SEGMENT_SIZE);
+    underTest.update(data, 0, 3000);
+    assertExpected(underTest, Arrays.copyOf(data, 3000));
+    underTest.update(data, 3000, data.length - 3000);
+    assertExpected(underTest, data);
+  }
+
+  @Test
+  public void resumeFromSnapshot() {
+    ParallelMultiHasher first = new ParallelMultiHasher(ALGORITHMS, SEGMENT_SIZE);
+    first.update(data, 0, 40_000);
+    ParallelMultiHasher.State state = first.snapshot();
+    first.release();
+
+    assertThat(state.count(), is(40_000L));
+    assertThat(state.algorithms(), is(ALGORITHMS));
+
+    ParallelMultiHasher second = ParallelMultiHasher.resume(state);
+    second.update(data, 40_000, data.length - 40_000);
+    assertExpected(second, data);
+
+    // the snapshot is unaffected by the resumed hasher
+    ParallelMultiHasher third = ParallelMultiHasher.resume(state);
+    third.update(data, 40_000, data.length - 40_000);
+    assertExpected(third, data);
+  }
+
+  @Test
+  public void lanesRunOnTheCallerOnceShutDown() {
+    try {
+      ParallelMultiHasher.shutdown();
+      assertHashes(data, 333);
+    }
+    finally {
+      ParallelMultiHasher.start();
+    }
+    assertHashes(data, 333);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void snapshotRequiresCopyableDigests() {
+    HashAlgorithm crc = new HashAlgorithm("crc32", Hashing.crc32());
+    new ParallelMultiHasher(Arrays.asList(crc, HashAlgorithm.SHA1), SEGMENT_SIZE).snapshot();
+  }
+
+  private void assertHashes(final byte[] bytes, final int chunkSize) {
+    ParallelMultiHasher underTest = new ParallelMultiHasher(ALGORITHMS, SEGMENT_SIZE);
+    for (int off = 0; off < bytes.length; off += chunkSize) {
+      underTest.update(bytes, off, Math.min(chunkSize, bytes.length - off));
+    }
+    assertExpected(underTest, bytes);
+    underTest.release();
+  }
+
+  private static void assertExpected(final ParallelMultiHasher hasher, final byte[] bytes) {
+    Map<HashAlgorithm, HashCode> hashes = hasher.hashes();
+    assertThat(hasher.count(), is((long) bytes.length));
+    for (HashAlgorithm algorithm : ALGORITHMS) {
+      assertThat(algorithm.name(), hashes.get(algorithm), is(algorithm.function().hashBytes(bytes)));
+    }
+  }
+
+  private static byte[] randomBytes(final int size) {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+}
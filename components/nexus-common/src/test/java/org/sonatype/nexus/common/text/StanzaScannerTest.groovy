@@ -0,0 +1,90 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.text
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+import static org.hamcrest.MatcherAssert.assertThat
+import static org.hamcrest.Matchers.equalTo
+import static org.hamcrest.Matchers.is
+import static org.hamcrest.Matchers.nullValue
+
+/**
+ * Tests for {@link StanzaScanner}
+ */
+class StanzaScannerTest
+  extends TestSupport
+{
+  @Test
+  void 'scan stanzas with continuation lines and comments'() {
+    StanzaScanner scanner = scanner('\n# leading comment\r\nPackage: foo\r\nDescription:  short  \r\n' +
+        ' long line\r\n# inner comment\r\n .\r\n\r\n  \nPackage: bar\nVersion: 1.0')
+
+    assertThat(scanner.next(), is(true))
+    assertThat(scanner.toMap(), equalTo([Package: 'foo', Description: 'short\n long line\n .']))
+
+    assertThat(scanner.next(), is(true))
+    assertThat(scanner.size(), is(2))
+    assertThat(scanner.name(1), is('Version'))
+    assertThat(scanner.get('Package'), is('bar'))
+    assertThat(scanner.get('Description'), nullValue())
+
+    assertThat(scanner.next(), is(false))
+  }
+
+  @Test
+  void 'project fields'() {
+    StanzaScanner scanner = new StanzaScanner(new StringReader('A: 1\nB: 2\n  more\nC: 3\n\nC: 4\n'), ['B', 'D'])
+
+    assertThat(scanner.next(), is(true))
+    assertThat(scanner.toMap(), equalTo([B: '2\n  more']))
+
+    assertThat(scanner.next(), is(true))
+    assertThat(scanner.size(), is(0))
+
+    assertThat(scanner.next(), is(false))
+  }
+
+  @Test
+  void 'scan stanzas larger than the buffer'() {
+    String description = 'x' * 20000
+    StringBuilder text = new StringBuilder()
+    1000.times { text << "Package: p${it}\nDescription: ${description}\n continued\n\n" }
+    StanzaScanner scanner = scanner(text.toString())
+
+    int count = 0
+    while (scanner.next()) {
+      assertThat(scanner.get('Package'), is("p${count}".toString()))
+      assertThat(scanner.get('Description'), is(description + '\n continued'))
+      count++
+    }
+    assertThat(count, is(1000))
+    assertThat(scanner.getLineNumber(), is(4000L))
+  }
+
+  @Test(expected = IOException)
+  void 'reject lines without a field name'() {
+    scanner('Package: foo\nnot a field\n').next()
+  }
+
+  @Test(expected = IOException)
+  void 'reject continuation lines outside of a field'() {
+    scanner(' continued\nPackage: foo\n').next()
+  }
+
+  private static StanzaScanner scanner(final String text) {
+    return new StanzaScanner(new StringReader(text), null)
+  }
+}
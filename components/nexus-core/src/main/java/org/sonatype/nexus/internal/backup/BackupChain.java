@@ -0,0 +1,147 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.backup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.sonatype.nexus.internal.backup.BackupManifest.Entry;
+import org.sonatype.nexus.internal.backup.BackupManifest.Segment;
+
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.internal.backup.BackupManifest.manifestFile;
+import static org.sonatype.nexus.internal.backup.BackupManifest.segmentFile;
+import static org.sonatype.nexus.internal.backup.IncrementalBackupWriter.SEGMENT_HASH;
+
+/**
+ * A chain of incremental backups, from the requested backup back to the full backup it is based on.
+ *
+ * Restoring replays the chain into the zip archive that was originally backed up, which can then be restored the
+ * same way as a full backup. This class has no dependencies on a running instance so it can also be used offline, as
+ * the {@code nexus-backup-console} support utility does.
+ *
+ * @since 3.31
+ */
+public final class BackupChain
+{
+  private final File folder;
+
+  private final List<BackupManifest> manifests;
+
+  private BackupChain(final File folder, final List<BackupManifest> manifests) {
+    this.folder = checkNotNull(folder);
+    this.manifests = checkNotNull(manifests);
+  }
+
+  /**
+   * Resolves the chain ending with the given manifest, the previous manifests are expected in the same folder.
+   */
+  public static BackupChain open(final File manifestFile) throws IOException {
+    File folder = manifestFile.getAbsoluteFile().getParentFile();
+    List<BackupManifest> manifests = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    BackupManifest manifest = BackupManifest.read(manifestFile);
+    while (true) {
+      if (!seen.add(manifest.getId())) {
+        throw new IOException("Backup chain of " + manifestFile + " contains a cycle at " + manifest.getId());
+      }
+      manifests.add(manifest);
+      if (manifest.getPrevious() == null) {
+        break;
+      }
+      File previous = manifestFile(folder, manifest.getPrevious());
+      if (!previous.isFile()) {
+        throw new IOException("Backup chain of " + manifestFile + " is missing " + previous);
+      }
+      manifest = BackupManifest.read(previous);
+    }
+    return new BackupChain(folder, manifests);
+  }
+
+  /**
+   * The requested backup, the head of the chain.
+   */
+  public BackupManifest getHead() {
+    return manifests.get(0);
+  }
+
+  /**
+   * The manifests of the chain, newest first and ending with the full backup.
+   */
+  public List<BackupManifest> getManifests() {
+    return manifests;
+  }
+
+  /**
+   * Checks every segment the head references is held by a backup of the chain and matches its hash.
+   *
+   * @return the number of distinct segments verified
+   */
+  public int verify() throws IOException {
+    Set<String> ids = new HashSet<>();
+    manifests.forEach(manifest -> ids.add(manifest.getId()));
+    Set<String> verified = new HashSet<>();
+    for (Entry entry : getHead().getEntries()) {
+      for (Segment segment : entry.getSegments()) {
+        if (!ids.contains(segment.getHolder())) {
+          throw new IOException("Backup segment " + segment.getHash() + " of " + entry.getName() +
+              " is held by " + segment.getHolder() + " which is not part of the chain");
+        }
+        if (verified.add(segment.getHash())) {
+          IncrementalBackupWriter.verify(segmentFile(folder, segment.getHolder(), segment.getHash()).toPath(),
+              segment.getHash());
+        }
+      }
+    }
+    return verified.size();
+  }
+
+  /**
+   * Writes the zip archive captured by the head of the chain, verifying each segment as it is replayed.
+   */
+  public void restore(final OutputStream out) throws IOException {
+    ZipOutputStream zip = new ZipOutputStream(out);
+    for (Entry entry : getHead().getEntries()) {
+      zip.putNextEntry(new ZipEntry(entry.getName()));
+      long length = 0;
+      for (Segment segment : entry.getSegments()) {
+        File file = segmentFile(folder, segment.getHolder(), segment.getHash());
+        try (HashingInputStream in = new HashingInputStream(SEGMENT_HASH,
+            new GZIPInputStream(new FileInputStream(file)))) {
+          length += ByteStreams.copy(in, zip);
+          if (!segment.getHash().equals(in.hash().toString())) {
+            throw new IOException("Backup segment " + file + " is corrupt");
+          }
+        }
+      }
+      if (length != entry.getLength()) {
+        throw new IOException("Restored " + length + " bytes of " + entry.getName() + ", expected " +
+            entry.getLength());
+      }
+      zip.closeEntry();
+    }
+    zip.finish();
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.backup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Manifest of an incremental backup.
+ *
+ * A backup is a zip archive split into content defined segments; the manifest lists each archive entry with the
+ * hashes of its segments and the backup whose directory holds the compressed segment. Segments unchanged since the
+ * {@link #getPrevious() previous} backup are referenced rather than copied, so a chain of manifests starting with
+ * a full backup (one without a previous backup) restores to the same archive as a full backup would. The segment
+ * size recorded in the manifest is the average size the segments were cut for.
+ *
+ * @since 3.31
+ */
+public final class BackupManifest
+{
+  public static final String MANIFEST_SUFFIX = ".manifest";
+
+  public static final String SEGMENT_SUFFIX = ".gz";
+
+  private static final String HEADER = "# nexus incremental backup";
+
+  private final String id;
+
+  @Nullable
+  private final String previous;
+
+  private final int depth;
+
+  private final int segmentSize;
+
+  private final List<Entry> entries;
+
+  public BackupManifest(
+      final String id,
+      @Nullable final String previous,
+      final int depth,
+      final int segmentSize,
+      final List<Entry> entries)
+  {
+    this.id = checkNotNull(id);
+    this.previous = previous;
+    this.depth = depth;
+    this.segmentSize = segmentSize;
+    this.entries = Collections.unmodifiableList(checkNotNull(entries));
+  }
+
+  /**
+   * The backup id, also the name of the directory holding the segments written by this backup.
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * The id of the backup this one is a delta of, {@code null} for a full backup.
+   */
+  @Nullable
+  public String getPrevious() {
+    return previous;
+  }
+
+  /**
+   * Number of incremental backups between this one and the full backup it is based on.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Total uncompressed size of the backed up data.
+   */
+  public long getLength() {
+    return entries.stream().mapToLong(Entry::getLength).sum();
+  }
+
+  public long getSegmentCount() {
+    return entries.stream().mapToLong(entry -> entry.getSegments().size()).sum();
+  }
+
+  /**
+   * Number of segments written by this backup, as opposed to referenced from earlier backups.
+   */
+  public long getNewSegmentCount() {
+    return entries.stream().flatMap(entry -> entry.getSegments().stream())
+        .filter(segment -> id.equals(segment.getHolder()))
+        .map(Segment::getHash)
+        .distinct()
+        .count();
+  }
+
+  public static File manifestFile(final File folder, final String id) {
+    return new File(folder, id + MANIFEST_SUFFIX);
+  }
+
+  public static File segmentFile(final File folder, final String holder, final String hash) {
+    return new File(new File(folder, holder), hash + SEGMENT_SUFFIX);
+  }
+
+  /**
+   * Stores the manifest in the given folder; the file only appears once completely written.
+   */
+  public void write(final File folder) throws IOException {
+    Path target = manifestFile(folder, id).toPath();
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(temp, UTF_8)) {
+      writer.write(HEADER + '\n');
+      writer.write("id\t" + id + '\n');
+      if (previous != null) {
+        writer.write("previous\t" + previous + '\n');
+      }
+      writer.write("depth\t" + depth + '\n');
+      writer.write("segmentSize\t" + segmentSize + '\n');
+      for (Entry entry : entries) {
+        writer.write("entry\t" + entry.getLength() + '\t' + entry.getName() + '\n');
+        for (Segment segment : entry.getSegments()) {
+          writer.write("segment\t" + segment.getHash() + '\t' + segment.getHolder() + '\n');
+        }
+      }
+    }
+    Files.move(temp, target, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  public static BackupManifest read(final File file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+      checkArgument(HEADER.equals(reader.readLine()), "Not a backup manifest: %s", file);
+      String id = null;
+      String previous = null;
+      int depth = 0;
+      int segmentSize = 0;
+      List<Entry> entries = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] fields = line.split("\t", 3);
+        switch (fields[0]) {
+          case "id":
+            id = fields[1];
+            break;
+          case "previous":
+            previous = fields[1];
+            break;
+          case "depth":
+            depth = Integer.parseInt(fields[1]);
+            break;
+          case "segmentSize":
+            segmentSize = Integer.parseInt(fields[1]);
+            break;
+          case "entry":
+            entries.add(new Entry(fields[2], Long.parseLong(fields[1]), new ArrayList<>()));
+            break;
+          case "segment":
+            checkArgument(!entries.isEmpty(), "Segment outside of entry in %s", file);
+            entries.get(entries.size() - 1).segments.add(new Segment(fields[1], fields[2]));
+            break;
+          default:
+            throw new IllegalArgumentException("Unexpected line in " + file + ": " + line);
+        }
+      }
+      checkArgument(id != null && segmentSize > 0, "Incomplete backup manifest: %s", file);
+      return new BackupManifest(id, previous, depth, segmentSize, entries);
+    }
+  }
+
+  /**
+   * An archive entry split into segments.
+   */
+  public static final class Entry
+  {
+    private final String name;
+
+    private final long length;
+
+    private final List<Segment> segments;
+
+    public Entry(final String name, final long length, final List<Segment> segments) {
+      this.name = checkNotNull(name);
+      this.length = length;
+      this.segments = checkNotNull(segments);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getLength() {
+      return length;
+    }
+
+    public List<Segment> getSegments() {
+      return Collections.unmodifiableList(segments);
+    }
+  }
+
+  /**
+   * A segment of an entry, identified by the hash of its uncompressed content.
+   */
+  public static final class Segment
+  {
+    private final String hash;
+
+    private final String holder;
+
+    public Segment(final String hash, final String holder) {
+      this.hash = checkNotNull(hash);
+      this.holder = checkNotNull(holder);
+    }
+
+    public String getHash() {
+      return hash;
+    }
+
+    /**
+     * The id of the backup that wrote this segment.
+     */
+    public String getHolder() {
+      return holder;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Stopwatch;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.sonatype.nexus.internal.backup.BackupManifest.MANIFEST_SUFFIX;
+
+/**
+ * Takes incremental backups of zip archives produced by the database backup tasks.
+ *
+ * Each backup of a given name is a delta of the latest backup of that name in the same folder, until
+ * {@code nexus.backup.incremental.maxChainLength} deltas have been taken and the next backup starts a new chain
+ * with a full backup. See {@link BackupChain} to verify and restore backups.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+public class IncrementalBackup
+    extends ComponentSupport
+{
+  private static final String TIMESTAMP_FORMAT = "%1$tY-%1$tm-%1$td-%1$tH-%1$tM-%1$tS";
+
+  private static final Pattern TIMESTAMP = Pattern.compile("\\d{4}(-\\d{2}){5}");
+
+  private static final long MB = 1024 * 1024;
+
+  private final MetricRegistry metricRegistry;
+
+  private final int segmentSize;
+
+  private final int maxChainLength;
+
+  private final int compressionThreads;
+
+  private final boolean verify;
+
+  @Inject
+  public IncrementalBackup(
+      final MetricRegistry metricRegistry,
+      @Named("${nexus.backup.incremental.segmentSize:-4194304}") final int segmentSize,
+      @Named("${nexus.backup.incremental.maxChainLength:-7}") final int maxChainLength,
+      @Named("${nexus.backup.incremental.compressionThreads:-4}") final int compressionThreads,
+      @Named("${nexus.backup.incremental.verify:-true}") final boolean verify)
+  {
+    checkArgument(segmentSize > 0, "segmentSize must be positive");
+    checkArgument(compressionThreads > 0, "compressionThreads must be positive");
+    this.metricRegistry = checkNotNull(metricRegistry);
+    this.segmentSize = segmentSize;
+    this.maxChainLength = maxChainLength;
+    this.compressionThreads = compressionThreads;
+    this.verify = verify;
+  }
+
+  /**
+   * Backs up the zip archive read from the given stream into the folder.
+   *
+   * @param folder    folder holding the backups
+   * @param name      name of the backed up database, backups of different databases may share a folder
+   * @param timestamp time of the backup, part of its id
+   * @param archive   the zip archive to back up, read until exhausted
+   * @return the manifest of the new backup
+   */
+  public BackupManifest backup(
+      final File folder,
+      final String name,
+      final LocalDateTime timestamp,
+      final InputStream archive) throws IOException
+  {
+    String id = name + '-' + String.format(TIMESTAMP_FORMAT, timestamp);
+    checkArgument(!BackupManifest.manifestFile(folder, id).exists(), "Backup %s already exists in %s", id, folder);
+
+    BackupManifest previous = previous(folder, name);
+    log.info("Starting {} backup {} to {}", previous != null ? "incremental" : "full", id, folder);
+
+    ExecutorService executor = Executors.newFixedThreadPool(compressionThreads,
+        new NexusThreadFactory("backup", "backup-" + name));
+    try {
+      IncrementalBackupWriter writer =
+          new IncrementalBackupWriter(folder, segmentSize, executor, compressionThreads * 2, verify);
+
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      BackupManifest manifest = writer.write(id, previous, archive);
+      long elapsed = Math.max(1, stopwatch.elapsed(MILLISECONDS));
+
+      long bytesRead = manifest.getLength();
+      long bytesWritten = writer.getBytesWritten();
+      metricRegistry.timer(name(IncrementalBackup.class, name, "duration")).update(elapsed, MILLISECONDS);
+      metricRegistry.meter(name(IncrementalBackup.class, name, "read")).mark(bytesRead);
+      metricRegistry.meter(name(IncrementalBackup.class, name, "written")).mark(bytesWritten);
+
+      log.info("Completed backup {} in {} ms: read {} MB ({} MB/s), wrote {} MB in {} of {} segments",
+          id, elapsed, bytesRead / MB, bytesRead * 1000 / MB / elapsed, bytesWritten / MB,
+          manifest.getNewSegmentCount(), manifest.getSegmentCount());
+
+      return manifest;
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the latest backup of the given name to take a delta of, or {@code null} to take a full backup.
+   */
+  @Nullable
+  private BackupManifest previous(final File folder, final String name) {
+    File[] manifests = folder.listFiles((dir, file) -> isManifest(file, name));
+    if (manifests == null) {
+      return null;
+    }
+    Optional<File> latest = Arrays.stream(manifests).max(Comparator.comparing(File::getName));
+    if (!latest.isPresent()) {
+      return null;
+    }
+    try {
+      BackupManifest manifest = BackupManifest.read(latest.get());
+      if (manifest.getDepth() >= maxChainLength) {
+        log.debug("Backup chain of {} reached {} increments, starting a new chain", name, manifest.getDepth());
+        return null;
+      }
+      if (manifest.getSegmentSize() != segmentSize) {
+        log.info("Backup segment size changed since {}, starting a new chain", manifest.getId());
+        return null;
+      }
+      return manifest;
+    }
+    catch (IOException | RuntimeException e) {
+      log.warn("Unable to read backup manifest {}, starting a new chain", latest.get(), e);
+      return null;
+    }
+  }
+
+  private static boolean isManifest(final String file, final String name) {
+    return file.startsWith(name + '-') && file.endsWith(MANIFEST_SUFFIX) &&
+        TIMESTAMP.matcher(file.substring(name.length() + 1, file.length() - MANIFEST_SUFFIX.length())).matches();
+  }
+}
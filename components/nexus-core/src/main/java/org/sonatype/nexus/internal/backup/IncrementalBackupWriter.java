@@ -0,0 +1,333 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.internal.backup.BackupManifest.Entry;
+import org.sonatype.nexus.internal.backup.BackupManifest.Segment;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.sonatype.nexus.internal.backup.BackupManifest.segmentFile;
+
+/**
+ * Writes one incremental backup: splits the entries of a zip archive into segments, hashes them and compresses the
+ * segments not already held by the previous backup in parallel.
+ *
+ * Segment boundaries are content defined: a rolling gear hash over the entry picks them, so bytes inserted into or
+ * removed from an export only change the segments around the edit instead of shifting every later segment. Segments
+ * are at least a quarter and at most twice the configured segment size, averaging close to it.
+ *
+ * The archive is read sequentially while at most {@code maxPending} segments are buffered for the compression
+ * workers, which bounds memory to {@code maxPending * 2 * segmentSize}. The manifest is only written once every
+ * segment it references is stored, so an interrupted backup never leaves a usable but incomplete manifest.
+ *
+ * @since 3.31
+ */
+public class IncrementalBackupWriter
+{
+  static final HashFunction SEGMENT_HASH = Hashing.sha256();
+
+  /**
+   * Random values mixed into the rolling hash per byte; fixed so that boundaries are stable between backups.
+   */
+  private static final long[] GEAR = new Random(0x6e657875L).longs(256).toArray();
+
+  private final File folder;
+
+  private final int segmentSize;
+
+  private final int minSegmentSize;
+
+  private final int maxSegmentSize;
+
+  private final long boundaryMask;
+
+  private final ExecutorService executor;
+
+  private final Semaphore pending;
+
+  private final boolean verify;
+
+  private final LongAdder bytesWritten = new LongAdder();
+
+  public IncrementalBackupWriter(
+      final File folder,
+      final int segmentSize,
+      final ExecutorService executor,
+      final int maxPending,
+      final boolean verify)
+  {
+    checkArgument(segmentSize > 0, "segmentSize must be positive");
+    checkArgument(maxPending > 0, "maxPending must be positive");
+    this.folder = checkNotNull(folder);
+    this.segmentSize = segmentSize;
+    this.minSegmentSize = Math.max(1, segmentSize / 4);
+    this.maxSegmentSize = Math.max(segmentSize * 2, minSegmentSize + 1);
+    // a boundary is expected every 2^bits bytes past the minimum, the high bits of the gear hash mix the most input
+    int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, segmentSize - minSegmentSize) - 1);
+    this.boundaryMask = bits == 0 ? 0 : -1L << (64 - bits);
+    this.executor = checkNotNull(executor);
+    this.pending = new Semaphore(maxPending);
+    this.verify = verify;
+  }
+
+  /**
+   * Compressed bytes written so far by this writer.
+   */
+  public long getBytesWritten() {
+    return bytesWritten.sum();
+  }
+
+  /**
+   * Backs up the given zip archive as backup {@code id}, as a delta of {@code previous} when present.
+   */
+  public BackupManifest write(
+      final String id,
+      @Nullable final BackupManifest previous,
+      final InputStream archive) throws IOException
+  {
+    checkArgument(previous == null || previous.getSegmentSize() == segmentSize, "Segment size changed");
+
+    Map<String, String> holders = new ConcurrentHashMap<>();
+    if (previous != null) {
+      previous.getEntries().forEach(entry -> entry.getSegments()
+          .forEach(segment -> holders.put(segment.getHash(), segment.getHolder())));
+    }
+
+    File directory = new File(folder, id);
+    Files.createDirectories(directory.toPath());
+
+    List<PendingEntry> pendingEntries = new ArrayList<>();
+    try {
+      try (ZipInputStream in = new ZipInputStream(archive)) {
+        ZipEntry zipEntry;
+        while ((zipEntry = in.getNextEntry()) != null) {
+          if (!zipEntry.isDirectory()) {
+            pendingEntries.add(split(id, zipEntry.getName(), in, holders));
+          }
+        }
+      }
+
+      List<Entry> entries = new ArrayList<>(pendingEntries.size());
+      for (PendingEntry pendingEntry : pendingEntries) {
+        entries.add(pendingEntry.await());
+      }
+
+      BackupManifest manifest = previous != null
+          ? new BackupManifest(id, previous.getId(), previous.getDepth() + 1, segmentSize, entries)
+          : new BackupManifest(id, null, 0, segmentSize, entries);
+
+      manifest.write(folder);
+      return manifest;
+    }
+    catch (IOException | RuntimeException e) {
+      pendingEntries.forEach(PendingEntry::cancel);
+      delete(directory.toPath());
+      throw e;
+    }
+  }
+
+  private PendingEntry split(
+      final String id,
+      final String name,
+      final InputStream in,
+      final Map<String, String> holders) throws IOException
+  {
+    PendingEntry entry = new PendingEntry(name);
+    Chunker chunker = new Chunker(in);
+    byte[] data;
+    while ((data = chunker.next()) != null) {
+      entry.length += data.length;
+      try {
+        pending.acquire();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Backup interrupted");
+      }
+      byte[] segment = data;
+      try {
+        entry.segments.add(executor.submit(() -> {
+          try {
+            return store(id, segment, holders);
+          }
+          finally {
+            pending.release();
+          }
+        }));
+      }
+      catch (RuntimeException e) {
+        pending.release();
+        throw e;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the length of the next segment of the first {@code length} bytes of the buffer.
+   */
+  private int boundary(final byte[] buffer, final int length) {
+    if (length <= minSegmentSize) {
+      return length;
+    }
+    long hash = 0;
+    for (int i = minSegmentSize; i < length; i++) {
+      hash = (hash << 1) + GEAR[buffer[i] & 0xff];
+      if ((hash & boundaryMask) == 0) {
+        return i + 1;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Cuts an entry into content defined segments, reading ahead at most one maximal segment.
+   */
+  private class Chunker
+  {
+    private final InputStream in;
+
+    private final byte[] buffer = new byte[maxSegmentSize];
+
+    private int buffered;
+
+    Chunker(final InputStream in) {
+      this.in = in;
+    }
+
+    @Nullable
+    byte[] next() throws IOException {
+      buffered += ByteStreams.read(in, buffer, buffered, buffer.length - buffered);
+      if (buffered == 0) {
+        return null;
+      }
+      int length = boundary(buffer, buffered);
+      byte[] segment = Arrays.copyOf(buffer, length);
+      System.arraycopy(buffer, length, buffer, 0, buffered - length);
+      buffered -= length;
+      return segment;
+    }
+  }
+
+  private Segment store(final String id, final byte[] data, final Map<String, String> holders) throws IOException {
+    String hash = SEGMENT_HASH.hashBytes(data).toString();
+    String holder = holders.putIfAbsent(hash, id);
+    if (holder != null) {
+      // already held by an earlier backup, or being written by another worker of this one
+      return new Segment(hash, holder);
+    }
+
+    Path target = segmentFile(folder, id, hash).toPath();
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+      out.write(data);
+    }
+    if (verify) {
+      verify(temp, hash);
+    }
+    Files.move(temp, target, ATOMIC_MOVE);
+    bytesWritten.add(Files.size(target));
+    return new Segment(hash, id);
+  }
+
+  static void verify(final Path segment, final String hash) throws IOException {
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(segment))) {
+      String actual = SEGMENT_HASH.hashBytes(ByteStreams.toByteArray(in)).toString();
+      if (!hash.equals(actual)) {
+        throw new IOException("Backup segment " + segment + " is corrupt, expected hash " + hash + " got " + actual);
+      }
+    }
+  }
+
+  private static void delete(final Path directory) {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+    catch (IOException e) { // NOSONAR
+      // best effort, the partial backup has no manifest so it is never used
+    }
+  }
+
+  /**
+   * An archive entry whose segments are still being stored.
+   */
+  private static class PendingEntry
+  {
+    private final String name;
+
+    private final List<Future<Segment>> segments = new ArrayList<>();
+
+    private long length;
+
+    PendingEntry(final String name) {
+      this.name = name;
+    }
+
+    Entry await() throws IOException {
+      List<Segment> stored = new ArrayList<>(segments.size());
+      for (Future<Segment> segment : segments) {
+        try {
+          stored.add(segment.get());
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Backup interrupted");
+        }
+        catch (ExecutionException e) {
+          if (e.getCause() instanceof IOException) {
+            throw (IOException) e.getCause();
+          }
+          throw new IOException("Failed to store backup segment of " + name, e.getCause());
+        }
+      }
+      return new Entry(name, length, stored);
+    }
+
+    void cancel() {
+      segments.forEach(segment -> segment.cancel(true));
+    }
+  }
+}
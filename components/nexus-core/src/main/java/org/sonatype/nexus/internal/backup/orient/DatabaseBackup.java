@@ -41,4 +41,17 @@ public interface DatabaseBackup
    */
   Callable<Void> fullBackup(String backupFolder, String dbName, LocalDateTime timestamp) throws IOException;
 
+  /**
+   * Creates an incremental backup job, storing only what changed since the previous backup of the database in the
+   * same folder.
+   *
+   * @param backupFolder Name of folder holding the backups of the database
+   * @param dbName The name of the database being backed up
+   * @param timestamp a timestamp indicating when the backup was taken
+   * @return java.util.concurrent.Callable For storing backup data
+   * @throws IOException
+   * @since 3.31
+   */
+  Callable<Void> incrementalBackup(String backupFolder, String dbName, LocalDateTime timestamp) throws IOException;
+
 }
@@ -25,6 +25,7 @@ import javax.inject.Singleton;
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.common.app.ApplicationDirectories;
 import org.sonatype.nexus.common.app.ApplicationVersion;
+import org.sonatype.nexus.internal.backup.IncrementalBackup;
 import org.sonatype.nexus.orient.DatabaseManager;
 import org.sonatype.nexus.orient.DatabaseRestorer;
 import org.sonatype.nexus.orient.DatabaseServer;
@@ -57,16 +58,20 @@ public class DatabaseBackupImpl
 
   private final ApplicationVersion applicationVersion;
 
+  private final IncrementalBackup incrementalBackup;
+
   @Inject
   public DatabaseBackupImpl(final DatabaseServer databaseServer, final DatabaseManager databaseManager,
                             final DatabaseRestorer databaseRestorer,
                             final ApplicationDirectories applicationDirectories,
-                            final ApplicationVersion applicationVersion) {
+                            final ApplicationVersion applicationVersion,
+                            final IncrementalBackup incrementalBackup) {
     this.databaseServer = checkNotNull(databaseServer);
     this.databaseManager = checkNotNull(databaseManager);
     this.databaseRestorer = checkNotNull(databaseRestorer);
     this.applicationDirectories = checkNotNull(applicationDirectories);
     this.applicationVersion = checkNotNull(applicationVersion);
+    this.incrementalBackup = checkNotNull(incrementalBackup);
   }
 
   @Override
@@ -76,13 +81,19 @@ public class DatabaseBackupImpl
         databaseManager.getBackupCompressionLevel(), databaseManager.getBackupBufferSize());
   }
 
+  @Override
+  public Callable<Void> incrementalBackup(final String backupFolder, final String dbName, final LocalDateTime timestamp)
+      throws IOException
+  {
+    File parentDir = checkFolder(backupFolder);
+    return new IncrementalDatabaseBackupRunner(databaseManager.instance(dbName), incrementalBackup, parentDir, timestamp,
+        databaseManager.getBackupBufferSize());
+  }
+
   @VisibleForTesting
   File checkTarget(final String backupFolder, final String dbName, final LocalDateTime timestamp) throws IOException {
     String filename = RestoreFile.formatFilename(dbName, timestamp, applicationVersion.getVersion());
-    File parentDir = applicationDirectories.getWorkDirectory(backupFolder);
-    if (databaseRestorer.isRestoreFromLocation(parentDir)) {
-      throw new IllegalArgumentException("Backup to " + parentDir + " is not allowed.");
-    }
+    File parentDir = checkFolder(backupFolder);
 
     File output = new File(parentDir, filename);
     if (output.createNewFile()) {
@@ -93,6 +104,14 @@ public class DatabaseBackupImpl
     }
   }
 
+  private File checkFolder(final String backupFolder) {
+    File parentDir = applicationDirectories.getWorkDirectory(backupFolder);
+    if (databaseRestorer.isRestoreFromLocation(parentDir)) {
+      throw new IllegalArgumentException("Backup to " + parentDir + " is not allowed.");
+    }
+    return parentDir;
+  }
+
   @Override
   public List<String> dbNames() {
     return ImmutableList.copyOf(databaseServer.databases());
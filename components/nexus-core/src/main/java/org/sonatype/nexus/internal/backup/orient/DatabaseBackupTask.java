@@ -59,6 +59,8 @@ public class DatabaseBackupTask
 
   private String location;
 
+  private boolean incremental;
+
   private final DatabaseBackup databaseBackup;
 
   private final DatabaseFreezeService freezeService;
@@ -87,6 +89,7 @@ public class DatabaseBackupTask
   public void configure(final TaskConfiguration configuration) {
     super.configure(configuration);
     this.location = configuration.getString(DatabaseBackupTaskDescriptor.BACKUP_LOCATION);
+    this.incremental = configuration.getBoolean(DatabaseBackupTaskDescriptor.INCREMENTAL, false);
   }
 
   @Override
@@ -102,8 +105,10 @@ public class DatabaseBackupTask
     }
     for (String dbName : databaseBackup.dbNames()) {
       try {
-        log.info("database backup of {} starting", dbName);
-        Callable<Void> job = databaseBackup.fullBackup(location, dbName, timestamp);
+        log.info("{} database backup of {} starting", incremental ? "incremental" : "full", dbName);
+        Callable<Void> job = incremental
+            ? databaseBackup.incrementalBackup(location, dbName, timestamp)
+            : databaseBackup.fullBackup(location, dbName, timestamp);
         jobs.add(job);
       }
       catch (Exception e) {
@@ -19,6 +19,7 @@ import javax.inject.Singleton;
 import org.sonatype.goodies.i18n.I18N;
 import org.sonatype.goodies.i18n.MessageBundle;
 import org.sonatype.nexus.common.node.NodeAccess;
+import org.sonatype.nexus.formfields.CheckboxFormField;
 import org.sonatype.nexus.formfields.StringTextFormField;
 import org.sonatype.nexus.scheduling.TaskConfiguration;
 import org.sonatype.nexus.scheduling.TaskDescriptorSupport;
@@ -41,6 +42,8 @@ public class DatabaseBackupTaskDescriptor
 
   public static final String BACKUP_LOCATION = "location";
 
+  public static final String INCREMENTAL = "incremental";
+
   private interface Messages
       extends MessageBundle
   {
@@ -52,6 +55,12 @@ public class DatabaseBackupTaskDescriptor
 
     @DefaultMessage("Filesystem location for backup data")
     String locationHelpText();
+
+    @DefaultMessage("Incremental")
+    String incrementalLabel();
+
+    @DefaultMessage("Only store what changed since the previous backup in the same location")
+    String incrementalHelpText();
   }
 
   private static final Messages messages = I18N.create(Messages.class);
@@ -66,6 +75,12 @@ public class DatabaseBackupTaskDescriptor
             messages.locationHelpText(),
             MANDATORY
         ),
+        new CheckboxFormField(
+            INCREMENTAL,
+            messages.incrementalLabel(),
+            messages.incrementalHelpText(),
+            false
+        ).withInitialValue(false),
         nodeAccess.isClustered() ? newLimitNodeFormField() : null
     );
   }
@@ -0,0 +1,121 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.backup.orient;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.sonatype.nexus.internal.backup.IncrementalBackup;
+import org.sonatype.nexus.orient.DatabaseInstance;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.orient.transaction.OrientTransactional.inTx;
+
+/**
+ * Streams a database export into an {@link IncrementalBackup}, so only the segments of the export that changed
+ * since the previous backup are compressed and stored.
+ *
+ * @since 3.31
+ */
+public class IncrementalDatabaseBackupRunner
+    implements Callable<Void>
+{
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final DatabaseInstance databaseInstance;
+
+  private final IncrementalBackup incrementalBackup;
+
+  private final File backupFolder;
+
+  private final LocalDateTime timestamp;
+
+  private final int bufferSize;
+
+  /**
+   * @param databaseInstance  the database that will be backed up
+   * @param incrementalBackup stores the export as a delta of the previous backup
+   * @param backupFolder      folder holding the backups
+   * @param timestamp         time of the backup
+   * @param bufferSize        size in bytes of the buffer between the export and the backup
+   */
+  public IncrementalDatabaseBackupRunner(final DatabaseInstance databaseInstance,
+                                         final IncrementalBackup incrementalBackup,
+                                         final File backupFolder,
+                                         final LocalDateTime timestamp,
+                                         final int bufferSize)
+  {
+    this.databaseInstance = checkNotNull(databaseInstance);
+    this.incrementalBackup = checkNotNull(incrementalBackup);
+    this.backupFolder = checkNotNull(backupFolder);
+    this.timestamp = checkNotNull(timestamp);
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public Void call() throws Exception {
+    String dbName = databaseInstance.getName();
+    PipedInputStream exported = new PipedInputStream(bufferSize);
+    ExecutorService executor = Executors.newSingleThreadExecutor(new NexusThreadFactory("dbbackup", dbName));
+    try {
+      try (OutputStream exportStream = new PipedOutputStream(exported)) {
+        Future<?> backup = executor.submit(() -> {
+          try (PipedInputStream in = exported) {
+            return incrementalBackup.backup(backupFolder, dbName, timestamp, in);
+          }
+        });
+        try {
+          inTx(() -> databaseInstance).throwing(IOException.class).run(
+              db -> db.backup(exportStream, null, null, iText -> {
+                // these messages are a bit chatty, so only visible at debug
+                log.debug("database backup of {}, received message '{}'", dbName, iText);
+              }, Deflater.NO_COMPRESSION, bufferSize)); // segments are compressed by the incremental backup
+        }
+        catch (Throwable e) { // NOSONAR
+          if (backup.isDone()) {
+            backup.get(); // a failed backup closes the pipe, report its cause rather than the broken pipe
+          }
+          backup.cancel(true);
+          throw e;
+        }
+        exportStream.close();
+        backup.get();
+      }
+      log.info("incremental database backup of {} completed successfully", dbName);
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(String.format("incremental database backup of %s failed", dbName), e.getCause());
+    }
+    catch (Throwable e) { // NOSONAR
+      throw new RuntimeException(String.format("incremental database backup of %s failed", dbName), e);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    return null;
+  }
+}
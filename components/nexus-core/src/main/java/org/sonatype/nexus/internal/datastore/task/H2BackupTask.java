@@ -14,6 +14,8 @@ package org.sonatype.nexus.internal.datastore.task;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -23,6 +25,7 @@ import javax.inject.Named;
 import org.sonatype.nexus.common.app.ApplicationDirectories;
 import org.sonatype.nexus.datastore.api.DataStore;
 import org.sonatype.nexus.datastore.api.DataStoreManager;
+import org.sonatype.nexus.internal.backup.IncrementalBackup;
 import org.sonatype.nexus.scheduling.Task;
 import org.sonatype.nexus.scheduling.TaskSupport;
 
@@ -42,12 +45,18 @@ public class H2BackupTask
 
   private final ApplicationDirectories applicationDirectories;
 
+  private final IncrementalBackup incrementalBackup;
+
   private static final String TIMESTAMP_FORMAT = "%1$tY-%1$tm-%1$td-%1$tH-%1$tM-%1$tS";
 
   @Inject
-  public H2BackupTask(final DataStoreManager dataStoreManager, final ApplicationDirectories applicationDirectories) {
+  public H2BackupTask(final DataStoreManager dataStoreManager,
+                      final ApplicationDirectories applicationDirectories,
+                      final IncrementalBackup incrementalBackup)
+  {
     this.dataStoreManager = checkNotNull(dataStoreManager);
     this.applicationDirectories = checkNotNull(applicationDirectories);
+    this.incrementalBackup = checkNotNull(incrementalBackup);
   }
 
   @Override
@@ -64,6 +73,12 @@ public class H2BackupTask
     }
 
     File backupFolder = applicationDirectories.getWorkDirectory(checkNotNull(getConfiguration().getString(H2BackupTaskDescriptor.LOCATION), "Backup location not configured"));
+
+    if (getConfiguration().getBoolean(H2BackupTaskDescriptor.INCREMENTAL, false)) {
+      incrementalBackup(dataStore.get(), backupFolder);
+      return null;
+    }
+
     File backupFile = new File(backupFolder, getBackupFileName());
 
     if(backupFile.isFile()){
@@ -81,6 +96,26 @@ public class H2BackupTask
     return null;
   }
 
+  /**
+   * H2 only exports complete archives, so the archive is staged next to the backups and then stored as a delta of
+   * the previous backup.
+   */
+  private void incrementalBackup(final DataStore<?> dataStore, final File backupFolder) throws Exception {
+    LocalDateTime timestamp = LocalDateTime.now();
+    File stagingFile = new File(backupFolder, getBackupFileName() + ".tmp");
+    Files.createDirectories(backupFolder.toPath());
+    try {
+      log.info("Starting incremental backup of {} to {}", DEFAULT_DATASTORE_NAME, backupFolder.getAbsolutePath());
+      dataStore.backup(stagingFile.getAbsolutePath());
+      try (InputStream archive = Files.newInputStream(stagingFile.toPath())) {
+        incrementalBackup.backup(backupFolder, DEFAULT_DATASTORE_NAME, timestamp, archive);
+      }
+    }
+    finally {
+      Files.deleteIfExists(stagingFile.toPath());
+    }
+  }
+
   private String getBackupFileName() {
     return DEFAULT_DATASTORE_NAME + "-" +
         String.format(TIMESTAMP_FORMAT, LocalDateTime.now()) + ".zip";
@@ -15,6 +15,7 @@ package org.sonatype.nexus.internal.datastore.task;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.sonatype.nexus.formfields.CheckboxFormField;
 import org.sonatype.nexus.formfields.StringTextFormField;
 import org.sonatype.nexus.scheduling.TaskDescriptor;
 import org.sonatype.nexus.scheduling.TaskDescriptorSupport;
@@ -35,11 +36,16 @@ public class H2BackupTaskDescriptor
 
   static final String LOCATION = "location";
 
+  static final String INCREMENTAL = "incremental";
+
   public H2BackupTaskDescriptor()
   {
     super(TYPE_ID, H2BackupTask.class, "Admin - Backup H2 Database", VISIBLE, EXPOSED, false,
         new StringTextFormField(LOCATION, "Location",
             "Specify a directory for the database backup",
-            MANDATORY));
+            MANDATORY),
+        new CheckboxFormField(INCREMENTAL, "Incremental",
+            "Only store what changed since the previous backup in the same directory",
+            false).withInitialValue(false));
   }
 }
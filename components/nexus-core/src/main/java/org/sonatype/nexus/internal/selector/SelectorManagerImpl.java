@@ -43,6 +43,7 @@ import org.sonatype.nexus.security.role.Role;
 import org.sonatype.nexus.security.role.RoleIdentifier;
 import org.sonatype.nexus.security.user.User;
 import org.sonatype.nexus.security.user.UserNotFoundException;
+import org.sonatype.nexus.selector.CompositeSelector;
 import org.sonatype.nexus.selector.Selector;
 import org.sonatype.nexus.selector.SelectorConfiguration;
 import org.sonatype.nexus.selector.SelectorEvaluationException;
@@ -87,6 +88,8 @@ public class SelectorManagerImpl
 
   private final LoadingCache<SelectorConfiguration, Selector> selectorCache;
 
+  private final LoadingCache<List<SelectorConfiguration>, Selector> compositeCache;
+
   private volatile SoftReference<List<SelectorConfiguration>> cachedBrowseResult = EMPTY_CACHE;
 
   @Inject
@@ -103,6 +106,9 @@ public class SelectorManagerImpl
       String expression = config.getAttributes().get(SelectorConfiguration.EXPRESSION);
       return selectorFactory.createSelector(type, expression);
     }));
+
+    compositeCache = CacheBuilder.newBuilder().softValues().build(CacheLoader.from(
+        configs -> CompositeSelector.anyOf(configs.stream().map(selectorCache::getUnchecked).collect(toList()))));
   }
 
   @Override
@@ -192,6 +198,7 @@ public class SelectorManagerImpl
     cachedBrowseResult = EMPTY_CACHE;
 
     selectorCache.invalidateAll();
+    compositeCache.invalidateAll();
   }
 
   @Override
@@ -208,6 +215,29 @@ public class SelectorManagerImpl
     }
   }
 
+  /**
+   * Evaluates the selectors together as one {@link CompositeSelector}, so compiled CSEL selectors share a single
+   * lookup per variable instead of being evaluated one after another.
+   */
+  @Override
+  @Guarded(by = STARTED)
+  public boolean evaluateAny(final List<SelectorConfiguration> selectorConfigurations,
+                             final VariableSource variableSource)
+  {
+    if (selectorConfigurations.isEmpty()) {
+      return false;
+    }
+    Selector selector;
+    try {
+      selector = compositeCache.getUnchecked(ImmutableList.copyOf(selectorConfigurations));
+    }
+    catch (Exception e) {
+      log.debug("Unable to combine content selectors, evaluating them one at a time", e);
+      return SelectorManager.super.evaluateAny(selectorConfigurations, variableSource);
+    }
+    return selector.evaluate(variableSource);
+  }
+
   @Override
   public void toSql(final SelectorConfiguration selectorConfiguration, final SelectorSqlBuilder sqlBuilder)
       throws SelectorEvaluationException
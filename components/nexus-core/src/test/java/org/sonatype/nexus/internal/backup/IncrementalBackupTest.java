@@ -0,0 +1,253 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.backup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.internal.backup.BackupManifest.Segment;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.io.ByteStreams;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.sonatype.nexus.internal.backup.BackupManifest.segmentFile;
+
+public class IncrementalBackupTest
+    extends TestSupport
+{
+  private static final int SEGMENT_SIZE = 1024;
+
+  private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2021, 5, 1, 1, 0, 0);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Random random = new Random(42);
+
+  private final MetricRegistry metricRegistry = new MetricRegistry();
+
+  private File folder;
+
+  private byte[] data;
+
+  @Before
+  public void setUp() {
+    folder = temporaryFolder.getRoot();
+    data = new byte[SEGMENT_SIZE * 3 + 100];
+    random.nextBytes(data);
+  }
+
+  @Test
+  public void firstBackupIsFull() throws Exception {
+    BackupManifest manifest = backup(underTest(7), 0, archive(data));
+
+    assertThat(manifest.getId(), is("component-2021-05-01-01-00-00"));
+    assertThat(manifest.getPrevious(), is(nullValue()));
+    assertThat(manifest.getDepth(), is(0));
+    assertThat(manifest.getLength(), is((long) data.length + 1));
+    assertThat(manifest.getSegmentCount(), greaterThan(2L));
+    assertThat(manifest.getNewSegmentCount(), is(manifest.getSegmentCount()));
+    assertThat(metricRegistry.meter(MetricRegistry.name(IncrementalBackup.class, "component", "read")).getCount(),
+        is((long) data.length + 1));
+  }
+
+  @Test
+  public void laterBackupsOnlyStoreChangedSegments() throws Exception {
+    IncrementalBackup underTest = underTest(7);
+    BackupManifest full = backup(underTest, 0, archive(data));
+
+    data[SEGMENT_SIZE + 1]++;
+    BackupManifest incremental = backup(underTest, 1, archive(data));
+
+    assertThat(incremental.getPrevious(), is(full.getId()));
+    assertThat(incremental.getDepth(), is(1));
+    assertThat(incremental.getNewSegmentCount(), lessThanOrEqualTo(2L));
+    assertThat(incremental.getNewSegmentCount(), lessThan(incremental.getSegmentCount()));
+    assertThat((long) new File(folder, incremental.getId()).list().length, is(incremental.getNewSegmentCount()));
+
+    Map<String, byte[]> restored = restore(incremental);
+    assertThat(restored.keySet(), contains("db/version", "db/data.pcl"));
+    assertThat(restored.get("db/data.pcl"), is(data));
+    assertThat(restore(full).get("db/data.pcl")[SEGMENT_SIZE + 1], is((byte) (data[SEGMENT_SIZE + 1] - 1)));
+  }
+
+  @Test
+  public void insertedBytesOnlyChangeTheSurroundingSegments() throws Exception {
+    data = new byte[SEGMENT_SIZE * 64];
+    random.nextBytes(data);
+    IncrementalBackup underTest = underTest(7);
+    BackupManifest full = backup(underTest, 0, archive(data));
+
+    byte[] inserted = new byte[data.length + 10];
+    System.arraycopy(data, 0, inserted, 0, 100);
+    System.arraycopy(data, 100, inserted, 110, data.length - 100);
+    BackupManifest incremental = backup(underTest, 1, archive(inserted));
+
+    // fixed offset segments would all have changed
+    assertThat(full.getSegmentCount(), greaterThan(20L));
+    assertThat(incremental.getNewSegmentCount(), lessThanOrEqualTo(3L));
+    assertThat(restore(incremental).get("db/data.pcl"), is(inserted));
+  }
+
+  @Test
+  public void chainIsRestartedAfterMaxChainLength() throws Exception {
+    IncrementalBackup underTest = underTest(1);
+    backup(underTest, 0, archive(data));
+    data[0]++;
+    BackupManifest incremental = backup(underTest, 1, archive(data));
+    data[0]++;
+    BackupManifest full = backup(underTest, 2, archive(data));
+
+    assertThat(incremental.getDepth(), is(1));
+    assertThat(full.getPrevious(), is(nullValue()));
+    assertThat(full.getNewSegmentCount(), is(full.getSegmentCount()));
+  }
+
+  @Test
+  public void backupsOfOtherDatabasesAreIgnored() throws Exception {
+    IncrementalBackup underTest = underTest(7);
+    underTest.backup(folder, "config", TIMESTAMP, new ByteArrayInputStream(archive(data)));
+
+    BackupManifest manifest = backup(underTest, 1, archive(data));
+
+    assertThat(manifest.getPrevious(), is(nullValue()));
+  }
+
+  @Test
+  public void verifyChecksEverySegmentOfTheChain() throws Exception {
+    IncrementalBackup underTest = underTest(7);
+    BackupManifest full = backup(underTest, 0, archive(data));
+    data[0]++;
+    BackupManifest incremental = backup(underTest, 1, archive(data));
+
+    BackupChain chain = BackupChain.open(BackupManifest.manifestFile(folder, incremental.getId()));
+    assertThat(chain.getManifests().size(), is(2));
+    assertThat((long) chain.verify(), is(incremental.getSegmentCount()));
+
+    List<Segment> segments = incremental.getEntries().get(1).getSegments();
+    Segment unchanged = segments.get(segments.size() - 1);
+    assertThat(unchanged.getHolder(), is(full.getId()));
+    String hash = unchanged.getHash();
+    try (OutputStream out = new GZIPOutputStream(
+        Files.newOutputStream(segmentFile(folder, full.getId(), hash).toPath()))) {
+      out.write(new byte[SEGMENT_SIZE]);
+    }
+
+    try {
+      chain.verify();
+      throw new AssertionError("expected verification to fail");
+    }
+    catch (IOException e) {
+      assertThat(e.getMessage().contains(hash), is(true));
+    }
+  }
+
+  @Test
+  public void chainWithMissingBackupCannotBeOpened() throws Exception {
+    IncrementalBackup underTest = underTest(7);
+    BackupManifest full = backup(underTest, 0, archive(data));
+    BackupManifest incremental = backup(underTest, 1, archive(data));
+
+    Files.delete(BackupManifest.manifestFile(folder, full.getId()).toPath());
+
+    try {
+      BackupChain.open(BackupManifest.manifestFile(folder, incremental.getId()));
+      throw new AssertionError("expected missing backup to be reported");
+    }
+    catch (IOException e) {
+      assertThat(e.getMessage().contains(full.getId()), is(true));
+    }
+  }
+
+  @Test
+  public void manifestRoundTrips() throws Exception {
+    BackupManifest manifest = backup(underTest(7), 0, archive(data));
+
+    BackupManifest read = BackupManifest.read(BackupManifest.manifestFile(folder, manifest.getId()));
+
+    assertThat(read.getId(), is(manifest.getId()));
+    assertThat(read.getSegmentSize(), is(SEGMENT_SIZE));
+    assertThat(read.getEntries().size(), is(2));
+    assertThat(read.getEntries().get(1).getName(), is("db/data.pcl"));
+    assertThat(read.getEntries().get(1).getSegments().get(0).getHash(),
+        is(manifest.getEntries().get(1).getSegments().get(0).getHash()));
+  }
+
+  private IncrementalBackup underTest(final int maxChainLength) {
+    return new IncrementalBackup(metricRegistry, SEGMENT_SIZE, maxChainLength, 2, true);
+  }
+
+  private BackupManifest backup(final IncrementalBackup underTest, final int minutes, final byte[] archive)
+      throws IOException
+  {
+    return underTest.backup(folder, "component", TIMESTAMP.plusMinutes(minutes), new ByteArrayInputStream(archive));
+  }
+
+  private static Map<String, byte[]> entries(final byte[] data) {
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    entries.put("db/version", new byte[]{1});
+    entries.put("db/data.pcl", data);
+    return entries;
+  }
+
+  private static byte[] archive(final byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(out)) {
+      for (Map.Entry<String, byte[]> entry : entries(data).entrySet()) {
+        zip.putNextEntry(new ZipEntry(entry.getKey()));
+        zip.write(entry.getValue());
+        zip.closeEntry();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private Map<String, byte[]> restore(final BackupManifest manifest) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BackupChain.open(BackupManifest.manifestFile(folder, manifest.getId())).restore(out);
+
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        entries.put(entry.getName(), ByteStreams.toByteArray(zip));
+      }
+    }
+    return entries;
+  }
+}
@@ -16,10 +16,12 @@ import java.time.LocalDateTime
 
 import org.sonatype.nexus.common.app.ApplicationDirectories
 import org.sonatype.nexus.common.app.ApplicationVersion
+import org.sonatype.nexus.internal.backup.IncrementalBackup
 import org.sonatype.nexus.orient.DatabaseManager
 import org.sonatype.nexus.orient.DatabaseRestorer
 import org.sonatype.nexus.orient.DatabaseServer
 
+import com.codahale.metrics.MetricRegistry
 import spock.lang.Specification
 
 import static org.hamcrest.MatcherAssert.assertThat
@@ -44,10 +46,13 @@ class DatabaseBackupImplTest
 
   ApplicationVersion applicationVersion = Mock()
 
+  IncrementalBackup incrementalBackup = new IncrementalBackup(new MetricRegistry(), 1024, 7, 1, true)
+
   def 'checks that a file can be accessed'() {
     databaseRestorer.isRestoreFromLocation(_) >> false
     applicationVersion.getVersion() >> "3.4.1"
-    def databaseBackup = new DatabaseBackupImpl(databaseServer, databaseManager, databaseRestorer, applicationDirectories, applicationVersion)
+    def databaseBackup = new DatabaseBackupImpl(databaseServer, databaseManager, databaseRestorer, applicationDirectories, applicationVersion,
+        incrementalBackup)
 
     when: 'using a temp folder and a temp file'
       File temp = databaseBackup.checkTarget(System.getProperty("java.io.tmpdir"), "test", LocalDateTime.now())
@@ -61,7 +66,8 @@ class DatabaseBackupImplTest
   def 'restore to location is disallowed'() {
     databaseRestorer.isRestoreFromLocation(_) >> true
     applicationVersion.getVersion() >> "3.4.1"
-    def databaseBackup = new DatabaseBackupImpl(databaseServer, databaseManager, databaseRestorer, applicationDirectories, applicationVersion)
+    def databaseBackup = new DatabaseBackupImpl(databaseServer, databaseManager, databaseRestorer, applicationDirectories, applicationVersion,
+        incrementalBackup)
 
     when: 'the target is checked'
       databaseBackup.checkTarget(".", "test", LocalDateTime.now())
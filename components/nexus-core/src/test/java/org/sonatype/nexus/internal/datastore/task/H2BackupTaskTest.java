@@ -22,6 +22,7 @@ import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.common.app.ApplicationDirectories;
 import org.sonatype.nexus.datastore.api.DataStore;
 import org.sonatype.nexus.datastore.api.DataStoreManager;
+import org.sonatype.nexus.internal.backup.IncrementalBackup;
 import org.sonatype.nexus.scheduling.TaskConfiguration;
 
 import org.junit.Before;
@@ -61,6 +62,9 @@ public class H2BackupTaskTest
   @Mock
   private ApplicationDirectories applicationDirectories;
 
+  @Mock
+  private IncrementalBackup incrementalBackup;
+
   @Before
   public void setup() {
     when(dataStoreManager.get(DEFAULT_DATASTORE_NAME)).thenReturn(Optional.of(dataStore));
@@ -104,7 +108,7 @@ public class H2BackupTaskTest
   }
 
   private H2BackupTask createTask(final String location) {
-    H2BackupTask task = new H2BackupTask(dataStoreManager, applicationDirectories);
+    H2BackupTask task = new H2BackupTask(dataStoreManager, applicationDirectories, incrementalBackup);
     TaskConfiguration configuration = new TaskConfiguration();
     configuration.setString(H2BackupTaskDescriptor.LOCATION, location);
     configuration.setTypeId(H2BackupTaskDescriptor.TYPE_ID);
@@ -24,6 +24,7 @@ import javax.inject.Provider;
 
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.goodies.common.Mutex;
+import org.sonatype.goodies.common.Time;
 import org.sonatype.nexus.common.app.BaseUrlManager;
 import org.sonatype.nexus.common.event.EventManager;
 import org.sonatype.nexus.quartz.internal.QuartzSchedulerSPI;
@@ -33,6 +34,8 @@ import org.sonatype.nexus.scheduling.TaskConfiguration;
 import org.sonatype.nexus.scheduling.TaskFactory;
 import org.sonatype.nexus.scheduling.TaskInfo;
 import org.sonatype.nexus.scheduling.TaskInterruptedException;
+import org.sonatype.nexus.scheduling.TaskResourceLimiter;
+import org.sonatype.nexus.scheduling.TaskResourceLimiter.Lease;
 import org.sonatype.nexus.scheduling.TaskState;
 import org.sonatype.nexus.scheduling.events.TaskBlockedEvent;
 import org.sonatype.nexus.scheduling.events.TaskEventCanceled;
@@ -60,6 +63,10 @@ import static org.sonatype.nexus.scheduling.TaskState.RUNNING_STARTING;
  *
  * Supports {@link InterruptableJob} but actual interrupt-ability depends on underlying tasks implementation.
  *
+ * Tasks whose declared resources are at capacity according to the {@link TaskResourceLimiter} are held in the
+ * {@link TaskState#RUNNING_BLOCKED} state until the resources are released, giving up once they have waited for longer
+ * than the configured resource wait timeout so queued tasks cannot hold every scheduler thread.
+ *
  * @since 3.0
  */
 @PersistJobDataAfterExecution
@@ -79,6 +86,10 @@ public class QuartzTaskJob
 
   private final BaseUrlManager baseUrlManager;
 
+  private final TaskResourceLimiter resourceLimiter;
+
+  private final long resourceWaitMillis;
+
   private JobExecutionContext context;
 
   private QuartzTaskInfo taskInfo;
@@ -87,16 +98,22 @@ public class QuartzTaskJob
 
   private Task task;
 
+  private Lease resourceLease;
+
   @Inject
   public QuartzTaskJob(final EventManager eventManager,
                        final Provider<QuartzSchedulerSPI> scheduler,
                        final TaskFactory taskFactory,
-                       final BaseUrlManager baseUrlManager)
+                       final BaseUrlManager baseUrlManager,
+                       final TaskResourceLimiter resourceLimiter,
+                       @Named("${nexus.scheduling.resourceWaitTimeout:-1m}") final Time resourceWaitTimeout)
   {
     this.eventManager = checkNotNull(eventManager);
     this.scheduler = checkNotNull(scheduler);
     this.taskFactory = checkNotNull(taskFactory);
     this.baseUrlManager = checkNotNull(baseUrlManager);
+    this.resourceLimiter = checkNotNull(resourceLimiter);
+    this.resourceWaitMillis = resourceWaitTimeout.toMillis();
   }
 
   @Override
@@ -180,6 +197,9 @@ public class QuartzTaskJob
       log.warn("Task {} instantiation failure", context.getJobDetail().getKey(), e);
       failure = e;
     }
+    finally {
+      releaseResources();
+    }
 
     // propagate any failure
     if (failure != null) {
@@ -188,9 +208,10 @@ public class QuartzTaskJob
   }
 
   /**
-   * Waits for other tasks blocked by current task to finish.
+   * Waits for other tasks blocked by current task to finish, and for the resources needed by current task.
    */
   private void mayBlock() throws Exception {
+    long resourceWaitStart = System.nanoTime();
     while (true) {
       final List<TaskInfo> blockedBy;
 
@@ -202,8 +223,11 @@ public class QuartzTaskJob
         if (blockedBy.isEmpty()) {
           // no tasks are blocked
           log.trace("No blockers for task: {}", task);
-          markTaskAsRunning();
-          return;
+          resourceLease = resourceLimiter.tryAcquire(task).orElse(null);
+          if (resourceLease != null) {
+            markTaskAsRunning();
+            return;
+          }
         }
         TaskState previousRunState = taskFuture.getRunState();
         taskFuture.setRunState(RUNNING_BLOCKED);
@@ -213,6 +237,20 @@ public class QuartzTaskJob
         }
       }
 
+      if (blockedBy.isEmpty()) {
+        // queued until enough of the needed resources are released by other tasks
+        log.trace("Task: {} is waiting for resources", task);
+        long remainingMillis = resourceWaitMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - resourceWaitStart);
+        if (remainingMillis <= 0) {
+          throw new TaskInterruptedException("Waited for resources for too long, giving up", true);
+        }
+        resourceLimiter.awaitRelease(Math.min(remainingMillis, 1000L), TimeUnit.MILLISECONDS);
+        if (taskFuture.isCancelled()) {
+          return;
+        }
+        continue;
+      }
+
       log.trace("Task: {} is blocked by: {}", task, blockedBy);
       // wait for all blocked tasks
       try {
@@ -244,6 +282,13 @@ public class QuartzTaskJob
     }
   }
 
+  private void releaseResources() {
+    if (resourceLease != null) {
+      resourceLease.close();
+      resourceLease = null;
+    }
+  }
+
   private void markTaskAsRunning() throws Exception {
     log.trace("Task {} will be marked as running if it is not canceled", task);
     if (!taskFuture.isCancelled()) {
@@ -0,0 +1,135 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.quartz.internal.task;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.app.BaseUrlManager;
+import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.quartz.internal.QuartzSchedulerSPI;
+import org.sonatype.nexus.scheduling.Task;
+import org.sonatype.nexus.scheduling.TaskConfiguration;
+import org.sonatype.nexus.scheduling.TaskFactory;
+import org.sonatype.nexus.scheduling.TaskResourceLimiter;
+import org.sonatype.nexus.scheduling.events.TaskEventCanceled;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.scheduling.TaskState.RUNNING_BLOCKED;
+
+/**
+ * Tests for {@link QuartzTaskJob} waiting on task resources.
+ */
+public class QuartzTaskJobTest
+    extends TestSupport
+{
+  @Mock
+  private EventManager eventManager;
+
+  @Mock
+  private QuartzSchedulerSPI scheduler;
+
+  @Mock
+  private TaskFactory taskFactory;
+
+  @Mock
+  private BaseUrlManager baseUrlManager;
+
+  @Mock
+  private TaskResourceLimiter resourceLimiter;
+
+  @Mock
+  private JobExecutionContext context;
+
+  @Mock
+  private JobDetail jobDetail;
+
+  @Mock
+  private QuartzTaskInfo taskInfo;
+
+  @Mock
+  private QuartzTaskFuture taskFuture;
+
+  @Mock
+  private Task task;
+
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+
+  @Before
+  public void setUp() throws Exception {
+    TaskConfiguration configuration = new TaskConfiguration();
+    configuration.setId("task-id");
+    configuration.setTypeId("task-type");
+
+    when(context.get(QuartzTaskInfo.TASK_INFO_KEY)).thenReturn(taskInfo);
+    when(context.get(QuartzTaskFuture.FUTURE_KEY)).thenReturn(taskFuture);
+    when(context.getJobDetail()).thenReturn(jobDetail);
+    when(jobDetail.getJobDataMap()).thenReturn(new JobDataMap());
+    when(taskInfo.getTaskFuture()).thenReturn(taskFuture);
+    when(taskFuture.isCancelled()).thenAnswer(invocation -> cancelled.get());
+    when(taskFactory.create(any(TaskConfiguration.class))).thenReturn(task);
+    when(task.getId()).thenReturn("task-id");
+    when(task.taskConfiguration()).thenReturn(configuration);
+    when(scheduler.listsTasks()).thenReturn(Collections.emptyList());
+
+    // resources stay at capacity
+    when(resourceLimiter.tryAcquire(task)).thenReturn(Optional.empty());
+  }
+
+  @Test
+  public void waitingForResourcesGivesUpAfterTheTimeout() throws Exception {
+    underTest(Time.millis(50)).execute(context);
+
+    verify(resourceLimiter, atLeastOnce()).awaitRelease(anyLong(), any(TimeUnit.class));
+    verify(taskFuture).setRunState(RUNNING_BLOCKED);
+    verify(taskFuture).doCancel();
+    verify(eventManager).post(any(TaskEventCanceled.class));
+    verify(task, never()).call();
+  }
+
+  @Test
+  public void waitingForResourcesStopsWhenCanceled() throws Exception {
+    doAnswer(invocation -> {
+      cancelled.set(true);
+      return null;
+    }).when(resourceLimiter).awaitRelease(anyLong(), any(TimeUnit.class));
+
+    underTest(Time.hours(1)).execute(context);
+
+    verify(resourceLimiter).awaitRelease(anyLong(), any(TimeUnit.class));
+    verify(taskFuture, never()).doCancel();
+    verify(task, never()).call();
+  }
+
+  private QuartzTaskJob underTest(final Time resourceWaitTimeout) {
+    return new QuartzTaskJob(eventManager, () -> scheduler, taskFactory, baseUrlManager, resourceLimiter,
+        resourceWaitTimeout);
+  }
+}
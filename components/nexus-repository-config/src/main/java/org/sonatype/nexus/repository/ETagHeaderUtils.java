@@ -12,12 +12,23 @@
  */
 package org.sonatype.nexus.repository;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 public class ETagHeaderUtils
 {
   public static final String WEAK_DESIGNATOR = "W/";
 
+  /**
+   * Suffix distinguishing the etag of a gzip encoded response from the etag of the unencoded entity.
+   *
+   * @since 3.31
+   */
+  public static final String GZIP_SUFFIX = "-gzip";
+
   private ETagHeaderUtils() {
   }
 
@@ -43,4 +54,75 @@ public class ETagHeaderUtils
       return etag;
     }
   }
+
+  /**
+   * Returns the etag of the gzip encoded variant of an entity, given the quoted etag of the entity itself.
+   *
+   * @since 3.31
+   */
+  public static String gzipVariant(final String etag) {
+    if (etag.endsWith("\"")) {
+      return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+    else {
+      return etag + GZIP_SUFFIX;
+    }
+  }
+
+  /**
+   * Replaces etags of gzip encoded variants in a conditional header value by the etags of the entities themselves, so
+   * that conditions are evaluated the same regardless of the encoding the client was sent.
+   *
+   * @since 3.31
+   */
+  public static String withoutGzipVariants(final String etags) {
+    return entityTags(etags).stream()
+        .map(ETagHeaderUtils::withoutGzipSuffix)
+        .collect(joining(", "));
+  }
+
+  /**
+   * Splits a conditional header value into its entity tags; commas within the quotes of an entity tag do not separate
+   * entity tags.
+   *
+   * @since 3.31
+   */
+  public static List<String> entityTags(final String etags) {
+    List<String> tags = new ArrayList<>();
+    StringBuilder tag = new StringBuilder();
+    boolean quoted = false;
+    for (char c : etags.toCharArray()) {
+      if (c == ',' && !quoted) {
+        addEntityTag(tags, tag);
+      }
+      else {
+        if (c == '"') {
+          quoted = !quoted;
+        }
+        tag.append(c);
+      }
+    }
+    addEntityTag(tags, tag);
+    return tags;
+  }
+
+  private static void addEntityTag(final List<String> tags, final StringBuilder tag) {
+    String trimmed = tag.toString().trim();
+    if (!trimmed.isEmpty()) {
+      tags.add(trimmed);
+    }
+    tag.setLength(0);
+  }
+
+  /**
+   * Strips the gzip suffix from the opaque part of a quoted entity tag; anything else is left as it is.
+   */
+  private static String withoutGzipSuffix(final String tag) {
+    String quotedSuffix = GZIP_SUFFIX + "\"";
+    int opening = tag.indexOf('"');
+    if (opening >= 0 && tag.endsWith(quotedSuffix) && opening < tag.length() - quotedSuffix.length()) {
+      return tag.substring(0, tag.length() - quotedSuffix.length()) + "\"";
+    }
+    return tag;
+  }
 }
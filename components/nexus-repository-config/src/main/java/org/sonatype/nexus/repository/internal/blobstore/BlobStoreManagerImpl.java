@@ -13,6 +13,7 @@
 package org.sonatype.nexus.repository.internal.blobstore;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -62,6 +63,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.lang.String.format;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
 import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.STARTED;
 
 /**
@@ -413,6 +415,15 @@ public class BlobStoreManagerImpl
     return blobStore == null ? empty() : store.findParent(blobStoreName).map(BlobStoreConfiguration::getName);
   }
 
+  @Override
+  public Collection<String> getDependents(final String blobStoreName) {
+    return stores.values().stream()
+        .map(BlobStore::getBlobStoreConfiguration)
+        .filter(config -> blobStoreDescriptors.get(config.getType()).configHasDependencyOn(config, blobStoreName))
+        .map(BlobStoreConfiguration::getName)
+        .collect(toList());
+  }
+
   @Override
   public BlobStoreConfiguration newConfiguration() {
     return store.newConfiguration();
@@ -14,6 +14,7 @@ package org.sonatype.nexus.repository;
 
 import org.junit.Test;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
@@ -48,4 +49,32 @@ public class ETagHeaderUtilsTest
   public void extractWeak() {
     assertEquals("W/\"foobar\"", ETagHeaderUtils.extract("W/\"foobar\""));
   }
+
+  @Test
+  public void gzipVariantStrong() {
+    assertEquals("\"foobar-gzip\"", ETagHeaderUtils.gzipVariant("\"foobar\""));
+  }
+
+  @Test
+  public void gzipVariantWeak() {
+    assertEquals("W/\"foobar-gzip\"", ETagHeaderUtils.gzipVariant("W/\"foobar\""));
+  }
+
+  @Test
+  public void withoutGzipVariants() {
+    assertEquals("\"foo\", W/\"bar\"", ETagHeaderUtils.withoutGzipVariants("\"foo-gzip\", W/\"bar\""));
+  }
+
+  @Test
+  public void withoutGzipVariantsOnlyStripsTheSuffixOfQuotedEntityTags() {
+    assertEquals("W/\"foo\", \"a-gzip,b\", unquoted-gzip, *",
+        ETagHeaderUtils.withoutGzipVariants("W/\"foo-gzip\",\"a-gzip,b-gzip\" , unquoted-gzip, *"));
+    assertEquals("\"-gzip-\"", ETagHeaderUtils.withoutGzipVariants("\"-gzip-\""));
+    assertEquals("*", ETagHeaderUtils.withoutGzipVariants("*"));
+  }
+
+  @Test
+  public void entityTagsAreSplitOutsideQuotes() {
+    assertEquals(asList("\"a,b\"", "W/\"c\"", "*"), ETagHeaderUtils.entityTags(" \"a,b\" ,W/\"c\",, *"));
+  }
 }
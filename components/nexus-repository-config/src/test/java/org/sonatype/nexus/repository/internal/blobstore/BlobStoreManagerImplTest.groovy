@@ -384,6 +384,23 @@ class BlobStoreManagerImplTest
     assert underTest.browse().toList() == [blobStore]
   }
 
+  @Test
+  void 'Dependents are the blob stores whose configuration depends on the blob store'() {
+    BlobStoreConfiguration tierConfig = createConfig('tier')
+    BlobStoreConfiguration tieredConfig = createConfig('tiered')
+    BlobStoreConfiguration otherConfig = createConfig('other')
+    [tierConfig, tieredConfig, otherConfig].each { config ->
+      BlobStore blobStore = mock(BlobStore)
+      when(blobStore.getBlobStoreConfiguration()).thenReturn(config)
+      underTest.track(config.name, blobStore)
+    }
+    when(descriptor.configHasDependencyOn(any(BlobStoreConfiguration.class), any(String.class))).thenReturn(false)
+    when(descriptor.configHasDependencyOn(tieredConfig, 'tier')).thenReturn(true)
+
+    assert underTest.getDependents('tier') == ['tiered']
+    assert underTest.getDependents('other').isEmpty()
+  }
+
   private BlobStoreConfiguration createConfig(name = 'foo', type = 'test', attributes = [file:[path:'baz']]) {
     def entity = new MockBlobStoreConfiguration(
         name: name,
@@ -12,9 +12,10 @@
  */
 package org.sonatype.nexus.repository.content.browse;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,31 +41,31 @@ import org.sonatype.nexus.repository.content.event.asset.AssetUploadedEvent;
 import org.sonatype.nexus.repository.content.event.component.ComponentDeletedEvent;
 import org.sonatype.nexus.repository.content.event.component.ComponentPurgedEvent;
 import org.sonatype.nexus.repository.content.store.ContentStoreEvent;
+import org.sonatype.nexus.repository.content.store.InternalIds;
+import org.sonatype.nexus.repository.content.utils.PendingIds;
 import org.sonatype.nexus.scheduling.PeriodicJobService;
 import org.sonatype.nexus.scheduling.PeriodicJobService.PeriodicJob;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.Subscribe;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.lang.Integer.parseInt;
+import static java.util.stream.Collectors.toList;
 import static org.sonatype.nexus.common.app.FeatureFlags.DATASTORE_ENABLED;
 import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalAssetId;
-import static org.sonatype.nexus.repository.content.store.InternalIds.toExternalId;
 
 /**
  * Event handler that periodically updates the browse tree based on asset events.
  *
  * This handler runs in the same thread that triggered the event. It avoids doing too much
- * work on that thread by simply marking the asset update as pending in a concurrent map.
+ * work on that thread by simply marking the asset update as pending in a per-repository set.
  * A scheduled task periodically grabs a page of assets and updates the tree.
  *
- * If the pending map gets too big events will start to be posted to flush additional pages.
+ * If the pending set gets too big events will start to be posted to flush additional pages.
  * These events are handled by an asynchronous receiver using threads from the event pool.
+ * Should it grow past {@code maxPending} the triggering thread flushes a page itself.
  *
  * @since 3.26
  */
@@ -84,6 +85,8 @@ public class BrowseEventHandler
 
   private static final String NO_PURGE_DELAY_KEY = HANDLER_KEY_PREFIX + "noPurgeDelay";
 
+  private static final String MAX_PENDING_KEY = HANDLER_KEY_PREFIX + "maxPending";
+
   private final PeriodicJobService periodicJobService;
 
   private final EventManager eventManager;
@@ -96,7 +99,7 @@ public class BrowseEventHandler
 
   private final FlushEventReceiver flushEventReceiver = new FlushEventReceiver();
 
-  private final Map<String, Repository> pendingAssets = new ConcurrentHashMap<>();
+  private final PendingIds<Repository> pendingAssets;
 
   private final AtomicInteger pendingCount = new AtomicInteger();
 
@@ -114,7 +117,8 @@ public class BrowseEventHandler
       final EventManager eventManager,
       @Named("${" + FLUSH_ON_COUNT_KEY + ":-100}") final int flushOnCount,
       @Named("${" + FLUSH_ON_SECONDS_KEY + ":-2}") final int flushOnSeconds,
-      @Named("${" + NO_PURGE_DELAY_KEY + ":-true}") final boolean noPurgeDelay)
+      @Named("${" + NO_PURGE_DELAY_KEY + ":-true}") final boolean noPurgeDelay,
+      @Named("${" + MAX_PENDING_KEY + ":-100000}") final int maxPending)
   {
     this.periodicJobService = checkNotNull(periodicJobService);
     this.eventManager = checkNotNull(eventManager);
@@ -123,6 +127,8 @@ public class BrowseEventHandler
     checkArgument(flushOnSeconds > 0, FLUSH_ON_SECONDS_KEY + " must be positive");
     this.flushOnSeconds = flushOnSeconds;
     this.noPurgeDelay = noPurgeDelay;
+    checkArgument(maxPending > 0, MAX_PENDING_KEY + " must be positive");
+    this.pendingAssets = new PendingIds<>(maxPending);
 
     eventManager.register(flushEventReceiver);
   }
@@ -188,11 +194,21 @@ public class BrowseEventHandler
       log.debug("Missing repository for event {}", event);
       return;
     }
-    // bump count if this is the first time we've seen this request key in this batch
-    if (pendingAssets.put(requestKey(event), repository.get()) == null) {
+    int assetId = internalAssetId(event.getAsset());
+    if (assetId <= 0) {
+      log.debug("Missing asset id for event {}", event);
+      return;
+    }
+    // bump count if this is the first time we've seen this asset in this batch
+    if (pendingAssets.add(repository.get(), assetId)) {
       pendingCount.getAndIncrement();
     }
 
+    // spill: rather than letting pending requests grow without bound, make the caller flush a page
+    if (pendingAssets.isOverCapacity()) {
+      flushPageOfAssets();
+    }
+
     // if there are lots of pending requests then reduce count by a page and
     // trigger an asynchronous flush event (which will actually do the work)
     if (pendingCount.getAndUpdate(c -> c >= flushOnCount ? c - flushOnCount : c) >= flushOnCount) {
@@ -267,26 +283,17 @@ public class BrowseEventHandler
    * Grabs a page of assets and updates the browse tree.
    */
   void flushPageOfAssets() {
-    Multimap<Repository, EntityId> requestsByRepository = ArrayListMultimap.create();
+    Map<Repository, int[]> requestsByRepository;
 
     // only allow one thread to remove entries at a time while still allowing other threads to add entries
     synchronized (flushMutex) {
-
-      // remove page of assets and invert it to get mapping from repository to assets
-      Iterator<Entry<String, Repository>> itr = pendingAssets.entrySet().iterator();
-      for (int i = 0; i < flushOnCount && itr.hasNext(); i++) {
-        Entry<String, Repository> entry = itr.next();
-
-        // these requests are scoped per-repository so it is safe to drop the format here
-        requestsByRepository.put(entry.getValue(), assetId(entry.getKey()));
-        itr.remove();
-      }
+      requestsByRepository = pendingAssets.drain(flushOnCount);
     }
 
     // deliver requests to the relevant repositories
-    requestsByRepository.asMap().forEach(
+    requestsByRepository.forEach(
         (repository, assetIds) -> repository.optionalFacet(BrowseFacet.class).ifPresent(
-            browseFacet -> browseFacet.addPathsToAssets(assetIds)));
+            browseFacet -> browseFacet.addPathsToAssets(assetIds(assetIds))));
   }
 
   /**
@@ -309,16 +316,9 @@ public class BrowseEventHandler
   }
 
   /**
-   * Binds the format with the asset id to get a unique request key.
-   */
-  private String requestKey(final AssetEvent event) {
-    return event.getFormat() + ':' + internalAssetId(event.getAsset());
-  }
-
-  /**
-   * Extracts external asset id from request key; should only be done in the context of a repository/format.
+   * Converts internal asset ids to external ids; should only be done in the context of a repository.
    */
-  private EntityId assetId(final String requestKey) {
-    return toExternalId(parseInt(requestKey.substring(requestKey.indexOf(':') + 1)));
+  private static List<EntityId> assetIds(final int[] internalIds) {
+    return Arrays.stream(internalIds).mapToObj(InternalIds::toExternalId).collect(toList());
   }
 }
@@ -23,6 +23,8 @@ import org.sonatype.nexus.repository.storage.BlobMetadataStorage;
 import org.sonatype.nexus.security.ClientInfoProvider;
 import org.sonatype.nexus.validation.ConstraintViolationFactory;
 
+import com.codahale.metrics.MetricRegistry;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -48,6 +50,8 @@ class ContentFacetDependencies
 
   final BlobMetadataStorage blobMetadataStorage;
 
+  final MetricRegistry metricRegistry;
+
   @Inject
   public ContentFacetDependencies(final BlobStoreManager blobStoreManager,
                                   final DataSessionSupplier dataSessionSupplier,
@@ -55,7 +59,8 @@ class ContentFacetDependencies
                                   final ClientInfoProvider clientInfoProvider,
                                   final NodeAccess nodeAccess,
                                   final AssetBlobValidators assetBlobValidators,
-                                  final BlobMetadataStorage blobMetadataStorage)
+                                  final BlobMetadataStorage blobMetadataStorage,
+                                  final MetricRegistry metricRegistry)
   {
     this.blobStoreManager = checkNotNull(blobStoreManager);
     this.dataSessionSupplier = checkNotNull(dataSessionSupplier);
@@ -64,5 +69,6 @@ class ContentFacetDependencies
     this.nodeAccess = checkNotNull(nodeAccess);
     this.assetBlobValidators = checkNotNull(assetBlobValidators);
     this.blobMetadataStorage = checkNotNull(blobMetadataStorage);
+    this.metricRegistry = checkNotNull(metricRegistry);
   }
 }
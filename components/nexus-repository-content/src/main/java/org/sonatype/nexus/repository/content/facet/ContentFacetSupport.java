@@ -26,6 +26,7 @@ import javax.validation.groups.Default;
 import org.sonatype.nexus.blobstore.api.Blob;
 import org.sonatype.nexus.common.collect.NestedAttributesMap;
 import org.sonatype.nexus.common.entity.EntityId;
+import org.sonatype.nexus.common.property.SystemPropertiesHelper;
 import org.sonatype.nexus.datastore.api.DataSession;
 import org.sonatype.nexus.repository.FacetSupport;
 import org.sonatype.nexus.repository.IllegalOperationException;
@@ -42,6 +43,7 @@ import org.sonatype.nexus.repository.content.fluent.FluentComponents;
 import org.sonatype.nexus.repository.content.fluent.internal.FluentAssetsImpl;
 import org.sonatype.nexus.repository.content.fluent.internal.FluentBlobsImpl;
 import org.sonatype.nexus.repository.content.fluent.internal.FluentComponentsImpl;
+import org.sonatype.nexus.repository.content.store.CachingDataSession;
 import org.sonatype.nexus.repository.content.store.ContentRepositoryData;
 import org.sonatype.nexus.repository.content.store.FormatStoreManager;
 import org.sonatype.nexus.repository.storage.BlobMetadataStorage;
@@ -50,6 +52,8 @@ import org.sonatype.nexus.security.ClientInfo;
 import org.sonatype.nexus.transaction.Transactional;
 import org.sonatype.nexus.transaction.TransactionalStore;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -72,6 +76,12 @@ public abstract class ContentFacetSupport
     extends FacetSupport
     implements ContentFacet, TransactionalStore<DataSession<?>>
 {
+  private static final boolean SESSION_CACHE_ENABLED =
+      SystemPropertiesHelper.getBoolean("nexus.content.sessionCache.enabled", true);
+
+  private static final int SESSION_CACHE_MAX_ENTRIES =
+      SystemPropertiesHelper.getInteger("nexus.content.sessionCache.maxEntries", 1000);
+
   private final FormatStoreManager formatStoreManager;
 
   @VisibleForTesting
@@ -118,6 +128,10 @@ public abstract class ContentFacetSupport
 
   private AssetBlobValidator assetBlobValidator;
 
+  private Histogram sessionQueries;
+
+  private Histogram sessionCacheHits;
+
   protected ContentFacetSupport(final FormatStoreManager formatStoreManager) {
     this.formatStoreManager = checkNotNull(formatStoreManager);
   }
@@ -142,11 +156,18 @@ public abstract class ContentFacetSupport
   }
 
   private ConstraintViolation<?> validateBlobStoreNotInGroup(final String blobStoreName) {
-    return dependencies.blobStoreManager.getParent(blobStoreName)
-        .map(groupName -> dependencies.constraintViolationFactory.
+    Optional<String> groupName = dependencies.blobStoreManager.getParent(blobStoreName);
+    if (groupName.isPresent()) {
+      return dependencies.constraintViolationFactory.createViolation(format("%s.blobStoreName", STORAGE),
+          format("Blob Store '%s' is a member of Blob Store Group '%s' and cannot be set as storage",
+              blobStoreName, groupName.get()));
+    }
+    // blob stores other than groups, such as tiered blob stores, may depend on it as well
+    return dependencies.blobStoreManager.getDependents(blobStoreName).stream().findFirst()
+        .map(dependent -> dependencies.constraintViolationFactory.
             createViolation(format("%s.blobStoreName", STORAGE),
-            format("Blob Store '%s' is a member of Blob Store Group '%s' and cannot be set as storage",
-                blobStoreName, groupName)))
+            format("Blob Store '%s' is used by Blob Store '%s' and cannot be set as storage",
+                blobStoreName, dependent)))
         .orElse(null);
   }
 
@@ -178,11 +199,20 @@ public abstract class ContentFacetSupport
     checkState(contentRepositoryId != null, "Missing contentRepositoryId");
 
     assetBlobValidator = dependencies.assetBlobValidators.selectValidator(getRepository());
+
+    sessionQueries = dependencies.metricRegistry.histogram(sessionMetricName("queries"));
+    sessionCacheHits = dependencies.metricRegistry.histogram(sessionMetricName("cacheHits"));
   }
 
   @Override
   protected void doDestroy() throws Exception {
     config = null;
+    dependencies.metricRegistry.remove(sessionMetricName("queries"));
+    dependencies.metricRegistry.remove(sessionMetricName("cacheHits"));
+  }
+
+  private String sessionMetricName(final String name) {
+    return MetricRegistry.name(ContentFacet.class, getRepository().getName(), "session", name);
   }
 
   /**
@@ -260,9 +290,26 @@ public abstract class ContentFacetSupport
     return fluentAssets;
   }
 
+  /**
+   * Opens a session whose asset and component lookups are served from a per-session identity map, so repeated
+   * lookups of the same content within a unit of work only reach the database once.
+   */
   @Override
   public final DataSession<?> openSession() {
-    return dependencies.dataSessionSupplier.openSession(config.dataStoreName);
+    DataSession<?> session = dependencies.dataSessionSupplier.openSession(config.dataStoreName);
+    if (SESSION_CACHE_ENABLED) {
+      return new CachingDataSession(session, SESSION_CACHE_MAX_ENTRIES, this::recordSession);
+    }
+    return session;
+  }
+
+  private void recordSession(final CachingDataSession session) {
+    if (sessionQueries != null) {
+      sessionQueries.update(session.getQueryCount());
+      sessionCacheHits.update(session.getHitCount());
+    }
+    log.debug("Session closed after {} queries, {} lookups served from session cache",
+        session.getQueryCount(), session.getHitCount());
   }
 
   public final Optional<ClientInfo> clientInfo() {
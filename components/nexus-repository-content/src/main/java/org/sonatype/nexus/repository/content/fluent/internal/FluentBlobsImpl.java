@@ -88,9 +88,14 @@ public class FluentBlobsImpl
     tempHeaders.put(CONTENT_TYPE_HEADER, ofNullable(contentType).orElse(APPLICATION_OCTET_STREAM));
 
     MultiHashingInputStream hashingStream = new MultiHashingInputStream(hashing, in);
-    Blob blob = blobStore.create(hashingStream, tempHeaders.build());
+    try {
+      Blob blob = blobStore.create(hashingStream, tempHeaders.build());
 
-    return new TempBlob(blob, hashingStream.hashes(), true, blobStore);
+      return new TempBlob(blob, hashingStream.hashes(), true, blobStore);
+    }
+    finally {
+      hashingStream.release(); // the input stream belongs to the caller
+    }
   }
 
   @Override
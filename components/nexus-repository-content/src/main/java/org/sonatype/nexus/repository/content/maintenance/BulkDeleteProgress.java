@@ -0,0 +1,66 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.maintenance;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Progress of a {@link BulkDeleteService} request.
+ *
+ * @since 3.31
+ */
+public interface BulkDeleteProgress
+{
+  enum State
+  {
+    QUEUED, RUNNING, COMPLETED, FAILED
+  }
+
+  /**
+   * Identifies the request when asking {@link BulkDeleteService#progress} for updates.
+   */
+  String id();
+
+  String repositoryName();
+
+  BulkDeleteQuery query();
+
+  State state();
+
+  /**
+   * Number of components or assets the query has matched so far.
+   */
+  long matched();
+
+  long deletedComponents();
+
+  /**
+   * Number of assets deleted by a selector query; assets deleted along with their components are not counted.
+   */
+  long deletedAssets();
+
+  /**
+   * Number of blobs released to their blob store for compaction.
+   */
+  long deletedBlobs();
+
+  OffsetDateTime submitted();
+
+  Optional<OffsetDateTime> finished();
+
+  /**
+   * Reason the request failed, if it did.
+   */
+  Optional<String> error();
+}
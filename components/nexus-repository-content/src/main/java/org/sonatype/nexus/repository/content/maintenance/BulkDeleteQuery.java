@@ -0,0 +1,122 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.maintenance;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.CharMatcher;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Selects the content removed by a {@link BulkDeleteService} request.
+ *
+ * Either matches components by their coordinates, where {@code *} acts as a wildcard and absent coordinates match
+ * anything, or matches assets using a named content selector. Coordinates which would match every component in the
+ * repository are rejected.
+ *
+ * @since 3.31
+ */
+public final class BulkDeleteQuery
+{
+  public static final String WILDCARD = "*";
+
+  @Nullable
+  private final String namespace;
+
+  @Nullable
+  private final String name;
+
+  @Nullable
+  private final String version;
+
+  @Nullable
+  private final String selector;
+
+  private BulkDeleteQuery(
+      @Nullable final String namespace,
+      @Nullable final String name,
+      @Nullable final String version,
+      @Nullable final String selector)
+  {
+    this.namespace = namespace;
+    this.name = name;
+    this.version = version;
+    this.selector = selector;
+  }
+
+  /**
+   * Matches components by their coordinates; at least one coordinate other than a bare wildcard must be given.
+   */
+  public static BulkDeleteQuery components(
+      @Nullable final String namespace,
+      @Nullable final String name,
+      @Nullable final String version)
+  {
+    checkArgument(!matchesAnything(namespace) || !matchesAnything(name) || !matchesAnything(version),
+        "At least one of namespace, name or version other than %s is required", WILDCARD);
+    return new BulkDeleteQuery(emptyToNull(namespace), emptyToNull(name), emptyToNull(version), null);
+  }
+
+  /**
+   * Matches assets using the named content selector.
+   */
+  public static BulkDeleteQuery selector(final String selector) {
+    checkArgument(!isNullOrEmpty(selector), "Selector name is required");
+    return new BulkDeleteQuery(null, null, null, selector);
+  }
+
+  @Nullable
+  public String getNamespace() {
+    return namespace;
+  }
+
+  @Nullable
+  public String getName() {
+    return name;
+  }
+
+  @Nullable
+  public String getVersion() {
+    return version;
+  }
+
+  @Nullable
+  public String getSelector() {
+    return selector;
+  }
+
+  public boolean isSelector() {
+    return selector != null;
+  }
+
+  /**
+   * Returns whether the coordinate is absent or only made up of wildcards.
+   */
+  public static boolean matchesAnything(@Nullable final String coordinate) {
+    return isNullOrEmpty(coordinate) || CharMatcher.is('*').matchesAllOf(coordinate);
+  }
+
+  @Nullable
+  private static String emptyToNull(@Nullable final String value) {
+    return isNullOrEmpty(value) ? null : value;
+  }
+
+  @Override
+  public String toString() {
+    return isSelector()
+        ? "selector=" + selector
+        : "namespace=" + namespace + ", name=" + name + ", version=" + version;
+  }
+}
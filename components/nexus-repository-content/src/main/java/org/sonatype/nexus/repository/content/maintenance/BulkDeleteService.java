@@ -0,0 +1,42 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.maintenance;
+
+import java.util.Optional;
+
+import org.sonatype.nexus.repository.Repository;
+
+/**
+ * Deletes large sets of components or assets from a repository in the background.
+ *
+ * Content is deleted a page at a time using set-based statements, with one purge event per page and the released
+ * blobs handed to their blob store as a single batch.
+ *
+ * @since 3.31
+ */
+public interface BulkDeleteService
+{
+  /**
+   * Starts deleting the content of the repository matched by the query.
+   *
+   * @return progress of the request, which continues to be updated as the deletion proceeds
+   * @throws IllegalArgumentException if the repository cannot delete content or the query cannot be used
+   * @throws org.apache.shiro.authz.AuthorizationException if the user cannot delete anything in the repository
+   */
+  BulkDeleteProgress submit(Repository repository, BulkDeleteQuery query);
+
+  /**
+   * Returns the progress of an earlier request made by the current user, if it is still known.
+   */
+  Optional<BulkDeleteProgress> progress(String id);
+}
@@ -48,4 +48,14 @@ public interface ContentMaintenanceFacet
    * @since 3.29
    */
   int deleteComponents(int[] componentIds);
+
+  /**
+   * Delete a batch of assets.
+   *
+   * @param assetIds  the assetIds to delete
+   * @return number of assets purged
+   *
+   * @since 3.31
+   */
+  int deleteAssets(int[] assetIds);
 }
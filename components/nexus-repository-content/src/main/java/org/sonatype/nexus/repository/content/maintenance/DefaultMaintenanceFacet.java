@@ -23,6 +23,7 @@ import org.sonatype.nexus.repository.content.facet.ContentFacet;
 import org.sonatype.nexus.repository.content.facet.ContentFacetSupport;
 import org.sonatype.nexus.repository.content.fluent.FluentAsset;
 import org.sonatype.nexus.repository.content.fluent.FluentComponent;
+import org.sonatype.nexus.repository.content.store.AssetStore;
 import org.sonatype.nexus.repository.content.store.ComponentStore;
 
 import com.google.common.collect.ImmutableSet;
@@ -78,4 +79,12 @@ public class DefaultMaintenanceFacet
 
     return componentStore.purge(contentFacet.contentRepositoryId(), componentIds);
   }
+
+  @Override
+  public int deleteAssets(final int[] assetIds) {
+    ContentFacetSupport contentFacet = (ContentFacetSupport) contentFacet();
+    AssetStore<?> assetStore = contentFacet.stores().assetStore;
+
+    return assetStore.purge(contentFacet.contentRepositoryId(), assetIds);
+  }
 }
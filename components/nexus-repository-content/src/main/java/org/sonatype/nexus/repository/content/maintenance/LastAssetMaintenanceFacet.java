@@ -19,6 +19,7 @@ import javax.inject.Named;
 
 import org.sonatype.nexus.repository.content.Asset;
 import org.sonatype.nexus.repository.content.Component;
+import org.sonatype.nexus.repository.content.facet.ContentFacetSupport;
 import org.sonatype.nexus.repository.content.fluent.FluentComponent;
 
 /**
@@ -42,4 +43,21 @@ public class LastAssetMaintenanceFacet
 
     return super.deleteAsset(asset);
   }
+
+  /**
+   * Components left without assets are deleted through {@link #deleteComponents}, so subclasses keep their bookkeeping.
+   *
+   * @since 3.31
+   */
+  @Override
+  public int deleteAssets(final int[] assetIds) {
+    ContentFacetSupport contentFacet = (ContentFacetSupport) contentFacet();
+    int[] componentIds = contentFacet.stores().assetStore.selectComponentsOnlyHavingAssets(assetIds);
+
+    int deletedCount = super.deleteAssets(assetIds);
+    if (componentIds.length > 0) {
+      deleteComponents(componentIds);
+    }
+    return deletedCount;
+  }
 }
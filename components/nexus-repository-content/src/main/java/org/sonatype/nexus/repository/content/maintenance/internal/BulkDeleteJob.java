@@ -0,0 +1,179 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.maintenance.internal;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteQuery;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.time.OffsetDateTime.now;
+import static java.util.Optional.ofNullable;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress.State.COMPLETED;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress.State.FAILED;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress.State.QUEUED;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress.State.RUNNING;
+
+/**
+ * {@link BulkDeleteProgress} updated by the thread running the request.
+ *
+ * @since 3.31
+ */
+class BulkDeleteJob
+    implements BulkDeleteProgress
+{
+  private final String id = UUID.randomUUID().toString();
+
+  private final String repositoryName;
+
+  private final BulkDeleteQuery query;
+
+  private final String submitter;
+
+  private final OffsetDateTime submitted = now();
+
+  private final AtomicLong matched = new AtomicLong();
+
+  private final AtomicLong deletedComponents = new AtomicLong();
+
+  private final AtomicLong deletedAssets = new AtomicLong();
+
+  private final AtomicLong deletedBlobs = new AtomicLong();
+
+  private volatile State state = QUEUED;
+
+  @Nullable
+  private volatile OffsetDateTime finished;
+
+  @Nullable
+  private volatile String error;
+
+  BulkDeleteJob(final String repositoryName, final BulkDeleteQuery query, final String submitter) {
+    this.repositoryName = checkNotNull(repositoryName);
+    this.query = checkNotNull(query);
+    this.submitter = checkNotNull(submitter);
+  }
+
+  @Override
+  public String id() {
+    return id;
+  }
+
+  @Override
+  public String repositoryName() {
+    return repositoryName;
+  }
+
+  @Override
+  public BulkDeleteQuery query() {
+    return query;
+  }
+
+  @Override
+  public State state() {
+    return state;
+  }
+
+  @Override
+  public long matched() {
+    return matched.get();
+  }
+
+  @Override
+  public long deletedComponents() {
+    return deletedComponents.get();
+  }
+
+  @Override
+  public long deletedAssets() {
+    return deletedAssets.get();
+  }
+
+  @Override
+  public long deletedBlobs() {
+    return deletedBlobs.get();
+  }
+
+  @Override
+  public OffsetDateTime submitted() {
+    return submitted;
+  }
+
+  @Override
+  public Optional<OffsetDateTime> finished() {
+    return ofNullable(finished);
+  }
+
+  @Override
+  public Optional<String> error() {
+    return ofNullable(error);
+  }
+
+  /**
+   * Id of the user who submitted the request.
+   */
+  String submitter() {
+    return submitter;
+  }
+
+  void running() {
+    state = RUNNING;
+  }
+
+  void matched(final long count) {
+    matched.addAndGet(count);
+  }
+
+  void deletedComponents(final long count) {
+    deletedComponents.addAndGet(count);
+  }
+
+  void deletedAssets(final long count) {
+    deletedAssets.addAndGet(count);
+  }
+
+  void deletedBlobs(final long count) {
+    deletedBlobs.addAndGet(count);
+  }
+
+  void completed() {
+    finished = now();
+    state = COMPLETED;
+  }
+
+  void failed(final String reason) {
+    error = reason;
+    finished = now();
+    state = FAILED;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "id=" + id +
+        ", repositoryName=" + repositoryName +
+        ", query=" + query +
+        ", state=" + state +
+        ", matched=" + matched +
+        ", deletedComponents=" + deletedComponents +
+        ", deletedAssets=" + deletedAssets +
+        ", deletedBlobs=" + deletedBlobs +
+        '}';
+  }
+}
@@ -0,0 +1,416 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.maintenance.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobRef;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.common.entity.Continuation;
+import org.sonatype.nexus.common.stateguard.Guarded;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.content.Asset;
+import org.sonatype.nexus.repository.content.AssetBlob;
+import org.sonatype.nexus.repository.content.facet.ContentFacet;
+import org.sonatype.nexus.repository.content.facet.ContentFacetStores;
+import org.sonatype.nexus.repository.content.facet.ContentFacetSupport;
+import org.sonatype.nexus.repository.content.fluent.FluentAsset;
+import org.sonatype.nexus.repository.content.fluent.FluentComponent;
+import org.sonatype.nexus.repository.content.fluent.FluentQuery;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteQuery;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteService;
+import org.sonatype.nexus.repository.content.maintenance.ContentMaintenanceFacet;
+import org.sonatype.nexus.repository.content.maintenance.MaintenanceService;
+import org.sonatype.nexus.repository.content.store.InternalIds;
+import org.sonatype.nexus.repository.security.RepositoryPermissionChecker;
+import org.sonatype.nexus.repository.security.RepositoryViewPermission;
+import org.sonatype.nexus.security.SecurityHelper;
+import org.sonatype.nexus.security.UserIdHelper;
+import org.sonatype.nexus.selector.CselSelector;
+import org.sonatype.nexus.selector.SelectorConfiguration;
+import org.sonatype.nexus.selector.SelectorEvaluationException;
+import org.sonatype.nexus.selector.SelectorManager;
+import org.sonatype.nexus.selector.SelectorSqlBuilder;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.shiro.authz.AuthorizationException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Thread.MIN_PRIORITY;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.STARTED;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteQuery.WILDCARD;
+import static org.sonatype.nexus.repository.content.store.ComponentDAO.FILTER_PARAMS;
+import static org.sonatype.nexus.security.BreadActions.DELETE;
+import static org.sonatype.nexus.thread.NexusExecutorService.forCurrentSubject;
+
+/**
+ * {@link BulkDeleteService} that deletes a page of matching content at a time.
+ *
+ * Each page is purged with a single set-based statement through {@link ContentMaintenanceFacet}, so formats keep
+ * their bookkeeping and listeners receive one purge event per page, which browse nodes and search handle in bulk.
+ * Asset blobs no longer used by any asset are then removed in one statement and their blobs are handed to each blob
+ * store as a single batch, leaving their reclamation to compaction. Asset blobs left behind by a failure part way
+ * through a page are picked up by the regular unused asset blob cleanup.
+ *
+ * Users with delete permission on the whole repository skip per item permission checks; otherwise every matched
+ * component or asset is checked against the user's content selector privileges. Progress is only reported to the
+ * user who submitted the request. Requests still running or queued when the service stops are abandoned.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+@ManagedLifecycle(phase = SERVICES)
+public class BulkDeleteServiceImpl
+    extends StateGuardLifecycleSupport
+    implements BulkDeleteService
+{
+  private static final String DELETE_REASON = "Bulk delete";
+
+  private final SecurityHelper securityHelper;
+
+  private final RepositoryPermissionChecker repositoryPermissionChecker;
+
+  private final MaintenanceService maintenanceService;
+
+  private final SelectorManager selectorManager;
+
+  private final BlobStoreManager blobStoreManager;
+
+  private final int batchSize;
+
+  private final Cache<String, BulkDeleteJob> jobs;
+
+  private final Supplier<ExecutorService> executorFactory;
+
+  private ExecutorService executorService;
+
+  @Inject
+  public BulkDeleteServiceImpl(
+      final SecurityHelper securityHelper,
+      final RepositoryPermissionChecker repositoryPermissionChecker,
+      final MaintenanceService maintenanceService,
+      final SelectorManager selectorManager,
+      final BlobStoreManager blobStoreManager,
+      @Named("${nexus.content.bulkDelete.batchSize:-1000}") final int batchSize,
+      @Named("${nexus.content.bulkDelete.progressRetention:-24h}") final Time progressRetention)
+  {
+    this(securityHelper, repositoryPermissionChecker, maintenanceService, selectorManager, blobStoreManager,
+        batchSize, progressRetention, () -> forCurrentSubject(newSingleThreadExecutor(
+            new NexusThreadFactory("bulk-delete", "Bulk delete components and assets", MIN_PRIORITY))));
+  }
+
+  @VisibleForTesting
+  BulkDeleteServiceImpl(
+      final SecurityHelper securityHelper,
+      final RepositoryPermissionChecker repositoryPermissionChecker,
+      final MaintenanceService maintenanceService,
+      final SelectorManager selectorManager,
+      final BlobStoreManager blobStoreManager,
+      final int batchSize,
+      final Time progressRetention,
+      final Supplier<ExecutorService> executorFactory)
+  {
+    checkArgument(batchSize > 0, "Batch size must be positive");
+    this.securityHelper = checkNotNull(securityHelper);
+    this.repositoryPermissionChecker = checkNotNull(repositoryPermissionChecker);
+    this.maintenanceService = checkNotNull(maintenanceService);
+    this.selectorManager = checkNotNull(selectorManager);
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+    this.batchSize = batchSize;
+    this.jobs = CacheBuilder.newBuilder()
+        .expireAfterWrite(progressRetention.toMillis(), MILLISECONDS)
+        .build();
+    this.executorFactory = checkNotNull(executorFactory);
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    executorService = executorFactory.get();
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    executorService.shutdownNow();
+    if (!executorService.awaitTermination(10, SECONDS)) {
+      log.warn("Timed out waiting for bulk deletes to stop");
+    }
+    executorService = null;
+  }
+
+  @Override
+  @Guarded(by = STARTED)
+  public BulkDeleteProgress submit(final Repository repository, final BulkDeleteQuery query) {
+    checkNotNull(repository);
+    checkNotNull(query);
+    checkArgument(repository.optionalFacet(ContentMaintenanceFacet.class).isPresent(),
+        "Repository %s does not support deleting content", repository.getName());
+
+    if (!repositoryPermissionChecker.userCanDeleteInRepository(repository)) {
+      throw new AuthorizationException();
+    }
+
+    // resolve the filter up front so bad requests are rejected rather than failing in the background
+    Filter filter = query.isSelector() ? selectorFilter(repository, query.getSelector()) : coordinateFilter(query);
+
+    BulkDeleteJob job = new BulkDeleteJob(repository.getName(), query, currentUserId());
+    jobs.put(job.id(), job);
+
+    log.info("Bulk delete {} of {} in repository {} submitted", job.id(), query, repository.getName());
+
+    executorService.submit(() -> run(repository, filter, job));
+
+    return job;
+  }
+
+  @Override
+  public Optional<BulkDeleteProgress> progress(final String id) {
+    BulkDeleteJob job = jobs.getIfPresent(id);
+    if (job == null || !job.submitter().equals(currentUserId())) {
+      // other users can't tell the request apart from an unknown one
+      return Optional.empty();
+    }
+    return Optional.of(job);
+  }
+
+  private String currentUserId() {
+    return UserIdHelper.get(securityHelper.subject());
+  }
+
+  private void run(final Repository repository, final Filter filter, final BulkDeleteJob job) {
+    job.running();
+    try {
+      boolean canDeleteAll = securityHelper.anyPermitted(new RepositoryViewPermission(repository, DELETE));
+      if (job.query().isSelector()) {
+        deleteAssets(repository, filter, canDeleteAll, job);
+      }
+      else {
+        deleteComponents(repository, filter, canDeleteAll, job);
+      }
+      job.completed();
+      log.info("Bulk delete {} completed: {}", job.id(), job);
+    }
+    catch (Exception e) {
+      log.warn("Bulk delete {} failed: {}", job.id(), job, e);
+      job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+    }
+    finally {
+      jobs.put(job.id(), job);
+    }
+  }
+
+  private void deleteComponents(
+      final Repository repository,
+      final Filter filter,
+      final boolean canDeleteAll,
+      final BulkDeleteJob job)
+  {
+    ContentFacet contentFacet = repository.facet(ContentFacet.class);
+    ContentMaintenanceFacet maintenanceFacet = repository.facet(ContentMaintenanceFacet.class);
+    ContentFacetStores stores = ((ContentFacetSupport) contentFacet).stores();
+
+    FluentQuery<FluentComponent> query = contentFacet.components().byFilter(filter.sql, filter.params);
+
+    String continuationToken = null;
+    Continuation<FluentComponent> page;
+    do {
+      // deleted rows don't upset paging because the token is the internal id of the last row, not an offset
+      page = query.browse(batchSize, continuationToken);
+      job.matched(page.size());
+
+      int[] componentIds = page.stream()
+          .filter(component -> canDeleteAll || maintenanceService.canDeleteComponent(repository, component))
+          .mapToInt(InternalIds::internalComponentId)
+          .toArray();
+
+      if (componentIds.length > 0) {
+        List<BlobRef> blobRefs = stores.assetBlobStore.readComponentAssetBlobs(componentIds).stream()
+            .map(AssetBlob::blobRef)
+            .collect(toList());
+
+        job.deletedComponents(maintenanceFacet.deleteComponents(componentIds));
+        releaseBlobs(stores, blobRefs, job);
+      }
+
+      jobs.put(job.id(), job);
+      continuationToken = page.nextContinuationToken();
+    }
+    while (page.size() == batchSize);
+  }
+
+  private void deleteAssets(
+      final Repository repository,
+      final Filter filter,
+      final boolean canDeleteAll,
+      final BulkDeleteJob job)
+  {
+    ContentFacet contentFacet = repository.facet(ContentFacet.class);
+    ContentMaintenanceFacet maintenanceFacet = repository.facet(ContentMaintenanceFacet.class);
+    ContentFacetStores stores = ((ContentFacetSupport) contentFacet).stores();
+
+    FluentQuery<FluentAsset> query = contentFacet.assets().byFilter(filter.sql, filter.params);
+
+    String continuationToken = null;
+    Continuation<FluentAsset> page;
+    do {
+      page = query.browse(batchSize, continuationToken);
+      job.matched(page.size());
+
+      List<FluentAsset> permitted = page.stream()
+          .filter(asset -> canDeleteAll || maintenanceService.canDeleteAsset(repository, asset))
+          .collect(toList());
+
+      if (!permitted.isEmpty()) {
+        int[] assetIds = permitted.stream()
+            .mapToInt(InternalIds::internalAssetId)
+            .toArray();
+        List<BlobRef> blobRefs = permitted.stream()
+            .map(Asset::blob)
+            .filter(Optional::isPresent)
+            .map(blob -> blob.get().blobRef())
+            .collect(toList());
+
+        job.deletedAssets(maintenanceFacet.deleteAssets(assetIds));
+        releaseBlobs(stores, blobRefs, job);
+      }
+
+      jobs.put(job.id(), job);
+      continuationToken = page.nextContinuationToken();
+    }
+    while (page.size() == batchSize);
+  }
+
+  /**
+   * Removes the asset blobs which are no longer used by any asset and soft-deletes their blobs as one batch per blob
+   * store.
+   */
+  private void releaseBlobs(
+      final ContentFacetStores stores,
+      final Collection<BlobRef> blobRefs,
+      final BulkDeleteJob job)
+  {
+    Map<String, List<BlobId>> releasedBlobs = stores.assetBlobStore.deleteUnusedAssetBlobs(blobRefs).stream()
+        .collect(groupingBy(BlobRef::getStore, mapping(BlobRef::getBlobId, toList())));
+
+    releasedBlobs.forEach((blobStoreName, blobIds) -> {
+      BlobStore blobStore = blobStoreManager.get(blobStoreName);
+      if (blobStore != null) {
+        job.deletedBlobs(blobStore.deleteBatch(blobIds, DELETE_REASON));
+      }
+      else {
+        log.warn("Bulk delete {} unable to find blob store {} to delete {} blobs", job.id(), blobStoreName,
+            blobIds.size());
+      }
+    });
+  }
+
+  private static Filter coordinateFilter(final BulkDeleteQuery query) {
+    Filter filter = new Filter();
+    filter.matchCoordinate("namespace", query.getNamespace());
+    filter.matchCoordinate("name", query.getName());
+    filter.matchCoordinate("version", query.getVersion());
+    // never fall back to matching the whole repository
+    checkArgument(!filter.isEmpty(), "Bulk delete of %s would match every component", query);
+    return filter;
+  }
+
+  private Filter selectorFilter(final Repository repository, final String selectorName) {
+    SelectorConfiguration selector = selectorManager.findByName(selectorName)
+        .orElseThrow(() -> new IllegalArgumentException("Unable to find content selector " + selectorName));
+
+    checkArgument(CselSelector.TYPE.equals(selector.getType()),
+        "Content selector %s must be of type %s", selectorName, CselSelector.TYPE);
+
+    SelectorSqlBuilder sqlBuilder = new SelectorSqlBuilder()
+        .propertyAlias("path", "path")
+        .propertyAlias("format", "'" + repository.getFormat().getValue() + "'")
+        .parameterPrefix("#{" + FILTER_PARAMS + ".")
+        .parameterSuffix("}");
+
+    try {
+      selectorManager.toSql(selector, sqlBuilder);
+    }
+    catch (SelectorEvaluationException e) {
+      throw new IllegalArgumentException("Unable to use content selector " + selectorName + ": " + e.getMessage(), e);
+    }
+
+    Filter filter = new Filter();
+    filter.sql = sqlBuilder.getQueryString();
+    filter.params.putAll(sqlBuilder.getQueryParameters());
+    return filter;
+  }
+
+  /**
+   * SQL 'where' clause and its parameters, as accepted by {@link FluentQuery} filters.
+   */
+  private static class Filter
+  {
+    @Nullable
+    String sql;
+
+    final Map<String, Object> params = new HashMap<>();
+
+    boolean isEmpty() {
+      return sql == null;
+    }
+
+    /**
+     * Matches the column against the given value, where {@code *} matches any sequence of characters.
+     */
+    void matchCoordinate(final String column, @Nullable final String value) {
+      if (BulkDeleteQuery.matchesAnything(value)) {
+        return;
+      }
+
+      String clause;
+      if (value.contains(WILDCARD)) {
+        clause = column + " LIKE #{" + FILTER_PARAMS + "." + column + "}";
+        params.put(column, value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_").replace(WILDCARD, "%"));
+      }
+      else {
+        clause = column + " = #{" + FILTER_PARAMS + "." + column + "}";
+        params.put(column, value);
+      }
+
+      sql = sql == null ? clause : sql + " AND " + clause;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.rest.internal.resources;
+
+import java.time.OffsetDateTime;
+
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Progress of a bulk delete request.
+ *
+ * @since 3.31
+ */
+public class BulkDeleteProgressXO
+{
+  @ApiModelProperty("Identifier used to follow the progress of the request")
+  private String id;
+
+  private String repository;
+
+  @ApiModelProperty(value = "State of the request", allowableValues = "QUEUED,RUNNING,COMPLETED,FAILED")
+  private String state;
+
+  @ApiModelProperty("Number of components or assets matched so far")
+  private long matched;
+
+  private long deletedComponents;
+
+  @ApiModelProperty("Number of assets deleted by a selector request")
+  private long deletedAssets;
+
+  @ApiModelProperty("Number of blobs released to their blob store for compaction")
+  private long deletedBlobs;
+
+  private OffsetDateTime submitted;
+
+  private OffsetDateTime finished;
+
+  @ApiModelProperty("Reason the request failed")
+  private String error;
+
+  public static BulkDeleteProgressXO fromProgress(final BulkDeleteProgress progress) {
+    BulkDeleteProgressXO progressXO = new BulkDeleteProgressXO();
+    progressXO.setId(progress.id());
+    progressXO.setRepository(progress.repositoryName());
+    progressXO.setState(progress.state().name());
+    progressXO.setMatched(progress.matched());
+    progressXO.setDeletedComponents(progress.deletedComponents());
+    progressXO.setDeletedAssets(progress.deletedAssets());
+    progressXO.setDeletedBlobs(progress.deletedBlobs());
+    progressXO.setSubmitted(progress.submitted());
+    progressXO.setFinished(progress.finished().orElse(null));
+    progressXO.setError(progress.error().orElse(null));
+    return progressXO;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(final String id) {
+    this.id = id;
+  }
+
+  public String getRepository() {
+    return repository;
+  }
+
+  public void setRepository(final String repository) {
+    this.repository = repository;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState(final String state) {
+    this.state = state;
+  }
+
+  public long getMatched() {
+    return matched;
+  }
+
+  public void setMatched(final long matched) {
+    this.matched = matched;
+  }
+
+  public long getDeletedComponents() {
+    return deletedComponents;
+  }
+
+  public void setDeletedComponents(final long deletedComponents) {
+    this.deletedComponents = deletedComponents;
+  }
+
+  public long getDeletedAssets() {
+    return deletedAssets;
+  }
+
+  public void setDeletedAssets(final long deletedAssets) {
+    this.deletedAssets = deletedAssets;
+  }
+
+  public long getDeletedBlobs() {
+    return deletedBlobs;
+  }
+
+  public void setDeletedBlobs(final long deletedBlobs) {
+    this.deletedBlobs = deletedBlobs;
+  }
+
+  public OffsetDateTime getSubmitted() {
+    return submitted;
+  }
+
+  public void setSubmitted(final OffsetDateTime submitted) {
+    this.submitted = submitted;
+  }
+
+  public OffsetDateTime getFinished() {
+    return finished;
+  }
+
+  public void setFinished(final OffsetDateTime finished) {
+    this.finished = finished;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(final String error) {
+    this.error = error;
+  }
+}
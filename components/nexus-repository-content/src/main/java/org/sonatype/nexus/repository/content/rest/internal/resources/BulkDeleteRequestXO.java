@@ -0,0 +1,68 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.rest.internal.resources;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Request to bulk delete the components or assets of a repository.
+ *
+ * @since 3.31
+ */
+public class BulkDeleteRequestXO
+{
+  @ApiModelProperty("Group (namespace) of the components to delete, where * matches any characters")
+  private String group;
+
+  @ApiModelProperty("Name of the components to delete, where * matches any characters")
+  private String name;
+
+  @ApiModelProperty("Version of the components to delete, where * matches any characters")
+  private String version;
+
+  @ApiModelProperty("Name of a CSEL content selector matching the assets to delete; cannot be combined with " +
+      "group, name or version")
+  private String selector;
+
+  public String getGroup() {
+    return group;
+  }
+
+  public void setGroup(final String group) {
+    this.group = group;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(final String name) {
+    this.name = name;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public void setVersion(final String version) {
+    this.version = version;
+  }
+
+  public String getSelector() {
+    return selector;
+  }
+
+  public void setSelector(final String selector) {
+    this.selector = selector;
+  }
+}
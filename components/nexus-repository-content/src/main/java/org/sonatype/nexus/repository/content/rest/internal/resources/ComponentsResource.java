@@ -34,6 +34,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.sonatype.nexus.common.app.FeatureFlag;
@@ -42,6 +43,8 @@ import org.sonatype.nexus.repository.IllegalOperationException;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.content.facet.ContentFacet;
 import org.sonatype.nexus.repository.content.fluent.FluentComponent;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteQuery;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteService;
 import org.sonatype.nexus.repository.content.maintenance.MaintenanceService;
 import org.sonatype.nexus.repository.content.rest.internal.resources.doc.ComponentsResourceDoc;
 import org.sonatype.nexus.repository.rest.api.AssetXODescriptor;
@@ -91,6 +94,8 @@ public class ComponentsResource
 
   private final MaintenanceService maintenanceService;
 
+  private final BulkDeleteService bulkDeleteService;
+
   private final UploadManager uploadManager;
 
   private final UploadConfiguration uploadConfiguration;
@@ -103,6 +108,7 @@ public class ComponentsResource
   public ComponentsResource(
       final RepositoryManagerRESTAdapter repositoryManagerRESTAdapter,
       final MaintenanceService maintenanceService,
+      final BulkDeleteService bulkDeleteService,
       final UploadManager uploadManager,
       final UploadConfiguration uploadConfiguration,
       final ComponentXOFactory componentXOFactory,
@@ -112,6 +118,7 @@ public class ComponentsResource
     super(contentAuthHelper, repositoryManagerRESTAdapter);
     this.repositoryManagerRESTAdapter = checkNotNull(repositoryManagerRESTAdapter);
     this.maintenanceService = checkNotNull(maintenanceService);
+    this.bulkDeleteService = checkNotNull(bulkDeleteService);
     this.uploadManager = checkNotNull(uploadManager);
     this.uploadConfiguration = checkNotNull(uploadConfiguration);
     this.componentXOFactory = checkNotNull(componentXOFactory);
@@ -173,6 +180,51 @@ public class ComponentsResource
         .ifPresent(c -> maintenanceService.deleteComponent(repository, c));
   }
 
+  /**
+   * @since 3.31
+   */
+  @Override
+  @POST
+  @Path("/bulk-delete")
+  public Response bulkDeleteComponents(@QueryParam("repository") final String repositoryId,
+                                       final BulkDeleteRequestXO request)
+  {
+    Repository repository = repositoryManagerRESTAdapter.getRepository(repositoryId);
+
+    try {
+      BulkDeleteProgressXO progressXO = BulkDeleteProgressXO.fromProgress(bulkDeleteService.submit(repository, toQuery(request)));
+      return Response.status(Status.ACCEPTED).entity(progressXO).build();
+    }
+    catch (IllegalArgumentException e) {
+      throw new WebApplicationMessageException(Status.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  /**
+   * @since 3.31
+   */
+  @Override
+  @GET
+  @Path("/bulk-delete/{id}")
+  public BulkDeleteProgressXO getBulkDeleteProgress(@PathParam("id") final String id) {
+    return bulkDeleteService.progress(id)
+        .map(BulkDeleteProgressXO::fromProgress)
+        .orElseThrow(() -> new NotFoundException("Unable to locate bulk delete request with id " + id));
+  }
+
+  private static BulkDeleteQuery toQuery(@Nullable final BulkDeleteRequestXO request) {
+    if (request == null) {
+      throw new IllegalArgumentException("A query is required");
+    }
+    if (request.getSelector() == null) {
+      return BulkDeleteQuery.components(request.getGroup(), request.getName(), request.getVersion());
+    }
+    if (request.getGroup() != null || request.getName() != null || request.getVersion() != null) {
+      throw new IllegalArgumentException("A selector cannot be combined with group, name or version");
+    }
+    return BulkDeleteQuery.selector(request.getSelector());
+  }
+
   @Override
   @POST
   @Consumes(MediaType.MULTIPART_FORM_DATA)
@@ -15,7 +15,10 @@ package org.sonatype.nexus.repository.content.rest.internal.resources.doc;
 import java.io.IOException;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
 
+import org.sonatype.nexus.repository.content.rest.internal.resources.BulkDeleteProgressXO;
+import org.sonatype.nexus.repository.content.rest.internal.resources.BulkDeleteRequestXO;
 import org.sonatype.nexus.repository.rest.api.ComponentXO;
 import org.sonatype.nexus.rest.Page;
 
@@ -72,6 +75,33 @@ public interface ComponentsResourceDoc
   })
   void deleteComponent(@ApiParam(value = "ID of the component to delete") final String id);
 
+  /**
+   * @since 3.31
+   */
+  @ApiOperation(value = "Delete the components matching a query, or the assets matching a content selector",
+      notes = "Deletion continues in the background; use the returned id to follow its progress")
+  @ApiResponses(value = {
+      @ApiResponse(code = 202, message = "Bulk delete was accepted", response = BulkDeleteProgressXO.class),
+      @ApiResponse(code = 400, message = "Invalid query or content selector"),
+      @ApiResponse(code = 403, message = "Insufficient permissions to delete in the repository"),
+      @ApiResponse(code = 404, message = "Repository not found")
+  })
+  Response bulkDeleteComponents(
+      @ApiParam(value = "Repository from which you would like to delete content", required = true)
+      final String repository,
+
+      @ApiParam(value = "Coordinates of the components, or content selector of the assets, to delete", required = true)
+      final BulkDeleteRequestXO request);
+
+  /**
+   * @since 3.31
+   */
+  @ApiOperation("Get the progress of a bulk delete")
+  @ApiResponses(value = {
+      @ApiResponse(code = 404, message = "Bulk delete not found")
+  })
+  BulkDeleteProgressXO getBulkDeleteProgress(@ApiParam(value = "ID of the bulk delete") final String id);
+
   @ApiOperation(value = "Upload a single component")
   @ApiResponses(value = {
       @ApiResponse(code = 403, message = "Insufficient permissions to upload a component"),
@@ -12,14 +12,14 @@
  */
 package org.sonatype.nexus.repository.content.search;
 
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -45,19 +45,17 @@ import org.sonatype.nexus.repository.content.event.component.ComponentUpdatedEve
 import org.sonatype.nexus.repository.content.facet.ContentFacet;
 import org.sonatype.nexus.repository.content.store.InternalIds;
 import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.content.utils.PendingIds;
 import org.sonatype.nexus.repository.upload.UploadManager.UIUploadEvent;
 import org.sonatype.nexus.scheduling.PeriodicJobService;
 import org.sonatype.nexus.scheduling.PeriodicJobService.PeriodicJob;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import com.google.common.eventbus.AllowConcurrentEvents;
 import com.google.common.eventbus.Subscribe;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.lang.Integer.parseInt;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.prependIfMissing;
@@ -66,17 +64,18 @@ import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
 import static org.sonatype.nexus.repository.content.search.SearchEventHandler.RequestType.INDEX;
 import static org.sonatype.nexus.repository.content.search.SearchEventHandler.RequestType.PURGE;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalComponentId;
-import static org.sonatype.nexus.repository.content.store.InternalIds.toExternalId;
 
 /**
  * Event handler that periodically updates search indexes based on component/asset events.
  *
  * This handler runs in the same thread that triggered the event. It avoids doing too much
- * work on that thread by simply marking the component id as pending in a concurrent map.
+ * work on that thread by simply marking the component id as pending in a per-repository set.
  * A background task periodically grabs a page of components and sends them for indexing.
  *
  * If too many components build up events will start to be posted to flush additional pages.
  * These events are handled by an asynchronous receiver using threads from the event pool.
+ * Should the pending sets grow past {@code maxPending} the triggering thread flushes a page
+ * itself, which bounds memory during bulk imports.
  *
  * @since 3.26
  */
@@ -96,6 +95,8 @@ public class SearchEventHandler
 
   private static final String NO_PURGE_DELAY_KEY = HANDLER_KEY_PREFIX + "noPurgeDelay";
 
+  private static final String MAX_PENDING_KEY = HANDLER_KEY_PREFIX + "maxPending";
+
   enum RequestType
   {
     INDEX, PURGE
@@ -115,7 +116,9 @@ public class SearchEventHandler
 
   private final FlushEventReceiver flushEventReceiver = new FlushEventReceiver();
 
-  private final Map<String, String> pendingRequests = new ConcurrentHashMap<>();
+  private final PendingIds<String> pendingIndexRequests;
+
+  private final PendingIds<String> pendingPurgeRequests;
 
   private final AtomicInteger pendingCount = new AtomicInteger();
 
@@ -132,7 +135,8 @@ public class SearchEventHandler
       final EventManager eventManager,
       @Named("${" + FLUSH_ON_COUNT_KEY + ":-100}") final int flushOnCount,
       @Named("${" + FLUSH_ON_SECONDS_KEY + ":-2}") final int flushOnSeconds,
-      @Named("${" + NO_PURGE_DELAY_KEY + ":-true}") final boolean noPurgeDelay)
+      @Named("${" + NO_PURGE_DELAY_KEY + ":-true}") final boolean noPurgeDelay,
+      @Named("${" + MAX_PENDING_KEY + ":-100000}") final int maxPending)
   {
     this.repositoryManager = checkNotNull(repositoryManager);
     this.periodicJobService = checkNotNull(periodicJobService);
@@ -142,6 +146,9 @@ public class SearchEventHandler
     checkArgument(flushOnSeconds > 0, FLUSH_ON_SECONDS_KEY + " must be positive");
     this.flushOnSeconds = flushOnSeconds;
     this.noPurgeDelay = noPurgeDelay;
+    checkArgument(maxPending > 0, MAX_PENDING_KEY + " must be positive");
+    this.pendingIndexRequests = new PendingIds<>(maxPending);
+    this.pendingPurgeRequests = new PendingIds<>(maxPending);
 
     eventManager.register(flushEventReceiver);
   }
@@ -179,7 +186,7 @@ public class SearchEventHandler
    */
   public void requestIndex(final String format, final int componentId, final Repository repository) {
     if (processEvents && componentId > 0) {
-      markComponentAsPending(requestKey(format, componentId), repoTag(INDEX, repository));
+      markComponentAsPending(INDEX, repository.getName(), componentId);
       maybeTriggerAsyncFlush();
     }
   }
@@ -192,7 +199,7 @@ public class SearchEventHandler
    */
   public void requestPurge(final String format, final int componentId, final Repository repository) {
     if (processEvents && componentId > 0) {
-      markComponentAsPending(requestKey(format, componentId), repoTag(PURGE, repository));
+      markComponentAsPending(PURGE, repository.getName(), componentId);
       maybeTriggerAsyncPurge();
     }
   }
@@ -283,11 +290,12 @@ public class SearchEventHandler
       return;
     }
 
-    String format = repository.get().getFormat().getValue();
-    String repoTag = repoTag(PURGE, repository.get());
+    String repositoryName = repository.get().getName();
 
     for (int componentId : event.getComponentIds()) {
-      markComponentAsPending(requestKey(format, componentId), repoTag);
+      if (componentId > 0) {
+        markComponentAsPending(PURGE, repositoryName, componentId);
+      }
     }
 
     maybeTriggerAsyncPurge();
@@ -328,11 +336,19 @@ public class SearchEventHandler
     requestIndex(event.getFormat(), internalComponentId(event.getAsset()).orElse(-1), repository.get());
   }
 
-  private void markComponentAsPending(final String requestKey, final String repoTag) {
-    // bump count if this is the first time we've seen this request key in this batch
-    if (pendingRequests.put(requestKey, repoTag) == null) {
+  private void markComponentAsPending(final RequestType requestType, final String repositoryName, final int componentId) {
+    PendingIds<String> pending = requestType == INDEX ? pendingIndexRequests : pendingPurgeRequests;
+    PendingIds<String> superseded = requestType == INDEX ? pendingPurgeRequests : pendingIndexRequests;
+
+    // the latest request wins; bump count if this is the first time we've seen this component in this batch
+    if (pending.add(repositoryName, componentId) && !superseded.remove(repositoryName, componentId)) {
       pendingCount.getAndIncrement();
     }
+
+    // spill: rather than letting pending requests grow without bound, make the caller flush a page
+    if (pending.isOverCapacity()) {
+      flushPageOfComponents(requestType);
+    }
   }
 
   private boolean maybeTriggerAsyncFlush() {
@@ -405,63 +421,35 @@ public class SearchEventHandler
    * @param requestType optional request type to filter on
    */
   void flushPageOfComponents(@Nullable final RequestType requestType) {
-    Multimap<String, EntityId> requestsByRepository = ArrayListMultimap.create();
+    Map<String, int[]> purgeRequests;
+    Map<String, int[]> indexRequests = Collections.emptyMap();
 
     // only allow one thread to remove entries at a time while still allowing other threads to add entries
     synchronized (flushMutex) {
-
-      // remove page and invert it to get mapping from repository to components
-      Iterator<Entry<String, String>> itr = pendingRequests.entrySet().iterator();
-      for (int i = 0; i < flushOnCount && itr.hasNext(); i++) {
-        Entry<String, String> entry = itr.next();
-
-        if (requestType == null || entry.getValue().startsWith(requestType.name())) {
-          // requests are scoped per-repository so it's safe to drop the format here
-          requestsByRepository.put(entry.getValue(), componentId(entry.getKey()));
-          itr.remove();
-        }
+      // purges are cheap and keep the index from serving deleted components, so drain them first
+      purgeRequests = requestType != INDEX ? pendingPurgeRequests.drain(flushOnCount) : Collections.emptyMap();
+      int remaining = flushOnCount - purgeRequests.values().stream().mapToInt(ids -> ids.length).sum();
+      if (requestType != PURGE && remaining > 0) {
+        indexRequests = pendingIndexRequests.drain(remaining);
       }
     }
 
     // deliver index/purge requests to the relevant repositories
-    requestsByRepository.asMap().forEach(
-        (repoTag, componentIds) -> ofNullable(repositoryManager.get(repositoryName(repoTag))).ifPresent(
-            repository -> repository.optionalFacet(SearchFacet.class).ifPresent(
-                searchFacet -> {
-                  if (repoTag.startsWith(INDEX.name())) {
-                    searchFacet.index(componentIds);
-                  }
-                  else {
-                    searchFacet.purge(componentIds);
-                  }
-                })));
-  }
-
-  /**
-   * Binds the format with the component id to get a unique request key.
-   */
-  private static String requestKey(final String format, final int componentId) {
-    return format + ':' + componentId;
-  }
-
-  /**
-   * Extracts the external component id from the request key; this should only be done in the context of a repository/format.
-   */
-  private static EntityId componentId(final String requestKey) {
-    return toExternalId(parseInt(requestKey.substring(requestKey.indexOf(':') + 1)));
+    deliver(purgeRequests, SearchFacet::purge);
+    deliver(indexRequests, SearchFacet::index);
   }
 
-  /**
-   * Binds the request type with the repository name to get the repository tag.
-   */
-  private static String repoTag(final RequestType requestType, final Repository repository) {
-    return requestType.name() + ':' + repository.getName();
+  private void deliver(final Map<String, int[]> requests, final BiConsumer<SearchFacet, List<EntityId>> action) {
+    requests.forEach(
+        (repositoryName, componentIds) -> ofNullable(repositoryManager.get(repositoryName)).ifPresent(
+            repository -> repository.optionalFacet(SearchFacet.class).ifPresent(
+                searchFacet -> action.accept(searchFacet, componentIds(componentIds)))));
   }
 
   /**
-   * Extracts the repository name from the repository tag.
+   * Converts internal component ids to external ids; this should only be done in the context of a repository.
    */
-  private static String repositoryName(final String repoTag) {
-    return repoTag.substring(repoTag.indexOf(':') + 1);
+  private static List<EntityId> componentIds(final int[] internalIds) {
+    return Arrays.stream(internalIds).mapToObj(InternalIds::toExternalId).collect(toList());
   }
 }
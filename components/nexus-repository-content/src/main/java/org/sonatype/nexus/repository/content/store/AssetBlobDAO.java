@@ -13,6 +13,7 @@
 package org.sonatype.nexus.repository.content.store;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -75,6 +76,46 @@ public interface AssetBlobDAO
    */
   Optional<AssetBlob> readAssetBlob(@Param("blobRef") BlobRef blobRef);
 
+  /**
+   * Retrieves the asset blobs with the given blob references from the content data store.
+   *
+   * @param blobRefs the blob references
+   * @return the asset blobs that were found
+   *
+   * @since 3.31
+   */
+  Collection<AssetBlob> readAssetBlobs(@Param("blobRefs") Collection<BlobRef> blobRefs);
+
+  /**
+   * Retrieves the asset blobs used by the assets of the given components.
+   *
+   * @param componentIds the internal ids of the components
+   * @return the asset blobs of those components
+   *
+   * @since 3.31
+   */
+  Collection<AssetBlob> readComponentAssetBlobs(@Param("componentIds") int[] componentIds);
+
+  /**
+   * Retrieves those asset blobs with the given blob references which are no longer used by any asset.
+   *
+   * @param blobRefs the blob references
+   * @return the unused asset blobs
+   *
+   * @since 3.31
+   */
+  Collection<AssetBlob> readUnusedAssetBlobs(@Param("blobRefs") Collection<BlobRef> blobRefs);
+
+  /**
+   * Deletes an asset blob from the content data store, as long as no asset uses it.
+   *
+   * @param blobRef the blob reference
+   * @return {@code true} if the asset blob was deleted
+   *
+   * @since 3.31
+   */
+  boolean deleteUnusedAssetBlob(@Param("blobRef") BlobRef blobRef);
+
   /**
    * Deletes an asset blob from the content data store.
    *
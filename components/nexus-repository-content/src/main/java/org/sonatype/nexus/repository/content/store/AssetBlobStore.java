@@ -13,6 +13,7 @@
 package org.sonatype.nexus.repository.content.store;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -27,6 +28,9 @@ import org.sonatype.nexus.transaction.Transactional;
 
 import com.google.inject.assistedinject.Assisted;
 
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+
 /**
  * {@link AssetBlob} store.
  *
@@ -93,6 +97,62 @@ public class AssetBlobStore<T extends AssetBlobDAO>
     return dao().readAssetBlob(blobRef);
   }
 
+  /**
+   * Retrieves the asset blobs with the given blob references from the content data store in one query.
+   *
+   * @param blobRefs the blob references
+   * @return the asset blobs that were found
+   *
+   * @since 3.31
+   */
+  @Transactional
+  public Collection<AssetBlob> readAssetBlobs(final Collection<BlobRef> blobRefs) {
+    if (blobRefs.isEmpty()) {
+      return emptyList();
+    }
+    return dao().readAssetBlobs(blobRefs);
+  }
+
+  /**
+   * Retrieves the asset blobs used by the assets of the given components in one query.
+   *
+   * @param componentIds the internal ids of the components
+   * @return the asset blobs of those components
+   *
+   * @since 3.31
+   */
+  @Transactional
+  public Collection<AssetBlob> readComponentAssetBlobs(final int[] componentIds) {
+    if (componentIds.length == 0) {
+      return emptyList();
+    }
+    return dao().readComponentAssetBlobs(componentIds);
+  }
+
+  /**
+   * Deletes those asset blobs with the given blob references which are no longer used by any asset, so their blobs
+   * can be released from the blob store.
+   *
+   * Candidates are found with one query and then deleted one by one, each only if still unused, so asset blobs which
+   * were taken into use or deleted by someone else in the meantime are not reported as deleted.
+   *
+   * @param blobRefs the blob references
+   * @return the blob references of the asset blobs that were deleted
+   *
+   * @since 3.31
+   */
+  @Transactional
+  public Collection<BlobRef> deleteUnusedAssetBlobs(final Collection<BlobRef> blobRefs) {
+    if (blobRefs.isEmpty()) {
+      return emptyList();
+    }
+    AssetBlobDAO dao = dao();
+    return dao.readUnusedAssetBlobs(blobRefs).stream()
+        .map(AssetBlob::blobRef)
+        .filter(dao::deleteUnusedAssetBlob)
+        .collect(toList());
+  }
+
   /**
    * Deletes an asset blob from the content data store.
    *
@@ -211,6 +211,17 @@ public interface AssetDAO
                                     @Param("daysAgo") int daysAgo,
                                     @Param("limit") int limit);
 
+  /**
+   * Selects the components of the given assets which have no other assets, and so would be left empty once the
+   * given assets are purged.
+   *
+   * @param assetIds the assets about to be purged
+   * @return selected component ids
+   *
+   * @since 3.31
+   */
+  int[] selectComponentsOnlyHavingAssets(@Param("assetIds") int[] assetIds);
+
   /**
    * Purges the selected assets.
    *
@@ -297,6 +297,43 @@ public class AssetStore<T extends AssetDAO>
     return purgeAssets(assetIds);
   }
 
+  /**
+   * Purge the specified assets in the given repository
+   *
+   * @param repositoryId the repository containing the assets
+   * @param assetIds ids of the assets to purge
+   * @return number of purged assets
+   *
+   * @since 3.31
+   */
+  @Transactional
+  public int purge(final int repositoryId, final int[] assetIds) {
+    if (assetIds.length == 0) {
+      return 0; // nothing to purge
+    }
+
+    preCommitEvent(() -> new AssetPrePurgeEvent(repositoryId, assetIds));
+    postCommitEvent(() -> new AssetPurgedEvent(repositoryId, assetIds));
+
+    return purgeAssets(assetIds);
+  }
+
+  /**
+   * Selects the components of the given assets which would be left without any assets once they are purged.
+   *
+   * @param assetIds ids of the assets about to be purged
+   * @return ids of the components only having those assets
+   *
+   * @since 3.31
+   */
+  @Transactional
+  public int[] selectComponentsOnlyHavingAssets(final int[] assetIds) {
+    if (assetIds.length == 0) {
+      return new int[0];
+    }
+    return dao().selectComponentsOnlyHavingAssets(assetIds);
+  }
+
   /**
    * Deletes all assets in the given repository from the content data store.
    *
@@ -0,0 +1,343 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.store;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.sonatype.nexus.datastore.api.DataAccess;
+import org.sonatype.nexus.datastore.api.DataSession;
+import org.sonatype.nexus.repository.content.Asset;
+import org.sonatype.nexus.repository.content.Component;
+import org.sonatype.nexus.transaction.Transaction;
+import org.sonatype.nexus.transaction.TransactionalStore;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.content.store.InternalIds.internalAssetId;
+import static org.sonatype.nexus.repository.content.store.InternalIds.internalComponentId;
+
+/**
+ * {@link DataSession} wrapper which keeps an identity map of the assets and components looked up through it.
+ *
+ * Point lookups ({@link AssetDAO#readAsset}, {@link AssetDAO#readPath}, {@link ComponentDAO#readComponent} and
+ * {@link ComponentDAO#readCoordinate}) are answered from the map when the same entity was already found in this
+ * session, under either of its keys. Only found entities are remembered. Any other statement which is not a read,
+ * as well as a rollback, clears the map so the session always reads its own writes. Each transaction also starts
+ * with an empty map so it never sees entities read before other sessions committed their changes.
+ *
+ * Sessions are confined to a single thread, so no synchronization is needed.
+ *
+ * @since 3.31
+ */
+public final class CachingDataSession
+    implements DataSession<Transaction>
+{
+  private static final String[] READ_PREFIXES = { "read", "browse", "count", "fetch", "find", "select" };
+
+  private static final String READ_ASSET = "readAsset";
+
+  private static final String READ_PATH = "readPath";
+
+  private static final String READ_COMPONENT = "readComponent";
+
+  private static final String READ_COORDINATE = "readCoordinate";
+
+  private final DataSession<?> delegate;
+
+  private final Map<CacheKey, Object> identityMap;
+
+  private final Map<Class<?>, DataAccess> daos = new HashMap<>();
+
+  private final Consumer<CachingDataSession> onClose;
+
+  private final CachingTransaction transaction = new CachingTransaction();
+
+  private int queryCount;
+
+  private int hitCount;
+
+  public CachingDataSession(final DataSession<?> delegate,
+                            final int maxEntries,
+                            final Consumer<CachingDataSession> onClose)
+  {
+    this.delegate = checkNotNull(delegate);
+    this.onClose = checkNotNull(onClose);
+    this.identityMap = new LinkedHashMap<CacheKey, Object>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(final Entry<CacheKey, Object> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Number of statements this session sent to the database.
+   */
+  public int getQueryCount() {
+    return queryCount;
+  }
+
+  /**
+   * Number of lookups this session answered from its identity map instead.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  @Override
+  public <D extends DataAccess> D access(final Class<D> type) {
+    return type.cast(daos.computeIfAbsent(type, this::wrap));
+  }
+
+  @Override
+  public Transaction getTransaction() {
+    return transaction;
+  }
+
+  @Override
+  public void preCommit(final Runnable hook) {
+    delegate.preCommit(hook);
+  }
+
+  @Override
+  public void postCommit(final Runnable hook) {
+    delegate.postCommit(hook);
+  }
+
+  @Override
+  public void onRollback(final Runnable hook) {
+    delegate.onRollback(hook);
+  }
+
+  @Override
+  public String sqlDialect() {
+    return delegate.sqlDialect();
+  }
+
+  @Override
+  public void close() {
+    identityMap.clear();
+    try {
+      onClose.accept(this);
+    }
+    finally {
+      delegate.close();
+    }
+  }
+
+  private DataAccess wrap(final Class<?> type) {
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    DataAccess dao = delegate.access((Class) type);
+    return (DataAccess) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+        new CachingHandler(type, dao));
+  }
+
+  private class CachingHandler
+      implements InvocationHandler
+  {
+    private final Class<?> type;
+
+    private final DataAccess dao;
+
+    private final boolean assets;
+
+    private final boolean components;
+
+    CachingHandler(final Class<?> type, final DataAccess dao) {
+      this.type = type;
+      this.dao = dao;
+      this.assets = AssetDAO.class.isAssignableFrom(type);
+      this.components = ComponentDAO.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args);
+      }
+
+      String name = method.getName();
+      CacheKey key = isCached(name, args) ? new CacheKey(type, name, args) : null;
+      if (key != null) {
+        Object cached = identityMap.get(key);
+        if (cached != null) {
+          hitCount++;
+          return cached;
+        }
+      }
+      else if (!isRead(name)) {
+        identityMap.clear();
+      }
+
+      queryCount++;
+      Object result;
+      try {
+        result = method.invoke(dao, args);
+      }
+      catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+
+      if (key != null && result instanceof Optional && ((Optional<?>) result).isPresent()) {
+        remember(result, ((Optional<?>) result).get());
+      }
+      return result;
+    }
+
+    private boolean isCached(final String name, final Object[] args) {
+      int arity = args != null ? args.length : 0;
+      if (assets) {
+        return (READ_ASSET.equals(name) && arity == 1) || (READ_PATH.equals(name) && arity == 2);
+      }
+      if (components) {
+        return (READ_COMPONENT.equals(name) && arity == 1) || (READ_COORDINATE.equals(name) && arity == 4);
+      }
+      return false;
+    }
+
+    /**
+     * Remembers the found entity under all its lookup keys, so finding it by path also serves lookups by id.
+     */
+    private void remember(final Object result, final Object entity) {
+      if (entity instanceof AssetData) {
+        AssetData asset = (AssetData) entity;
+        identityMap.put(new CacheKey(type, READ_ASSET, new Object[] { internalAssetId((Asset) asset) }), result);
+        identityMap.put(new CacheKey(type, READ_PATH, new Object[] { asset.repositoryId, asset.path() }), result);
+      }
+      else if (entity instanceof ComponentData) {
+        ComponentData component = (ComponentData) entity;
+        identityMap.put(new CacheKey(type, READ_COMPONENT,
+            new Object[] { internalComponentId((Component) component) }), result);
+        identityMap.put(new CacheKey(type, READ_COORDINATE, new Object[] {
+            component.repositoryId, component.namespace(), component.name(), component.version() }), result);
+      }
+    }
+
+    private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return "Caching " + dao;
+      }
+    }
+  }
+
+  private static boolean isRead(final String name) {
+    for (String prefix : READ_PREFIXES) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class CacheKey
+  {
+    private final Class<?> type;
+
+    private final String method;
+
+    private final List<Object> args;
+
+    CacheKey(final Class<?> type, final String method, final Object[] args) {
+      this.type = type;
+      this.method = method;
+      this.args = Arrays.asList(args.clone());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return type == other.type && method.equals(other.method) && args.equals(other.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return (type.hashCode() * 31 + method.hashCode()) * 31 + args.hashCode();
+    }
+  }
+
+  /**
+   * Clears the identity map when a transaction begins, since other sessions may have changed the remembered entities
+   * in the meantime, and on rollback, since entities read or written since the last commit may no longer exist.
+   */
+  private class CachingTransaction
+      implements Transaction
+  {
+    private Transaction tx() {
+      return delegate.getTransaction();
+    }
+
+    @Override
+    public void begin() {
+      identityMap.clear();
+      tx().begin();
+    }
+
+    @Override
+    public void commit() {
+      tx().commit();
+    }
+
+    @Override
+    public void rollback() {
+      identityMap.clear();
+      tx().rollback();
+    }
+
+    @Override
+    public boolean isActive() {
+      return tx().isActive();
+    }
+
+    @Override
+    public boolean allowRetry(final Exception cause) {
+      return tx().allowRetry(cause);
+    }
+
+    @Override
+    public void capture(final TransactionalStore<?> store) {
+      tx().capture(store);
+    }
+
+    @Override
+    public void reason(final String reason) {
+      tx().reason(reason);
+    }
+
+    @Override
+    public String reason() {
+      return tx().reason();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Fixed-capacity open-addressing set of positive ints supporting lock-free concurrent add and remove.
+ *
+ * Slots only ever move from free, to holding an id, to removed; they are never recycled. This keeps probe
+ * sequences stable without locking, at the cost of the set eventually filling up. Once full it reports
+ * {@link AddResult#FULL} and callers are expected to move on to a fresh set, see {@link PendingIds}.
+ *
+ * @since 3.31
+ */
+final class ConcurrentIntSet
+{
+  enum AddResult
+  {
+    ADDED, PRESENT, FULL
+  }
+
+  private static final int FREE = 0;
+
+  private static final int REMOVED = -1;
+
+  private final AtomicIntegerArray slots;
+
+  private final int mask;
+
+  private final int maxReserved;
+
+  private final AtomicInteger reserved = new AtomicInteger();
+
+  private final AtomicInteger removed = new AtomicInteger();
+
+  private int drainCursor;
+
+  ConcurrentIntSet(final int capacity) {
+    checkArgument(capacity >= 4 && Integer.bitCount(capacity) == 1, "capacity must be a power of two >= 4");
+    this.slots = new AtomicIntegerArray(capacity);
+    this.mask = capacity - 1;
+    // keep a quarter of the slots free so probe sequences stay short and always terminate
+    this.maxReserved = capacity - (capacity >>> 2);
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Approximate number of ids currently held by the set.
+   */
+  int size() {
+    return Math.max(0, Math.min(reserved.get(), maxReserved) - removed.get());
+  }
+
+  /**
+   * @return {@code true} once every slot that could ever be filled has been filled and removed again
+   */
+  boolean isExhausted() {
+    return removed.get() >= maxReserved;
+  }
+
+  AddResult add(final int id) {
+    checkArgument(id > 0, "id must be positive");
+    boolean holdsReservation = false;
+    int index = indexFor(id);
+    for (int probes = 0; probes <= mask; ) {
+      int value = slots.get(index);
+      if (value == id) {
+        if (holdsReservation) {
+          reserved.decrementAndGet();
+        }
+        return AddResult.PRESENT;
+      }
+      if (value == FREE) {
+        if (!holdsReservation) {
+          if (reserved.incrementAndGet() > maxReserved) {
+            reserved.decrementAndGet();
+            return AddResult.FULL;
+          }
+          holdsReservation = true;
+        }
+        if (slots.compareAndSet(index, FREE, id)) {
+          return AddResult.ADDED;
+        }
+        // lost the race for this slot; re-read it without advancing in case it now holds our id
+        continue;
+      }
+      index = (index + 1) & mask;
+      probes++;
+    }
+    if (holdsReservation) {
+      reserved.decrementAndGet();
+    }
+    return AddResult.FULL;
+  }
+
+  boolean contains(final int id) {
+    int index = indexFor(id);
+    for (int probes = 0; probes <= mask; probes++) {
+      int value = slots.get(index);
+      if (value == id) {
+        return true;
+      }
+      if (value == FREE) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    return false;
+  }
+
+  boolean remove(final int id) {
+    int index = indexFor(id);
+    for (int probes = 0; probes <= mask; probes++) {
+      int value = slots.get(index);
+      if (value == id) {
+        if (slots.compareAndSet(index, id, REMOVED)) {
+          removed.incrementAndGet();
+          return true;
+        }
+        return false; // removed concurrently
+      }
+      if (value == FREE) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Removes up to {@code max} ids from the set, passing each one to the consumer.
+   *
+   * Only one thread may drain a given set at a time; concurrent adds and removes are allowed.
+   *
+   * @return number of ids drained
+   */
+  int drain(final int max, final IntConsumer consumer) {
+    int drained = 0;
+    for (int scanned = 0; scanned <= mask && drained < max; scanned++) {
+      int index = drainCursor;
+      drainCursor = (drainCursor + 1) & mask;
+      int value = slots.get(index);
+      if (value > 0 && slots.compareAndSet(index, value, REMOVED)) {
+        removed.incrementAndGet();
+        consumer.accept(value);
+        drained++;
+      }
+    }
+    return drained;
+  }
+
+  private int indexFor(final int id) {
+    // spread sequential ids across the table
+    int h = id * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sonatype.nexus.repository.content.utils.ConcurrentIntSet.AddResult;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tracks pending work as positive int ids (such as internal component or asset ids) grouped by a key (such as
+ * the repository) without boxing each id or building a string per request.
+ *
+ * Ids are kept in primitive open-addressing sets; adds and removes are lock-free while draining pages of work is
+ * serialized. Each key starts with a small set and chains on a set of double the size whenever the current one
+ * fills up. Exhausted sets are dropped as pending work is drained. {@link #isOverCapacity()} lets callers bound
+ * memory by flushing work themselves instead of letting it accumulate.
+ *
+ * An id is normally held at most once per key; in rare races when a set fills up it may be drained twice,
+ * so consumers should treat requests as idempotent.
+ *
+ * @since 3.31
+ */
+public class PendingIds<K>
+{
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private static final int MAX_CAPACITY = 1 << 20;
+
+  private final ConcurrentMap<K, Chain> chains = new ConcurrentHashMap<>();
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final int maxPending;
+
+  /**
+   * @param maxPending number of pending ids above which {@link #isOverCapacity()} reports {@code true}
+   */
+  public PendingIds(final int maxPending) {
+    checkArgument(maxPending > 0, "maxPending must be positive");
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * Marks the id as pending under the given key.
+   *
+   * @return {@code true} if the id was not already pending under that key
+   */
+  public boolean add(final K key, final int id) {
+    if (chains.computeIfAbsent(key, k -> new Chain()).add(id)) {
+      size.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Removes the id from the pending work under the given key.
+   *
+   * @return {@code true} if the id was pending under that key
+   */
+  public boolean remove(final K key, final int id) {
+    Chain chain = chains.get(key);
+    if (chain != null && chain.remove(id)) {
+      size.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Removes a page of up to {@code max} pending ids, grouped by key.
+   */
+  public synchronized Map<K, int[]> drain(final int max) {
+    Map<K, int[]> page = new HashMap<>();
+    int remaining = max;
+    for (Map.Entry<K, Chain> entry : chains.entrySet()) {
+      if (remaining <= 0) {
+        break;
+      }
+      int[] ids = entry.getValue().drain(remaining);
+      if (ids.length > 0) {
+        page.put(entry.getKey(), ids);
+        size.addAndGet(-ids.length);
+        remaining -= ids.length;
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Approximate number of pending ids across all keys.
+   */
+  public int size() {
+    return Math.max(0, size.get());
+  }
+
+  /**
+   * @return {@code true} when callers should flush pending work before adding more
+   */
+  public boolean isOverCapacity() {
+    return size.get() >= maxPending;
+  }
+
+  /**
+   * Chain of sets for a single key; only the last set in the chain accepts new ids.
+   */
+  private static class Chain
+  {
+    private volatile ConcurrentIntSet[] sets = { new ConcurrentIntSet(INITIAL_CAPACITY) };
+
+    boolean add(final int id) {
+      while (true) {
+        ConcurrentIntSet[] current = sets;
+        ConcurrentIntSet last = current[current.length - 1];
+        for (int i = 0; i < current.length - 1; i++) {
+          if (current[i].contains(id)) {
+            return false;
+          }
+        }
+        AddResult result = last.add(id);
+        if (result != AddResult.FULL) {
+          return result == AddResult.ADDED;
+        }
+        grow(last);
+      }
+    }
+
+    boolean remove(final int id) {
+      for (ConcurrentIntSet set : sets) {
+        if (set.remove(id)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    int[] drain(final int max) {
+      IntArrayBuilder ids = new IntArrayBuilder(Math.min(max, 256));
+      ConcurrentIntSet[] current = sets;
+      for (ConcurrentIntSet set : current) {
+        if (ids.size() >= max) {
+          break;
+        }
+        set.drain(max - ids.size(), ids::add);
+      }
+      dropExhausted();
+      return ids.build();
+    }
+
+    private synchronized void grow(final ConcurrentIntSet full) {
+      ConcurrentIntSet[] current = sets;
+      if (current[current.length - 1] == full) {
+        ConcurrentIntSet[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = new ConcurrentIntSet(Math.min(full.capacity() * 2, MAX_CAPACITY));
+        sets = grown;
+      }
+    }
+
+    private synchronized void dropExhausted() {
+      ConcurrentIntSet[] current = sets;
+      List<ConcurrentIntSet> retained = new ArrayList<>(current.length);
+      for (ConcurrentIntSet set : current) {
+        if (!set.isExhausted()) {
+          retained.add(set);
+        }
+      }
+      if (retained.size() != current.length) {
+        if (retained.isEmpty() || retained.get(retained.size() - 1) != current[current.length - 1]) {
+          // the accepting set was exhausted so start small again; adders still holding it see it as full and retry
+          retained.add(new ConcurrentIntSet(INITIAL_CAPACITY));
+        }
+        sets = retained.toArray(new ConcurrentIntSet[0]);
+      }
+    }
+  }
+
+  /**
+   * Minimal growable int array, avoids boxing drained ids.
+   */
+  private static class IntArrayBuilder
+  {
+    private int[] ids;
+
+    private int size;
+
+    IntArrayBuilder(final int initialCapacity) {
+      this.ids = new int[Math.max(initialCapacity, 1)];
+    }
+
+    void add(final int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+    int size() {
+      return size;
+    }
+
+    int[] build() {
+      return Arrays.copyOf(ids, size);
+    }
+  }
+}
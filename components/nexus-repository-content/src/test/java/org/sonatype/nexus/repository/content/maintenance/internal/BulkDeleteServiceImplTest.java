@@ -0,0 +1,182 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.maintenance.internal;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.repository.Format;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteQuery;
+import org.sonatype.nexus.repository.content.maintenance.ContentMaintenanceFacet;
+import org.sonatype.nexus.repository.content.maintenance.MaintenanceService;
+import org.sonatype.nexus.repository.security.RepositoryPermissionChecker;
+import org.sonatype.nexus.security.SecurityHelper;
+import org.sonatype.nexus.selector.JexlSelector;
+import org.sonatype.nexus.selector.SelectorConfiguration;
+import org.sonatype.nexus.selector.SelectorManager;
+
+import org.apache.shiro.authz.AuthorizationException;
+import org.apache.shiro.subject.Subject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress.State.QUEUED;
+
+public class BulkDeleteServiceImplTest
+    extends TestSupport
+{
+  @Mock
+  private SecurityHelper securityHelper;
+
+  @Mock
+  private RepositoryPermissionChecker repositoryPermissionChecker;
+
+  @Mock
+  private MaintenanceService maintenanceService;
+
+  @Mock
+  private SelectorManager selectorManager;
+
+  @Mock
+  private BlobStoreManager blobStoreManager;
+
+  @Mock
+  private ExecutorService executorService;
+
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private Format format;
+
+  @Mock
+  private ContentMaintenanceFacet maintenanceFacet;
+
+  private BulkDeleteServiceImpl underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    when(repository.getName()).thenReturn("test-repo");
+    when(repository.getFormat()).thenReturn(format);
+    when(format.getValue()).thenReturn("test");
+    when(repository.optionalFacet(ContentMaintenanceFacet.class)).thenReturn(Optional.of(maintenanceFacet));
+    when(repositoryPermissionChecker.userCanDeleteInRepository(repository)).thenReturn(true);
+
+    underTest = new BulkDeleteServiceImpl(securityHelper, repositoryPermissionChecker, maintenanceService,
+        selectorManager, blobStoreManager, 100, Time.hours(1), () -> executorService);
+    underTest.start();
+  }
+
+  @Test
+  public void stoppingShutsDownTheExecutor() throws Exception {
+    when(executorService.awaitTermination(10, SECONDS)).thenReturn(true);
+
+    underTest.stop();
+
+    verify(executorService).shutdownNow();
+    verify(executorService).awaitTermination(10, SECONDS);
+  }
+
+  @Test
+  public void submittedRequestIsQueuedAndTracked() {
+    BulkDeleteProgress progress = underTest.submit(repository, BulkDeleteQuery.components(null, "library-*", null));
+
+    assertThat(progress.state(), is(QUEUED));
+    assertThat(progress.repositoryName(), is("test-repo"));
+    assertThat(underTest.progress(progress.id()).get(), is(sameInstance(progress)));
+    assertThat(underTest.progress("unknown").isPresent(), is(false));
+
+    verify(executorService).submit(any(Runnable.class));
+  }
+
+  @Test
+  public void progressIsOnlyVisibleToTheSubmitter() {
+    Subject alice = mock(Subject.class);
+    when(alice.getPrincipal()).thenReturn("alice");
+    Subject bob = mock(Subject.class);
+    when(bob.getPrincipal()).thenReturn("bob");
+
+    when(securityHelper.subject()).thenReturn(alice);
+    BulkDeleteProgress progress = underTest.submit(repository, BulkDeleteQuery.components(null, "library", null));
+    assertThat(underTest.progress(progress.id()).isPresent(), is(true));
+
+    when(securityHelper.subject()).thenReturn(bob);
+    assertThat(underTest.progress(progress.id()).isPresent(), is(false));
+  }
+
+  @Test
+  public void wildcardOnlyCoordinatesAreRejected() {
+    for (String[] coordinates : new String[][]{{null, null, "*"}, {"*", "**", null}, {"", "*", "*"}}) {
+      try {
+        BulkDeleteQuery.components(coordinates[0], coordinates[1], coordinates[2]);
+        fail("Expected coordinates to be rejected: " + Arrays.toString(coordinates));
+      }
+      catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    assertThat(BulkDeleteQuery.components("*", "library", "*").getName(), is("library"));
+  }
+
+  @Test(expected = AuthorizationException.class)
+  public void submitRequiresDeletePermission() {
+    when(repositoryPermissionChecker.userCanDeleteInRepository(repository)).thenReturn(false);
+
+    try {
+      underTest.submit(repository, BulkDeleteQuery.components(null, "library", null));
+    }
+    finally {
+      verify(executorService, never()).submit(any(Runnable.class));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void submitRequiresMaintenanceFacet() {
+    when(repository.optionalFacet(ContentMaintenanceFacet.class)).thenReturn(Optional.empty());
+
+    underTest.submit(repository, BulkDeleteQuery.components(null, "library", null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void submitRejectsUnknownSelector() {
+    when(selectorManager.findByName("missing")).thenReturn(Optional.empty());
+
+    underTest.submit(repository, BulkDeleteQuery.selector("missing"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void submitRejectsJexlSelector() {
+    SelectorConfiguration selector = mock(SelectorConfiguration.class);
+    when(selector.getType()).thenReturn(JexlSelector.TYPE);
+    when(selectorManager.findByName("jexl")).thenReturn(Optional.of(selector));
+
+    underTest.submit(repository, BulkDeleteQuery.selector("jexl"));
+  }
+}
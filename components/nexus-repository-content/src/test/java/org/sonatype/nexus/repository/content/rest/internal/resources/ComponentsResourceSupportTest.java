@@ -24,6 +24,7 @@ import org.sonatype.nexus.repository.content.fluent.FluentComponent;
 import org.sonatype.nexus.repository.content.fluent.FluentComponents;
 import org.sonatype.nexus.repository.content.fluent.internal.FluentComponentImpl;
 import org.sonatype.nexus.repository.content.fluent.internal.FluentContinuation;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteService;
 import org.sonatype.nexus.repository.content.maintenance.MaintenanceService;
 import org.sonatype.nexus.repository.content.store.ComponentData;
 import org.sonatype.nexus.repository.rest.api.ComponentXOFactory;
@@ -82,6 +83,9 @@ public class ComponentsResourceSupportTest
   @Mock
   private MaintenanceService maintenanceService;
 
+  @Mock
+  private BulkDeleteService bulkDeleteService;
+
   @Mock
   private UploadManager uploadManager;
 
@@ -108,7 +112,7 @@ public class ComponentsResourceSupportTest
     mockContentFacet();
     mockFluentComponents();
 
-    underTest = new ComponentsResource(repositoryManagerRESTAdapter, maintenanceService,
+    underTest = new ComponentsResource(repositoryManagerRESTAdapter, maintenanceService, bulkDeleteService,
         uploadManager, uploadConfiguration, componentXOFactory, contentAuthHelper, null);
   }
 
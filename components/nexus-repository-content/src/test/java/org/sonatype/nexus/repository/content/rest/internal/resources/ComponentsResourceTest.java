@@ -12,12 +12,19 @@
  */
 package org.sonatype.nexus.repository.content.rest.internal.resources;
 
+import java.util.Optional;
+
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.repository.Format;
 import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteQuery;
+import org.sonatype.nexus.repository.content.maintenance.BulkDeleteService;
 import org.sonatype.nexus.repository.content.maintenance.MaintenanceService;
 import org.sonatype.nexus.repository.rest.api.ComponentXOFactory;
 import org.sonatype.nexus.repository.rest.api.RepositoryManagerRESTAdapter;
@@ -25,16 +32,27 @@ import org.sonatype.nexus.repository.selector.ContentAuthHelper;
 import org.sonatype.nexus.repository.upload.UploadConfiguration;
 import org.sonatype.nexus.repository.upload.UploadManager;
 import org.sonatype.nexus.repository.upload.UploadResponse;
+import org.sonatype.nexus.rest.WebApplicationMessageException;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import static java.util.Collections.emptyList;
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.content.maintenance.BulkDeleteProgress.State.QUEUED;
 
 public class ComponentsResourceTest
     extends TestSupport
@@ -58,6 +76,9 @@ public class ComponentsResourceTest
   @Mock
   private MaintenanceService maintenanceService;
 
+  @Mock
+  private BulkDeleteService bulkDeleteService;
+
   @Mock
   private UploadManager uploadManager;
 
@@ -76,8 +97,8 @@ public class ComponentsResourceTest
 
     when(uploadConfiguration.isEnabled()).thenReturn(true);
 
-    underTest = new ComponentsResource(repositoryManagerRESTAdapter, maintenanceService, uploadManager,
-        uploadConfiguration, componentXOFactory, contentAuthHelper, null);
+    underTest = new ComponentsResource(repositoryManagerRESTAdapter, maintenanceService, bulkDeleteService,
+        uploadManager, uploadConfiguration, componentXOFactory, contentAuthHelper, null);
   }
 
   @SuppressWarnings("java:S2699")
@@ -91,6 +112,71 @@ public class ComponentsResourceTest
     underTest.uploadComponent(testRepoName, request);
   }
 
+  @Test
+  public void bulkDeleteComponents() {
+    BulkDeleteProgress progress = mock(BulkDeleteProgress.class);
+    when(progress.id()).thenReturn("bulk-id");
+    when(progress.state()).thenReturn(QUEUED);
+    when(progress.finished()).thenReturn(Optional.empty());
+    when(progress.error()).thenReturn(Optional.empty());
+    when(bulkDeleteService.submit(eq(testRepo), any(BulkDeleteQuery.class))).thenReturn(progress);
+
+    BulkDeleteRequestXO request = new BulkDeleteRequestXO();
+    request.setGroup("org.example");
+    request.setName("library-*");
+
+    Response response = underTest.bulkDeleteComponents(testRepoName, request);
+
+    assertThat(response.getStatus(), is(ACCEPTED.getStatusCode()));
+    assertThat(((BulkDeleteProgressXO) response.getEntity()).getId(), is("bulk-id"));
+    assertThat(((BulkDeleteProgressXO) response.getEntity()).getState(), is("QUEUED"));
+
+    ArgumentCaptor<BulkDeleteQuery> query = ArgumentCaptor.forClass(BulkDeleteQuery.class);
+    verify(bulkDeleteService).submit(eq(testRepo), query.capture());
+    assertThat(query.getValue().isSelector(), is(false));
+    assertThat(query.getValue().getNamespace(), is("org.example"));
+    assertThat(query.getValue().getName(), is("library-*"));
+    assertThat(query.getValue().getVersion(), is(nullValue()));
+  }
+
+  @Test
+  public void bulkDeleteRejectsSelectorCombinedWithCoordinates() {
+    BulkDeleteRequestXO request = new BulkDeleteRequestXO();
+    request.setName("library");
+    request.setSelector("snapshots");
+
+    thrown.expect(WebApplicationMessageException.class);
+    underTest.bulkDeleteComponents(testRepoName, request);
+  }
+
+  @Test
+  public void bulkDeleteRejectsEmptyQuery() {
+    thrown.expect(WebApplicationMessageException.class);
+    underTest.bulkDeleteComponents(testRepoName, new BulkDeleteRequestXO());
+  }
+
+  @Test
+  public void bulkDeleteRejectsWildcardOnlyQuery() {
+    BulkDeleteRequestXO request = new BulkDeleteRequestXO();
+    request.setVersion("*");
+
+    thrown.expect(WebApplicationMessageException.class);
+    try {
+      underTest.bulkDeleteComponents(testRepoName, request);
+    }
+    finally {
+      verify(bulkDeleteService, never()).submit(any(), any());
+    }
+  }
+
+  @Test
+  public void getUnknownBulkDeleteProgress() {
+    when(bulkDeleteService.progress("missing")).thenReturn(Optional.empty());
+
+    thrown.expect(NotFoundException.class);
+    underTest.getBulkDeleteProgress("missing");
+  }
+
   protected void configureMockedRepository(final Repository repository, final String name, final String url)
   {
     when(repositoryManagerRESTAdapter.getRepository(name)).thenReturn(repository);
@@ -13,6 +13,9 @@
 package org.sonatype.nexus.repository.content.store;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.annotation.Nullable;
 
 import org.sonatype.nexus.blobstore.api.BlobRef;
 import org.sonatype.nexus.common.time.UTC;
@@ -20,11 +23,17 @@ import org.sonatype.nexus.datastore.api.DataSession;
 import org.sonatype.nexus.datastore.api.DuplicateKeyException;
 import org.sonatype.nexus.repository.content.AssetBlob;
 import org.sonatype.nexus.repository.content.store.example.TestAssetBlobDAO;
+import org.sonatype.nexus.repository.content.store.example.TestAssetDAO;
+import org.sonatype.nexus.repository.content.store.example.TestAssetData;
+import org.sonatype.nexus.repository.content.store.example.TestComponentDAO;
+import org.sonatype.nexus.repository.content.store.example.TestContentRepositoryDAO;
 
 import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.junit.Assert.assertFalse;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -147,6 +156,96 @@ public class AssetBlobDAOTest
     }
   }
 
+  @Test
+  public void testReadAssetBlobs() {
+    AssetBlobData assetBlob1 = randomAssetBlob();
+    AssetBlobData assetBlob2 = randomAssetBlob();
+    AssetBlobData assetBlob3 = randomAssetBlob();
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      AssetBlobDAO dao = session.access(TestAssetBlobDAO.class);
+
+      dao.createAssetBlob(assetBlob1);
+      dao.createAssetBlob(assetBlob2);
+      dao.createAssetBlob(assetBlob3);
+
+      assertThat(dao.readAssetBlobs(asList(assetBlob1.blobRef(), assetBlob3.blobRef(),
+          new BlobRef("test-node", "test-store", "test-blob"))),
+          containsInAnyOrder(sameBlob(assetBlob1), sameBlob(assetBlob3)));
+    }
+  }
+
+  @Test
+  public void testComponentAssetBlobsAndUnusedAssetBlobs() {
+    AssetBlobData assetBlob1 = randomAssetBlob();
+    AssetBlobData assetBlob2 = randomAssetBlob();
+    AssetBlobData assetBlob3 = randomAssetBlob();
+
+    ContentRepositoryData contentRepository = randomContentRepository();
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      session.access(TestContentRepositoryDAO.class).createContentRepository(contentRepository);
+
+      AssetBlobDAO dao = session.access(TestAssetBlobDAO.class);
+      dao.createAssetBlob(assetBlob1);
+      dao.createAssetBlob(assetBlob2);
+      dao.createAssetBlob(assetBlob3);
+
+      ComponentData component = new ComponentData();
+      component.setRepositoryId(contentRepository.repositoryId);
+      component.setNamespace("");
+      component.setName("component");
+      component.setVersion("1.0");
+      component.setAttributes(newAttributes("component"));
+      component.setKind("aKind");
+      session.access(TestComponentDAO.class).createComponent(component);
+
+      AssetDAO assetDao = session.access(TestAssetDAO.class);
+      assetDao.createAsset(assetWithBlob(contentRepository.repositoryId, "/a", component, assetBlob1));
+      assetDao.createAsset(assetWithBlob(contentRepository.repositoryId, "/b", component, assetBlob2));
+      assetDao.createAsset(assetWithBlob(contentRepository.repositoryId, "/c", null, assetBlob3));
+
+      assertThat(dao.readComponentAssetBlobs(new int[]{component.componentId}),
+          containsInAnyOrder(sameBlob(assetBlob1), sameBlob(assetBlob2)));
+
+      List<BlobRef> blobRefs = asList(assetBlob1.blobRef(), assetBlob2.blobRef(), assetBlob3.blobRef());
+
+      assertThat(dao.readUnusedAssetBlobs(blobRefs), emptyIterable());
+      assertFalse(dao.deleteUnusedAssetBlob(assetBlob1.blobRef()));
+      assertFalse(dao.deleteUnusedAssetBlob(assetBlob3.blobRef()));
+
+      session.access(TestComponentDAO.class).purgeSelectedComponents(new Integer[]{component.componentId});
+
+      assertThat(dao.readUnusedAssetBlobs(blobRefs),
+          containsInAnyOrder(sameBlob(assetBlob1), sameBlob(assetBlob2)));
+      assertTrue(dao.deleteUnusedAssetBlob(assetBlob1.blobRef()));
+      assertTrue(dao.deleteUnusedAssetBlob(assetBlob2.blobRef()));
+      assertFalse(dao.deleteUnusedAssetBlob(assetBlob2.blobRef()));
+      assertFalse(dao.deleteUnusedAssetBlob(assetBlob3.blobRef()));
+
+      assertFalse(dao.readAssetBlob(assetBlob1.blobRef()).isPresent());
+      assertFalse(dao.readAssetBlob(assetBlob2.blobRef()).isPresent());
+      assertTrue(dao.readAssetBlob(assetBlob3.blobRef()).isPresent());
+    }
+  }
+
+  private TestAssetData assetWithBlob(
+      final int repositoryId,
+      final String path,
+      @Nullable final ComponentData component,
+      final AssetBlobData assetBlob)
+  {
+    TestAssetData asset = new TestAssetData();
+    asset.setRepositoryId(repositoryId);
+    asset.setPath(path);
+    asset.setKind("test");
+    asset.setAttributes(newAttributes("asset"));
+    asset.setLastUpdated(OffsetDateTime.now());
+    asset.setComponent(component);
+    asset.setAssetBlob(assetBlob);
+    return asset;
+  }
+
   @Test
   public void testBlob() {
     AssetBlobData assetBlob1 = randomAssetBlob();
@@ -56,6 +56,7 @@ import static org.junit.Assert.fail;
 import static org.sonatype.nexus.datastore.api.DataStoreManager.DEFAULT_DATASTORE_NAME;
 import static org.sonatype.nexus.repository.content.store.ComponentDAOTest.browseComponents;
 import static org.sonatype.nexus.repository.content.store.ComponentDAOTest.countComponents;
+import static org.sonatype.nexus.repository.content.store.InternalIds.internalAssetId;
 
 /**
  * Test {@link AssetDAO}.
@@ -787,6 +788,49 @@ public class AssetDAOTest
     }
   }
 
+  @Test
+  public void testSelectComponentsOnlyHavingAssets() {
+    ComponentData component1 = randomComponent(repositoryId);
+    ComponentData component2 = randomComponent(repositoryId);
+    component2.setVersion(component1.version() + ".2"); // make sure versions are different
+
+    TestAssetData asset1 = randomAsset(repositoryId);
+    TestAssetData asset2 = randomAsset(repositoryId);
+    TestAssetData asset3 = randomAsset(repositoryId);
+    TestAssetData asset4 = randomAsset(repositoryId);
+    asset2.setPath(asset1.path() + "/2"); // make sure paths are different
+    asset3.setPath(asset1.path() + "/3");
+    asset4.setPath(asset1.path() + "/4");
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      ComponentDAO componentDao = session.access(TestComponentDAO.class);
+      componentDao.createComponent(component1);
+      componentDao.createComponent(component2);
+
+      asset1.setComponent(component1);
+      asset2.setComponent(component1);
+      asset3.setComponent(component2);
+
+      AssetDAO dao = session.access(TestAssetDAO.class);
+      dao.createAsset(asset1);
+      dao.createAsset(asset2);
+      dao.createAsset(asset3);
+      dao.createAsset(asset4);
+      session.getTransaction().commit();
+    }
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      AssetDAO dao = session.access(TestAssetDAO.class);
+
+      // component1 keeps asset2, component2 is left empty, asset4 has no component
+      int[] assetIds = {internalAssetId(asset1), internalAssetId(asset3), internalAssetId(asset4)};
+      assertThat(dao.selectComponentsOnlyHavingAssets(assetIds), is(new int[]{component2.componentId}));
+
+      assetIds = new int[]{internalAssetId(asset1), internalAssetId(asset2)};
+      assertThat(dao.selectComponentsOnlyHavingAssets(assetIds), is(new int[]{component1.componentId}));
+    }
+  }
+
   @Test
   public void testRoundTrip() {
     AssetData asset1 = randomAsset(repositoryId);
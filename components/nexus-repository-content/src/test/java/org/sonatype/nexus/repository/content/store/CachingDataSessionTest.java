@@ -0,0 +1,175 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.store;
+
+import java.util.Optional;
+
+import org.sonatype.nexus.datastore.api.DataSession;
+import org.sonatype.nexus.repository.content.Asset;
+import org.sonatype.nexus.repository.content.Component;
+import org.sonatype.nexus.repository.content.store.example.TestAssetDAO;
+import org.sonatype.nexus.repository.content.store.example.TestAssetData;
+import org.sonatype.nexus.repository.content.store.example.TestComponentDAO;
+import org.sonatype.nexus.repository.content.store.example.TestContentRepositoryDAO;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.sonatype.nexus.datastore.api.DataStoreManager.DEFAULT_DATASTORE_NAME;
+import static org.sonatype.nexus.repository.content.store.InternalIds.internalAssetId;
+import static org.sonatype.nexus.repository.content.store.InternalIds.internalComponentId;
+
+/**
+ * Test {@link CachingDataSession}.
+ */
+public class CachingDataSessionTest
+    extends ExampleContentTestSupport
+{
+  private int repositoryId;
+
+  private int closedQueries = -1;
+
+  @Before
+  public void setupContent() {
+    ContentRepositoryData contentRepository = randomContentRepository();
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      session.access(TestContentRepositoryDAO.class).createContentRepository(contentRepository);
+      session.getTransaction().commit();
+    }
+    repositoryId = contentRepository.repositoryId;
+
+    generateRandomNamespaces(10);
+    generateRandomNames(10);
+    generateRandomVersions(10);
+    generateRandomPaths(10);
+  }
+
+  @Test
+  public void repeatedAssetLookupsAreServedFromTheSession() {
+    TestAssetData asset = createAsset();
+
+    try (CachingDataSession session = openSession()) {
+      TestAssetDAO dao = session.access(TestAssetDAO.class);
+
+      Asset byPath = dao.readPath(repositoryId, asset.path()).get();
+      assertThat(dao.readPath(repositoryId, asset.path()).get(), sameInstance(byPath));
+      assertThat(dao.readAsset(internalAssetId(asset)).get(), sameInstance(byPath));
+
+      assertThat(session.getQueryCount(), is(1));
+      assertThat(session.getHitCount(), is(2));
+    }
+    assertThat(closedQueries, is(1));
+  }
+
+  @Test
+  public void writesInvalidateTheSession() {
+    TestAssetData asset = createAsset();
+
+    try (CachingDataSession session = openSession()) {
+      TestAssetDAO dao = session.access(TestAssetDAO.class);
+
+      Asset found = dao.readPath(repositoryId, asset.path()).get();
+      ((AssetData) found).setKind("changed");
+      dao.updateAssetKind(found);
+
+      Asset reread = dao.readPath(repositoryId, asset.path()).get();
+      assertThat(reread.kind(), is(equalTo("changed")));
+      assertThat(session.getQueryCount(), is(3));
+      assertThat(session.getHitCount(), is(0));
+    }
+  }
+
+  @Test
+  public void rollbackInvalidatesTheSession() {
+    TestAssetData asset = createAsset();
+
+    try (CachingDataSession session = openSession()) {
+      TestAssetDAO dao = session.access(TestAssetDAO.class);
+
+      dao.readPath(repositoryId, asset.path());
+      session.getTransaction().rollback();
+      dao.readPath(repositoryId, asset.path());
+
+      assertThat(session.getQueryCount(), is(2));
+    }
+  }
+
+  @Test
+  public void newTransactionsInvalidateTheSession() {
+    TestAssetData asset = createAsset();
+
+    try (CachingDataSession session = openSession()) {
+      TestAssetDAO dao = session.access(TestAssetDAO.class);
+
+      session.getTransaction().begin();
+      dao.readPath(repositoryId, asset.path());
+      session.getTransaction().commit();
+
+      session.getTransaction().begin();
+      dao.readPath(repositoryId, asset.path());
+      session.getTransaction().commit();
+
+      assertThat(session.getQueryCount(), is(2));
+      assertThat(session.getHitCount(), is(0));
+    }
+  }
+
+  @Test
+  public void missingContentIsNotRemembered() {
+    try (CachingDataSession session = openSession()) {
+      TestAssetDAO dao = session.access(TestAssetDAO.class);
+
+      assertThat(dao.readPath(repositoryId, "/missing"), is(Optional.empty()));
+      assertThat(dao.readPath(repositoryId, "/missing"), is(Optional.empty()));
+
+      assertThat(session.getQueryCount(), is(2));
+    }
+  }
+
+  @Test
+  public void componentsAreRememberedByIdAndCoordinate() {
+    ComponentData component = randomComponent(repositoryId);
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      session.access(TestComponentDAO.class).createComponent(component);
+      session.getTransaction().commit();
+    }
+
+    try (CachingDataSession session = openSession()) {
+      TestComponentDAO dao = session.access(TestComponentDAO.class);
+
+      Component byCoordinate = dao.readCoordinate(repositoryId,
+          component.namespace(), component.name(), component.version()).get();
+      assertThat(dao.readComponent(internalComponentId(component)).get(), sameInstance(byCoordinate));
+
+      assertThat(session.getQueryCount(), is(1));
+    }
+  }
+
+  private TestAssetData createAsset() {
+    TestAssetData asset = randomAsset(repositoryId);
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      session.access(TestAssetDAO.class).createAsset(asset);
+      session.getTransaction().commit();
+    }
+    return asset;
+  }
+
+  private CachingDataSession openSession() {
+    return new CachingDataSession(sessionRule.openSession(DEFAULT_DATASTORE_NAME), 100,
+        session -> closedQueries = session.getQueryCount());
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.utils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests for {@link PendingIds}
+ */
+public class PendingIdsTest
+    extends TestSupport
+{
+  @Test
+  public void addIgnoresDuplicatesPerKey() {
+    PendingIds<String> underTest = new PendingIds<>(100);
+
+    assertThat(underTest.add("a", 1), is(true));
+    assertThat(underTest.add("a", 1), is(false));
+    assertThat(underTest.add("b", 1), is(true));
+    assertThat(underTest.size(), is(2));
+  }
+
+  @Test
+  public void removeDropsPendingId() {
+    PendingIds<String> underTest = new PendingIds<>(100);
+    underTest.add("a", 1);
+
+    assertThat(underTest.remove("a", 1), is(true));
+    assertThat(underTest.remove("a", 1), is(false));
+    assertThat(underTest.remove("b", 1), is(false));
+    assertThat(underTest.size(), is(0));
+    assertThat(underTest.drain(10).isEmpty(), is(true));
+  }
+
+  @Test
+  public void drainReturnsPagesUntilEmpty() {
+    PendingIds<String> underTest = new PendingIds<>(100_000);
+    for (int id = 1; id <= 10_000; id++) {
+      underTest.add(id % 2 == 0 ? "even" : "odd", id);
+    }
+
+    Set<Integer> drained = new HashSet<>();
+    Map<String, int[]> page;
+    while (!(page = underTest.drain(999)).isEmpty()) {
+      assertThat(page.values().stream().mapToInt(ids -> ids.length).sum() <= 999, is(true));
+      page.forEach((key, ids) -> Arrays.stream(ids).forEach(id -> {
+        assertThat(key.equals("even"), is(id % 2 == 0));
+        assertThat(drained.add(id), is(true));
+      }));
+    }
+
+    assertThat(drained.size(), is(10_000));
+    assertThat(underTest.size(), is(0));
+  }
+
+  @Test
+  public void idsCanBeAddedAgainAfterDraining() {
+    PendingIds<String> underTest = new PendingIds<>(100_000);
+    for (int round = 0; round < 3; round++) {
+      for (int id = 1; id <= 5_000; id++) {
+        assertThat(underTest.add("a", id), is(true));
+      }
+      assertThat(underTest.drain(10_000).get("a").length, is(5_000));
+    }
+  }
+
+  @Test
+  public void reportsOverCapacity() {
+    PendingIds<String> underTest = new PendingIds<>(3);
+    underTest.add("a", 1);
+    underTest.add("a", 2);
+    assertThat(underTest.isOverCapacity(), is(false));
+
+    underTest.add("b", 3);
+    assertThat(underTest.isOverCapacity(), is(true));
+
+    underTest.drain(1);
+    assertThat(underTest.isOverCapacity(), is(false));
+  }
+
+  @Test
+  public void concurrentAddsAreNotLost() throws Exception {
+    PendingIds<String> underTest = new PendingIds<>(1_000_000);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] adders = new Future<?>[4];
+      for (int t = 0; t < adders.length; t++) {
+        int offset = t;
+        adders[t] = executor.submit(() -> {
+          for (int id = 1 + offset; id <= 200_000; id += adders.length) {
+            underTest.add("a", id);
+          }
+        });
+      }
+
+      Set<Integer> drained = new HashSet<>();
+      boolean adding = true;
+      while (adding) {
+        adding = Arrays.stream(adders).anyMatch(adder -> !adder.isDone());
+        underTest.drain(1000).values().forEach(ids -> Arrays.stream(ids).forEach(drained::add));
+      }
+      for (Future<?> adder : adders) {
+        adder.get(5, SECONDS);
+      }
+      underTest.drain(Integer.MAX_VALUE).values().forEach(ids -> Arrays.stream(ids).forEach(drained::add));
+
+      assertThat(drained.size(), is(200_000));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+}
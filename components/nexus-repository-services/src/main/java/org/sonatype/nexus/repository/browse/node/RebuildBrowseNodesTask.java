@@ -12,6 +12,7 @@
  */
 package org.sonatype.nexus.repository.browse.node;
 
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
@@ -21,6 +22,12 @@ import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.RepositoryTaskSupport;
 import org.sonatype.nexus.repository.types.ProxyType;
 import org.sonatype.nexus.scheduling.Cancelable;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
+
+import com.google.common.collect.ImmutableSet;
+
+import static org.sonatype.nexus.scheduling.TaskResourceClass.DATABASE_WRITE;
 
 /**
  * Browse nodes rebuild task.
@@ -30,7 +37,7 @@ import org.sonatype.nexus.scheduling.Cancelable;
 @Named
 public class RebuildBrowseNodesTask
     extends RepositoryTaskSupport
-    implements Cancelable
+    implements Cancelable, TaskResourceAware
 {
   private final RebuildBrowseNodeService rebuildBrowseNodeService;
 
@@ -42,6 +49,11 @@ public class RebuildBrowseNodesTask
     this.rebuildBrowseNodeService = rebuildBrowseNodeService;
   }
 
+  @Override
+  public Set<TaskResource> getResources() {
+    return ImmutableSet.of(TaskResource.of(DATABASE_WRITE));
+  }
+
   @Override
   public String getMessage() {
     return "Rebuilding browse tree for " + getRepositoryField();
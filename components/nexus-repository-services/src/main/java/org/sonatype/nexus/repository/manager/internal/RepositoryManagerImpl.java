@@ -13,9 +13,12 @@
 package org.sonatype.nexus.repository.manager.internal;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -36,6 +39,7 @@ import org.sonatype.nexus.common.event.EventAware;
 import org.sonatype.nexus.common.event.EventConsumer;
 import org.sonatype.nexus.common.event.EventHelper;
 import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.common.property.SystemPropertiesHelper;
 import org.sonatype.nexus.common.stateguard.Guarded;
 import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
 import org.sonatype.nexus.jmx.reflect.ManagedObject;
@@ -49,6 +53,7 @@ import org.sonatype.nexus.repository.config.ConfigurationFacet;
 import org.sonatype.nexus.repository.config.ConfigurationStore;
 import org.sonatype.nexus.repository.config.ConfigurationUpdatedEvent;
 import org.sonatype.nexus.repository.group.GroupFacet;
+import org.sonatype.nexus.repository.group.GroupFacetImpl;
 import org.sonatype.nexus.repository.manager.ConfigurationValidator;
 import org.sonatype.nexus.repository.manager.DefaultRepositoriesContributor;
 import org.sonatype.nexus.repository.manager.RepositoryCreatedEvent;
@@ -66,7 +71,10 @@ import com.google.common.eventbus.Subscribe;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 import static org.sonatype.nexus.blobstore.api.BlobStoreManager.DEFAULT_BLOBSTORE_NAME;
 import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
@@ -98,6 +106,11 @@ public class RepositoryManagerImpl
 
   public static final String CLEANUP_NAME_KEY = "policyName";
 
+  private static final int STARTUP_THREADS = SystemPropertiesHelper
+      .getInteger(RepositoryManagerImpl.class.getName() + ".startupThreads", 8);
+
+  private static final int SLOWEST_REPORTED = 5;
+
   private final FreezeService freezeService;
 
   private final EventManager eventManager;
@@ -174,6 +187,21 @@ public class RepositoryManagerImpl
    * Construct a new repository from configuration.
    */
   private Repository newRepository(final Configuration configuration) throws Exception {
+    Repository repository = createRepository(configuration);
+
+    // ensure configuration sanity, once all facets are attached
+    repository.validate(configuration);
+
+    // initialize repository
+    repository.init(configuration);
+
+    return repository;
+  }
+
+  /**
+   * Create a repository and apply its recipe, without validating or initializing it.
+   */
+  private Repository createRepository(final Configuration configuration) throws Exception {
     String recipeName = configuration.getRecipeName();
     Recipe recipe = recipe(recipeName);
     log.debug("Using recipe: [{}] {}", recipeName, recipe);
@@ -189,12 +217,6 @@ public class RepositoryManagerImpl
     // verify required facets
     repository.facet(ViewFacet.class);
 
-    // ensure configuration sanity, once all facets are attached
-    repository.validate(configuration);
-
-    // initialize repository
-    repository.init(configuration);
-
     return repository;
   }
 
@@ -265,25 +287,129 @@ public class RepositoryManagerImpl
 
   private void restoreRepositories(final List<Configuration> configurations) throws Exception {
     log.debug("Restoring {} repositories", configurations.size());
+
+    // facet wiring is cheap and relies on providers, so create repositories one after another in configuration order
+    Map<String, Repository> created = new LinkedHashMap<>();
+    Map<String, Configuration> configurationsByName = new HashMap<>();
+    Map<String, Collection<String>> members = new LinkedHashMap<>();
     for (Configuration configuration : configurations) {
       log.debug("Restoring repository: {}", configuration);
-      Repository repository = newRepository(configuration);
+      try {
+        created.put(configuration.getRepositoryName(), createRepository(configuration));
+        configurationsByName.put(configuration.getRepositoryName(), configuration);
+        members.put(configuration.getRepositoryName(), memberNames(configuration));
+      }
+      catch (Exception e) {
+        log.error("Failed to restore repository: {}", configuration.getRepositoryName(), e);
+      }
+    }
+
+    // validation and initialization may reach out to datastores and remotes, so run those in parallel
+    RepositoryStartupRunner runner = new RepositoryStartupRunner(STARTUP_THREADS);
+    RepositoryStartupRunner.Result result = runner.run("restore", members, name -> {
+      Repository repository = created.get(name);
+      Configuration configuration = configurationsByName.get(name);
+      try {
+        repository.validate(configuration);
+        repository.init(configuration);
+      }
+      catch (Exception | LinkageError e) {
+        destroyFailed(repository);
+        throw e;
+      }
       track(repository);
 
       eventManager.post(new RepositoryLoadedEvent(repository));
-    }
+    });
+    report("Restored", runner, result, configurationsByName);
   }
 
   private void startRepositories() throws Exception {
     log.debug("Starting {} repositories", repositories.size());
+
+    Map<String, Collection<String>> members = new LinkedHashMap<>();
+    Map<String, Configuration> configurationsByName = new HashMap<>();
     for (Repository repository : repositories.values()) {
+      members.put(repository.getName(), memberNames(repository.getConfiguration()));
+      configurationsByName.put(repository.getName(), repository.getConfiguration());
+    }
+
+    RepositoryStartupRunner runner = new RepositoryStartupRunner(STARTUP_THREADS);
+    RepositoryStartupRunner.Result result = runner.run("start", members, name -> {
+      Repository repository = repository(name);
       log.debug("Starting repository: {}", repository);
       repository.start();
 
       eventManager.post(new RepositoryRestoredEvent(repository));
+    });
+    report("Started", runner, result, configurationsByName);
+
+    // repositories which failed to start are not usable, so stop tracking them; they are retried on the next boot
+    for (String name : result.getFailed()) {
+      Repository repository = repositories.get(name);
+      if (repository != null) {
+        untrack(repository);
+        destroyFailed(repository);
+      }
     }
   }
 
+  /**
+   * Releases the facets of a repository which failed to restore or start.
+   */
+  private void destroyFailed(final Repository repository) {
+    try {
+      repository.destroy();
+    }
+    catch (Exception e) {
+      log.warn("Failed to destroy repository: {}", repository.getName(), e);
+    }
+  }
+
+  /**
+   * Returns the names of the members of a group repository, or an empty collection for other repositories.
+   */
+  private static Collection<String> memberNames(@Nullable final Configuration configuration) {
+    NestedAttributesMap group = configuration != null ? configuration.attributes(GroupFacetImpl.CONFIG_KEY) : null;
+    Collection<?> memberNames = group != null ? group.get("memberNames", Collection.class) : null;
+    if (memberNames == null) {
+      return emptyList();
+    }
+    return memberNames.stream().map(String::valueOf).collect(toList());
+  }
+
+  /**
+   * Logs per-repository timings at debug level, and a summary which includes the slowest repositories.
+   */
+  private void report(final String action,
+                      final RepositoryStartupRunner runner,
+                      final RepositoryStartupRunner.Result result,
+                      final Map<String, Configuration> configurationsByName)
+  {
+    if (log.isDebugEnabled()) {
+      result.getDurations().forEach((name, millis) -> log.debug("{} repository {} ({}) in {} ms", action, name,
+          recipeName(configurationsByName.get(name)), millis));
+    }
+
+    String slowest = result.getDurations().entrySet().stream()
+        .sorted(Entry.<String, Long>comparingByValue().reversed())
+        .limit(SLOWEST_REPORTED)
+        .map(e -> e.getKey() + " (" + recipeName(configurationsByName.get(e.getKey())) + ") " + e.getValue() + " ms")
+        .collect(joining(", "));
+    log.info("{} {} repositories in {} ms using {} threads; slowest: {}", action, result.getDurations().size(),
+        result.getElapsed(), runner.getThreads(), slowest);
+
+    if (!result.getFailed().isEmpty()) {
+      log.warn("{} {} of {} repositories, failed: {}", action, result.getDurations().size() - result.getFailed().size(),
+          result.getDurations().size(), result.getFailed());
+    }
+  }
+
+  @Nullable
+  private static String recipeName(@Nullable final Configuration configuration) {
+    return configuration != null ? configuration.getRecipeName() : null;
+  }
+
   @Override
   protected void doStop() throws Exception {
 
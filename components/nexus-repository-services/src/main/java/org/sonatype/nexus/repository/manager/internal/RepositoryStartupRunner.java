@@ -0,0 +1,219 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.manager.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Runs a task per repository on a bounded pool of threads. The task of a group only runs once the tasks of all its
+ * members have finished, so the dependencies form a DAG derived from group membership. Membership cycles, which group
+ * validation normally prevents, are broken arbitrarily.
+ *
+ * A failing task is logged and recorded without affecting the tasks of other repositories; the tasks of groups that
+ * contain a failed repository still run, just as groups tolerate missing members.
+ *
+ * @since 3.31
+ */
+class RepositoryStartupRunner
+    extends ComponentSupport
+{
+  /**
+   * Work to perform for a single repository.
+   */
+  interface Task
+  {
+    void run(String repositoryName) throws Exception;
+  }
+
+  /**
+   * Outcome of running a task for every repository.
+   */
+  static class Result
+  {
+    private final Map<String, Long> durations;
+
+    private final Set<String> failed;
+
+    private final long elapsed;
+
+    Result(final Map<String, Long> durations, final Set<String> failed, final long elapsed) {
+      this.durations = durations;
+      this.failed = failed;
+      this.elapsed = elapsed;
+    }
+
+    /**
+     * Task durations in milliseconds, keyed by repository name.
+     */
+    Map<String, Long> getDurations() {
+      return durations;
+    }
+
+    /**
+     * Names of the repositories whose task failed.
+     */
+    Set<String> getFailed() {
+      return failed;
+    }
+
+    /**
+     * Wall clock time in milliseconds taken by all tasks together.
+     */
+    long getElapsed() {
+      return elapsed;
+    }
+  }
+
+  private final int threads;
+
+  RepositoryStartupRunner(final int threads) {
+    checkArgument(threads > 0, "threads must be positive");
+    this.threads = threads;
+  }
+
+  int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Runs the task for each repository and waits for all of them to finish.
+   *
+   * @param members the member names of each repository (empty for non-groups), keyed by repository name in the order
+   *                tasks should preferably be started
+   */
+  Result run(final String phase, final Map<String, ? extends Collection<String>> members, final Task task)
+      throws InterruptedException
+  {
+    checkNotNull(phase);
+    checkNotNull(task);
+    Map<String, List<String>> dependencies = dependencies(checkNotNull(members));
+
+    Map<String, Long> durations = new ConcurrentHashMap<>();
+    Set<String> failed = ConcurrentHashMap.newKeySet();
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    long start = System.nanoTime();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        new NexusThreadFactory("repository-" + phase, "repository-" + phase));
+    try {
+      Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+      for (String name : dependencies.keySet()) {
+        schedule(name, dependencies, futures, executor, () -> {
+          Thread.currentThread().setContextClassLoader(contextClassLoader);
+          long taskStart = System.nanoTime();
+          try {
+            task.run(name);
+          }
+          catch (Exception | LinkageError e) {
+            failed.add(name);
+            log.error("Failed to {} repository {}", phase, name, e);
+          }
+          finally {
+            durations.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - taskStart));
+          }
+        });
+      }
+      CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+    }
+    finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    Map<String, Long> ordered = new LinkedHashMap<>();
+    dependencies.keySet().forEach(name -> ordered.put(name, durations.get(name)));
+    return new Result(ordered, failed, elapsed);
+  }
+
+  /**
+   * Schedules the task of a repository after the tasks of its members, scheduling those first as needed.
+   */
+  private static CompletableFuture<Void> schedule(
+      final String name,
+      final Map<String, List<String>> dependencies,
+      final Map<String, CompletableFuture<Void>> futures,
+      final ExecutorService executor,
+      final Runnable action)
+  {
+    CompletableFuture<Void> future = futures.get(name);
+    if (future == null) {
+      List<String> memberNames = dependencies.get(name);
+      CompletableFuture<?>[] memberFutures = new CompletableFuture[memberNames.size()];
+      for (int i = 0; i < memberFutures.length; i++) {
+        memberFutures[i] = futures.get(memberNames.get(i));
+      }
+      future = CompletableFuture.allOf(memberFutures).thenRunAsync(action, executor);
+      futures.put(name, future);
+    }
+    return future;
+  }
+
+  /**
+   * Orders the repositories so that members come before the groups containing them, restricting each repository's
+   * dependencies to known repositories and dropping the edges that would close a cycle.
+   */
+  private Map<String, List<String>> dependencies(final Map<String, ? extends Collection<String>> members) {
+    Map<String, List<String>> ordered = new LinkedHashMap<>();
+    Set<String> visiting = new HashSet<>();
+    for (String name : members.keySet()) {
+      visit(name, members, ordered, visiting);
+    }
+    return ordered;
+  }
+
+  private void visit(
+      final String name,
+      final Map<String, ? extends Collection<String>> members,
+      final Map<String, List<String>> ordered,
+      final Set<String> visiting)
+  {
+    if (ordered.containsKey(name) || !visiting.add(name)) {
+      return;
+    }
+    List<String> dependsOn = new ArrayList<>();
+    Collection<String> memberNames = members.get(name);
+    for (String member : memberNames != null ? memberNames : Collections.<String>emptyList()) {
+      if (!members.containsKey(member) || member.equals(name)) {
+        continue;
+      }
+      if (visiting.contains(member)) {
+        log.warn("Repository {} and its member {} contain each other, ignoring for ordering", name, member);
+        continue;
+      }
+      visit(member, members, ordered, visiting);
+      dependsOn.add(member);
+    }
+    visiting.remove(name);
+    ordered.put(name, dependsOn);
+  }
+}
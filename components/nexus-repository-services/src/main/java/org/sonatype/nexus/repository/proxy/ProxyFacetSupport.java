@@ -41,6 +41,7 @@ import org.sonatype.nexus.repository.httpclient.HttpClientFacet;
 import org.sonatype.nexus.repository.httpclient.RemoteBlockedIOException;
 import org.sonatype.nexus.repository.view.Content;
 import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.handlers.RequestMetrics;
 import org.sonatype.nexus.repository.view.payloads.HttpEntityPayload;
 import org.sonatype.nexus.transaction.RetryDeniedException;
 import org.sonatype.nexus.validation.constraint.Url;
@@ -66,6 +67,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.Boolean.TRUE;
 import static java.util.Objects.isNull;
+import static org.sonatype.nexus.repository.view.handlers.RequestMetrics.Phase.REMOTE;
+import static org.sonatype.nexus.repository.view.handlers.RequestMetrics.Phase.STORAGE;
 
 /**
  * A support class which implements basic payload logic; subclasses provide format-specific operations.
@@ -280,7 +283,13 @@ public abstract class ProxyFacetSupport
       if (!nested) {
         downloading.set(TRUE);
       }
-      remote = fetch(context, content);
+      long start = System.nanoTime();
+      try {
+        remote = fetch(context, content);
+      }
+      finally {
+        RequestMetrics.record(context, REMOTE, start);
+      }
       if (remote != null) {
         content = store(context, remote);
         if (proxyCooperation != null && remote.equals(content)) {
@@ -379,6 +388,7 @@ public abstract class ProxyFacetSupport
   }
 
   private Content maybeGetCachedContent(Context context) throws IOException {
+    long start = System.nanoTime();
     try {
       return getCachedContent(context);
     }
@@ -392,6 +402,9 @@ public abstract class ProxyFacetSupport
         throw e;
       }
     }
+    finally {
+      RequestMetrics.record(context, STORAGE, start);
+    }
   }
 
   /**
@@ -12,11 +12,19 @@
  */
 package org.sonatype.nexus.repository.search.index;
 
+import java.util.Set;
+
 import javax.inject.Named;
 
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.RepositoryTaskSupport;
 import org.sonatype.nexus.scheduling.Cancelable;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
+
+import com.google.common.collect.ImmutableSet;
+
+import static org.sonatype.nexus.scheduling.TaskResourceClass.SEARCH_INDEX;
 
 /**
  * Internal task to rebuild index of given repository.
@@ -26,7 +34,7 @@ import org.sonatype.nexus.scheduling.Cancelable;
 @Named
 public class RebuildIndexTask
     extends RepositoryTaskSupport
-    implements Cancelable
+    implements Cancelable, TaskResourceAware
 {
   @Override
   protected void execute(final Repository repository) {
@@ -38,6 +46,11 @@ public class RebuildIndexTask
     return repository.optionalFacet(SearchIndexFacet.class).isPresent();
   }
 
+  @Override
+  public Set<TaskResource> getResources() {
+    return ImmutableSet.of(TaskResource.of(SEARCH_INDEX, getRepositoryField()));
+  }
+
   @Override
   public String getMessage() {
     return "Rebuilding search index of " + getRepositoryField();
@@ -19,9 +19,12 @@ import javax.inject.Singleton;
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.handlers.RequestMetrics;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import static org.sonatype.nexus.repository.view.handlers.RequestMetrics.Phase.SECURITY;
+
 /**
  * Security handler.
  *
@@ -44,7 +47,13 @@ public class SecurityHandler
     //we employ the model that one security check per request is all that is necessary, if this handler is in a nested
     //repository (because this is a group repository), there is no need to check authz again
     if (context.getAttributes().get(AUTHORIZED_KEY) == null) {
-      securityFacet.ensurePermitted(context.getRequest());
+      long start = System.nanoTime();
+      try {
+        securityFacet.ensurePermitted(context.getRequest());
+      }
+      finally {
+        RequestMetrics.record(context, SECURITY, start);
+      }
       context.getAttributes().set(AUTHORIZED_KEY, true);
     }
 
@@ -14,6 +14,8 @@
 package org.sonatype.nexus.repository.security.internal;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -21,53 +23,99 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.common.event.EventAware;
 import org.sonatype.nexus.repository.security.ContentPermissionChecker;
 import org.sonatype.nexus.repository.security.RepositoryContentSelectorPermission;
 import org.sonatype.nexus.repository.security.RepositoryViewPermission;
 import org.sonatype.nexus.security.SecurityHelper;
+import org.sonatype.nexus.security.UserPrincipalsExpired;
+import org.sonatype.nexus.security.authz.AuthorizationConfigurationChanged;
+import org.sonatype.nexus.security.internal.SecurityContributionChangedEvent;
+import org.sonatype.nexus.security.realm.RealmConfigurationChangedEvent;
+import org.sonatype.nexus.security.user.UserEvent;
+import org.sonatype.nexus.security.user.UserRoleMappingEvent;
 import org.sonatype.nexus.selector.SelectorConfiguration;
 import org.sonatype.nexus.selector.SelectorEvaluationException;
 import org.sonatype.nexus.selector.SelectorManager;
 import org.sonatype.nexus.selector.VariableSource;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
+ * Content selectors granted to the current subject are remembered per subject, repositories, format and action;
+ * the remembered decisions are dropped whenever authorization configuration, realms, security contributions, users or
+ * role mappings change.
+ * Granted selectors are then evaluated together via {@link SelectorManager#evaluateAny}.
+ *
  * @since 3.1
  */
 @Named
 @Singleton
 public class ContentPermissionCheckerImpl
     extends ComponentSupport
-    implements ContentPermissionChecker
+    implements ContentPermissionChecker, EventAware
 {
   private final SecurityHelper securityHelper;
 
   private final SelectorManager selectorManager;
 
+  private final SubjectDecisionCache<Boolean> viewPermissionCache;
+
+  private final SubjectDecisionCache<Set<String>> permittedSelectorCache;
+
   @Inject
-  public ContentPermissionCheckerImpl(final SecurityHelper securityHelper,
-                                      final SelectorManager selectorManager) {
+  public ContentPermissionCheckerImpl(
+      final SecurityHelper securityHelper,
+      final SelectorManager selectorManager,
+      final MetricRegistry metricRegistry,
+      @Named("${nexus.security.subjectDecisionCache.ttl:-5m}") final Time cacheTtl,
+      @Named("${nexus.security.subjectDecisionCache.maxSize:-10000}") final int cacheMaxSize)
+  {
     this.securityHelper = checkNotNull(securityHelper);
     this.selectorManager = checkNotNull(selectorManager);
+    this.viewPermissionCache = new SubjectDecisionCache<>(securityHelper, cacheTtl, cacheMaxSize);
+    this.permittedSelectorCache = new SubjectDecisionCache<>(securityHelper, cacheTtl, cacheMaxSize);
+
+    viewPermissionCache.registerMetrics(metricRegistry,
+        name(ContentPermissionChecker.class, "viewPermissionCache", "hitRatio"));
+    permittedSelectorCache.registerMetrics(metricRegistry,
+        name(ContentPermissionChecker.class, "contentSelectorCache", "hitRatio"));
   }
 
   @VisibleForTesting
   public boolean isViewPermitted(final String repositoryName, final String repositoryFormat, final String action) {
-    return securityHelper.anyPermitted(new RepositoryViewPermission(repositoryFormat, repositoryName, action));
+    return viewPermissionCache.get(Arrays.asList(repositoryFormat, repositoryName, action),
+        () -> securityHelper.anyPermitted(new RepositoryViewPermission(repositoryFormat, repositoryName, action)));
   }
 
   @VisibleForTesting
   public boolean isViewPermitted(final Set<String> repositoryNames, final String repositoryFormat, final String action) {
-    RepositoryViewPermission[] perms = repositoryNames.stream()
-        .map(repositoryName -> new RepositoryViewPermission(repositoryFormat, repositoryName, action))
-        .toArray(RepositoryViewPermission[]::new);
-    if (perms.length > 0) {
-      return securityHelper.anyPermitted(perms);
+    if (repositoryNames.isEmpty()) {
+      return false;
     }
-    return false;
+    if (repositoryNames.size() == 1) {
+      return isViewPermitted(repositoryNames.iterator().next(), repositoryFormat, action);
+    }
+    return viewPermissionCache.get(Arrays.asList(repositoryFormat, ImmutableSet.copyOf(repositoryNames), action),
+        () -> securityHelper.anyPermitted(repositoryNames.stream()
+            .map(repositoryName -> new RepositoryViewPermission(repositoryFormat, repositoryName, action))
+            .toArray(RepositoryViewPermission[]::new)));
+  }
+
+  @VisibleForTesting
+  CacheStats viewPermissionCacheStats() {
+    return viewPermissionCache.stats();
   }
 
   @VisibleForTesting
@@ -135,8 +183,8 @@ public class ContentPermissionCheckerImpl
       return true;
     }
     //otherwise check the content selector perms
-    return selectorManager.browse().stream()
-        .anyMatch(config -> isContentPermitted(repositoryName, repositoryFormat, action, config, variableSource));
+    return isContentPermitted(Collections.singleton(repositoryName), repositoryFormat, action,
+        selectorManager.browse(), variableSource);
   }
 
   @Override
@@ -150,8 +198,8 @@ public class ContentPermissionCheckerImpl
       return true;
     }
     // otherwise check the content selector perms
-    return selectorManager.browseJexl().stream()
-        .anyMatch(config -> isContentPermitted(repositoryName, repositoryFormat, action, config, variableSource));
+    return isContentPermitted(Collections.singleton(repositoryName), repositoryFormat, action,
+        selectorManager.browseJexl(), variableSource);
   }
 
   @Override
@@ -167,7 +215,105 @@ public class ContentPermissionCheckerImpl
     if (isViewPermitted(repositoryNames, repositoryFormat, action)) {
       return true;
     }
+    return isContentPermitted(repositoryNames, repositoryFormat, action, selectorManager.browse(), variableSource);
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final AuthorizationConfigurationChanged event) {
+    invalidateDecisions();
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final RealmConfigurationChangedEvent event) {
+    invalidateDecisions();
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final SecurityContributionChangedEvent event) {
+    invalidateDecisions();
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final UserRoleMappingEvent event) {
+    invalidateDecisions();
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final UserEvent event) {
+    invalidateDecisions();
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final UserPrincipalsExpired event) {
+    invalidateDecisions();
+  }
+
+  private void invalidateDecisions() {
+    viewPermissionCache.invalidateAll();
+    permittedSelectorCache.invalidateAll();
+  }
+
+  /**
+   * Checks the given selectors that the subject has been granted against the variable source.
+   */
+  private boolean isContentPermitted(final Set<String> repositoryNames,
+                                     final String repositoryFormat,
+                                     final String action,
+                                     final List<SelectorConfiguration> selectorConfigurations,
+                                     final VariableSource variableSource)
+  {
+    if (selectorConfigurations.isEmpty()) {
+      return false;
+    }
+
+    Set<String> permittedNames = permittedSelectorNames(repositoryNames, repositoryFormat, action);
+    if (permittedNames.isEmpty()) {
+      return false;
+    }
+
+    List<SelectorConfiguration> permitted = selectorConfigurations.stream()
+        .filter(config -> permittedNames.contains(config.getName()))
+        .collect(toList());
+
+    return !permitted.isEmpty() && selectorManager.evaluateAny(permitted, variableSource);
+  }
+
+  /**
+   * Returns the names of the content selectors the current subject has been granted for the given repositories,
+   * remembering the decision for subjects with known principals.
+   */
+  private Set<String> permittedSelectorNames(final Set<String> repositoryNames,
+                                             final String repositoryFormat,
+                                             final String action)
+  {
+    return permittedSelectorCache.get(Arrays.asList(ImmutableSet.copyOf(repositoryNames), repositoryFormat, action),
+        () -> findPermittedSelectorNames(repositoryNames, repositoryFormat, action));
+  }
+
+  private Set<String> findPermittedSelectorNames(final Set<String> repositoryNames,
+                                                 final String repositoryFormat,
+                                                 final String action)
+  {
     return selectorManager.browse().stream()
-        .anyMatch(config -> isContentPermitted(repositoryNames, repositoryFormat, action, config, variableSource));
+        .filter(config -> isSelectorPermitted(repositoryNames, repositoryFormat, action, config))
+        .map(SelectorConfiguration::getName)
+        .collect(toSet());
+  }
+
+  private boolean isSelectorPermitted(final Set<String> repositoryNames,
+                                      final String repositoryFormat,
+                                      final String action,
+                                      final SelectorConfiguration selectorConfiguration)
+  {
+    RepositoryContentSelectorPermission[] perms = repositoryNames.stream().map(
+        repositoryName -> new RepositoryContentSelectorPermission(selectorConfiguration.getName(), repositoryFormat,
+            repositoryName, Arrays.asList(action))).toArray(RepositoryContentSelectorPermission[]::new);
+    return perms.length > 0 && securityHelper.anyPermitted(perms);
   }
 }
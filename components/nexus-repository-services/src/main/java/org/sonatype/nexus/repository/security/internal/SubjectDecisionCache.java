@@ -0,0 +1,119 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.security.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.security.SecurityHelper;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Bounded cache of authorization decisions taken for the current subject, keyed by its principals.
+ *
+ * Decisions for subjects without principals are never remembered, nor are decisions taken while the cache was
+ * being invalidated, so a decision made against security configuration that has since changed can not linger.
+ *
+ * @since 3.31
+ */
+class SubjectDecisionCache<V>
+{
+  private final SecurityHelper securityHelper;
+
+  private final Cache<List<Object>, V> cache;
+
+  private final AtomicLong generation = new AtomicLong();
+
+  SubjectDecisionCache(final SecurityHelper securityHelper, final Time ttl, final int maxSize) {
+    this.securityHelper = checkNotNull(securityHelper);
+    this.cache = CacheBuilder.newBuilder()
+        .expireAfterWrite(ttl.toMillis(), MILLISECONDS)
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the remembered decision for the current subject, taking and remembering it if necessary.
+   */
+  V get(final List<Object> key, final Supplier<V> decision) {
+    PrincipalCollection principals = principals();
+    if (principals == null) {
+      return decision.get();
+    }
+
+    List<Object> subjectKey = new ArrayList<>(key.size() + 1);
+    subjectKey.add(principals);
+    subjectKey.addAll(key);
+
+    V value = cache.getIfPresent(subjectKey);
+    if (value == null) {
+      long expectedGeneration = generation.get();
+      value = decision.get();
+      if (generation.get() == expectedGeneration) {
+        cache.put(subjectKey, value);
+        // an invalidation racing with the put may have missed it
+        if (generation.get() != expectedGeneration) {
+          cache.invalidate(subjectKey);
+        }
+      }
+    }
+    return value;
+  }
+
+  void invalidateAll() {
+    generation.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Exposes the hit ratio of this cache under the given metric name.
+   */
+  void registerMetrics(final MetricRegistry metricRegistry, final String name) {
+    metricRegistry.remove(name);
+    metricRegistry.register(name, new RatioGauge()
+    {
+      @Override
+      protected Ratio getRatio() {
+        CacheStats stats = cache.stats();
+        return Ratio.of(stats.hitCount(), stats.requestCount());
+      }
+    });
+  }
+
+  @Nullable
+  private PrincipalCollection principals() {
+    Subject subject = securityHelper.subject();
+    PrincipalCollection principals = subject != null ? subject.getPrincipals() : null;
+    return principals == null || principals.isEmpty() ? null : principals;
+  }
+}
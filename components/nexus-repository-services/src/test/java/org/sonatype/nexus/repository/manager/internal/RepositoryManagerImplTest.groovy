@@ -47,10 +47,13 @@ import static java.util.stream.Collectors.toList
 import static org.hamcrest.CoreMatchers.equalTo
 import static org.hamcrest.CoreMatchers.hasItems
 import static org.hamcrest.CoreMatchers.is
+import static org.hamcrest.CoreMatchers.nullValue
 import static org.hamcrest.MatcherAssert.assertThat
 import static org.junit.Assert.assertFalse
 import static org.mockito.Matchers.any
+import static org.mockito.Mockito.doThrow
 import static org.mockito.Mockito.mock
+import static org.mockito.Mockito.never
 import static org.mockito.Mockito.times
 import static org.mockito.Mockito.verify
 import static org.mockito.Mockito.when
@@ -304,6 +307,30 @@ class RepositoryManagerImplTest
     verify(thirdPartyRepository).start()
   }
 
+  @Test
+  void 'a repository which fails to initialize on startup is destroyed and not tracked'() {
+    doThrow(new IllegalStateException('broken')).when(thirdPartyRepository).init(thirdPartyConfiguration)
+
+    repositoryManager = buildRepositoryManagerImpl(true)
+
+    verify(thirdPartyRepository).destroy()
+    verify(thirdPartyRepository, never()).start()
+    assertThat(repositoryManager.get(THIRD_PARTY_NAME), is(nullValue()))
+    assertThat(size(repositoryManager.browse()), equalTo(7))
+  }
+
+  @Test
+  void 'a repository which fails to start on startup is destroyed and no longer tracked'() {
+    doThrow(new IllegalStateException('broken')).when(thirdPartyRepository).start()
+
+    repositoryManager = buildRepositoryManagerImpl(true)
+
+    verify(thirdPartyRepository).destroy()
+    verify(securityContributor).remove(thirdPartyRepository)
+    assertThat(repositoryManager.get(THIRD_PARTY_NAME), is(nullValue()))
+    assertThat(size(repositoryManager.browse()), equalTo(7))
+  }
+
   @Test
   void 'it should correctly create default repositories if none are configured on startup'() {
     repositoryManager = buildRepositoryManagerImpl(false)
@@ -0,0 +1,87 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.manager.internal;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class RepositoryStartupRunnerTest
+    extends TestSupport
+{
+  private final RepositoryStartupRunner underTest = new RepositoryStartupRunner(4);
+
+  private final List<String> completed = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void membersCompleteBeforeTheirGroups() throws Exception {
+    Map<String, Collection<String>> members = new LinkedHashMap<>();
+    members.put("parent", asList("group", "hosted"));
+    members.put("group", asList("proxy", "hosted"));
+    members.put("proxy", emptyList());
+    members.put("hosted", emptyList());
+
+    RepositoryStartupRunner.Result result = underTest.run("test", members, completed::add);
+
+    assertThat(completed, containsInAnyOrder("parent", "group", "proxy", "hosted"));
+    assertThat(completed.indexOf("group"), greaterThan(completed.indexOf("proxy")));
+    assertThat(completed.indexOf("group"), greaterThan(completed.indexOf("hosted")));
+    assertThat(completed.indexOf("parent"), greaterThan(completed.indexOf("group")));
+    assertThat(result.getDurations().keySet(), contains("proxy", "hosted", "group", "parent"));
+    assertThat(result.getFailed().isEmpty(), is(true));
+  }
+
+  @Test
+  public void cyclesAndUnknownMembersAreTolerated() throws Exception {
+    Map<String, Collection<String>> members = new LinkedHashMap<>();
+    members.put("a", asList("b", "missing"));
+    members.put("b", asList("a", "b"));
+
+    underTest.run("test", members, completed::add);
+
+    assertThat(completed, containsInAnyOrder("a", "b"));
+  }
+
+  @Test
+  public void failuresAreIsolated() throws Exception {
+    Map<String, Collection<String>> members = new LinkedHashMap<>();
+    members.put("broken", emptyList());
+    members.put("healthy", emptyList());
+    members.put("group", asList("broken", "healthy"));
+
+    RepositoryStartupRunner.Result result = underTest.run("test", members, name -> {
+      if ("broken".equals(name)) {
+        throw new IllegalStateException("boom");
+      }
+      completed.add(name);
+    });
+
+    assertThat(completed, containsInAnyOrder("healthy", "group"));
+    assertThat(result.getFailed(), contains("broken"));
+    assertThat(result.getDurations().keySet(), containsInAnyOrder("broken", "healthy", "group"));
+  }
+}
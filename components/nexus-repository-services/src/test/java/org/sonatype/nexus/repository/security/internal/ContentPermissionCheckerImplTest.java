@@ -15,18 +15,27 @@ package org.sonatype.nexus.repository.security.internal;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.sonatype.goodies.common.Time;
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.repository.security.RepositoryContentSelectorPermission;
 import org.sonatype.nexus.repository.security.RepositoryViewPermission;
 import org.sonatype.nexus.security.BreadActions;
 import org.sonatype.nexus.security.SecurityHelper;
+import org.sonatype.nexus.security.authz.AuthorizationConfigurationChanged;
+import org.sonatype.nexus.security.internal.SecurityContributionChangedEvent;
+import org.sonatype.nexus.security.realm.RealmConfiguration;
+import org.sonatype.nexus.security.realm.RealmConfigurationChangedEvent;
+import org.sonatype.nexus.security.user.UserRoleMappingEvent;
 import org.sonatype.nexus.selector.JexlSelector;
 import org.sonatype.nexus.selector.OrientSelectorConfiguration;
 import org.sonatype.nexus.selector.SelectorConfiguration;
 import org.sonatype.nexus.selector.SelectorManager;
 import org.sonatype.nexus.selector.VariableSource;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Sets;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.apache.shiro.subject.Subject;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -35,6 +44,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,7 +67,8 @@ public class ContentPermissionCheckerImplTest
 
   @Before
   public void setup() {
-    impl = new ContentPermissionCheckerImpl(securityHelper, selectorManager);
+    impl = new ContentPermissionCheckerImpl(securityHelper, selectorManager, new MetricRegistry(), Time.minutes(5),
+        100);
 
     config = new OrientSelectorConfiguration();
     config.setName("selector");
@@ -114,6 +126,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(true);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(true);
+
     assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
   }
 
@@ -127,6 +141,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(false);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(false);
+
     assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
   }
 
@@ -140,6 +156,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(true);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(true);
+
     assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
 
     //just to validate 'view' permission didn't sneak in and authorize the above call
@@ -157,6 +175,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(false);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(false);
+
     assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(false));
   }
 
@@ -220,6 +240,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(true);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(true);
+
     assertThat(impl.isPermitted(Sets.newLinkedHashSet(Arrays.asList("repoName", "repoName2")), "repoFormat", BreadActions.READ, variableSource), is(true));
   }
 
@@ -235,6 +257,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(false);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(false);
+
     assertThat(impl.isPermitted(Sets.newLinkedHashSet(Arrays.asList("repoName", "repoName2")), "repoFormat", BreadActions.READ, variableSource), is(true));
   }
 
@@ -250,6 +274,8 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(true);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(true);
+
     assertThat(impl.isPermitted(Sets.newLinkedHashSet(Arrays.asList("repoName", "repoName2")), "repoFormat", BreadActions.READ, variableSource), is(true));
 
     //just to validate 'view' permission didn't sneak in and authorize the above call
@@ -270,6 +296,81 @@ public class ContentPermissionCheckerImplTest
 
     when(selectorManager.evaluate(any(), any())).thenReturn(false);
 
+    when(selectorManager.evaluateAny(any(), any())).thenReturn(false);
+
     assertThat(impl.isPermitted(Sets.newHashSet("repoName", "repoName2"), "repoFormat", BreadActions.READ, variableSource), is(false));
   }
+
+  @Test
+  public void testIsPermitted_contentSelectorDecisionCachedPerSubject() throws Exception {
+    Subject subject = mock(Subject.class);
+    when(subject.getPrincipals()).thenReturn(new SimplePrincipalCollection("user", "realm"));
+    when(securityHelper.subject()).thenReturn(subject);
+
+    RepositoryContentSelectorPermission permission = new RepositoryContentSelectorPermission("selector", "repoFormat",
+        "repoName", Arrays.asList(BreadActions.READ));
+    when(securityHelper.anyPermitted(eq(permission))).thenReturn(true);
+    when(selectorManager.browse()).thenReturn(Arrays.asList(config));
+    when(selectorManager.evaluateAny(eq(Arrays.asList(config)), any())).thenReturn(true);
+
+    assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
+    assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
+    verify(securityHelper, times(1)).anyPermitted(eq(permission));
+
+    impl.on(new AuthorizationConfigurationChanged());
+
+    assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
+    verify(securityHelper, times(2)).anyPermitted(eq(permission));
+  }
+
+  @Test
+  public void testIsViewPermitted_decisionCachedPerSubject() throws Exception {
+    Subject subject = mock(Subject.class);
+    when(subject.getPrincipals()).thenReturn(new SimplePrincipalCollection("user", "realm"));
+    when(securityHelper.subject()).thenReturn(subject);
+
+    RepositoryViewPermission permission =
+        new RepositoryViewPermission("repoFormat", "repoName", Arrays.asList(BreadActions.READ));
+    when(securityHelper.anyPermitted(eq(permission))).thenReturn(true);
+
+    assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
+    assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
+    verify(securityHelper, times(1)).anyPermitted(eq(permission));
+    assertThat(impl.viewPermissionCacheStats().hitCount(), is(1L));
+
+    impl.on(mock(UserRoleMappingEvent.class));
+
+    assertThat(impl.isPermitted("repoName", "repoFormat", BreadActions.READ, variableSource), is(true));
+    verify(securityHelper, times(2)).anyPermitted(eq(permission));
+  }
+
+  @Test
+  public void testIsViewPermitted_realmAndContributionChangesInvalidateDecisions() throws Exception {
+    Subject subject = mock(Subject.class);
+    when(subject.getPrincipals()).thenReturn(new SimplePrincipalCollection("user", "realm"));
+    when(securityHelper.subject()).thenReturn(subject);
+
+    RepositoryViewPermission permission =
+        new RepositoryViewPermission("repoFormat", "repoName", Arrays.asList(BreadActions.READ));
+    when(securityHelper.anyPermitted(eq(permission))).thenReturn(true);
+
+    assertThat(impl.isViewPermitted("repoName", "repoFormat", BreadActions.READ), is(true));
+    impl.on(new RealmConfigurationChangedEvent(mock(RealmConfiguration.class)));
+    assertThat(impl.isViewPermitted("repoName", "repoFormat", BreadActions.READ), is(true));
+    impl.on(new SecurityContributionChangedEvent());
+    assertThat(impl.isViewPermitted("repoName", "repoFormat", BreadActions.READ), is(true));
+
+    verify(securityHelper, times(3)).anyPermitted(eq(permission));
+  }
+
+  @Test
+  public void testIsViewPermitted_decisionsNotCachedWithoutPrincipals() throws Exception {
+    RepositoryViewPermission permission =
+        new RepositoryViewPermission("repoFormat", "repoName", Arrays.asList(BreadActions.READ));
+    when(securityHelper.anyPermitted(eq(permission))).thenReturn(true);
+
+    assertThat(impl.isViewPermitted("repoName", "repoFormat", BreadActions.READ), is(true));
+    assertThat(impl.isViewPermitted("repoName", "repoFormat", BreadActions.READ), is(true));
+    verify(securityHelper, times(2)).anyPermitted(eq(permission));
+  }
 }
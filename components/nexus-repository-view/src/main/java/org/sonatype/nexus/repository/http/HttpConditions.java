@@ -33,6 +33,7 @@ import org.apache.http.client.utils.DateUtils;
 import org.joda.time.DateTime;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.ETagHeaderUtils.withoutGzipVariants;
 
 /**
  * Helper defining common HTTP conditions.
@@ -176,7 +177,8 @@ public class HttpConditions
 
   @Nullable
   private static Predicate<Response> ifMatch(final Request request) {
-    final String match = request.getHeaders().get(HttpHeaders.IF_MATCH);
+    final String header = request.getHeaders().get(HttpHeaders.IF_MATCH);
+    final String match = header != null ? withoutGzipVariants(header) : null;
     if (match != null && !"*".equals(match)) {
       return new Predicate<Response>()
       {
@@ -200,7 +202,8 @@ public class HttpConditions
 
   @Nullable
   private static Predicate<Response> ifNoneMatch(final Request request) {
-    final String match = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+    final String header = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+    final String match = header != null ? withoutGzipVariants(header) : null;
     if (match != null && !"*".equals(match)) {
       return new Predicate<Response>()
       {
@@ -0,0 +1,164 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.repository.view.Payload;
+
+import com.google.common.collect.Range;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * A wrapper {@link Payload} that returns several portions of the original payload as a {@code multipart/byteranges}
+ * body, as per RFC 7233 appendix A. Each part is only opened once the previous one has been sent.
+ *
+ * @since 3.31
+ */
+class MultipartByteRangesPayload
+    implements Payload
+{
+  static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+
+  private final Payload payload;
+
+  private final List<Range<Long>> ranges;
+
+  private final String boundary;
+
+  private final List<byte[]> partHeaders;
+
+  private final byte[] trailer;
+
+  private final long size;
+
+  /**
+   * The endpoints of each Range are interpreted as the first and last byte positions to send.
+   */
+  public MultipartByteRangesPayload(final Payload payload, final List<Range<Long>> ranges, final String boundary) {
+    this.payload = checkNotNull(payload);
+    this.ranges = checkNotNull(ranges);
+    this.boundary = checkNotNull(boundary);
+    checkArgument(!ranges.isEmpty(), "No ranges");
+
+    String contentType = payload.getContentType();
+    long total = 0;
+    partHeaders = new ArrayList<>(ranges.size());
+    for (Range<Long> range : ranges) {
+      StringBuilder header = new StringBuilder()
+          .append("\r\n--").append(boundary).append("\r\n");
+      if (contentType != null) {
+        header.append("Content-Type: ").append(contentType).append("\r\n");
+      }
+      header.append("Content-Range: bytes ").append(range.lowerEndpoint()).append('-').append(range.upperEndpoint())
+          .append('/').append(payload.getSize()).append("\r\n\r\n");
+      byte[] bytes = header.toString().getBytes(US_ASCII);
+      partHeaders.add(bytes);
+      total += bytes.length + partSize(range);
+    }
+    trailer = ("\r\n--" + boundary + "--\r\n").getBytes(US_ASCII);
+    this.size = total + trailer.length;
+  }
+
+  @Override
+  public InputStream openInputStream() throws IOException {
+    return new PartsInputStream();
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Nullable
+  @Override
+  public String getContentType() {
+    return MULTIPART_BYTERANGES + "; boundary=" + boundary;
+  }
+
+  private static long partSize(final Range<Long> range) {
+    return 1 + range.upperEndpoint() - range.lowerEndpoint();
+  }
+
+  /**
+   * Streams the part headers, the requested ranges and the trailer in turn, opening each range lazily.
+   */
+  private class PartsInputStream
+      extends InputStream
+  {
+    private int next;
+
+    @Nullable
+    private InputStream current;
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      int n = read(b, 0, 1);
+      return n == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (current != null || advance()) {
+        int n = current.read(b, off, len);
+        if (n != -1) {
+          return n;
+        }
+        current.close();
+        current = null;
+      }
+      return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+      next = 2 * ranges.size() + 1;
+      if (current != null) {
+        current.close();
+        current = null;
+      }
+    }
+
+    private boolean advance() throws IOException {
+      int index = next;
+      if (index > 2 * ranges.size()) {
+        return false;
+      }
+      next++;
+      if (index == 2 * ranges.size()) {
+        current = new ByteArrayInputStream(trailer);
+      }
+      else if (index % 2 == 0) {
+        current = new ByteArrayInputStream(partHeaders.get(index / 2));
+      }
+      else {
+        Range<Long> range = ranges.get(index / 2);
+        current = payload.openInputStream(range.lowerEndpoint(), partSize(range));
+      }
+      return true;
+    }
+  }
+}
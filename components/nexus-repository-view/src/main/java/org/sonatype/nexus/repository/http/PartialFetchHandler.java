@@ -14,6 +14,7 @@ package org.sonatype.nexus.repository.http;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -37,7 +38,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Implements partial-fetch semantics (as per RFC 2616) for {@link Status#isSuccessful() successful}
- * responses with payloads.
+ * responses with payloads. Requests for several ranges are answered with a {@code multipart/byteranges} body.
  *
  * @since 3.0
  */
@@ -95,21 +96,42 @@ public class PartialFetchHandler
       return response;
     }
 
-    if (ranges.size() > 1) {
-      return HttpResponses.notImplemented("Multiple ranges not supported.");
-    }
-
     final String ifRangeHeader = getHeaderValue(context.getRequest(), HttpHeaders.IF_RANGE);
     if (ifRangeHeader != null && !ifRangeHeaderMatches(response, ifRangeHeader)) {
       return response;
     }
 
+    if (ranges.size() > 1) {
+      return multipartResponse(response, payload, ranges);
+    }
+
     Range<Long> requestedRange = ranges.get(0);
 
     // Mutate the response
     return partialResponse(response, payload, requestedRange);
   }
 
+  /**
+   * Mutate the response into a {@code multipart/byteranges} one that returns several parts of the payload.
+   */
+  private Response multipartResponse(final Response response,
+                                     final Payload payload,
+                                     final List<Range<Long>> requestedRanges)
+  {
+    Response.Builder builder = new Response.Builder()
+        .copy(response)
+        .status(Status.success(HttpStatus.PARTIAL_CONTENT));
+
+    // ResponseSender takes care of Content-Type and Content-Length headers, via payload
+    builder.payload(new MultipartByteRangesPayload(payload, requestedRanges, newBoundary()));
+
+    return builder.build();
+  }
+
+  private static String newBoundary() {
+    return "nexus-" + Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+  }
+
   /**
    * Mutate the response into one that returns part of the payload.
    */
@@ -12,16 +12,19 @@
  */
 package org.sonatype.nexus.repository.http;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.sonatype.goodies.common.ComponentSupport;
 
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.Range;
 
-import static java.util.Collections.singletonList;
-
 /**
  * Parses the "Range" request header.
  *
@@ -36,6 +39,13 @@ class RangeParser
 
   public static final List<Range<Long>> WHOLE_RANGE = Collections.emptyList();
 
+  /**
+   * The most ranges accepted in one header; requests for more are served the complete content.
+   *
+   * @since 3.31
+   */
+  public static final int MAX_RANGES = 32;
+
   /**
    * Returns a list of {@link Range}s, each indicating a range of byte indices (inclusive).
    *
@@ -43,40 +53,41 @@ class RangeParser
    * Range: bytes=500-999 (from byte 500 to byte 999)
    * Range: bytes=500- (from byte 500 to the end)
    * Range: bytes=-500 (the last 500 bytes, per the RFC)
+   * Range: bytes=0-10,500-999 (several of the above, per the RFC)
+   *
+   * Ranges which cannot be satisfied are dropped from the list; overlapping or adjacent ranges are coalesced, in which
+   * case the list is in ascending order.
    *
-   * @return {@code null} if the requested range cannot be satisfied given the size of the content, or an empty list in
-   * the case of parsing errors
+   * @return {@code null} if none of the requested ranges can be satisfied given the size of the content, or an empty
+   * list in the case of parsing errors
    */
   public List<Range<Long>> parseRangeSpec(final String rangeHeader, long size) {
     Range<Long> content = Range.closed(0L, size - 1L);
 
-    // TODO: Current limitation: only one Range of bytes supported in forms of "-X", "X-Y" (where X<Y) and "X-".
     if (!Strings.isNullOrEmpty(rangeHeader)) {
       try {
-        if (rangeHeader.startsWith("bytes=") && rangeHeader.length() > 6 && !rangeHeader.contains(",")) {
-          final String rangeSpec = rangeHeader.substring(6, rangeHeader.length());
-          if (rangeSpec.startsWith("-")) {
-            final long byteCount = Long.parseLong(rangeSpec.substring(1));
-            if (byteCount > size) {
-              return UNSATISFIABLE;
-            }
-            final Range<Long> suffix = Range.atLeast(size - byteCount);
-            return ensureSatisfiable(suffix, content);
-          }
-          else if (rangeSpec.endsWith("-")) {
-            final Range<Long> requested = Range.atLeast(Long.parseLong(rangeSpec.substring(0, rangeSpec.length() - 1)));
-            return ensureSatisfiable(requested, content);
-          }
-          else if (rangeSpec.contains("-")) {
-            final String[] parts = rangeSpec.split("-");
-            return ensureSatisfiable(Range.closed(Long.parseLong(parts[0]), Long.parseLong(parts[1])), content);
+        if (rangeHeader.startsWith("bytes=") && rangeHeader.length() > 6) {
+          List<String> rangeSpecs = Splitter.on(',').trimResults().omitEmptyStrings()
+              .splitToList(rangeHeader.substring(6));
+          if (rangeSpecs.size() > MAX_RANGES) {
+            log.warn("Too many HTTP Ranges: {}; sending complete content", rangeSpecs.size());
+            return WHOLE_RANGE;
           }
-          else {
-            log.warn("Malformed HTTP Range value: {}, ignoring it", rangeHeader);
+          List<Range<Long>> ranges = new ArrayList<>(rangeSpecs.size());
+          for (String rangeSpec : rangeSpecs) {
+            Range<Long> requested = parseRange(rangeSpec, size);
+            if (requested == null) {
+              log.warn("Malformed HTTP Range value: {}, ignoring it", rangeHeader);
+              return WHOLE_RANGE;
+            }
+            if (requested.isConnected(content) && !requested.intersection(content).isEmpty()) {
+              ranges.add(requested.intersection(content));
+            }
           }
+          return ranges.isEmpty() ? UNSATISFIABLE : coalesce(ranges);
         }
         else {
-          log.warn("Unsupported non-byte or multiple HTTP Ranges: {}; sending complete content", rangeHeader);
+          log.warn("Unsupported non-byte HTTP Range: {}; sending complete content", rangeHeader);
         }
       }
       catch (Exception e) {
@@ -92,13 +103,52 @@ class RangeParser
     return WHOLE_RANGE;
   }
 
-  private List<Range<Long>> ensureSatisfiable(Range<Long> requested, Range<Long> content) {
-    if (requested.isConnected(content)) {
-      return singletonList(requested.intersection(content));
+  /**
+   * Parses a single byte range spec in forms of "-X", "X-Y" (where X<=Y) and "X-".
+   *
+   * @return {@code null} if the spec is malformed; an empty range if a suffix is longer than the content
+   */
+  @Nullable
+  private Range<Long> parseRange(final String rangeSpec, final long size) {
+    if (rangeSpec.startsWith("-")) {
+      final long byteCount = Long.parseLong(rangeSpec.substring(1));
+      if (byteCount > size) {
+        return Range.closedOpen(size, size);
+      }
+      return Range.atLeast(size - byteCount);
+    }
+    else if (rangeSpec.endsWith("-")) {
+      return Range.atLeast(Long.parseLong(rangeSpec.substring(0, rangeSpec.length() - 1)));
+    }
+    else if (rangeSpec.contains("-")) {
+      final String[] parts = rangeSpec.split("-");
+      return Range.closed(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+    return null;
+  }
+
+  /**
+   * Merges ranges which overlap or touch, so no byte is sent twice and the number of parts stays small.
+   */
+  private static List<Range<Long>> coalesce(final List<Range<Long>> ranges) {
+    if (ranges.size() == 1) {
+      return ranges;
     }
-    else {
-      return UNSATISFIABLE;
+    List<Range<Long>> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparing(Range::lowerEndpoint));
+    List<Range<Long>> merged = new ArrayList<>(sorted.size());
+    for (Range<Long> range : sorted) {
+      int last = merged.size() - 1;
+      if (last >= 0 && range.lowerEndpoint() <= merged.get(last).upperEndpoint() + 1) {
+        Range<Long> previous = merged.get(last);
+        merged.set(last, Range.closed(previous.lowerEndpoint(),
+            Math.max(previous.upperEndpoint(), range.upperEndpoint())));
+      }
+      else {
+        merged.add(range);
+      }
     }
+    return merged.size() == ranges.size() ? ranges : merged;
   }
 
   private boolean isSatisfiable(final Range<Long> range, final long contentSize) {
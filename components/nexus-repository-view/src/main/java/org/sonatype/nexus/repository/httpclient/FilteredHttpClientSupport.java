@@ -56,6 +56,13 @@ public abstract class FilteredHttpClientSupport
     return filter(target, () -> delegate.execute(target, request, context));
   }
 
+  /**
+   * @since 3.31
+   */
+  protected CloseableHttpClient getDelegate() {
+    return delegate;
+  }
+
   @Override
   public void close() throws IOException {
     delegate.close();
@@ -0,0 +1,128 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.httpclient;
+
+/**
+ * Rolling request statistics of a remote, taken over the most recent requests.
+ *
+ * @since 3.31
+ */
+public class RemoteConnectionStatistics
+{
+  public static final RemoteConnectionStatistics EMPTY = new RemoteConnectionStatistics(0, 0, 0, 0, 0, 0, 0, false);
+
+  private final int sampleCount;
+
+  private final long latencyMedian;
+
+  private final long latency95th;
+
+  private final long latency99th;
+
+  private final double errorRate;
+
+  private final long hedgedRequests;
+
+  private final long hedgeWins;
+
+  private final boolean halfOpen;
+
+  public RemoteConnectionStatistics(final int sampleCount,
+                                    final long latencyMedian,
+                                    final long latency95th,
+                                    final long latency99th,
+                                    final double errorRate,
+                                    final long hedgedRequests,
+                                    final long hedgeWins,
+                                    final boolean halfOpen)
+  {
+    this.sampleCount = sampleCount;
+    this.latencyMedian = latencyMedian;
+    this.latency95th = latency95th;
+    this.latency99th = latency99th;
+    this.errorRate = errorRate;
+    this.hedgedRequests = hedgedRequests;
+    this.hedgeWins = hedgeWins;
+    this.halfOpen = halfOpen;
+  }
+
+  /**
+   * Number of requests the latency and error figures are taken over.
+   */
+  public int getSampleCount() {
+    return sampleCount;
+  }
+
+  /**
+   * Median time to response headers, in milliseconds.
+   */
+  public long getLatencyMedian() {
+    return latencyMedian;
+  }
+
+  /**
+   * 95th percentile time to response headers, in milliseconds.
+   */
+  public long getLatency95th() {
+    return latency95th;
+  }
+
+  /**
+   * 99th percentile time to response headers, in milliseconds.
+   */
+  public long getLatency99th() {
+    return latency99th;
+  }
+
+  /**
+   * Fraction of sampled requests which failed or returned a status configured to auto-block.
+   */
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  /**
+   * Total requests which were also sent to the mirror because the remote exceeded its latency budget.
+   */
+  public long getHedgedRequests() {
+    return hedgedRequests;
+  }
+
+  /**
+   * Total hedged requests which were answered by the mirror first.
+   */
+  public long getHedgeWins() {
+    return hedgeWins;
+  }
+
+  /**
+   * Whether the auto-block window has elapsed and a probe request is deciding if the remote is available again.
+   */
+  public boolean isHalfOpen() {
+    return halfOpen;
+  }
+
+  @Override
+  public String toString() {
+    return "RemoteConnectionStatistics{" +
+        "sampleCount=" + sampleCount +
+        ", latencyMedian=" + latencyMedian +
+        ", latency95th=" + latency95th +
+        ", latency99th=" + latency99th +
+        ", errorRate=" + errorRate +
+        ", hedgedRequests=" + hedgedRequests +
+        ", hedgeWins=" + hedgeWins +
+        ", halfOpen=" + halfOpen +
+        '}';
+  }
+}
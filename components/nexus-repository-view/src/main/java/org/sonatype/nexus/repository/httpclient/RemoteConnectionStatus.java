@@ -33,6 +33,8 @@ public class RemoteConnectionStatus
 
   private String requestUrl;
 
+  private RemoteConnectionStatistics statistics = RemoteConnectionStatistics.EMPTY;
+
   public RemoteConnectionStatus(final RemoteConnectionStatusType type) {
     this(type, null);
   }
@@ -98,4 +100,19 @@ public class RemoteConnectionStatus
     this.requestUrl = requestUrl;
     return this;
   }
+
+  /**
+   * @since 3.31
+   */
+  public RemoteConnectionStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * @since 3.31
+   */
+  public RemoteConnectionStatus setStatistics(final RemoteConnectionStatistics statistics) {
+    this.statistics = checkNotNull(statistics);
+    return this;
+  }
 }
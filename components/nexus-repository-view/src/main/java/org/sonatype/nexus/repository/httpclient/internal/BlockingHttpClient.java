@@ -13,36 +13,63 @@
 package org.sonatype.nexus.repository.httpclient.internal;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nullable;
 import javax.net.ssl.SSLPeerUnverifiedException;
 
 import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.common.property.SystemPropertiesHelper;
 import org.sonatype.nexus.common.sequence.FibonacciNumberSequence;
 import org.sonatype.nexus.common.sequence.NumberSequence;
 import org.sonatype.nexus.repository.httpclient.AutoBlockConfiguration;
 import org.sonatype.nexus.repository.httpclient.FilteredHttpClientSupport;
 import org.sonatype.nexus.repository.httpclient.RemoteBlockedIOException;
+import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatistics;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatus;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusObserver;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusType;
 import org.sonatype.nexus.repository.httpclient.internal.HttpClientFacetImpl.Config;
+import org.sonatype.nexus.thread.NexusThreadFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Thread.currentThread;
 import static java.util.Locale.ENGLISH;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.http.HttpHeaders.AUTHORIZATION;
+import static org.apache.http.HttpHeaders.PROXY_AUTHORIZATION;
 import static org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusType.AUTO_BLOCKED_UNAVAILABLE;
 import static org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusType.AVAILABLE;
 import static org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusType.BLOCKED;
@@ -54,6 +81,13 @@ import static org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusTyp
 /**
  * Wraps an {@link CloseableHttpClient} with manual and automatic blocking functionality.
  *
+ * Requests to the main target are sampled into a rolling window of latencies and outcomes. When auto-blocking is
+ * enabled the remote is also blocked once the sampled 99th percentile latency exceeds the configured threshold, and
+ * once a block window has elapsed the client half-opens: a single probe request decides whether the remote is
+ * available again while other requests stay blocked. Idempotent requests can additionally be hedged to a mirror
+ * serving the same paths when the remote does not answer within the hedge delay; the mirror is accessed anonymously
+ * and only the remote's own responses are sampled.
+ *
  * @since 3.0
  */
 public class BlockingHttpClient
@@ -61,6 +95,26 @@ public class BlockingHttpClient
 {
   private static final Logger log = LoggerFactory.getLogger(BlockingHttpClient.class);
 
+  private static final String PREFIX = "nexus.httpclient.";
+
+  private static final int LATENCY_WINDOW = SystemPropertiesHelper.getInteger(PREFIX + "latencyWindow", 256);
+
+  private static final Time LATENCY_THRESHOLD =
+      SystemPropertiesHelper.getTime(PREFIX + "autoBlock.latencyThreshold", Time.seconds(0));
+
+  private static final int LATENCY_MIN_SAMPLES =
+      SystemPropertiesHelper.getInteger(PREFIX + "autoBlock.latencyMinSamples", 20);
+
+  private static final int LATENCY_CHECK_INTERVAL = 16;
+
+  private static final boolean HALF_OPEN = SystemPropertiesHelper.getBoolean(PREFIX + "autoBlock.halfOpen", true);
+
+  private static final Time HEDGE_DELAY = SystemPropertiesHelper.getTime(PREFIX + "hedge.delay", Time.seconds(2));
+
+  private static final int HEDGE_MAX_THREADS = SystemPropertiesHelper.getInteger(PREFIX + "hedge.maxThreads", 16);
+
+  private static final String STATUS_CHECK = BlockingHttpClient.class.getName() + ".statusCheck";
+
   private final boolean blocked;
 
   @VisibleForTesting
@@ -80,6 +134,24 @@ public class BlockingHttpClient
 
   private RemoteConnectionStatus status = new RemoteConnectionStatus(UNINITIALISED);
 
+  private final RemoteLatencyTracker latencyTracker = new RemoteLatencyTracker(LATENCY_WINDOW);
+
+  @VisibleForTesting
+  long latencyThresholdMillis = LATENCY_THRESHOLD.toMillis();
+
+  @VisibleForTesting
+  boolean halfOpen = HALF_OPEN;
+
+  private final AtomicBoolean probing = new AtomicBoolean();
+
+  @Nullable
+  private final HttpHost hedgeMirror;
+
+  private final long hedgeDelayMillis;
+
+  @Nullable
+  private ExecutorService hedgeExecutor;
+
   public BlockingHttpClient(final CloseableHttpClient delegate,
                             final Config config,
                             final RemoteConnectionStatusObserver statusObserver,
@@ -101,6 +173,41 @@ public class BlockingHttpClient
     }
     // TODO shall we use config.getConnectionConfig().getTimeout() * 2 as in NX2?
     autoBlockSequence = new FibonacciNumberSequence(Time.seconds(40).toMillis());
+
+    hedgeMirror = parseMirror(config.hedgeMirror);
+    hedgeDelayMillis = config.hedgeDelay != null ? config.hedgeDelay : HEDGE_DELAY.toMillis();
+    checkArgument(hedgeDelayMillis > 0, "hedgeDelay must be positive: %s", hedgeDelayMillis);
+  }
+
+  @Nullable
+  private static HttpHost parseMirror(@Nullable final String mirror) {
+    if (mirror == null || mirror.trim().isEmpty()) {
+      return null;
+    }
+    try {
+      URI uri = URI.create(mirror.trim());
+      return new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+    }
+    catch (IllegalArgumentException e) {
+      log.warn("Ignoring invalid hedge mirror {}: {}", mirror, e.getMessage());
+      return null;
+    }
+  }
+
+  @Override
+  protected CloseableHttpResponse doExecute(final HttpHost target, final HttpRequest request, final HttpContext context)
+      throws IOException
+  {
+    if (hedgeMirror != null && isHedgeable(request) && !isStatusCheck(context)) {
+      // main target is the first accessed target
+      if (mainTarget == null) {
+        mainTarget = target;
+      }
+      if (target.equals(mainTarget)) {
+        return executeHedged(target, request, context);
+      }
+    }
+    return super.doExecute(target, request, context);
   }
 
   protected CloseableHttpResponse filter(final HttpHost target, final Filterable filterable) throws IOException {
@@ -116,28 +223,240 @@ public class BlockingHttpClient
       throw new RemoteBlockedIOException("Remote Manually Blocked");
     }
     DateTime blockedUntilCopy = this.blockedUntil;
-    if (autoBlock && blockedUntilCopy != null && blockedUntilCopy.isAfterNow()) {
-      throw new RemoteBlockedIOException("Remote Auto Blocked until " + blockedUntilCopy);
+    boolean probe = false;
+    if (autoBlock && blockedUntilCopy != null) {
+      if (blockedUntilCopy.isAfterNow()) {
+        throw new RemoteBlockedIOException("Remote Auto Blocked until " + blockedUntilCopy);
+      }
+      if (halfOpen) {
+        // block window elapsed: let a single probe through to decide, keep the others blocked meanwhile
+        if (!probing.compareAndSet(false, true)) {
+          throw new RemoteBlockedIOException("Remote Auto Blocked, waiting for probe since " + blockedUntilCopy);
+        }
+        probe = true;
+      }
     }
 
+    long start = System.nanoTime();
     try {
       CloseableHttpResponse response = filterable.call();
       int statusCode = response.getStatusLine().getStatusCode();
+      long latency = elapsedMillis(start);
 
       if (autoBlockConfiguration.shouldBlock(statusCode)) {
+        latencyTracker.record(latency, true);
         updateStatusToUnavailable(getReason(statusCode), target);
       }
       else {
-        updateStatusToAvailable();
+        latencyTracker.record(latency, false);
+        if (!checkLatency(target)) {
+          updateStatusToAvailable();
+        }
       }
       return response;
     }
     catch (IOException e) {
       if (isRemoteUnavailable(e)) {
+        latencyTracker.record(elapsedMillis(start), true);
         updateStatusToUnavailable(getReason(e), target);
       }
       throw e;
     }
+    finally {
+      if (probe) {
+        probing.set(false);
+      }
+    }
+  }
+
+  /**
+   * Blocks the remote when the sampled 99th percentile latency exceeds the threshold, returning whether it did.
+   */
+  private boolean checkLatency(final HttpHost target) {
+    if (!autoBlock || latencyThresholdMillis <= 0) {
+      return false;
+    }
+    if (!latencyTracker.checkDue(LATENCY_MIN_SAMPLES, LATENCY_CHECK_INTERVAL)) {
+      return false;
+    }
+    long p99 = latencyTracker.percentile(0.99);
+    if (p99 <= latencyThresholdMillis) {
+      return false;
+    }
+    updateStatusToUnavailable(
+        "Remote too slow: 99th percentile latency " + p99 + "ms exceeds " + latencyThresholdMillis + "ms", target);
+    return true;
+  }
+
+  private static long elapsedMillis(final long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000L;
+  }
+
+  private static boolean isHedgeable(final HttpRequest request) {
+    String method = request.getRequestLine().getMethod();
+    return request instanceof HttpUriRequest
+        && !(request instanceof HttpEntityEnclosingRequest)
+        && ("GET".equals(method) || "HEAD".equals(method));
+  }
+
+  private static boolean isStatusCheck(@Nullable final HttpContext context) {
+    return context != null && context.getAttribute(STATUS_CHECK) != null;
+  }
+
+  /**
+   * Sends the request to the main target and, when no response arrived within the hedge delay, also to the mirror.
+   * The first response wins; the other one is closed when it arrives. The main target's request is filtered on its
+   * own, so its latency and outcome are sampled even when the mirror wins.
+   */
+  private CloseableHttpResponse executeHedged(final HttpHost target,
+                                              final HttpRequest request,
+                                              final HttpContext context) throws IOException
+  {
+    Filterable call = () -> getDelegate().execute(target, request, context);
+    CompletableFuture<CloseableHttpResponse> primary;
+    try {
+      primary = submit(() -> filter(target, call));
+    }
+    catch (RejectedExecutionException e) {
+      log.debug("Too many hedged requests in flight, not hedging {}", request.getRequestLine());
+      return filter(target, call);
+    }
+    try {
+      return primary.get(hedgeDelayMillis, MILLISECONDS);
+    }
+    catch (TimeoutException e) {
+      log.debug("No response from {} within {}ms, hedging {} to {}", target, hedgeDelayMillis,
+          request.getRequestLine(), hedgeMirror);
+    }
+    catch (ExecutionException e) {
+      throw unwrap(e.getCause());
+    }
+    catch (InterruptedException e) {
+      primary.whenComplete(BlockingHttpClient::closeQuietly);
+      currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+
+    CompletableFuture<CloseableHttpResponse> mirror;
+    try {
+      mirror = submit(() -> executeOnMirror(request));
+    }
+    catch (RejectedExecutionException e) {
+      log.debug("Too many hedged requests in flight, waiting for {}", target);
+      return waitFor(primary);
+    }
+
+    CompletableFuture<Object> first = CompletableFuture.anyOf(primary, mirror);
+    try {
+      first.join();
+    }
+    catch (CompletionException e) {
+      // one of them failed, fall back to whichever is left
+      CompletableFuture<CloseableHttpResponse> other = primary.isCompletedExceptionally() ? mirror : primary;
+      try {
+        CloseableHttpResponse response = other.join();
+        latencyTracker.hedged(other == mirror);
+        return response;
+      }
+      catch (CompletionException suppressed) {
+        throw unwrap(primary.isCompletedExceptionally() ? causeOf(primary) : e.getCause());
+      }
+    }
+
+    boolean mirrorWon = !primary.isDone() || primary.isCompletedExceptionally();
+    latencyTracker.hedged(mirrorWon);
+    (mirrorWon ? primary : mirror).whenComplete(BlockingHttpClient::closeQuietly);
+    return (mirrorWon ? mirror : primary).join();
+  }
+
+  /**
+   * Sends the request to the mirror without the remote's credentials: its authorization headers are dropped and the
+   * context carries an empty credentials provider, so the client's default one is not consulted.
+   */
+  private CloseableHttpResponse executeOnMirror(final HttpRequest request) throws IOException {
+    HttpRequestWrapper mirrored = HttpRequestWrapper.wrap(request, hedgeMirror);
+    mirrored.setURI(rewriteToPath(((HttpUriRequest) request).getURI()));
+    mirrored.removeHeaders(AUTHORIZATION);
+    mirrored.removeHeaders(PROXY_AUTHORIZATION);
+    HttpClientContext mirrorContext = HttpClientContext.create();
+    mirrorContext.setCredentialsProvider(new BasicCredentialsProvider());
+    return getDelegate().execute(hedgeMirror, mirrored, mirrorContext);
+  }
+
+  private static CloseableHttpResponse waitFor(final CompletableFuture<CloseableHttpResponse> future)
+      throws IOException
+  {
+    try {
+      return future.get();
+    }
+    catch (ExecutionException e) {
+      throw unwrap(e.getCause());
+    }
+    catch (InterruptedException e) {
+      future.whenComplete(BlockingHttpClient::closeQuietly);
+      currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  private CompletableFuture<CloseableHttpResponse> submit(final Filterable call) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return call.call();
+      }
+      catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, hedgeExecutor());
+  }
+
+  private synchronized ExecutorService hedgeExecutor() {
+    if (hedgeExecutor == null) {
+      // bounded: once every thread is busy further requests are simply not hedged
+      hedgeExecutor = new ThreadPoolExecutor(0, HEDGE_MAX_THREADS, 60L, SECONDS, new SynchronousQueue<>(),
+          new NexusThreadFactory("remote-hedging", "remote-hedging"));
+    }
+    return hedgeExecutor;
+  }
+
+  private static URI rewriteToPath(final URI uri) {
+    try {
+      return URIUtils.rewriteURI(uri, null);
+    }
+    catch (Exception e) {
+      throw new IllegalArgumentException("Unable to hedge request to " + uri, e);
+    }
+  }
+
+  private static Throwable causeOf(final CompletableFuture<?> future) {
+    try {
+      future.join();
+      return new IllegalStateException("Expected a failed request");
+    }
+    catch (CompletionException e) {
+      return e.getCause();
+    }
+  }
+
+  private static IOException unwrap(final Throwable cause) {
+    if (cause instanceof IOException) {
+      return (IOException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    return new IOException(cause);
+  }
+
+  private static void closeQuietly(@Nullable final CloseableHttpResponse response, @Nullable final Throwable failure) {
+    if (response != null) {
+      try {
+        response.close();
+      }
+      catch (IOException e) {
+        log.trace("Failed to close losing hedged response", e);
+      }
+    }
   }
 
   private synchronized void updateStatusToAvailable() {
@@ -154,6 +473,7 @@ public class BlockingHttpClient
       // avoid some other thread already increased the sequence
       if (blockedUntil == null || blockedUntil.isBeforeNow()) {
         blockedUntil = DateTime.now().plus(autoBlockSequence.next());
+        latencyTracker.reset();
         interruptCheckStatusThread();
         String uri = target.toURI();
         // TODO maybe find different means to schedule status checking
@@ -192,7 +512,20 @@ public class BlockingHttpClient
   }
 
   public RemoteConnectionStatus getStatus() {
-    return status;
+    RemoteConnectionStatus current = status;
+    return new RemoteConnectionStatus(current.getType(), current.getReason())
+        .setBlockedUntil(current.getBlockedUntil())
+        .setRequestUrl(current.getRequestUrl())
+        .setStatistics(getStatistics());
+  }
+
+  /**
+   * @since 3.31
+   */
+  public RemoteConnectionStatistics getStatistics() {
+    DateTime blockedUntilCopy = this.blockedUntil;
+    return latencyTracker.snapshot(
+        autoBlock && halfOpen && blockedUntilCopy != null && !blockedUntilCopy.isAfterNow());
   }
 
   private boolean isRemoteUnavailable(final Exception e) {
@@ -217,6 +550,12 @@ public class BlockingHttpClient
   @Override
   public void close() throws IOException {
     interruptCheckStatusThread();
+    synchronized (this) {
+      if (hedgeExecutor != null) {
+        hedgeExecutor.shutdownNow();
+        hedgeExecutor = null;
+      }
+    }
     super.close();
   }
 
@@ -251,7 +590,9 @@ public class BlockingHttpClient
             log.debug("Wait until {} to check status of {}", fireAt, uri);
             Thread.sleep(durationTillFire);
             log.debug("Time is up. Checking status of {}", uri);
-            execute(new HttpHead(uri));
+            HttpClientContext context = HttpClientContext.create();
+            context.setAttribute(STATUS_CHECK, Boolean.TRUE);
+            execute(new HttpHead(uri), context);
           }
         }
         catch (InterruptedException e) {
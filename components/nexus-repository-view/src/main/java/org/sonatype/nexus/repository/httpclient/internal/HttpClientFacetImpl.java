@@ -13,8 +13,11 @@
 package org.sonatype.nexus.repository.httpclient.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
+import java.util.function.ToDoubleFunction;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -37,10 +40,13 @@ import org.sonatype.nexus.repository.httpclient.AutoBlockConfiguration;
 import org.sonatype.nexus.repository.httpclient.ContentCompressionStrategy;
 import org.sonatype.nexus.repository.httpclient.HttpClientFacet;
 import org.sonatype.nexus.repository.httpclient.NormalizationStrategy;
+import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatistics;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatus;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusEvent;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusObserver;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.Subscribe;
 import org.apache.http.Header;
@@ -102,6 +108,23 @@ public class HttpClientFacetImpl
 
     @Nullable
     public Boolean autoBlock;
+
+    /**
+     * Optional mirror, as {@code scheme://host[:port]}, serving the same paths as the remote. Idempotent requests
+     * which get no response within {@link #hedgeDelay} are also sent here and the first response is used.
+     *
+     * @since 3.31
+     */
+    @Nullable
+    public String hedgeMirror;
+
+    /**
+     * Milliseconds to wait for the remote before hedging to {@link #hedgeMirror}.
+     *
+     * @since 3.31
+     */
+    @Nullable
+    public Integer hedgeDelay;
   }
 
   private Config config;
@@ -109,6 +132,11 @@ public class HttpClientFacetImpl
   @VisibleForTesting
   BlockingHttpClient httpClient;
 
+  @Nullable
+  private MetricRegistry metricRegistry;
+
+  private final List<String> registeredMetrics = new ArrayList<>();
+
   @Inject
   public HttpClientFacetImpl(final HttpClientManager httpClientManager,
                              final Map<String, AutoBlockConfiguration> autoBlockConfiguration,
@@ -140,6 +168,14 @@ public class HttpClientFacetImpl
     checkNotNull(autoBlockConfiguration.get(DEFAULT));
   }
 
+  /**
+   * @since 3.31
+   */
+  @Inject
+  public void setMetricRegistry(final MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
   @Override
   protected void doValidate(final Configuration configuration) throws Exception {
     facet(ConfigurationFacet.class).validateSection(configuration, CONFIG_KEY, Config.class);
@@ -158,11 +194,58 @@ public class HttpClientFacetImpl
     config = null;
   }
 
+  @Override
+  protected void doStart() throws Exception {
+    registerMetrics();
+  }
+
   @Override
   protected void doStop() throws Exception {
+    removeMetrics();
     closeHttpClient();
   }
 
+  /**
+   * Exposes the remote's rolling statistics as gauges named {@code <facet>.<repository>.<statistic>}.
+   */
+  private void registerMetrics() {
+    if (metricRegistry == null) {
+      return;
+    }
+    removeMetrics();
+    registerGauge("latency.median", RemoteConnectionStatistics::getLatencyMedian);
+    registerGauge("latency.p95", RemoteConnectionStatistics::getLatency95th);
+    registerGauge("latency.p99", RemoteConnectionStatistics::getLatency99th);
+    registerGauge("errorRate", RemoteConnectionStatistics::getErrorRate);
+    registerGauge("hedged", RemoteConnectionStatistics::getHedgedRequests);
+    registerGauge("hedgeWins", RemoteConnectionStatistics::getHedgeWins);
+    registerGauge("halfOpen", statistics -> statistics.isHalfOpen() ? 1 : 0);
+  }
+
+  private void registerGauge(final String name, final ToDoubleFunction<RemoteConnectionStatistics> value) {
+    String metricName = metricName(name);
+    metricRegistry.remove(metricName);
+    metricRegistry.register(metricName, (Gauge<Double>) () -> {
+      BlockingHttpClient client = httpClient;
+      return value.applyAsDouble(client != null ? client.getStatistics() : RemoteConnectionStatistics.EMPTY);
+    });
+    registeredMetrics.add(metricName);
+  }
+
+  /**
+   * Removes only the gauges registered by this facet, other repositories may share its name as a prefix.
+   */
+  private void removeMetrics() {
+    if (metricRegistry != null) {
+      registeredMetrics.forEach(metricRegistry::remove);
+    }
+    registeredMetrics.clear();
+  }
+
+  private String metricName(final String name) {
+    return MetricRegistry.name(HttpClientFacet.class, getRepository().getName(), name);
+  }
+
   @Override
   @Guarded(by = STARTED)
   public HttpClient getHttpClient() {
@@ -0,0 +1,136 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.httpclient.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatistics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Keeps the latency and outcome of the most recent requests to a remote in a fixed size ring.
+ *
+ * @since 3.31
+ */
+class RemoteLatencyTracker
+{
+  private final long[] latencies;
+
+  private final boolean[] failures;
+
+  private int next;
+
+  private int count;
+
+  private int failureCount;
+
+  private int sinceCheck;
+
+  private final AtomicLong hedgedRequests = new AtomicLong();
+
+  private final AtomicLong hedgeWins = new AtomicLong();
+
+  RemoteLatencyTracker(final int window) {
+    checkArgument(window > 0, "window must be positive");
+    this.latencies = new long[window];
+    this.failures = new boolean[window];
+  }
+
+  synchronized void record(final long latencyMillis, final boolean failed) {
+    if (count == latencies.length) {
+      if (failures[next]) {
+        failureCount--;
+      }
+    }
+    else {
+      count++;
+    }
+    latencies[next] = latencyMillis;
+    failures[next] = failed;
+    if (failed) {
+      failureCount++;
+    }
+    next = (next + 1) % latencies.length;
+    sinceCheck++;
+  }
+
+  /**
+   * Forgets the sampled requests, so that decisions after a block are taken on fresh samples only.
+   */
+  synchronized void reset() {
+    next = 0;
+    count = 0;
+    failureCount = 0;
+    sinceCheck = 0;
+    Arrays.fill(failures, false);
+  }
+
+  /**
+   * Returns whether at least {@code interval} requests were sampled since the last check that was due, once the
+   * window holds {@code minSamples} samples.
+   */
+  synchronized boolean checkDue(final int minSamples, final int interval) {
+    if (count < minSamples || sinceCheck < interval) {
+      return false;
+    }
+    sinceCheck = 0;
+    return true;
+  }
+
+  long percentile(final double quantile) {
+    long[] sorted;
+    synchronized (this) {
+      sorted = Arrays.copyOf(latencies, count);
+    }
+    Arrays.sort(sorted);
+    return percentile(sorted, quantile);
+  }
+
+  void hedged(final boolean mirrorWon) {
+    hedgedRequests.incrementAndGet();
+    if (mirrorWon) {
+      hedgeWins.incrementAndGet();
+    }
+  }
+
+  RemoteConnectionStatistics snapshot(final boolean halfOpen) {
+    long[] sorted;
+    int samples;
+    int failed;
+    synchronized (this) {
+      samples = count;
+      failed = failureCount;
+      sorted = Arrays.copyOf(latencies, count);
+    }
+    Arrays.sort(sorted);
+    return new RemoteConnectionStatistics(
+        samples,
+        percentile(sorted, 0.5),
+        percentile(sorted, 0.95),
+        percentile(sorted, 0.99),
+        samples == 0 ? 0 : (double) failed / samples,
+        hedgedRequests.get(),
+        hedgeWins.get(),
+        halfOpen);
+  }
+
+  private static long percentile(final long[] sorted, final double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
@@ -72,6 +72,11 @@ public class Content
     return payload.openInputStream();
   }
 
+  @Override
+  public InputStream openInputStream(final long offset, final long length) throws IOException {
+    return payload.openInputStream(offset, length);
+  }
+
   @Override
   public long getSize() {
     return payload.getSize();
@@ -93,6 +98,16 @@ public class Content
     payload.copy(inputStream, outputStream);
   }
 
+  /**
+   * Returns the payload carrying the bytes of this content.
+   *
+   * @since 3.31
+   */
+  @Nonnull
+  public Payload getPayload() {
+    return payload;
+  }
+
   @Nonnull
   public AttributesMap getAttributes() {
     return attributes;
@@ -27,6 +27,6 @@ public class DefaultRoute
   private static final Matcher MATCHER = new AlwaysMatcher();
 
   public DefaultRoute(final List<Handler> handlers) {
-    super(MATCHER, handlers);
+    super(MATCHER, handlers, "default");
   }
 }
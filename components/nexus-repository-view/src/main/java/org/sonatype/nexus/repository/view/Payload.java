@@ -33,6 +33,24 @@ public interface Payload
 
   InputStream openInputStream() throws IOException;
 
+  /**
+   * Opens a stream over {@code length} bytes of the payload starting at {@code offset}. Payloads with random access
+   * to their content should override this; by default the content preceding the offset is read and discarded.
+   *
+   * @since 3.31
+   */
+  default InputStream openInputStream(final long offset, final long length) throws IOException {
+    InputStream in = openInputStream();
+    try {
+      ByteStreams.skipFully(in, offset);
+    }
+    catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+    return ByteStreams.limit(in, length);
+  }
+
   long getSize();
 
   @Nullable
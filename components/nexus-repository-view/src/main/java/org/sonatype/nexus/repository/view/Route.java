@@ -15,6 +15,7 @@ package org.sonatype.nexus.repository.view;
 import java.util.List;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.google.common.collect.Lists;
 
@@ -34,11 +35,22 @@ public class Route
 
   private final List<Handler> handlers;
 
+  @Nullable
+  private final String name;
+
   public Route(final Matcher matcher, final List<Handler> handlers) {
+    this(matcher, handlers, null);
+  }
+
+  /**
+   * @since 3.31
+   */
+  public Route(final Matcher matcher, final List<Handler> handlers, @Nullable final String name) {
     this.matcher = checkNotNull(matcher, "Missing matcher");
     checkNotNull(handlers, "Missing handlers");
     checkArgument(!handlers.isEmpty(), "At least one handler is required");
     this.handlers = handlers;
+    this.name = name;
   }
 
   @Nonnull
@@ -51,9 +63,20 @@ public class Route
     return handlers;
   }
 
+  /**
+   * Optional name identifying this route in metrics; the {@link Router} names unnamed routes by position.
+   *
+   * @since 3.31
+   */
+  @Nullable
+  public String getName() {
+    return name;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
+        (name != null ? "name=" + name + ", " : "") +
         "matcher=" + matcher +
         ", handlers=" + handlers +
         '}';
@@ -72,6 +95,16 @@ public class Route
 
     private List<Handler> handlers = Lists.newArrayList();
 
+    private String name;
+
+    /**
+     * @since 3.31
+     */
+    public Builder name(final String name) {
+      this.name = checkNotNull(name);
+      return this;
+    }
+
     public Builder matcher(final Matcher matcher) {
       checkState(this.matcher == null, "Only one matcher allowed");
       this.matcher = checkNotNull(matcher);
@@ -101,7 +134,7 @@ public class Route
     }
 
     public Route create() {
-      return new Route(matcher, handlers);
+      return new Route(matcher, handlers, name);
     }
   }
 }
@@ -19,6 +19,7 @@ import java.util.Map;
 import javax.annotation.Nullable;
 
 import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.collect.AttributeKey;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.recipe.RouterBuilder;
 
@@ -41,11 +42,27 @@ public class Router
 
   private final DefaultRoute defaultRoute;
 
+  private final String[] routeNames;
+
   public static final String LOCAL_ATTRIBUTE_PREFIX = "local.attribute.";
 
+  /**
+   * Context attribute holding the name of the route handling the request.
+   *
+   * @since 3.31
+   */
+  public static final String ROUTE_NAME_KEY = AttributeKey.get(Router.class, "routeName");
+
   public Router(final List<Route> routes, final DefaultRoute defaultRoute) {
     this.routes = checkNotNull(routes, "Missing routes");
     this.defaultRoute = checkNotNull(defaultRoute, "Missing default route");
+    this.routeNames = new String[routes.size() + 1];
+    for (int i = 0; i < routes.size(); i++) {
+      String name = routes.get(i).getName();
+      routeNames[i] = name != null ? name : "route" + i;
+    }
+    String defaultName = defaultRoute.getName();
+    routeNames[routes.size()] = defaultName != null ? defaultName : "default";
   }
 
   /**
@@ -61,8 +78,9 @@ public class Router
 
     // Find route and start context
     Context context = maybeCopyContextAttributes(repository, request, existingContext);
-    Route route = findRoute(context);
-    Response response = context.start(route);
+    int index = findRoute(context);
+    context.getAttributes().set(ROUTE_NAME_KEY, routeNames[index]);
+    Response response = context.start(index < routes.size() ? routes.get(index) : defaultRoute);
     logResponse(response);
     return response;
   }
@@ -138,15 +156,15 @@ public class Router
   }
 
   /**
-   * Find the first matching route for the given context.
+   * Find the position of the first matching route for the given context, the default route coming last.
    */
-  private Route findRoute(final Context context) {
-    for (Route route : routes) {
-      if (route.getMatcher().matches(context)) {
-        return route;
+  private int findRoute(final Context context) {
+    for (int i = 0; i < routes.size(); i++) {
+      if (routes.get(i).getMatcher().matches(context)) {
+        return i;
       }
     }
-    return defaultRoute;
+    return routes.size();
   }
 
   //
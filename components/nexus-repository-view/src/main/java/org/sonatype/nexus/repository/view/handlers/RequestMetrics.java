@@ -0,0 +1,221 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view.handlers;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.Router;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.eventbus.Subscribe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Latency timers of view requests, per repository and route.
+ *
+ * Requests are timed by outcome ({@code 2xx}, {@code 4xx}, ... or {@code failed} when the request threw) under
+ * {@code Router.<repository>.<format>.<route>.requests.<outcome>}, and the phases of a request under
+ * {@code Router.<repository>.<format>.<route>.<phase>}. Timers are created on first use and hold the samples of a
+ * sliding time window, so recording is a lookup in the current context and a lock-free update.
+ *
+ * Code with access to the {@link Context} or {@link Response} of a request records phases through
+ * {@link #record(Context, Phase, long)} and {@link #record(Response, Phase, long)}; these do nothing when the request
+ * is not being timed.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+public class RequestMetrics
+    extends ComponentSupport
+    implements EventAware
+{
+  /**
+   * Phases of a request timed separately.
+   */
+  public enum Phase
+  {
+    SECURITY, STORAGE, REMOTE, WRITE;
+
+    private final String metricName = name().toLowerCase();
+  }
+
+  private static final String ROUTE_METRICS_KEY = RouteMetrics.class.getName();
+
+  private static final String[] OUTCOMES = {"failed", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+  private final MetricRegistry metricRegistry;
+
+  private final boolean enabled;
+
+  private final long windowSeconds;
+
+  private final ConcurrentMap<String, RepositoryMetrics> repositories = new ConcurrentHashMap<>();
+
+  @Inject
+  public RequestMetrics(
+      final MetricRegistry metricRegistry,
+      @Named("${nexus.repository.requestMetrics.enabled:-true}") final boolean enabled,
+      @Named("${nexus.repository.requestMetrics.window:-60s}") final Time window)
+  {
+    this.metricRegistry = checkNotNull(metricRegistry);
+    this.enabled = enabled;
+    this.windowSeconds = Math.max(1, window.toSeconds());
+  }
+
+  /**
+   * Starts timing the request of the given context, making it available to {@link #record(Context, Phase, long)}.
+   *
+   * @return {@code null} when request metrics are disabled
+   */
+  @Nullable
+  public RouteMetrics start(final Context context) {
+    if (!enabled) {
+      return null;
+    }
+    Repository repository = context.getRepository();
+    String routeName = context.getAttributes().get(Router.ROUTE_NAME_KEY, String.class, "unrouted");
+    RouteMetrics routeMetrics = repositories
+        .computeIfAbsent(repository.getName(), name -> new RepositoryMetrics(name, repository.getFormat().getValue()))
+        .route(routeName);
+    context.getAttributes().set(ROUTE_METRICS_KEY, routeMetrics);
+    return routeMetrics;
+  }
+
+  /**
+   * Records a phase of the request of the given context which started at {@code startNanos}, as given by
+   * {@link System#nanoTime()}.
+   */
+  public static void record(final Context context, final Phase phase, final long startNanos) {
+    record(context.getAttributes(), phase, startNanos);
+  }
+
+  /**
+   * Records a phase of the request that produced the given response which started at {@code startNanos}, as given by
+   * {@link System#nanoTime()}.
+   */
+  public static void record(@Nullable final Response response, final Phase phase, final long startNanos) {
+    record(response != null ? response.getAttributes() : null, phase, startNanos);
+  }
+
+  private static void record(@Nullable final AttributesMap attributes, final Phase phase, final long startNanos) {
+    RouteMetrics routeMetrics = attributes != null ? (RouteMetrics) attributes.get(ROUTE_METRICS_KEY) : null;
+    if (routeMetrics != null) {
+      routeMetrics.record(phase, System.nanoTime() - startNanos);
+    }
+  }
+
+  @Subscribe
+  public void on(final RepositoryDeletedEvent event) {
+    RepositoryMetrics repositoryMetrics = repositories.remove(event.getRepository().getName());
+    if (repositoryMetrics != null) {
+      repositoryMetrics.metricNames.forEach(metricRegistry::remove);
+    }
+  }
+
+  private Timer timer(final RepositoryMetrics repositoryMetrics, final String name) {
+    repositoryMetrics.metricNames.add(name);
+    return metricRegistry.timer(name, () -> new Timer(new SlidingTimeWindowArrayReservoir(windowSeconds, SECONDS)));
+  }
+
+  private class RepositoryMetrics
+  {
+    private final String repositoryName;
+
+    private final String format;
+
+    private final ConcurrentMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    private final Set<String> metricNames = ConcurrentHashMap.newKeySet();
+
+    RepositoryMetrics(final String repositoryName, final String format) {
+      this.repositoryName = repositoryName;
+      this.format = format;
+    }
+
+    RouteMetrics route(final String routeName) {
+      return routes.computeIfAbsent(routeName, name -> new RouteMetrics(this, name));
+    }
+  }
+
+  /**
+   * Timers of one route of a repository.
+   */
+  public final class RouteMetrics
+  {
+    private final RepositoryMetrics repositoryMetrics;
+
+    private final String prefix;
+
+    private final Timer[] outcomes = new Timer[OUTCOMES.length];
+
+    private final Timer[] phases = new Timer[Phase.values().length];
+
+    RouteMetrics(final RepositoryMetrics repositoryMetrics, final String routeName) {
+      this.repositoryMetrics = repositoryMetrics;
+      this.prefix = MetricRegistry.name(Router.class.getSimpleName(),
+          repositoryMetrics.repositoryName, repositoryMetrics.format, routeName);
+    }
+
+    /**
+     * Records the time taken by the whole request and makes these timers available to
+     * {@link #record(Response, Phase, long)}.
+     *
+     * @param response the response, or {@code null} when the request failed
+     */
+    public void completed(@Nullable final Response response, final long nanos) {
+      int outcome = 0;
+      if (response != null) {
+        outcome = Math.max(1, Math.min(5, response.getStatus().getCode() / 100));
+        response.getAttributes().set(ROUTE_METRICS_KEY, this);
+      }
+      Timer timer = outcomes[outcome];
+      if (timer == null) {
+        timer = timer(repositoryMetrics, MetricRegistry.name(prefix, "requests", OUTCOMES[outcome]));
+        outcomes[outcome] = timer;
+      }
+      timer.update(nanos, NANOSECONDS);
+    }
+
+    @VisibleForTesting
+    void record(final Phase phase, final long nanos) {
+      Timer timer = phases[phase.ordinal()];
+      if (timer == null) {
+        timer = timer(repositoryMetrics, MetricRegistry.name(prefix, phase.metricName));
+        phases[phase.ordinal()] = timer;
+      }
+      timer.update(nanos, NANOSECONDS);
+    }
+  }
+}
@@ -23,9 +23,12 @@ import org.sonatype.nexus.common.collect.AttributeKey;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Handler;
 import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.handlers.RequestMetrics.RouteMetrics;
 
 import com.google.common.base.Stopwatch;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 /**
  * Simple timing handler.
  *
@@ -41,23 +44,42 @@ public class TimingHandler
 
   private final Handler meteringHandler;
 
+  private final RequestMetrics requestMetrics;
+
+  public TimingHandler(@Nullable final Handler meteringHandler) {
+    this(meteringHandler, null);
+  }
+
+  /**
+   * @since 3.31
+   */
   @Inject
-  public TimingHandler(@Named("nexus.analytics.meteringHandler") @Nullable final Handler meteringHandler) {
+  public TimingHandler(
+      @Named("nexus.analytics.meteringHandler") @Nullable final Handler meteringHandler,
+      @Nullable final RequestMetrics requestMetrics)
+  {
     this.meteringHandler = meteringHandler;
+    this.requestMetrics = requestMetrics;
   }
 
   @Nonnull
   @Override
   public Response handle(@Nonnull final Context context) throws Exception {
     Stopwatch watch = Stopwatch.createStarted();
+    RouteMetrics routeMetrics = requestMetrics != null ? requestMetrics.start(context) : null;
 
+    Response response = null;
     try {
       if (meteringHandler != null) {
         context.insertHandler(meteringHandler);
       }
-      return context.proceed();
+      response = context.proceed();
+      return response;
     }
     finally {
+      if (routeMetrics != null) {
+        routeMetrics.completed(response, watch.elapsed(NANOSECONDS));
+      }
       String elapsed = watch.toString();
       context.getAttributes().set(ELAPSED_KEY, elapsed);
       log.trace("Timing: {}", elapsed);
@@ -39,11 +39,23 @@ public class BlobPayload
     this.contentType = contentType;
   }
 
+  /**
+   * @since 3.31
+   */
+  public Blob getBlob() {
+    return blob;
+  }
+
   @Override
   public InputStream openInputStream() throws IOException {
     return blob.getInputStream();
   }
 
+  @Override
+  public InputStream openInputStream(final long offset, final long length) throws IOException {
+    return blob.getInputStream(offset, length);
+  }
+
   @Override
   public long getSize() {
     return blob.getMetrics().getContentSize();
@@ -13,6 +13,7 @@
 package org.sonatype.nexus.repository.http;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.repository.view.payloads.BytesPayload;
@@ -62,4 +63,23 @@ public class PartialPayloadTest
       return ByteStreams.toByteArray(partial.openInputStream());
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void rangedReadIsDelegated() throws IOException {
+    final long[] requested = new long[2];
+    final BytesPayload seekable = new BytesPayload(input, "n/a")
+    {
+      @Override
+      public InputStream openInputStream(final long offset, final long length) throws IOException {
+        requested[0] = offset;
+        requested[1] = length;
+        return super.openInputStream(offset, length);
+      }
+    };
+
+    final byte[] output = partial(seekable, Range.closed(4L, 6L));
+
+    assertThat(output, is(Bytes.toArray(asList(4, 5, 6))));
+    assertThat(requested, is(new long[]{4, 3}));
+  }
+}
@@ -19,6 +19,8 @@ import org.sonatype.goodies.testsupport.TestSupport;
 import com.google.common.collect.Range;
 import org.junit.Test;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -86,4 +88,34 @@ public class RangeParserTest
     final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=5-100", 10L);
     assertThat(ranges.get(0), is(Range.closed(5L, 9L)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void multipleRangesKeepTheirOrder() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=500-599, 0-99,-100", 1000L);
+    assertThat(ranges, contains(Range.closed(500L, 599L), Range.closed(0L, 99L), Range.closed(900L, 999L)));
+  }
+
+  @Test
+  public void overlappingRangesAreCoalesced() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=50-99,0-49,500-,40-60,900-950", 1000L);
+    assertThat(ranges, contains(Range.closed(0L, 99L), Range.closed(500L, 999L)));
+  }
+
+  @Test
+  public void unsatisfiableRangesAreDropped() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=0-1,2000-3000", 1000L);
+    assertThat(ranges, contains(Range.closed(0L, 1L)));
+    assertThat(parser.parseRangeSpec("bytes=2000-3000,-2000", 1000L), is(nullValue()));
+  }
+
+  @Test
+  public void malformedOrExcessiveRangesSendEverything() {
+    assertThat(parser.parseRangeSpec("bytes=0-1,x-y", 1000L), is(empty()));
+
+    StringBuilder header = new StringBuilder("bytes=0-0");
+    for (int i = 1; i <= RangeParser.MAX_RANGES; i++) {
+      header.append(',').append(2 * i).append('-').append(2 * i);
+    }
+    assertThat(parser.parseRangeSpec(header.toString(), 1000L), is(empty()));
+  }
+}
@@ -17,14 +17,21 @@ import java.io.IOException;
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.repository.httpclient.AutoBlockConfiguration;
 import org.sonatype.nexus.repository.httpclient.FilteredHttpClientSupport.Filterable;
+import org.sonatype.nexus.repository.httpclient.RemoteBlockedIOException;
+import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatistics;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatus;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusObserver;
 import org.sonatype.nexus.repository.httpclient.RemoteConnectionStatusType;
 import org.sonatype.nexus.repository.httpclient.internal.HttpClientFacetImpl.Config;
 
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
 import org.apache.http.StatusLine;
+import org.apache.http.auth.AuthScope;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.protocol.HttpContext;
 import org.junit.After;
@@ -33,16 +40,27 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
+import static org.apache.http.HttpHeaders.AUTHORIZATION;
+import static org.apache.http.HttpHeaders.PROXY_AUTHORIZATION;
 import static org.apache.http.HttpStatus.SC_BAD_GATEWAY;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.HttpStatus.SC_PROXY_AUTHENTICATION_REQUIRED;
 import static org.apache.http.HttpStatus.SC_UNAUTHORIZED;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.joda.time.DateTime.now;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -251,6 +269,125 @@ public class BlockingHttpClientTest
     verifyUpdateStatus(AVAILABLE);
   }
 
+  @Test
+  public void statisticsAreSampledFromRequests() throws Exception {
+    filterAndHandleException();
+    when(filterable.call()).thenThrow(new IOException());
+    filterAndHandleException();
+
+    RemoteConnectionStatistics statistics = underTest.getStatus().getStatistics();
+    assertThat(statistics.getSampleCount(), is(2));
+    assertThat(statistics.getErrorRate(), is(closeTo(0.5, 0.001)));
+  }
+
+  @Test
+  public void slowRemoteIsAutoBlockedOnLatency() throws Exception {
+    setInternalState(underTest, "autoBlock", true);
+    setInternalState(underTest, "latencyThresholdMillis", 1L);
+    when(filterable.call()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      return httpResponse;
+    });
+
+    for (int i = 0; i < 32; i++) {
+      filterAndHandleException();
+    }
+
+    assertThat(underTest.getStatus().getType(), is(equalTo(AUTO_BLOCKED_UNAVAILABLE)));
+    assertThat(underTest.getStatus().getReason(), startsWith("Remote too slow"));
+  }
+
+  @Test
+  public void halfOpenLetsOnlyOneProbeThrough() throws Exception {
+    setInternalState(underTest, "autoBlock", true);
+    setInternalState(underTest, "blockedUntil", now().minusMillis(1));
+
+    Exception[] concurrent = new Exception[1];
+    when(filterable.call()).thenAnswer(invocation -> {
+      assertThat(underTest.getStatistics().isHalfOpen(), is(true));
+      try {
+        underTest.filter(httpHost, mock(Filterable.class));
+      }
+      catch (IOException e) {
+        concurrent[0] = e;
+      }
+      return httpResponse;
+    });
+
+    underTest.filter(httpHost, filterable);
+
+    assertThat(concurrent[0], instanceOf(RemoteBlockedIOException.class));
+    assertThat(underTest.getStatus().getType(), is(equalTo(AVAILABLE)));
+    assertThat(underTest.getStatistics().isHalfOpen(), is(false));
+  }
+
+  @Test
+  public void slowRequestsAreHedgedToTheMirror() throws Exception {
+    HttpHost mirror = new HttpHost("mirror", 8081, "http");
+    CloseableHttpResponse slowResponse = mock(CloseableHttpResponse.class);
+    when(slowResponse.getStatusLine()).thenReturn(statusLine);
+    when(httpClient.execute(eq(httpHost), any(HttpRequest.class), any(HttpContext.class))).thenAnswer(invocation -> {
+      Thread.sleep(500);
+      return slowResponse;
+    });
+    when(httpClient.execute(eq(mirror), any(HttpRequest.class), any(HttpContext.class))).thenReturn(httpResponse);
+
+    Config config = new Config();
+    config.hedgeMirror = "http://mirror:8081";
+    config.hedgeDelay = 10;
+    underTest.close();
+    underTest = new BlockingHttpClient(httpClient, config, statusObserver, true, autoBlockConfiguration);
+
+    assertThat(underTest.execute(new HttpGet("http://localhost/some/path?q=1")), is(httpResponse));
+
+    ArgumentCaptor<HttpRequest> mirrored = ArgumentCaptor.forClass(HttpRequest.class);
+    verify(httpClient).execute(eq(mirror), mirrored.capture(), any(HttpContext.class));
+    assertThat(((HttpRequestWrapper) mirrored.getValue()).getURI().toString(), is(equalTo("/some/path?q=1")));
+    assertThat(underTest.getStatistics().getHedgeWins(), is(1L));
+    verify(slowResponse, timeout(2000)).close();
+    // the remote's own latency is sampled, not the mirror's
+    assertThat(underTest.getStatistics().getSampleCount(), is(1));
+    assertThat(underTest.getStatistics().getLatency99th(), greaterThanOrEqualTo(500L));
+  }
+
+  @Test
+  public void mirrorNeverSeesTheRemoteCredentials() throws Exception {
+    HttpHost mirror = new HttpHost("mirror", 8081, "http");
+    when(httpClient.execute(eq(httpHost), any(HttpRequest.class), any(HttpContext.class))).thenAnswer(invocation -> {
+      Thread.sleep(500);
+      return mock(CloseableHttpResponse.class, RETURNS_DEEP_STUBS);
+    });
+    when(httpClient.execute(eq(mirror), any(HttpRequest.class), any(HttpContext.class))).thenReturn(httpResponse);
+
+    Config config = new Config();
+    config.hedgeMirror = "http://mirror:8081";
+    config.hedgeDelay = 10;
+    underTest.close();
+    underTest = new BlockingHttpClient(httpClient, config, statusObserver, true, autoBlockConfiguration);
+
+    HttpGet request = new HttpGet("http://localhost/some/path");
+    request.setHeader(AUTHORIZATION, "Basic c2VjcmV0");
+    request.setHeader(PROXY_AUTHORIZATION, "Basic c2VjcmV0");
+    underTest.execute(request);
+
+    ArgumentCaptor<HttpRequest> mirrored = ArgumentCaptor.forClass(HttpRequest.class);
+    ArgumentCaptor<HttpContext> mirrorContext = ArgumentCaptor.forClass(HttpContext.class);
+    verify(httpClient).execute(eq(mirror), mirrored.capture(), mirrorContext.capture());
+    assertThat(mirrored.getValue().containsHeader(AUTHORIZATION), is(false));
+    assertThat(mirrored.getValue().containsHeader(PROXY_AUTHORIZATION), is(false));
+    assertThat(HttpClientContext.adapt(mirrorContext.getValue()).getCredentialsProvider().getCredentials(AuthScope.ANY),
+        is(nullValue()));
+    assertThat(request.containsHeader(AUTHORIZATION), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void hedgeDelayMustBePositive() {
+    Config config = new Config();
+    config.hedgeMirror = "http://mirror:8081";
+    config.hedgeDelay = 0;
+    new BlockingHttpClient(httpClient, config, statusObserver, true, autoBlockConfiguration);
+  }
+
   private void verifyUpdateStatus(final RemoteConnectionStatusType newType) {
     verifyUpdateStatus(newType, null);
   }
@@ -26,10 +26,13 @@ import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.config.Configuration;
 import org.sonatype.nexus.repository.config.ConfigurationFacet;
 import org.sonatype.nexus.repository.httpclient.AutoBlockConfiguration;
+import org.sonatype.nexus.repository.httpclient.HttpClientFacet;
 import org.sonatype.nexus.repository.httpclient.ContentCompressionStrategy;
 import org.sonatype.nexus.repository.httpclient.NormalizationStrategy;
 import org.sonatype.nexus.repository.httpclient.internal.HttpClientFacetImpl.Config;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableMap;
 import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
@@ -43,7 +46,10 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sonatype.nexus.repository.httpclient.internal.HttpClientFacetImpl.CONFIG_KEY;
@@ -184,6 +190,23 @@ public class HttpClientFacetImplTest
     assertDisableCompressionPassedToCustomizer(npmFormat, false);
   }
 
+  @Test
+  public void stoppingRemovesOnlyTheGaugesOfThisRepository() throws Exception {
+    MetricRegistry metricRegistry = new MetricRegistry();
+    String otherRepositoryGauge = MetricRegistry.name(HttpClientFacet.class, "maven.central", "errorRate");
+    metricRegistry.register(otherRepositoryGauge, (Gauge<Double>) () -> 0.0);
+    when(repository.getName()).thenReturn("maven");
+    underTest.setMetricRegistry(metricRegistry);
+    underTest.httpClient = mock(BlockingHttpClient.class);
+
+    underTest.doStart();
+    assertThat(metricRegistry.getGauges().keySet(),
+        hasItem(MetricRegistry.name(HttpClientFacet.class, "maven", "errorRate")));
+
+    underTest.doStop();
+    assertThat(metricRegistry.getGauges().keySet(), contains(otherRepositoryGauge));
+  }
+
   private void assertConfigurationPassedToBlockingClient(final Format format,
                                                          final AutoBlockConfiguration autoBlockConfiguration)
       throws Exception
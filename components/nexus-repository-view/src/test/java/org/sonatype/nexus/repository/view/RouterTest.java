@@ -16,15 +16,23 @@ import java.util.Collections;
 
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.http.HttpResponses;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sonatype.nexus.repository.view.Router.LOCAL_ATTRIBUTE_PREFIX;
+import static org.sonatype.nexus.repository.view.Router.ROUTE_NAME_KEY;
 
 public class RouterTest
     extends TestSupport
@@ -49,6 +57,26 @@ public class RouterTest
     underTest = new Router(Collections.singletonList(route), defaultRoute);
   }
 
+  @Test
+  public void testDispatchNamesRoute() throws Exception {
+    Matcher matcher = mock(Matcher.class);
+    Handler handler = mock(Handler.class);
+    when(route.getMatcher()).thenReturn(matcher);
+    when(route.getHandlers()).thenReturn(Collections.singletonList(handler));
+    when(defaultRoute.getHandlers()).thenReturn(Collections.singletonList(handler));
+    when(handler.handle(any(Context.class))).thenReturn(HttpResponses.ok());
+    ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
+
+    when(matcher.matches(any(Context.class))).thenReturn(true);
+    underTest.dispatch(repository, request, null);
+    when(matcher.matches(any(Context.class))).thenReturn(false);
+    underTest.dispatch(repository, request, null);
+
+    verify(handler, times(2)).handle(contextCaptor.capture());
+    assertThat(contextCaptor.getAllValues().get(0).getAttributes().get(ROUTE_NAME_KEY), is("route0"));
+    assertThat(contextCaptor.getAllValues().get(1).getAttributes().get(ROUTE_NAME_KEY), is("default"));
+  }
+
   @Test
   public void testMaybeCopyContextAttributes() throws Exception {
     Context existingContext = new Context(repository, request);
@@ -0,0 +1,121 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view.handlers;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.Format;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.http.HttpResponses;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.Router;
+import org.sonatype.nexus.repository.view.handlers.RequestMetrics.RouteMetrics;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.view.handlers.RequestMetrics.Phase.SECURITY;
+import static org.sonatype.nexus.repository.view.handlers.RequestMetrics.Phase.WRITE;
+
+public class RequestMetricsTest
+    extends TestSupport
+{
+  private static final String PREFIX = "Router.maven-central.maven2.route0.";
+
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private Request request;
+
+  private MetricRegistry metricRegistry;
+
+  private RequestMetrics underTest;
+
+  @Before
+  public void setUp() {
+    when(repository.getName()).thenReturn("maven-central");
+    when(repository.getFormat()).thenReturn(new Format("maven2") { });
+
+    metricRegistry = new MetricRegistry();
+    underTest = new RequestMetrics(metricRegistry, true, Time.seconds(60));
+  }
+
+  @Test
+  public void requestsAreTimedByOutcome() {
+    RouteMetrics routeMetrics = underTest.start(context());
+    routeMetrics.completed(HttpResponses.ok(), 1000);
+    routeMetrics.completed(HttpResponses.notFound(), 1000);
+    routeMetrics.completed(HttpResponses.notFound(), 1000);
+    routeMetrics.completed(null, 1000);
+
+    assertThat(metricRegistry.getTimers().keySet(),
+        containsInAnyOrder(PREFIX + "requests.2xx", PREFIX + "requests.4xx", PREFIX + "requests.failed"));
+    assertThat(metricRegistry.timer(PREFIX + "requests.4xx").getCount(), is(2L));
+  }
+
+  @Test
+  public void phasesAreRecordedThroughContextAndResponse() {
+    Context context = context();
+    RouteMetrics routeMetrics = underTest.start(context);
+
+    RequestMetrics.record(context, SECURITY, System.nanoTime());
+    Response response = HttpResponses.ok();
+    routeMetrics.completed(response, 1000);
+    RequestMetrics.record(response, WRITE, System.nanoTime());
+
+    assertThat(metricRegistry.timer(PREFIX + "security").getCount(), is(1L));
+    assertThat(metricRegistry.timer(PREFIX + "write").getCount(), is(1L));
+  }
+
+  @Test
+  public void untimedRequestsAreIgnored() {
+    RequestMetrics.record(context(), SECURITY, System.nanoTime());
+    RequestMetrics.record(HttpResponses.ok(), WRITE, System.nanoTime());
+    RequestMetrics.record((Response) null, WRITE, System.nanoTime());
+
+    assertThat(metricRegistry.getTimers().isEmpty(), is(true));
+  }
+
+  @Test
+  public void disabled() {
+    underTest = new RequestMetrics(metricRegistry, false, Time.seconds(60));
+
+    assertThat(underTest.start(context()), nullValue());
+  }
+
+  @Test
+  public void metricsAreRemovedWithTheRepository() {
+    underTest.start(context()).completed(HttpResponses.ok(), 1000);
+
+    underTest.on(new RepositoryDeletedEvent(repository));
+
+    assertThat(metricRegistry.getTimers().isEmpty(), is(true));
+  }
+
+  private Context context() {
+    Context context = new Context(repository, request);
+    context.getAttributes().set(Router.ROUTE_NAME_KEY, "route0");
+    return context;
+  }
+}
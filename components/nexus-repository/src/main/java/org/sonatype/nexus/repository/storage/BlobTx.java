@@ -74,12 +74,17 @@ public class BlobTx
                           final String contentType)
   {
     MultiHashingInputStream hashingStream = new MultiHashingInputStream(hashAlgorithms, inputStream);
-    Blob streamedBlob = blobStore.create(hashingStream, headers); // pre-fetch to populate hashes
-    return createPrefetchedAssetBlob(
-        streamedBlob,
-        hashingStream.hashes(),
-        true,
-        contentType);
+    try {
+      Blob streamedBlob = blobStore.create(hashingStream, headers); // pre-fetch to populate hashes
+      return createPrefetchedAssetBlob(
+          streamedBlob,
+          hashingStream.hashes(),
+          true,
+          contentType);
+    }
+    finally {
+      hashingStream.release(); // the input stream belongs to the caller
+    }
   }
 
   /**
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
@@ -181,10 +182,18 @@ public class StorageFacetImpl
   }
 
   ConstraintViolation<?> validateBlobStoreNotInGroup(final String blobStoreName) {
-    return blobStoreManager.getParent(blobStoreName).map(groupName -> constraintViolationFactory
-        .createViolation(format("%s.%s.blobStoreName", P_ATTRIBUTES, STORAGE),
-            format("Blob Store '%s' is a member of Blob Store Group '%s' and cannot be set as storage", blobStoreName,
-                groupName))).orElse(null);
+    String path = format("%s.%s.blobStoreName", P_ATTRIBUTES, STORAGE);
+    Optional<String> groupName = blobStoreManager.getParent(blobStoreName);
+    if (groupName.isPresent()) {
+      return constraintViolationFactory.createViolation(path,
+          format("Blob Store '%s' is a member of Blob Store Group '%s' and cannot be set as storage", blobStoreName,
+              groupName.get()));
+    }
+    // blob stores other than groups, such as tiered blob stores, may depend on it as well
+    return blobStoreManager.getDependents(blobStoreName).stream().findFirst()
+        .map(dependent -> constraintViolationFactory.createViolation(path,
+            format("Blob Store '%s' is used by Blob Store '%s' and cannot be set as storage", blobStoreName,
+                dependent))).orElse(null);
   }
 
   @Override
@@ -247,13 +256,18 @@ public class StorageFacetImpl
   public TempBlob createTempBlob(final InputStream inputStream, final Iterable<HashAlgorithm> hashAlgorithms) {
     BlobStore blobStore = checkNotNull(blobStoreManager.get(config.blobStoreName));
     MultiHashingInputStream hashingStream = new MultiHashingInputStream(hashAlgorithms, inputStream);
-    Blob blob = blobStore.create(hashingStream,
-        ImmutableMap.of(
-            BlobStore.BLOB_NAME_HEADER, "temp",
-            BlobStore.CREATED_BY_HEADER, createdBy(),
-            BlobStore.CREATED_BY_IP_HEADER, createdByIp(),
-            BlobStore.TEMPORARY_BLOB_HEADER, ""));
-    return new TempBlob(blob, hashingStream.hashes(), true, blobStore);
+    try {
+      Blob blob = blobStore.create(hashingStream,
+          ImmutableMap.of(
+              BlobStore.BLOB_NAME_HEADER, "temp",
+              BlobStore.CREATED_BY_HEADER, createdBy(),
+              BlobStore.CREATED_BY_IP_HEADER, createdByIp(),
+              BlobStore.TEMPORARY_BLOB_HEADER, ""));
+      return new TempBlob(blob, hashingStream.hashes(), true, blobStore);
+    }
+    finally {
+      hashingStream.release(); // the input stream belongs to the caller
+    }
   }
 
   @Override
@@ -264,4 +264,16 @@ public class StorageFacetImplTest
         format("Blob Store '%s' is a member of Blob Store Group 'group1' and cannot be set as storage",
             BLOB_STORE_NAME));
   }
+
+  @Test
+  public void blobStoreUsedByAnotherBlobStoreAsStorageCreatesConstraintViolation() throws Exception {
+    underTest.doConfigure(configuration);
+    when(blobStoreManager.get(BLOB_STORE_NAME)).thenReturn(blobStore);
+    when(blobStoreManager.getParent(BLOB_STORE_NAME)).thenReturn(Optional.empty());
+    when(blobStoreManager.getDependents(BLOB_STORE_NAME)).thenReturn(singletonList("tiered1"));
+
+    underTest.validate(configuration);
+    verify(violationFactory, times(1)).createViolation(format("%s.%s.blobStoreName", P_ATTRIBUTES, STORAGE),
+        format("Blob Store '%s' is used by Blob Store 'tiered1' and cannot be set as storage", BLOB_STORE_NAME));
+  }
 }
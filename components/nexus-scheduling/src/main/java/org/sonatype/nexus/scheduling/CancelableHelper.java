@@ -14,6 +14,8 @@ package org.sonatype.nexus.scheduling;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.google.common.util.concurrent.RateLimiter;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -22,6 +24,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Periodically checking the {@link #checkCancellation()} is the preferred way to detect cancellation in components
  * outside the tasks. Within task, you have the {@link TaskSupport#isCanceled()} method.
  *
+ * When a throttle has been installed for the current thread each call to {@link #checkCancellation()} also counts as
+ * one operation against it, so long-running loops honour the configured {@link TaskConfiguration#getThrottle()} rate.
+ *
  * @since 3.0
  */
 public class CancelableHelper
@@ -34,13 +39,26 @@ public class CancelableHelper
 
   private static final ThreadLocal<AtomicBoolean> currentFlagHolder = new ThreadLocal<>();
 
+  private static final ThreadLocal<RateLimiter> currentThrottleHolder = new ThreadLocal<>();
+
   public static void set(final AtomicBoolean flag) {
     checkNotNull(flag);
     currentFlagHolder.set(flag);
   }
 
+  /**
+   * Installs an operations-per-second throttle for the current thread.
+   *
+   * @since 3.31
+   */
+  public static void setThrottle(final RateLimiter throttle) {
+    checkNotNull(throttle);
+    currentThrottleHolder.set(throttle);
+  }
+
   public static void remove() {
     currentFlagHolder.remove();
+    currentThrottleHolder.remove();
   }
 
   /**
@@ -55,6 +73,10 @@ public class CancelableHelper
     if (Thread.interrupted()) {
       throw new TaskInterruptedException("Thread '" + Thread.currentThread().getName() + "' is interrupted", false);
     }
+    RateLimiter throttle = currentThrottleHolder.get();
+    if (throttle != null) {
+      throttle.acquire();
+    }
     return true;
   }
 }
\ No newline at end of file
@@ -92,6 +92,8 @@ public class TaskConfiguration
 
   static final String EXPOSED_KEY = ".exposed";
 
+  static final String THROTTLE_KEY = ".throttle";
+
   @JsonProperty("configuration")
   private final Map<String, String> configuration;
 
@@ -251,6 +253,23 @@ public class TaskConfiguration
     setBoolean(RECOVERABLE_KEY, requestRecovery);
   }
 
+  /**
+   * Returns the maximum rate, in operations per second, at which the task should run; zero means unthrottled.
+   *
+   * @since 3.31
+   */
+  public int getThrottle() {
+    return getInteger(THROTTLE_KEY, 0);
+  }
+
+  /**
+   * @since 3.31
+   */
+  public void setThrottle(final int opsPerSecond) {
+    checkArgument(opsPerSecond >= 0);
+    setInteger(THROTTLE_KEY, opsPerSecond);
+  }
+
   public boolean hasLastRunState() {
     return getString(LAST_RUN_STATE_END_STATE) != null;
   }
@@ -0,0 +1,83 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.scheduling;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A shared resource required by a running {@link Task}, optionally narrowed to a specific instance such as a blob store.
+ *
+ * @see TaskResourceAware
+ * @since 3.31
+ */
+public final class TaskResource
+{
+  private final TaskResourceClass resourceClass;
+
+  @Nullable
+  private final String instance;
+
+  private TaskResource(final TaskResourceClass resourceClass, @Nullable final String instance) {
+    this.resourceClass = checkNotNull(resourceClass);
+    this.instance = instance;
+  }
+
+  /**
+   * Resource shared by all tasks of the given class.
+   */
+  public static TaskResource of(final TaskResourceClass resourceClass) {
+    return new TaskResource(resourceClass, null);
+  }
+
+  /**
+   * Resource instance of the given class; a {@code null} instance is shared by all tasks of that class.
+   */
+  public static TaskResource of(final TaskResourceClass resourceClass, @Nullable final String instance) {
+    return new TaskResource(resourceClass, instance);
+  }
+
+  public TaskResourceClass getResourceClass() {
+    return resourceClass;
+  }
+
+  @Nullable
+  public String getInstance() {
+    return instance;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TaskResource that = (TaskResource) o;
+    return resourceClass == that.resourceClass && Objects.equals(instance, that.instance);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(resourceClass, instance);
+  }
+
+  @Override
+  public String toString() {
+    return instance != null ? resourceClass.getKey() + ":" + instance : resourceClass.getKey();
+  }
+}
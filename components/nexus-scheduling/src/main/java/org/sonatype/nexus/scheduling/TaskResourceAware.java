@@ -0,0 +1,31 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.scheduling;
+
+import java.util.Set;
+
+/**
+ * Implemented by {@link Task}s which declare the shared resources they use while running.
+ *
+ * Declared resources are subject to the concurrency caps enforced by {@link TaskResourceLimiter}; a task over any cap
+ * is held in the {@link TaskState#RUNNING_BLOCKED} state until enough resources are released.
+ *
+ * @since 3.31
+ */
+public interface TaskResourceAware
+{
+  /**
+   * Returns the resources this task needs for its current configuration.
+   */
+  Set<TaskResource> getResources();
+}
@@ -0,0 +1,55 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.scheduling;
+
+/**
+ * Classes of shared resources a {@link Task} may contend for while running.
+ *
+ * @see TaskResource
+ * @since 3.31
+ */
+public enum TaskResourceClass
+{
+  /**
+   * I/O against a single blob store; the resource instance is the blob store name.
+   */
+  BLOBSTORE_IO("blobstoreIo"),
+
+  /**
+   * Bulk writes to the database.
+   */
+  DATABASE_WRITE("databaseWrite"),
+
+  /**
+   * Writes to the search index; the resource instance is the repository name.
+   */
+  SEARCH_INDEX("searchIndex"),
+
+  /**
+   * CPU bound work.
+   */
+  CPU("cpu");
+
+  private final String key;
+
+  TaskResourceClass(final String key) {
+    this.key = key;
+  }
+
+  /**
+   * Short name used to configure limits for this resource class.
+   */
+  public String getKey() {
+    return key;
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.scheduling;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces per-resource concurrency caps for {@link TaskResourceAware} tasks.
+ *
+ * @since 3.31
+ */
+public interface TaskResourceLimiter
+{
+  /**
+   * Attempts to acquire all resources declared by the given task. Either every resource is acquired, or none are.
+   *
+   * @return lease to be closed once the task finishes, or empty if any resource is at capacity
+   */
+  Optional<Lease> tryAcquire(Task task);
+
+  /**
+   * Waits up to the given time for any lease to be released.
+   */
+  void awaitRelease(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Acquired task resources.
+   */
+  interface Lease
+      extends AutoCloseable
+  {
+    /**
+     * Releases the acquired resources; repeated calls have no effect.
+     */
+    @Override
+    void close();
+  }
+}
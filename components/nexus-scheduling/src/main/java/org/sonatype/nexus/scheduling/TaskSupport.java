@@ -19,6 +19,7 @@ import org.sonatype.nexus.logging.task.TaskLoggerFactory;
 import org.sonatype.nexus.logging.task.TaskLoggerHelper;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.RateLimiter;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sonatype.nexus.logging.task.TaskLoggingMarkers.TASK_LOG_ONLY;
@@ -31,6 +32,9 @@ import static org.sonatype.nexus.logging.task.TaskLoggingMarkers.TASK_LOG_ONLY;
  *
  * Task implementations should be {@code @Named} components but must not be {@code @Singletons}.
  *
+ * Tasks configured with a {@link TaskConfiguration#getThrottle() throttle} are slowed down to that many operations per
+ * second, where each call to {@link CancelableHelper#checkCancellation()} counts as one operation.
+ *
  * @since 3.0
  */
 public abstract class TaskSupport
@@ -96,6 +100,10 @@ public abstract class TaskSupport
   public final Object call() throws Exception {
     startTaskLogging();
     CancelableHelper.set(canceledFlag);
+    int throttle = configuration.getThrottle();
+    if (throttle > 0) {
+      CancelableHelper.setThrottle(RateLimiter.create(throttle));
+    }
     try {
       return execute();
     }
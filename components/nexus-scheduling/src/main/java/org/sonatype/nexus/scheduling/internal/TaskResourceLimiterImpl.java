@@ -0,0 +1,177 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.scheduling.internal;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.scheduling.Task;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
+import org.sonatype.nexus.scheduling.TaskResourceClass;
+import org.sonatype.nexus.scheduling.TaskResourceLimiter;
+
+import com.google.common.collect.ImmutableSet;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.BLOBSTORE_IO;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.CPU;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.DATABASE_WRITE;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.SEARCH_INDEX;
+
+/**
+ * Default {@link TaskResourceLimiter} implementation.
+ *
+ * Each {@link TaskResourceClass} has two caps: the number of tasks that may use the same resource instance at once,
+ * and the number of tasks that may use any instance of that class at once. A cap of zero or less is unlimited.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+public class TaskResourceLimiterImpl
+    extends ComponentSupport
+    implements TaskResourceLimiter
+{
+  private final Map<TaskResourceClass, Integer> instanceLimits = new EnumMap<>(TaskResourceClass.class);
+
+  private final Map<TaskResourceClass, Integer> totalLimits = new EnumMap<>(TaskResourceClass.class);
+
+  private final Map<TaskResource, Integer> instanceUsage = new HashMap<>();
+
+  private final Map<TaskResourceClass, Integer> totalUsage = new EnumMap<>(TaskResourceClass.class);
+
+  @Inject
+  public TaskResourceLimiterImpl(
+      @Named("${nexus.scheduling.resources.blobstoreIo.perInstance:-1}") final int blobStoreIoPerInstance,
+      @Named("${nexus.scheduling.resources.blobstoreIo.total:-0}") final int blobStoreIoTotal,
+      @Named("${nexus.scheduling.resources.databaseWrite.perInstance:-0}") final int databaseWritePerInstance,
+      @Named("${nexus.scheduling.resources.databaseWrite.total:-2}") final int databaseWriteTotal,
+      @Named("${nexus.scheduling.resources.searchIndex.perInstance:-1}") final int searchIndexPerInstance,
+      @Named("${nexus.scheduling.resources.searchIndex.total:-0}") final int searchIndexTotal,
+      @Named("${nexus.scheduling.resources.cpu.perInstance:-0}") final int cpuPerInstance,
+      @Named("${nexus.scheduling.resources.cpu.total:-0}") final int cpuTotal)
+  {
+    limit(BLOBSTORE_IO, blobStoreIoPerInstance, blobStoreIoTotal);
+    limit(DATABASE_WRITE, databaseWritePerInstance, databaseWriteTotal);
+    limit(SEARCH_INDEX, searchIndexPerInstance, searchIndexTotal);
+    limit(CPU, cpuPerInstance, cpuTotal);
+  }
+
+  private void limit(final TaskResourceClass resourceClass, final int perInstance, final int total) {
+    instanceLimits.put(resourceClass, perInstance);
+    totalLimits.put(resourceClass, total);
+    log.debug("Task resource {} limited to {} per instance, {} in total", resourceClass.getKey(), perInstance, total);
+  }
+
+  @Override
+  public Optional<Lease> tryAcquire(final Task task) {
+    checkNotNull(task);
+
+    Set<TaskResource> resources = resourcesOf(task);
+    if (resources.isEmpty()) {
+      return Optional.of(() -> {});
+    }
+
+    synchronized (this) {
+      for (TaskResource resource : resources) {
+        if (!available(resource)) {
+          log.debug("Task {} queued, resource {} is at capacity", task, resource);
+          return Optional.empty();
+        }
+      }
+      resources.forEach(this::increment);
+    }
+
+    log.trace("Task {} acquired resources {}", task, resources);
+    return Optional.of(new LeaseImpl(resources));
+  }
+
+  @Override
+  public synchronized void awaitRelease(final long timeout, final TimeUnit unit) throws InterruptedException {
+    TimeUnit.MILLISECONDS.timedWait(this, unit.toMillis(timeout));
+  }
+
+  private static Set<TaskResource> resourcesOf(final Task task) {
+    if (task instanceof TaskResourceAware) {
+      Set<TaskResource> resources = ((TaskResourceAware) task).getResources();
+      if (resources != null) {
+        return ImmutableSet.copyOf(resources);
+      }
+    }
+    return Collections.emptySet();
+  }
+
+  private boolean available(final TaskResource resource) {
+    TaskResourceClass resourceClass = resource.getResourceClass();
+    if (resource.getInstance() != null && exceeds(instanceUsage.getOrDefault(resource, 0),
+        instanceLimits.get(resourceClass))) {
+      return false;
+    }
+    return !exceeds(totalUsage.getOrDefault(resourceClass, 0), totalLimits.get(resourceClass));
+  }
+
+  private static boolean exceeds(final int usage, final int limit) {
+    return limit > 0 && usage >= limit;
+  }
+
+  private void increment(final TaskResource resource) {
+    if (resource.getInstance() != null) {
+      instanceUsage.merge(resource, 1, Integer::sum);
+    }
+    totalUsage.merge(resource.getResourceClass(), 1, Integer::sum);
+  }
+
+  private void decrement(final TaskResource resource) {
+    if (resource.getInstance() != null) {
+      instanceUsage.computeIfPresent(resource, (key, count) -> count > 1 ? count - 1 : null);
+    }
+    totalUsage.computeIfPresent(resource.getResourceClass(), (key, count) -> count > 1 ? count - 1 : null);
+  }
+
+  private synchronized void release(final Set<TaskResource> resources) {
+    resources.forEach(this::decrement);
+    notifyAll();
+  }
+
+  private class LeaseImpl
+      implements Lease
+  {
+    private final Set<TaskResource> resources;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    LeaseImpl(final Set<TaskResource> resources) {
+      this.resources = resources;
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        release(resources);
+        log.trace("Released task resources {}", resources);
+      }
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.scheduling.internal;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
+import org.sonatype.nexus.scheduling.TaskResourceLimiter.Lease;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.BLOBSTORE_IO;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.DATABASE_WRITE;
+
+/**
+ * Tests for {@link TaskResourceLimiterImpl}
+ */
+public class TaskResourceLimiterImplTest
+    extends TestSupport
+{
+  private TaskResourceLimiterImpl underTest;
+
+  @Before
+  public void setUp() {
+    underTest = new TaskResourceLimiterImpl(1, 0, 0, 2, 1, 0, 0, 0);
+  }
+
+  @Test
+  public void tasksWithoutResourcesAreNeverQueued() {
+    assertThat(underTest.tryAcquire(new SimpleTask()).isPresent(), is(true));
+    assertThat(underTest.tryAcquire(new SimpleTask()).isPresent(), is(true));
+  }
+
+  @Test
+  public void perInstanceLimit() {
+    Optional<Lease> first = underTest.tryAcquire(new ResourceTask(TaskResource.of(BLOBSTORE_IO, "default")));
+    assertThat(first.isPresent(), is(true));
+
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(BLOBSTORE_IO, "default"))).isPresent(), is(false));
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(BLOBSTORE_IO, "other"))).isPresent(), is(true));
+
+    first.get().close();
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(BLOBSTORE_IO, "default"))).isPresent(), is(true));
+  }
+
+  @Test
+  public void totalLimit() {
+    Optional<Lease> first = underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE)));
+    assertThat(first.isPresent(), is(true));
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE))).isPresent(), is(true));
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE))).isPresent(), is(false));
+
+    first.get().close();
+    first.get().close(); // repeated release has no further effect
+
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE))).isPresent(), is(true));
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE))).isPresent(), is(false));
+  }
+
+  @Test
+  public void resourcesAreAcquiredAllOrNothing() {
+    underTest.tryAcquire(new ResourceTask(TaskResource.of(BLOBSTORE_IO, "default")));
+
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE),
+        TaskResource.of(BLOBSTORE_IO, "default"))).isPresent(), is(false));
+
+    // the database write slot was not consumed by the failed attempt
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE))).isPresent(), is(true));
+    assertThat(underTest.tryAcquire(new ResourceTask(TaskResource.of(DATABASE_WRITE))).isPresent(), is(true));
+  }
+
+  private static class ResourceTask
+      extends SimpleTask
+      implements TaskResourceAware
+  {
+    private final Set<TaskResource> resources;
+
+    ResourceTask(final TaskResource... resources) {
+      this.resources = ImmutableSet.copyOf(resources);
+    }
+
+    @Override
+    public Set<TaskResource> getResources() {
+      return resources;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.security.authz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.shiro.authz.Permission;
+
+/**
+ * Permissions indexed by their leading parts, so checking whether they imply a permission only tests those that
+ * could imply it instead of scanning every permission held.
+ *
+ * {@link WildcardPermission2} permissions are indexed by up to their first {@value #DEPTH} parts, which covers the
+ * domain, format and repository of repository permissions such as {@code nexus:repository-view:maven2:central:read}.
+ * Other permission types are always tested.
+ *
+ * @since 3.31
+ */
+public final class PermissionIndex
+{
+  private static final int DEPTH = 4;
+
+  private static final String WILDCARD_TOKEN = "*";
+
+  private final Node root = new Node();
+
+  private final List<Permission> unindexed = new ArrayList<>();
+
+  private PermissionIndex() {
+    // use of()
+  }
+
+  public static PermissionIndex of(final Collection<? extends Permission> permissions) {
+    PermissionIndex index = new PermissionIndex();
+    for (Permission permission : permissions) {
+      if (permission instanceof WildcardPermission2) {
+        index.root.add(permission, ((WildcardPermission2) permission).getParts(), 0);
+      }
+      else {
+        index.unindexed.add(permission);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Returns {@code true} if any of the indexed permissions implies the given permission.
+   */
+  public boolean implies(final Permission permission) {
+    for (Permission candidate : unindexed) {
+      if (candidate.implies(permission)) {
+        return true;
+      }
+    }
+    if (permission instanceof WildcardPermission2) {
+      return root.implies(permission, ((WildcardPermission2) permission).getParts(), 0);
+    }
+    return root.anyImplies(permission);
+  }
+
+  /**
+   * Permissions sharing the same leading parts.
+   */
+  private static final class Node
+  {
+    /**
+     * Permissions with no further indexed parts, which may imply any permission reaching this node.
+     */
+    private final List<Permission> permissions = new ArrayList<>();
+
+    private final Map<String, Node> children = new HashMap<>();
+
+    private Node wildcard;
+
+    void add(final Permission permission, final List<Set<String>> parts, final int level) {
+      if (level == parts.size() || level == DEPTH) {
+        permissions.add(permission);
+        return;
+      }
+      Set<String> part = parts.get(level);
+      if (part.contains(WILDCARD_TOKEN)) {
+        if (wildcard == null) {
+          wildcard = new Node();
+        }
+        wildcard.add(permission, parts, level + 1);
+      }
+      else {
+        // a permission implying another contains all tokens of each of its parts, so one entry per token suffices
+        for (String token : part) {
+          children.computeIfAbsent(token, key -> new Node()).add(permission, parts, level + 1);
+        }
+      }
+    }
+
+    boolean implies(final Permission permission, final List<Set<String>> parts, final int level) {
+      for (Permission candidate : permissions) {
+        if (candidate.implies(permission)) {
+          return true;
+        }
+      }
+      if (level == parts.size()) {
+        // longer permissions imply shorter ones when their remaining parts are wildcards
+        return anyChildImplies(permission);
+      }
+      if (level == DEPTH) {
+        return false;
+      }
+      if (wildcard != null && wildcard.implies(permission, parts, level + 1)) {
+        return true;
+      }
+      Node child = children.get(parts.get(level).iterator().next());
+      return child != null && child.implies(permission, parts, level + 1);
+    }
+
+    boolean anyImplies(final Permission permission) {
+      for (Permission candidate : permissions) {
+        if (candidate.implies(permission)) {
+          return true;
+        }
+      }
+      return anyChildImplies(permission);
+    }
+
+    private boolean anyChildImplies(final Permission permission) {
+      if (wildcard != null && wildcard.anyImplies(permission)) {
+        return true;
+      }
+      for (Node child : children.values()) {
+        if (child.anyImplies(permission)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
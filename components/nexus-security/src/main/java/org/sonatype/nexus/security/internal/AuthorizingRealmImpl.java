@@ -16,22 +16,33 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.security.authz.AuthorizationConfigurationChanged;
+import org.sonatype.nexus.security.authz.PermissionIndex;
 import org.sonatype.nexus.security.role.RoleIdentifier;
 import org.sonatype.nexus.security.user.RoleMappingUserManager;
 import org.sonatype.nexus.security.user.UserManager;
 import org.sonatype.nexus.security.user.UserNotFoundException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.credential.HashedCredentialsMatcher;
 import org.apache.shiro.authz.AuthorizationException;
 import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.authz.permission.PermissionResolver;
+import org.apache.shiro.authz.permission.RolePermissionResolver;
 import org.apache.shiro.crypto.hash.Sha1Hash;
 import org.apache.shiro.mgt.RealmSecurityManager;
 import org.apache.shiro.realm.AuthorizingRealm;
@@ -51,7 +62,7 @@ import org.slf4j.LoggerFactory;
 @Description("Local Authorizing Realm")
 public class AuthorizingRealmImpl
     extends AuthorizingRealm
-    implements Realm
+    implements Realm, EventAware
 {
   private static final Logger logger = LoggerFactory.getLogger(AuthorizingRealmImpl.class);
 
@@ -63,6 +74,14 @@ public class AuthorizingRealmImpl
 
   private final Map<String, UserManager> userManagerMap;
 
+  /**
+   * Resolved permissions of cached authorization info, indexed for implies-checks.
+   */
+  private final Cache<AuthorizationInfo, PermissionIndex> permissionIndexes =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  private final AtomicLong generation = new AtomicLong();
+
   @Inject
   public AuthorizingRealmImpl(final RealmSecurityManager realmSecurityManager,
                               final UserManager userManager,
@@ -156,6 +175,73 @@ public class AuthorizingRealmImpl
     return new SimpleAuthorizationInfo(roles);
   }
 
+  /**
+   * Checks the permission against an index of the subject's resolved permissions, built once per cached
+   * authorization info rather than resolving and scanning every permission of every role on each check.
+   */
+  @Override
+  protected boolean isPermitted(final Permission permission, final AuthorizationInfo info) {
+    if (info == null || !isAuthorizationCachingEnabled() || getAuthorizationCache() == null) {
+      // info is not reused between checks so there is nothing to gain from indexing it
+      return super.isPermitted(permission, info);
+    }
+    PermissionIndex index = permissionIndexes.getIfPresent(info);
+    if (index == null) {
+      long expectedGeneration = generation.get();
+      index = PermissionIndex.of(resolvePermissions(info));
+      // don't remember permissions resolved from security configuration that has since changed
+      if (generation.get() == expectedGeneration) {
+        permissionIndexes.put(info, index);
+      }
+    }
+    return index.implies(permission);
+  }
+
+  private Collection<Permission> resolvePermissions(final AuthorizationInfo info) {
+    Set<Permission> permissions = new HashSet<>();
+    if (info.getObjectPermissions() != null) {
+      permissions.addAll(info.getObjectPermissions());
+    }
+    PermissionResolver permissionResolver = getPermissionResolver();
+    if (info.getStringPermissions() != null && permissionResolver != null) {
+      for (String permission : info.getStringPermissions()) {
+        permissions.add(permissionResolver.resolvePermission(permission));
+      }
+    }
+    RolePermissionResolver rolePermissionResolver = getRolePermissionResolver();
+    if (info.getRoles() != null && rolePermissionResolver != null) {
+      for (String role : info.getRoles()) {
+        Collection<Permission> rolePermissions = rolePermissionResolver.resolvePermissionsInRole(role);
+        if (rolePermissions != null) {
+          permissions.addAll(rolePermissions);
+        }
+      }
+    }
+    return permissions;
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final AuthorizationConfigurationChanged event) {
+    invalidatePermissionIndexes();
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final SecurityContributionChangedEvent event) {
+    invalidatePermissionIndexes();
+  }
+
+  private void invalidatePermissionIndexes() {
+    // the role resolver may not have seen this event yet, make sure new indexes don't pick up its stale roles
+    RolePermissionResolver rolePermissionResolver = getRolePermissionResolver();
+    if (rolePermissionResolver instanceof RolePermissionResolverImpl) {
+      ((RolePermissionResolverImpl) rolePermissionResolver).invalidate();
+    }
+    generation.incrementAndGet();
+    permissionIndexes.invalidateAll();
+  }
+
   private void cleanUpRealmList(final Set<String> realmNames) {
     for (UserManager userManager : this.userManagerMap.values()) {
       String authRealmName = userManager.getAuthenticationRealmName();
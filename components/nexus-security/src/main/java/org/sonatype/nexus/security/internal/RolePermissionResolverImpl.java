@@ -87,7 +87,7 @@ public class RolePermissionResolverImpl
   /**
    * Invalidate caches.
    */
-  private void invalidate() {
+  void invalidate() {
     permissionsCache.invalidateAll();
     rolePermissionsCache.invalidateAll();
     roleNotFoundCache.invalidateAll();
@@ -0,0 +1,110 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.security.authz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.permission.AllPermission;
+import org.apache.shiro.authz.permission.WildcardPermission;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class PermissionIndexTest
+    extends TestSupport
+{
+  private static final List<String> FORMATS = Arrays.asList("maven2", "npm", "raw");
+
+  private static final List<String> REPOSITORIES = Arrays.asList("central", "releases", "snapshots", "hosted");
+
+  private static final List<String> ACTIONS = Arrays.asList("browse", "read", "edit", "add", "delete");
+
+  @Test
+  public void impliesRepositoryPermissions() {
+    PermissionIndex index = PermissionIndex.of(Arrays.asList(
+        new WildcardPermission2("nexus:repository-view:maven2:central:read"),
+        new WildcardPermission2("nexus:repository-view:npm:*:browse,read"),
+        new WildcardPermission2("nexus:repository-admin")));
+
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view:maven2:central:read")), is(true));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view:maven2:central:edit")), is(false));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view:maven2:releases:read")), is(false));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view:npm:hosted:read")), is(true));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view:npm:hosted:browse,read")), is(true));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view:npm:hosted:add")), is(false));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-admin:raw:hosted:delete")), is(true));
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view")), is(false));
+  }
+
+  @Test
+  public void impliesShorterPermissionsWithTrailingWildcards() {
+    PermissionIndex index = PermissionIndex.of(Arrays.asList(
+        new WildcardPermission2("nexus:repository-view:*:*:*"),
+        new WildcardPermission2("nexus:settings:read")));
+
+    assertThat(index.implies(new WildcardPermission2("nexus:repository-view")), is(true));
+    assertThat(index.implies(new WildcardPermission2("nexus:settings")), is(false));
+  }
+
+  @Test
+  public void otherPermissionTypesAreAlwaysChecked() {
+    assertThat(PermissionIndex.of(Arrays.asList(new AllPermission()))
+        .implies(new WildcardPermission2("nexus:repository-view:npm:hosted:read")), is(true));
+    assertThat(PermissionIndex.of(Arrays.asList(new WildcardPermission2("nexus:repository-view:npm:*:read")))
+        .implies(new WildcardPermission("nexus:repository-view:npm:hosted:read")), is(true));
+    assertThat(PermissionIndex.of(Arrays.asList(new WildcardPermission("nexus:repository-view:npm:*:read")))
+        .implies(new WildcardPermission2("nexus:repository-view:npm:hosted:read")), is(true));
+  }
+
+  @Test
+  public void matchesLinearScan() {
+    Random random = new Random(42);
+    for (int round = 0; round < 50; round++) {
+      List<Permission> permissions = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        permissions.add(randomPermission(random));
+      }
+      PermissionIndex index = PermissionIndex.of(permissions);
+      for (int i = 0; i < 200; i++) {
+        Permission permission = randomPermission(random);
+        boolean expected = permissions.stream().anyMatch(candidate -> candidate.implies(permission));
+        assertThat(permission.toString(), index.implies(permission), is(expected));
+      }
+    }
+  }
+
+  private static Permission randomPermission(final Random random) {
+    List<String> parts = new ArrayList<>();
+    parts.add(random.nextInt(10) == 0 ? "*" : "nexus");
+    parts.add(random.nextBoolean() ? "repository-view" : pick(random, "repository-admin", "*", "settings"));
+    parts.add(pick(random, FORMATS));
+    parts.add(pick(random, REPOSITORIES));
+    parts.add(random.nextBoolean() ? pick(random, ACTIONS) : pick(random, ACTIONS) + ',' + pick(random, ACTIONS));
+    return new WildcardPermission2(String.join(":", parts.subList(0, 1 + random.nextInt(parts.size()))));
+  }
+
+  private static String pick(final Random random, final List<String> values) {
+    return random.nextInt(8) == 0 ? "*" : values.get(random.nextInt(values.size()));
+  }
+
+  private static String pick(final Random random, final String... values) {
+    return values[random.nextInt(values.length)];
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.sonatype.nexus.selector.CselCompiler.AnyOf;
+import org.sonatype.nexus.selector.CselCompiler.Compiled;
+import org.sonatype.nexus.selector.CselCompiler.Condition;
+import org.sonatype.nexus.selector.CselCompiler.Equals;
+import org.sonatype.nexus.selector.CselCompiler.Literal;
+import org.sonatype.nexus.selector.CselCompiler.StartsWith;
+import org.sonatype.nexus.selector.CselCompiler.Variable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * {@link Selector} that matches when any of its member selectors match.
+ *
+ * Compiled CSEL members are merged so that every `var =^ "prefix"` and `var == "value"` term across all members is
+ * checked with a single lookup per variable, rather than evaluating each selector in turn. Variables are resolved at
+ * most once per evaluation. Members that cannot be compiled are evaluated individually, and any member that fails to
+ * evaluate is treated as not matching, same as when selectors are evaluated one at a time.
+ *
+ * {@link #toSql} joins the SQL of the members with {@code or}, so it is only supported when every member supports it;
+ * JEXL members and an empty composite cannot be expressed in SQL.
+ *
+ * @since 3.31
+ */
+public class CompositeSelector
+    implements Selector
+{
+  private static final Logger log = LoggerFactory.getLogger(CompositeSelector.class);
+
+  private final List<Selector> members;
+
+  private final List<Partition> partitions;
+
+  private final List<Selector> interpreted;
+
+  private final String description;
+
+  private CompositeSelector(final List<Selector> members,
+                            final List<Partition> partitions,
+                            final List<Selector> interpreted,
+                            final String description)
+  {
+    this.members = members;
+    this.partitions = partitions;
+    this.interpreted = interpreted;
+    this.description = description;
+  }
+
+  /**
+   * Combines the given selectors into a single selector that matches when any of them match.
+   */
+  public static CompositeSelector anyOf(final Collection<? extends Selector> selectors) {
+    Map<Set<String>, Partition> partitions = new LinkedHashMap<>();
+    List<Selector> interpreted = new ArrayList<>();
+    for (Selector selector : selectors) {
+      Compiled compiled = selector instanceof CselSelector ? ((CselSelector) selector).getCompiled() : null;
+      if (compiled != null) {
+        partitions.computeIfAbsent(compiled.variables, Partition::new).add(compiled.condition);
+      }
+      else {
+        interpreted.add(selector);
+      }
+    }
+    String description = selectors.stream().map(Object::toString).collect(joining(" || "));
+    return new CompositeSelector(new ArrayList<>(selectors), new ArrayList<>(partitions.values()), interpreted,
+        description);
+  }
+
+  @Override
+  public boolean evaluate(final VariableSource source) {
+    VariableLookup lookup = new VariableLookup(source);
+    for (Partition partition : partitions) {
+      if (partition.test(lookup)) {
+        return true;
+      }
+    }
+    for (Selector selector : interpreted) {
+      try {
+        if (selector.evaluate(source)) {
+          return true;
+        }
+      }
+      catch (Exception e) {
+        log.debug("Selector '{}' cannot be evaluated", selector, e);
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void toSql(final SelectorSqlBuilder sqlBuilder) {
+    if (members.isEmpty()) {
+      throw new UnsupportedOperationException("Empty selector cannot be expressed in SQL");
+    }
+    for (int i = 0; i < members.size(); i++) {
+      if (i > 0) {
+        sqlBuilder.appendOperator("or");
+      }
+      Selector member = members.get(i);
+      sqlBuilder.appendExpression(() -> member.toSql(sqlBuilder));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+
+  /**
+   * Compiled members that reference the same variables. When all those variables are defined the members cannot fail
+   * to evaluate, so their terms are merged and checked in any order. Otherwise each member is evaluated in turn, so a
+   * member that fails on an undefined variable doesn't match.
+   */
+  private static class Partition
+  {
+    private final Set<String> variables;
+
+    private final List<Condition> members = new ArrayList<>();
+
+    private final Map<String, PrefixSet> prefixes = new HashMap<>();
+
+    private final Map<String, Set<String>> values = new HashMap<>();
+
+    private final List<Condition> others = new ArrayList<>();
+
+    Partition(final Set<String> variables) {
+      this.variables = variables;
+    }
+
+    void add(final Condition member) {
+      members.add(member);
+      if (member instanceof AnyOf) {
+        ((AnyOf) member).terms.forEach(this::addTerm);
+      }
+      else {
+        addTerm(member);
+      }
+    }
+
+    private void addTerm(final Condition term) {
+      if (term instanceof StartsWith) {
+        StartsWith startsWith = (StartsWith) term;
+        if (startsWith.left instanceof Variable && startsWith.right instanceof Literal) {
+          prefixes.computeIfAbsent(((Variable) startsWith.left).name, k -> new PrefixSet())
+              .add(((Literal) startsWith.right).value);
+          return;
+        }
+      }
+      else if (term instanceof Equals) {
+        Equals equals = (Equals) term;
+        if (equals.left instanceof Variable && equals.right instanceof Literal) {
+          values.computeIfAbsent(((Variable) equals.left).name, k -> new HashSet<>())
+              .add(((Literal) equals.right).value);
+          return;
+        }
+        if (equals.left instanceof Literal && equals.right instanceof Variable) {
+          values.computeIfAbsent(((Variable) equals.right).name, k -> new HashSet<>())
+              .add(((Literal) equals.left).value);
+          return;
+        }
+      }
+      others.add(term);
+    }
+
+    boolean test(final VariableLookup lookup) {
+      if (lookup.isDefined(variables)) {
+        return testMerged(lookup);
+      }
+      for (Condition member : members) {
+        try {
+          if (member.test(lookup)) {
+            return true;
+          }
+        }
+        catch (IllegalArgumentException e) {
+          log.trace("Skipping selector {}: {}", member, e.getMessage());
+        }
+      }
+      return false;
+    }
+
+    private boolean testMerged(final VariableLookup lookup) {
+      for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+        Object value = lookup.get(entry.getKey());
+        if (value != null && entry.getValue().contains(value.toString())) {
+          return true;
+        }
+      }
+      for (Map.Entry<String, PrefixSet> entry : prefixes.entrySet()) {
+        Object value = lookup.get(entry.getKey());
+        if (value != null && entry.getValue().matches(value.toString())) {
+          return true;
+        }
+      }
+      for (Condition term : others) {
+        if (term.test(lookup)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Set of prefixes where no prefix starts with another; a value matches when the greatest prefix that sorts before
+   * it is also a prefix of it.
+   */
+  private static class PrefixSet
+  {
+    private final NavigableSet<String> prefixes = new TreeSet<>();
+
+    void add(final String prefix) {
+      String floor = prefixes.floor(prefix);
+      if (floor != null && prefix.startsWith(floor)) {
+        return; // already covered by a shorter prefix
+      }
+      // drop any longer prefixes now covered by this one
+      Iterator<String> itr = prefixes.tailSet(prefix, false).iterator();
+      while (itr.hasNext() && itr.next().startsWith(prefix)) {
+        itr.remove();
+      }
+      prefixes.add(prefix);
+    }
+
+    boolean matches(final String value) {
+      String floor = prefixes.floor(value);
+      return floor != null && value.startsWith(floor);
+    }
+  }
+}
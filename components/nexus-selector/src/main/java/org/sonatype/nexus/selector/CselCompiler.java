@@ -0,0 +1,443 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.parser.ASTAndNode;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.ASTERNode;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTIdentifierAccess;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ASTNENode;
+import org.apache.commons.jexl3.parser.ASTOrNode;
+import org.apache.commons.jexl3.parser.ASTReference;
+import org.apache.commons.jexl3.parser.ASTReferenceExpression;
+import org.apache.commons.jexl3.parser.ASTSWNode;
+import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.JexlNode;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Compiles CSEL expressions into a tree of {@link Condition}s that can be evaluated without the JEXL interpreter.
+ *
+ * Only the subset of JEXL accepted by {@link CselValidator} is compiled; anything else is rejected with a
+ * {@link JexlException} so callers can fall back to interpreting the expression. Evaluation follows JEXL semantics:
+ * comparisons are done on the string form of values, {@code null} only equals {@code null}, and undefined variables
+ * are errors.
+ *
+ * @since 3.31
+ */
+final class CselCompiler
+    extends ParserVisitorSupport
+{
+  private static final CselCompiler INSTANCE = new CselCompiler();
+
+  private static final String NOT_SUPPORTED_MESSAGE = "Expression not supported by CSEL compiler";
+
+  /**
+   * Compiles the given CSEL script.
+   *
+   * @throws JexlException if the script contains expressions that cannot be compiled
+   */
+  public static Compiled compile(final ASTJexlScript script) {
+    if (script.jjtGetNumChildren() != 1) {
+      throw new JexlException(script, NOT_SUPPORTED_MESSAGE);
+    }
+    Set<String> variables = new HashSet<>();
+    Condition condition = INSTANCE.condition(script.jjtGetChild(0), variables);
+    return new Compiled(condition, variables);
+  }
+
+  private CselCompiler() {
+    // utility class
+  }
+
+  @Override
+  protected Object doVisit(final JexlNode node, final Object data) {
+    throw new JexlException(node, NOT_SUPPORTED_MESSAGE);
+  }
+
+  /**
+   * Compile `a || b`, flattening nested disjunctions.
+   */
+  @Override
+  protected Object visit(final ASTOrNode node, final Object data) {
+    List<Condition> terms = new ArrayList<>();
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      Condition term = condition(node.jjtGetChild(i), data);
+      if (term instanceof AnyOf) {
+        terms.addAll(((AnyOf) term).terms);
+      }
+      else {
+        terms.add(term);
+      }
+    }
+    return new AnyOf(terms);
+  }
+
+  /**
+   * Compile `a && b`, flattening nested conjunctions.
+   */
+  @Override
+  protected Object visit(final ASTAndNode node, final Object data) {
+    List<Condition> terms = new ArrayList<>();
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      Condition term = condition(node.jjtGetChild(i), data);
+      if (term instanceof AllOf) {
+        terms.addAll(((AllOf) term).terms);
+      }
+      else {
+        terms.add(term);
+      }
+    }
+    return new AllOf(terms);
+  }
+
+  /**
+   * Compile `a == b`
+   */
+  @Override
+  protected Object visit(final ASTEQNode node, final Object data) {
+    return new Equals(operand(node.jjtGetChild(LEFT), data), operand(node.jjtGetChild(RIGHT), data));
+  }
+
+  /**
+   * Compile `a != b`
+   */
+  @Override
+  protected Object visit(final ASTNENode node, final Object data) {
+    return new NotEquals(new Equals(operand(node.jjtGetChild(LEFT), data), operand(node.jjtGetChild(RIGHT), data)));
+  }
+
+  /**
+   * Compile `a =~ "regex"`; the pattern is compiled once up-front.
+   */
+  @Override
+  protected Object visit(final ASTERNode node, final Object data) {
+    Operand subject = operand(node.jjtGetChild(LEFT), data);
+    Operand regex = operand(node.jjtGetChild(RIGHT), data);
+    if (!(regex instanceof Literal)) {
+      throw new JexlException(node, NOT_SUPPORTED_MESSAGE);
+    }
+    try {
+      return new Matches(subject, Pattern.compile(((Literal) regex).value));
+    }
+    catch (PatternSyntaxException e) {
+      throw new JexlException(node, e.getDescription());
+    }
+  }
+
+  /**
+   * Compile `a =^ "something"`
+   */
+  @Override
+  protected Object visit(final ASTSWNode node, final Object data) {
+    return new StartsWith(operand(node.jjtGetChild(LEFT), data), operand(node.jjtGetChild(RIGHT), data));
+  }
+
+  /**
+   * Compile `( expression )`
+   */
+  @Override
+  protected Object visit(final ASTReferenceExpression node, final Object data) {
+    if (node.jjtGetNumChildren() != 1) {
+      throw new JexlException(node, NOT_SUPPORTED_MESSAGE);
+    }
+    return node.jjtGetChild(0).jjtAccept(this, data);
+  }
+
+  @Override
+  protected Object visit(final ASTStringLiteral node, final Object data) {
+    return new Literal(node.getLiteral());
+  }
+
+  @Override
+  protected Object visit(final ASTIdentifier node, final Object data) {
+    return variable(node.getName(), data);
+  }
+
+  /**
+   * Compile dotted references such as `coordinate.groupId` into a single variable.
+   */
+  @Override
+  protected Object visit(final ASTReference node, final Object data) {
+    if (node.jjtGetNumChildren() == 2
+        && node.jjtGetChild(LEFT) instanceof ASTIdentifier
+        && node.jjtGetChild(RIGHT) instanceof ASTIdentifierAccess) {
+      String ref = ((ASTIdentifier) node.jjtGetChild(LEFT)).getName();
+      String subRef = ((ASTIdentifierAccess) node.jjtGetChild(RIGHT)).getName();
+      return variable(ref + '.' + subRef, data);
+    }
+    throw new JexlException(node, NOT_SUPPORTED_MESSAGE);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Variable variable(final String name, final Object data) {
+    ((Set<String>) data).add(name);
+    return new Variable(name);
+  }
+
+  private Condition condition(final JexlNode node, final Object data) {
+    Object result = node.jjtAccept(this, data);
+    if (result instanceof Condition) {
+      return (Condition) result;
+    }
+    throw new JexlException(node, NOT_SUPPORTED_MESSAGE);
+  }
+
+  private Operand operand(final JexlNode node, final Object data) {
+    Object result = node.jjtAccept(this, data);
+    if (result instanceof Operand) {
+      return (Operand) result;
+    }
+    throw new JexlException(node, NOT_SUPPORTED_MESSAGE);
+  }
+
+  /**
+   * Compiled CSEL expression along with the variables it references.
+   */
+  static final class Compiled
+  {
+    final Condition condition;
+
+    final Set<String> variables;
+
+    Compiled(final Condition condition, final Set<String> variables) {
+      this.condition = condition;
+      this.variables = Collections.unmodifiableSet(variables);
+    }
+
+    boolean test(final VariableLookup lookup) {
+      return condition.test(lookup);
+    }
+  }
+
+  /**
+   * Compiled boolean expression.
+   */
+  interface Condition
+  {
+    boolean test(VariableLookup lookup);
+  }
+
+  /**
+   * Compiled operand, either a string literal or a variable.
+   */
+  interface Operand
+  {
+    @Nullable
+    Object value(VariableLookup lookup);
+  }
+
+  static final class Literal
+      implements Operand
+  {
+    final String value;
+
+    Literal(final String value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object value(final VariableLookup lookup) {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return '"' + value + '"';
+    }
+  }
+
+  static final class Variable
+      implements Operand
+  {
+    final String name;
+
+    Variable(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Object value(final VariableLookup lookup) {
+      return lookup.get(name);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  static final class AnyOf
+      implements Condition
+  {
+    final List<Condition> terms;
+
+    AnyOf(final List<Condition> terms) {
+      this.terms = terms;
+    }
+
+    @Override
+    public boolean test(final VariableLookup lookup) {
+      for (Condition term : terms) {
+        if (term.test(lookup)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public String toString() {
+      return terms.stream().map(Object::toString).collect(joining(" || ", "(", ")"));
+    }
+  }
+
+  static final class AllOf
+      implements Condition
+  {
+    final List<Condition> terms;
+
+    AllOf(final List<Condition> terms) {
+      this.terms = terms;
+    }
+
+    @Override
+    public boolean test(final VariableLookup lookup) {
+      for (Condition term : terms) {
+        if (!term.test(lookup)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return terms.stream().map(Object::toString).collect(joining(" && ", "(", ")"));
+    }
+  }
+
+  static final class Equals
+      implements Condition
+  {
+    final Operand left;
+
+    final Operand right;
+
+    Equals(final Operand left, final Operand right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public boolean test(final VariableLookup lookup) {
+      Object lhs = left.value(lookup);
+      Object rhs = right.value(lookup);
+      if (lhs == null || rhs == null) {
+        return lhs == rhs;
+      }
+      return lhs.toString().equals(rhs.toString());
+    }
+
+    @Override
+    public String toString() {
+      return left + " == " + right;
+    }
+  }
+
+  static final class NotEquals
+      implements Condition
+  {
+    final Equals equals;
+
+    NotEquals(final Equals equals) {
+      this.equals = equals;
+    }
+
+    @Override
+    public boolean test(final VariableLookup lookup) {
+      return !equals.test(lookup);
+    }
+
+    @Override
+    public String toString() {
+      return equals.left + " != " + equals.right;
+    }
+  }
+
+  static final class StartsWith
+      implements Condition
+  {
+    final Operand left;
+
+    final Operand right;
+
+    StartsWith(final Operand left, final Operand right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public boolean test(final VariableLookup lookup) {
+      Object lhs = left.value(lookup);
+      Object rhs = right.value(lookup);
+      if (lhs == null || rhs == null) {
+        return lhs == rhs;
+      }
+      return lhs.toString().startsWith(rhs.toString());
+    }
+
+    @Override
+    public String toString() {
+      return left + " =^ " + right;
+    }
+  }
+
+  static final class Matches
+      implements Condition
+  {
+    final Operand subject;
+
+    final Pattern pattern;
+
+    Matches(final Operand subject, final Pattern pattern) {
+      this.subject = subject;
+      this.pattern = pattern;
+    }
+
+    @Override
+    public boolean test(final VariableLookup lookup) {
+      Object value = subject.value(lookup);
+      return value != null && pattern.matcher(value.toString()).matches();
+    }
+
+    @Override
+    public String toString() {
+      return subject + " =~ \"" + pattern.pattern() + '"';
+    }
+  }
+}
@@ -12,11 +12,22 @@
  */
 package org.sonatype.nexus.selector;
 
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.selector.CselCompiler.Compiled;
+
+import org.apache.commons.jexl3.JexlException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Subset of JEXL selectors that can also be represented as SQL.
  *
+ * CSEL expressions are compiled up-front into direct predicates, falling back to the JEXL interpreter for anything
+ * the {@link CselCompiler} does not handle.
+ *
  * @since 3.6
  */
 public class CselSelector
@@ -24,16 +35,50 @@ public class CselSelector
 {
   public static final String TYPE = "csel";
 
+  private static final Logger log = LoggerFactory.getLogger(CselSelector.class);
+
   private final CselToSql cselToSql;
 
+  @Nullable
+  private final Compiled compiled;
+
   public CselSelector(final CselToSql cselToSql, final JexlExpression expression) {
     super(expression);
     this.cselToSql = checkNotNull(cselToSql);
+    this.compiled = compile(expression);
+  }
 
+  @Override
+  public boolean evaluate(final VariableSource source) {
+    if (compiled != null) {
+      return compiled.test(new VariableLookup(source));
+    }
+    return super.evaluate(source);
   }
 
   @Override
   public void toSql(final SelectorSqlBuilder sqlBuilder) {
     cselToSql.transformCselToSql(expression.getSyntaxTree(), sqlBuilder);
   }
+
+  /**
+   * @return the compiled form of this selector; {@code null} if it is interpreted
+   *
+   * @since 3.31
+   */
+  @Nullable
+  Compiled getCompiled() {
+    return compiled;
+  }
+
+  @Nullable
+  private static Compiled compile(final JexlExpression expression) {
+    try {
+      return CselCompiler.compile(expression.getSyntaxTree());
+    }
+    catch (JexlException e) {
+      log.debug("Interpreting CSEL expression {}: {}", expression.getParsedText(), e.getMessage());
+      return null;
+    }
+  }
 }
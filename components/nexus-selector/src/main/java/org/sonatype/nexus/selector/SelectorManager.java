@@ -107,6 +107,26 @@ public interface SelectorManager
   boolean evaluate(SelectorConfiguration selectorConfiguration, VariableSource variableSource)
       throws SelectorEvaluationException;
 
+  /**
+   * Evaluate the specified content selectors against the given variable source, returning {@code true} if any match.
+   * Selectors that cannot be evaluated are treated as not matching.
+   *
+   * @since 3.31
+   */
+  default boolean evaluateAny(List<SelectorConfiguration> selectorConfigurations, VariableSource variableSource) {
+    for (SelectorConfiguration selectorConfiguration : selectorConfigurations) {
+      try {
+        if (evaluate(selectorConfiguration, variableSource)) {
+          return true;
+        }
+      }
+      catch (SelectorEvaluationException e) { // NOSONAR
+        // treat as not matching, continue with the remaining selectors
+      }
+    }
+    return false;
+  }
+
   /**
    * Convert the specified content selector to SQL for use as a 'where' clause.
    *
@@ -0,0 +1,70 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Memoizing view of a {@link VariableSource}, so each variable is resolved at most once per evaluation.
+ *
+ * Unknown variables are rejected the same way the JEXL interpreter rejects undefined variables.
+ *
+ * @since 3.31
+ */
+final class VariableLookup
+{
+  private static final Object NULL_VALUE = new Object();
+
+  private final VariableSource source;
+
+  private final Map<String, Object> values = new HashMap<>();
+
+  VariableLookup(final VariableSource source) {
+    this.source = checkNotNull(source);
+  }
+
+  VariableSource getSource() {
+    return source;
+  }
+
+  /**
+   * Returns {@code true} if all the given variables can be resolved by the underlying source.
+   */
+  boolean isDefined(final Set<String> names) {
+    return source.getVariableSet().containsAll(names);
+  }
+
+  /**
+   * Returns the value of the given variable, which may be {@code null}.
+   *
+   * @throws IllegalArgumentException if the variable is not defined
+   */
+  @Nullable
+  Object get(final String name) {
+    Object value = values.get(name);
+    if (value == null) {
+      if (!source.getVariableSet().contains(name)) {
+        throw new IllegalArgumentException("Undefined variable " + name);
+      }
+      value = source.get(name).orElse(NULL_VALUE);
+      values.put(name, value);
+    }
+    return value != NULL_VALUE ? value : null;
+  }
+}
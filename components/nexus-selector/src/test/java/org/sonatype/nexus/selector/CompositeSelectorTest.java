@@ -0,0 +1,146 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+public class CompositeSelectorTest
+    extends TestSupport
+{
+  private final JexlEngine engine = new JexlEngine();
+
+  @Mock
+  private CselToSql cselToSql;
+
+  private final VariableSource mavenSource = new VariableSourceBuilder()
+      .addResolver(new ConstantVariableResolver("maven2", "format"))
+      .addResolver(new ConstantVariableResolver("/org/apache/maven/foo/bar/moo.jar", "path"))
+      .addResolver(new PropertiesResolver<>("coordinate", of("groupId", "org.apache.maven", "artifactId", "foo")))
+      .build();
+
+  private final VariableSource npmSource = new VariableSourceBuilder()
+      .addResolver(new ConstantVariableResolver("npm", "format"))
+      .addResolver(new ConstantVariableResolver("/left-pad/-/left-pad-1.0.0.tgz", "path"))
+      .build();
+
+  @Test
+  public void testCompiledSelectorsMatchInterpretedSelectors() {
+    String[] expressions = {
+        "format == \"maven2\"",
+        "format != \"maven2\"",
+        "\"npm\" == format",
+        "path =^ \"/org/apache/\"",
+        "path =^ \"/com/\" || path =^ \"/org/\"",
+        "path =~ \".*\\\\.jar\"",
+        "path =~ \"moo\"",
+        "format == \"maven2\" && (path =^ \"/com/\" || coordinate.artifactId == \"foo\")",
+        "coordinate.groupId =^ \"org.apache\" and path =~ \"/org/apache/.*\""
+    };
+    for (String expression : expressions) {
+      CselSelector csel = csel(expression);
+      JexlSelector jexl = new JexlSelector(engine.buildExpression(expression, false));
+      assertThat(expression, csel.getCompiled(), notNullValue());
+      assertThat(expression, csel.evaluate(mavenSource), is(jexl.evaluate(mavenSource)));
+    }
+  }
+
+  @Test
+  public void testUnsupportedExpressionIsInterpreted() {
+    CselSelector csel = csel("path =$ \".jar\"");
+    assertThat(csel.getCompiled(), nullValue());
+    assertThat(csel.evaluate(mavenSource), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUndefinedVariableIsRejected() {
+    csel("coordinate.groupId == \"org.apache.maven\"").evaluate(npmSource);
+  }
+
+  @Test
+  public void testAnyOfMergesPrefixesAndValues() {
+    Selector selector = CompositeSelector.anyOf(Arrays.asList(
+        csel("path =^ \"/com/\""),
+        csel("path =^ \"/org/apache/\" || path =^ \"/org/\""),
+        csel("format == \"nuget\""),
+        csel("\"pypi\" == format")));
+
+    assertThat(selector.evaluate(mavenSource), is(true));
+    assertThat(selector.evaluate(npmSource), is(false));
+
+    assertThat(CompositeSelector.anyOf(Arrays.asList(csel("format == \"npm\""))).evaluate(npmSource), is(true));
+    assertThat(CompositeSelector.anyOf(Arrays.asList(csel("path =^ \"/left\""))).evaluate(npmSource), is(true));
+  }
+
+  @Test
+  public void testAnyOfSkipsMembersWithUndefinedVariables() {
+    Selector selector = CompositeSelector.anyOf(Arrays.asList(
+        csel("coordinate.groupId == \"left-pad\" || path =^ \"/left-pad/\""),
+        csel("format == \"maven2\"")));
+
+    // interpreting the first selector against npm content fails, so it must not match when combined either
+    assertThat(selector.evaluate(npmSource), is(false));
+    assertThat(selector.evaluate(mavenSource), is(true));
+  }
+
+  @Test
+  public void testAnyOfEvaluatesInterpretedMembers() {
+    Selector selector = CompositeSelector.anyOf(Arrays.asList(
+        csel("format == \"nuget\""),
+        new JexlSelector(engine.buildExpression("undefined == \"x\"", false)),
+        new JexlSelector(engine.buildExpression("path =$ \".tgz\"", false))));
+
+    assertThat(selector.evaluate(npmSource), is(true));
+    assertThat(selector.evaluate(mavenSource), is(false));
+  }
+
+  @Test
+  public void testAnyOfNothingMatchesNothing() {
+    assertThat(CompositeSelector.anyOf(Collections.<Selector>emptyList()).evaluate(mavenSource), is(false));
+  }
+
+  @Test
+  public void testToSqlJoinsMembers() {
+    doAnswer(invocation -> {
+      ((SelectorSqlBuilder) invocation.getArguments()[1]).appendProperty("format");
+      return null;
+    }).when(cselToSql).transformCselToSql(any(), any());
+    SelectorSqlBuilder sqlBuilder = new SelectorSqlBuilder();
+
+    CompositeSelector.anyOf(Arrays.asList(csel("format == \"npm\""), csel("path =$ \".jar\""))).toSql(sqlBuilder);
+
+    assertThat(sqlBuilder.getQueryString(), is("(format) or (format)"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testToSqlOfEmptySelectorIsUnsupported() {
+    CompositeSelector.anyOf(Collections.<Selector>emptyList()).toSql(new SelectorSqlBuilder());
+  }
+
+  private CselSelector csel(final String expression) {
+    return new CselSelector(cselToSql, engine.buildExpression(expression, false));
+  }
+}
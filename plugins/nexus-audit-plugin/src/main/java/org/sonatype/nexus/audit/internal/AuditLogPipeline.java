@@ -0,0 +1,245 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.audit.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.nexus.audit.AuditData;
+import org.sonatype.nexus.audit.AuditDataBatchRecordedEvent;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.STORAGE;
+import static org.sonatype.nexus.logging.task.TaskLoggingMarkers.AUDIT_LOG_ONLY;
+
+/**
+ * Asynchronous audit recording pipeline.
+ *
+ * Callers only capture the audit data and push it onto a bounded lock-free {@link AuditRingBuffer}. A single writer
+ * thread drains the buffer in batches, writes each entry to the {@code auditlog} logger, whose appender owns the audit
+ * log file and its rollover, and posts one {@link AuditDataBatchRecordedEvent} per batch.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+@ManagedLifecycle(phase = STORAGE)
+public class AuditLogPipeline
+    extends StateGuardLifecycleSupport
+{
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private static final ObjectWriter WRITER = new ObjectMapper().writer();
+
+  private final EventManager eventManager;
+
+  private final Logger auditLogger;
+
+  private final boolean enabled;
+
+  private final int batchSize;
+
+  private final AuditOverflowPolicy overflowPolicy;
+
+  private final AuditRingBuffer<Entry> buffer;
+
+  private final Counter recorded;
+
+  private final Counter dropped;
+
+  private final Timer batchWrite;
+
+  private volatile Thread writerThread;
+
+  private volatile boolean running;
+
+  private volatile boolean idle;
+
+  @Inject
+  public AuditLogPipeline(final EventManager eventManager,
+                          final MetricRegistry registry,
+                          @Named("${nexus.audit.async.enabled:-true}") final boolean enabled,
+                          @Named("${nexus.audit.async.capacity:-8192}") final int capacity,
+                          @Named("${nexus.audit.async.batchSize:-256}") final int batchSize,
+                          @Named("${nexus.audit.async.overflowPolicy:-BLOCK}") final String overflowPolicy)
+  {
+    this(eventManager, registry, LoggerFactory.getLogger("auditlog"), enabled, capacity, batchSize, overflowPolicy);
+  }
+
+  @VisibleForTesting
+  AuditLogPipeline(final EventManager eventManager,
+                   final MetricRegistry registry,
+                   final Logger auditLogger,
+                   final boolean enabled,
+                   final int capacity,
+                   final int batchSize,
+                   final String overflowPolicy)
+  {
+    checkArgument(batchSize > 0, "Batch size must be positive");
+    this.eventManager = checkNotNull(eventManager);
+    this.auditLogger = checkNotNull(auditLogger);
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+    this.overflowPolicy = AuditOverflowPolicy.valueOf(checkNotNull(overflowPolicy).trim().toUpperCase());
+    this.buffer = new AuditRingBuffer<>(capacity);
+
+    recorded = registry.counter(MetricRegistry.name(AuditLogPipeline.class, "recorded"));
+    dropped = registry.counter(MetricRegistry.name(AuditLogPipeline.class, "dropped"));
+    batchWrite = registry.timer(MetricRegistry.name(AuditLogPipeline.class, "batchWrite"));
+    registry.register(MetricRegistry.name(AuditLogPipeline.class, "queued"), (Gauge<Integer>) buffer::size);
+    registry.register(MetricRegistry.name(AuditLogPipeline.class, "capacity"), (Gauge<Integer>) buffer::capacity);
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    if (!enabled) {
+      log.info("Asynchronous audit recording disabled");
+      return;
+    }
+    running = true;
+    writerThread = new NexusThreadFactory("audit", "audit-writer").newThread(this::writeLoop);
+    writerThread.start();
+    log.info("Asynchronous audit recording, capacity: {}, batch size: {}, overflow policy: {}",
+        buffer.capacity(), batchSize, overflowPolicy);
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    Thread thread = writerThread;
+    running = false;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      thread.join(TimeUnit.SECONDS.toMillis(30));
+      writerThread = null;
+    }
+  }
+
+  /**
+   * Returns {@code true} if audit data should be handed to this pipeline.
+   */
+  public boolean isAsync() {
+    return running;
+  }
+
+  /**
+   * Queues the audit data for writing, applying the {@link AuditOverflowPolicy} if the queue is full.
+   *
+   * @return {@code false} if the data was discarded
+   */
+  public boolean record(final AuditData data) {
+    // capture the DTO on the calling thread so the recorded thread name is that of the caller
+    Entry entry = new Entry(data, new AuditDTO(data));
+    while (!buffer.offer(entry)) {
+      switch (overflowPolicy) {
+        case DROP_NEWEST:
+          dropped.inc();
+          return false;
+        case DROP_OLDEST:
+          if (buffer.poll() != null) {
+            dropped.inc();
+          }
+          break;
+        default:
+          if (!running) {
+            dropped.inc();
+            return false;
+          }
+          wakeWriter();
+          LockSupport.parkNanos(FULL_PARK_NANOS);
+      }
+    }
+    recorded.inc();
+    if (idle) {
+      wakeWriter();
+    }
+    return true;
+  }
+
+  private void wakeWriter() {
+    Thread thread = writerThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private void writeLoop() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running || !buffer.isEmpty()) {
+      if (buffer.drainTo(batch, batchSize) == 0) {
+        idle = true;
+        if (buffer.isEmpty() && running) {
+          LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        idle = false;
+        continue;
+      }
+      writeBatch(batch);
+      batch.clear();
+    }
+  }
+
+  @VisibleForTesting
+  void writeBatch(final List<Entry> batch) {
+    List<AuditData> recordedData = new ArrayList<>(batch.size());
+    try (Timer.Context context = batchWrite.time()) {
+      for (Entry entry : batch) {
+        try {
+          auditLogger.info(AUDIT_LOG_ONLY, WRITER.writeValueAsString(entry.dto));
+          recordedData.add(entry.data);
+        }
+        catch (Exception e) {
+          log.warn("Failed to record audit data", e);
+        }
+      }
+    }
+    if (!recordedData.isEmpty()) {
+      eventManager.post(new AuditDataBatchRecordedEvent(recordedData));
+    }
+  }
+
+  @VisibleForTesting
+  static class Entry
+  {
+    final AuditData data;
+
+    final AuditDTO dto;
+
+    Entry(final AuditData data, final AuditDTO dto) {
+      this.data = data;
+      this.dto = dto;
+    }
+  }
+}
@@ -35,6 +35,9 @@ import static org.sonatype.nexus.logging.task.TaskLoggingMarkers.AUDIT_LOG_ONLY;
 /**
  * Default {@link AuditRecorder} implementation.
  *
+ * Audit data is handed to the {@link AuditLogPipeline} when it is running, otherwise it is written to the
+ * {@code auditlog} logger on the calling thread.
+ *
  * @since 3.1
  */
 @Named
@@ -49,6 +52,8 @@ public class AuditRecorderImpl
 
   private final InitiatorProvider initiatorProvider;
 
+  private final AuditLogPipeline pipeline;
+
   private final Logger auditLogger = LoggerFactory.getLogger("auditlog");
 
   private volatile boolean enabled = false;
@@ -56,11 +61,13 @@ public class AuditRecorderImpl
   @Inject
   public AuditRecorderImpl(final EventManager eventManager,
                            final NodeAccess nodeAccess,
-                           final InitiatorProvider initiatorProvider)
+                           final InitiatorProvider initiatorProvider,
+                           final AuditLogPipeline pipeline)
   {
     this.eventManager = eventManager;
     this.nodeAccess = nodeAccess;
     this.initiatorProvider = initiatorProvider;
+    this.pipeline = checkNotNull(pipeline);
   }
 
   @Override
@@ -88,6 +95,11 @@ public class AuditRecorderImpl
         data.setInitiator(initiatorProvider.get());
       }
 
+      if (pipeline.isAsync()) {
+        pipeline.record(data);
+        return;
+      }
+
       try {
         auditLogger.info(AUDIT_LOG_ONLY, new AuditDTO(data).toString());
 
@@ -15,6 +15,8 @@ package org.sonatype.nexus.audit.internal
 import javax.inject.Named
 import javax.inject.Singleton
 
+import org.sonatype.nexus.audit.AuditData
+import org.sonatype.nexus.audit.AuditDataBatchRecordedEvent
 import org.sonatype.nexus.audit.AuditDataRecordedEvent
 import org.sonatype.nexus.webhooks.GlobalWebhook
 import org.sonatype.nexus.webhooks.Webhook
@@ -43,8 +45,21 @@ class GlobalAuditWebhook
   @Subscribe
   @AllowConcurrentEvents
   void on(final AuditDataRecordedEvent event) {
+    publish(event.data)
+  }
+
+  /**
+   * @since 3.31
+   */
+  @Subscribe
+  @AllowConcurrentEvents
+  void on(final AuditDataBatchRecordedEvent event) {
+    if (subscriptions) {
+      event.data.each { publish(it) }
+    }
+  }
 
-    def auditData = event.data
+  private void publish(final AuditData auditData) {
     def payload = new AuditWebhookPayload(
         initiator: auditData.initiator,
         nodeId: auditData.nodeId
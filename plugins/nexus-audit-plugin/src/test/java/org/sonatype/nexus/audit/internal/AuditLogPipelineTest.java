@@ -0,0 +1,99 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.audit.internal;
+
+import java.util.List;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.audit.AuditData;
+import org.sonatype.nexus.audit.AuditDataBatchRecordedEvent;
+import org.sonatype.nexus.common.event.EventManager;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.slf4j.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.sonatype.nexus.logging.task.TaskLoggingMarkers.AUDIT_LOG_ONLY;
+
+/**
+ * Tests for {@link AuditLogPipeline}
+ */
+public class AuditLogPipelineTest
+    extends TestSupport
+{
+  @Mock
+  private EventManager eventManager;
+
+  @Mock
+  private Logger auditLogger;
+
+  private AuditLogPipeline pipeline(final int capacity, final String overflowPolicy) {
+    return new AuditLogPipeline(eventManager, new MetricRegistry(), auditLogger, true, capacity, 16, overflowPolicy);
+  }
+
+  private static AuditData auditData(final int index) {
+    AuditData data = new AuditData();
+    data.setDomain("domain");
+    data.setType("type");
+    data.setContext("context-" + index);
+    return data;
+  }
+
+  @Test
+  public void recordsAreWrittenAndEventsCoalesced() throws Exception {
+    AuditLogPipeline underTest = pipeline(1024, "BLOCK");
+    underTest.start();
+    assertThat(underTest.isAsync(), is(true));
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(underTest.record(auditData(i)), is(true));
+    }
+    underTest.stop();
+    assertThat(underTest.isAsync(), is(false));
+
+    ArgumentCaptor<String> lines = ArgumentCaptor.forClass(String.class);
+    verify(auditLogger, times(100)).info(eq(AUDIT_LOG_ONLY), lines.capture());
+    assertThat(lines.getAllValues().get(0), startsWith("{\"domain\":\"domain\""));
+
+    ArgumentCaptor<AuditDataBatchRecordedEvent> events = ArgumentCaptor.forClass(AuditDataBatchRecordedEvent.class);
+    verify(eventManager, atLeastOnce()).post(events.capture());
+    assertThat(events.getAllValues().stream().mapToInt(event -> event.getData().size()).sum(), is(100));
+  }
+
+  @Test
+  public void dropNewestWhenNotRunning() {
+    AuditLogPipeline underTest = pipeline(2, "DROP_NEWEST");
+
+    assertThat(underTest.record(auditData(1)), is(true));
+    assertThat(underTest.record(auditData(2)), is(true));
+    assertThat(underTest.record(auditData(3)), is(false));
+  }
+
+  @Test
+  public void dropOldestWhenNotRunning() {
+    AuditLogPipeline underTest = pipeline(2, "DROP_OLDEST");
+
+    assertThat(underTest.record(auditData(1)), is(true));
+    assertThat(underTest.record(auditData(2)), is(true));
+    assertThat(underTest.record(auditData(3)), is(true));
+  }
+}
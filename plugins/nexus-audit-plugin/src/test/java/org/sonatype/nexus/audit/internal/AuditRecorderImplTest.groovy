@@ -44,6 +44,9 @@ class AuditRecorderImplTest
   @Mock
   InitiatorProvider initiatorProvider
 
+  @Mock
+  AuditLogPipeline pipeline
+
   AuditRecorderImpl underTest
 
   private static final String initiator = 'test/1.2.3.4'
@@ -55,7 +58,7 @@ class AuditRecorderImplTest
     when(initiatorProvider.get()).thenReturn(initiator)
     when(nodeAccess.getId()).thenReturn(nodeId)
 
-    underTest = new AuditRecorderImpl(eventManager, nodeAccess, initiatorProvider)
+    underTest = new AuditRecorderImpl(eventManager, nodeAccess, initiatorProvider, pipeline)
     underTest.enabled = true
   }
 
@@ -74,6 +77,7 @@ class AuditRecorderImplTest
     underTest.record(data)
 
     verifyZeroInteractions(eventManager)
+    verifyZeroInteractions(pipeline)
   }
 
   @Test
@@ -103,4 +107,18 @@ class AuditRecorderImplTest
     Object captured = argument.value
     assert captured instanceof AuditDataRecordedEvent
   }
+
+  @Test
+  void 'data handed to pipeline when asynchronous'() {
+    when(pipeline.isAsync()).thenReturn(true)
+
+    AuditData data = makeAuditData()
+    underTest.record(data)
+
+    verify(pipeline).record(data)
+    verifyZeroInteractions(eventManager)
+    assert data.timestamp != null
+    assert data.nodeId == nodeId
+    assert data.initiator == initiator
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.audit.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests for {@link AuditRingBuffer}
+ */
+public class AuditRingBufferTest
+    extends TestSupport
+{
+  @Test
+  public void capacityIsRoundedToPowerOfTwo() {
+    assertThat(new AuditRingBuffer<>(5).capacity(), is(8));
+    assertThat(new AuditRingBuffer<>(8).capacity(), is(8));
+  }
+
+  @Test
+  public void offerAndPollInOrder() {
+    AuditRingBuffer<String> underTest = new AuditRingBuffer<>(4);
+    for (int round = 0; round < 3; round++) {
+      assertThat(underTest.offer("a"), is(true));
+      assertThat(underTest.offer("b"), is(true));
+      assertThat(underTest.offer("c"), is(true));
+      assertThat(underTest.offer("d"), is(true));
+      assertThat(underTest.offer("e"), is(false));
+      assertThat(underTest.size(), is(4));
+
+      List<String> drained = new ArrayList<>();
+      assertThat(underTest.drainTo(drained, 3), is(3));
+      assertThat(drained, contains("a", "b", "c"));
+      assertThat(underTest.poll(), is("d"));
+      assertThat(underTest.poll(), nullValue());
+    }
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    int producers = 4;
+    int perProducer = 10_000;
+    AuditRingBuffer<Integer> underTest = new AuditRingBuffer<>(64);
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    CountDownLatch done = new CountDownLatch(producers);
+    try {
+      for (int p = 0; p < producers; p++) {
+        executor.execute(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            while (!underTest.offer(i)) {
+              Thread.yield();
+            }
+          }
+          done.countDown();
+        });
+      }
+
+      long sum = 0;
+      int count = 0;
+      while (count < producers * perProducer) {
+        Integer value = underTest.poll();
+        if (value != null) {
+          sum += value;
+          count++;
+        }
+      }
+
+      assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+      assertThat(sum, is((long) producers * perProducer * (perProducer - 1) / 2));
+      assertThat(underTest.isEmpty(), is(true));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+}
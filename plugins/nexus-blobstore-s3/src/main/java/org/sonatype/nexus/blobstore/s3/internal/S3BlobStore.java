@@ -12,13 +12,19 @@
  */
 package org.sonatype.nexus.blobstore.s3.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Stream;
 
@@ -29,7 +35,10 @@ import javax.inject.Named;
 import org.sonatype.nexus.blobstore.BlobIdLocationResolver;
 import org.sonatype.nexus.blobstore.BlobStoreSupport;
 import org.sonatype.nexus.blobstore.BlobSupport;
+import org.sonatype.nexus.blobstore.CompactionStep;
+import org.sonatype.nexus.blobstore.IncrementalCompaction;
 import org.sonatype.nexus.blobstore.MetricsInputStream;
+import org.sonatype.nexus.blobstore.PartitionedBlobStore;
 import org.sonatype.nexus.blobstore.StreamMetrics;
 import org.sonatype.nexus.blobstore.api.Blob;
 import org.sonatype.nexus.blobstore.api.BlobAttributes;
@@ -39,8 +48,10 @@ import org.sonatype.nexus.blobstore.api.BlobStore;
 import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
 import org.sonatype.nexus.blobstore.api.BlobStoreException;
 import org.sonatype.nexus.blobstore.api.BlobStoreMetrics;
+import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
 import org.sonatype.nexus.blobstore.api.RawObjectAccess;
 import org.sonatype.nexus.common.log.DryRunPrefix;
+import org.sonatype.nexus.common.property.SystemPropertiesHelper;
 import org.sonatype.nexus.common.stateguard.Guarded;
 import org.sonatype.nexus.thread.NexusThreadFactory;
 
@@ -49,6 +60,9 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.iterable.S3Objects;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectTagging;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
@@ -91,6 +105,7 @@ import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.St
 @Named(S3BlobStore.TYPE)
 public class S3BlobStore
     extends BlobStoreSupport<S3AttributesLocation>
+    implements IncrementalCompaction, PartitionedBlobStore
 {
   public static final String TYPE = "S3";
 
@@ -137,12 +152,19 @@ public class S3BlobStore
 
   private static final String CONTENT_PREFIX = "content";
 
+  private static final String VOLUME_PREFIX = "vol-";
+
+  private static final String CONTENT_TMP_DIR = "tmp";
+
   public static final String DIRECT_PATH_PREFIX = CONTENT_PREFIX + "/" + DIRECT_PATH_ROOT;
 
   public static final Tag DELETED_TAG = new Tag("deleted", "true");
 
   private static final String FILE_V1 = "file/1";
 
+  private static final int TRACKED_SOFT_DELETES =
+      SystemPropertiesHelper.getInteger("nexus.s3.compaction.trackedSoftDeletes", 100_000);
+
   private final AmazonS3Factory amazonS3Factory;
 
   private final BucketManager bucketManager;
@@ -175,6 +197,9 @@ public class S3BlobStore
 
   private RawObjectAccess rawObjectAccess;
 
+  // blobs soft deleted since startup, in deletion order; the bucket lifecycle rule expires any not tracked here
+  private final BlockingQueue<BlobId> softDeletedBlobs = new LinkedBlockingQueue<>(TRACKED_SOFT_DELETES);
+
   @Inject
   public S3BlobStore(
       final AmazonS3Factory amazonS3Factory,
@@ -466,6 +491,9 @@ public class S3BlobStore
       // tag the attributes
       s3.setObjectTagging(tagAsDeleted(attributePath(blobId)));
       blob.markStale();
+      if (!softDeletedBlobs.offer(blobId)) {
+        log.debug("Not tracking soft deleted blob {} for compaction, the bucket lifecycle will expire it", blobId);
+      }
 
       Long contentSize = getContentSizeForDeletion(blobAttributes);
       if (contentSize != null) {
@@ -537,6 +565,58 @@ public class S3BlobStore
     }
   }
 
+  @Override
+  public long getCompactionBacklog() {
+    return softDeletedBlobs.size();
+  }
+
+  /**
+   * Hard deletes the oldest blob soft deleted since startup once its grace period has passed, rather than waiting
+   * for the bucket lifecycle rule to expire it.
+   */
+  @Nullable
+  @Override
+  @Guarded(by = STARTED)
+  public CompactionStep compactNext(@Nullable final BlobStoreUsageChecker inUseChecker, final Duration gracePeriod) {
+    BlobId blobId = softDeletedBlobs.peek();
+    if (blobId == null) {
+      return null;
+    }
+    S3BlobAttributes blobAttributes = new S3BlobAttributes(s3, getConfiguredBucket(), attributePath(blobId));
+    try {
+      if (!blobAttributes.load() || !blobAttributes.isDeleted()) {
+        // hard deleted or undeleted since it was queued
+        softDeletedBlobs.remove(blobId);
+        return CompactionStep.skipped(blobId);
+      }
+    }
+    catch (IOException e) {
+      throw new BlobStoreException(e, blobId);
+    }
+    if (!IncrementalCompaction.isPastGracePeriod(blobAttributes, gracePeriod)) {
+      return null;
+    }
+    softDeletedBlobs.remove(blobId);
+    if (undelete(inUseChecker, blobId, blobAttributes, false)) {
+      return CompactionStep.skipped(blobId);
+    }
+
+    final S3Blob blob = liveBlobs.getUnchecked(blobId);
+    Lock lock = blob.lock();
+    try (final Timer.Context performHardDeleteContext = hardDeleteTimer.time()) {
+      log.debug("Compacting soft deleted blob {}", blobId);
+      // the deletion was already recorded in the metrics when the blob was soft deleted
+      if (batchDelete(contentPath(blobId), attributePath(blobId))) {
+        return CompactionStep.reclaimed(blobId, blobAttributes.getMetrics().getContentSize());
+      }
+      return CompactionStep.skipped(blobId);
+    }
+    finally {
+      lock.unlock();
+      liveBlobs.invalidate(blobId);
+    }
+  }
+
   @Nullable
   @Timed
   private Long getContentSizeForDeletion(final S3BlobAttributes blobAttributes) {
@@ -650,6 +730,18 @@ public class S3BlobStore
       S3Object object = s3.getObject(getConfiguredBucket(), contentPath(getId()));
       return performanceLogger.maybeWrapForPerformanceLogging(object.getObjectContent());
     }
+
+    @Override
+    protected InputStream doGetInputStream(final long offset, final long length) {
+      if (length == 0) {
+        return new ByteArrayInputStream(new byte[0]);
+      }
+      // ranged GET so only the requested bytes are transferred from the bucket
+      GetObjectRequest request = new GetObjectRequest(getConfiguredBucket(), contentPath(getId()))
+          .withRange(offset, offset + length - 1);
+      S3Object object = s3.getObject(request);
+      return performanceLogger.maybeWrapForPerformanceLogging(object.getObjectContent());
+    }
   }
 
   private interface BlobIngester
@@ -675,6 +767,55 @@ public class S3BlobStore
         .map(this::attributePathToDirectPathBlobId);
   }
 
+  /**
+   * Partitions are the chapter prefixes of each volume, plus any other top-level content prefix as a whole.
+   */
+  @Override
+  @Timed
+  public List<String> getBlobIdPartitions() {
+    String contentPrefix = getContentPrefix();
+    List<String> partitions = new ArrayList<>();
+    for (String prefix : listCommonPrefixes(contentPrefix)) {
+      String name = prefix.substring(contentPrefix.length(), prefix.length() - 1);
+      if (CONTENT_TMP_DIR.equals(name)) {
+        continue;
+      }
+      if (name.startsWith(VOLUME_PREFIX)) {
+        for (String chapter : listCommonPrefixes(prefix)) {
+          partitions.add(chapter.substring(contentPrefix.length(), chapter.length() - 1));
+        }
+      }
+      else {
+        partitions.add(name);
+      }
+    }
+    return partitions;
+  }
+
+  @Override
+  @Timed
+  public Stream<BlobId> getBlobIdStream(final String partition) {
+    checkArgument(!partition.contains(".."), "path traversal not allowed");
+    Iterable<S3ObjectSummary> summaries =
+        S3Objects.withPrefix(s3, getConfiguredBucket(), getContentPrefix() + partition + "/");
+    return blobIdStream(summaries);
+  }
+
+  private List<String> listCommonPrefixes(final String prefix) {
+    ObjectListing listing = s3.listObjects(
+        new ListObjectsRequest().withBucketName(getConfiguredBucket())
+            .withPrefix(prefix)
+            .withDelimiter("/"));
+
+    List<String> prefixes = new ArrayList<>(listing.getCommonPrefixes());
+    while (listing.isTruncated()) {
+      listing = s3.listNextBatchOfObjects(listing);
+      prefixes.addAll(listing.getCommonPrefixes());
+    }
+    prefixes.sort(null);
+    return prefixes;
+  }
+
   private Stream<BlobId> blobIdStream(Iterable<S3ObjectSummary> summaries) {
     return stream(summaries.spliterator(), false)
         .filter(o -> o.getKey().endsWith(BLOB_FILE_ATTRIBUTES_SUFFIX))
@@ -0,0 +1,238 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.compact.internal;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.lifecycle.LifecycleSupport;
+import org.sonatype.nexus.blobstore.CompactionStep;
+import org.sonatype.nexus.blobstore.IncrementalCompaction;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.RateLimiter;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.TASKS;
+
+/**
+ * Continuously reclaims the space of soft-deleted blobs in the background, so blob stores no longer depend on the
+ * "Compact blob store" task running off-hours. Blobs are only removed once their grace period has passed, the work
+ * is rate-limited by operations and bytes per second, and it pauses while request latency or disk queue depth
+ * show the node is busy serving traffic.
+ *
+ * Only blob stores implementing {@link IncrementalCompaction} are compacted; the scheduled task remains available
+ * for all blob stores.
+ *
+ * @since 3.31
+ */
+@Named
+@ManagedLifecycle(phase = TASKS)
+@Singleton
+public class BlobStoreCompactionDaemon
+    extends LifecycleSupport
+{
+  private static final String METRIC_PREFIX = name(BlobStoreCompactionDaemon.class);
+
+  private final BlobStoreManager blobStoreManager;
+
+  private final BlobStoreUsageChecker blobStoreUsageChecker;
+
+  private final MetricRegistry metricRegistry;
+
+  private final boolean enabled;
+
+  private final Duration gracePeriod;
+
+  private final Time interval;
+
+  private final RateLimiter opsLimiter;
+
+  private final RateLimiter bytesLimiter;
+
+  private final CompactionPressure pressure;
+
+  private final Meter reclaimedBlobs;
+
+  private final Meter reclaimedBytes;
+
+  private volatile long backlog;
+
+  @Nullable
+  private volatile String pausedReason;
+
+  private ScheduledExecutorService executor;
+
+  @Inject
+  public BlobStoreCompactionDaemon(
+      final BlobStoreManager blobStoreManager,
+      final BlobStoreUsageChecker blobStoreUsageChecker,
+      final MetricRegistry metricRegistry,
+      @Named("${nexus.blobstore.compaction.continuous.enabled:-false}") final boolean enabled,
+      @Named("${nexus.blobstore.compaction.continuous.gracePeriod:-1h}") final Time gracePeriod,
+      @Named("${nexus.blobstore.compaction.continuous.interval:-30s}") final Time interval,
+      @Named("${nexus.blobstore.compaction.continuous.opsPerSecond:-100}") final double opsPerSecond,
+      @Named("${nexus.blobstore.compaction.continuous.bytesPerSecond:-104857600}") final double bytesPerSecond,
+      @Named("${nexus.blobstore.compaction.continuous.maxRequestLatency:-2s}") final Time maxRequestLatency,
+      @Named("${nexus.blobstore.compaction.continuous.maxDiskQueueDepth:-64}") final int maxDiskQueueDepth,
+      @Named("${nexus.blobstore.compaction.continuous.latencyTimer:-org.eclipse.jetty.webapp.WebAppContext.requests}")
+      final String latencyTimer)
+  {
+    checkArgument(opsPerSecond > 0, "opsPerSecond must be positive");
+    checkArgument(bytesPerSecond > 0, "bytesPerSecond must be positive");
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+    this.blobStoreUsageChecker = checkNotNull(blobStoreUsageChecker);
+    this.metricRegistry = checkNotNull(metricRegistry);
+    this.enabled = enabled;
+    this.gracePeriod = Duration.ofMillis(gracePeriod.toMillis());
+    this.interval = checkNotNull(interval);
+    this.opsLimiter = RateLimiter.create(opsPerSecond);
+    this.bytesLimiter = RateLimiter.create(bytesPerSecond);
+    this.pressure = new CompactionPressure(metricRegistry, latencyTimer, maxRequestLatency, maxDiskQueueDepth);
+    this.reclaimedBlobs = metricRegistry.meter(name(METRIC_PREFIX, "reclaimedBlobs"));
+    this.reclaimedBytes = metricRegistry.meter(name(METRIC_PREFIX, "reclaimedBytes"));
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    if (!enabled) {
+      log.debug("Continuous blob store compaction is disabled");
+      return;
+    }
+
+    registerGauge("backlog", () -> backlog);
+    registerGauge("paused", () -> pausedReason != null ? 1 : 0);
+
+    executor = Executors.newSingleThreadScheduledExecutor(new NexusThreadFactory("blobstore-compaction", "blobstore"));
+    executor.scheduleWithFixedDelay(this::compactAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+
+    log.info("Continuous blob store compaction enabled; grace period {}, every {}", gracePeriod, interval);
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdownNow();
+    if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+      log.warn("Failed to terminate blob store compaction in allotted time");
+    }
+    executor = null;
+
+    metricRegistry.remove(name(METRIC_PREFIX, "backlog"));
+    metricRegistry.remove(name(METRIC_PREFIX, "paused"));
+  }
+
+  /**
+   * Runs one compaction pass over every blob store that supports incremental compaction.
+   */
+  @VisibleForTesting
+  void compactAll() {
+    long remaining = 0;
+    pausedReason = null;
+    for (BlobStore blobStore : blobStoreManager.browse()) {
+      if (!(blobStore instanceof IncrementalCompaction) || !blobStore.isStarted()) {
+        continue;
+      }
+      String blobStoreName = blobStore.getBlobStoreConfiguration().getName();
+      try {
+        remaining += compact(blobStoreName, (IncrementalCompaction) blobStore);
+      }
+      catch (Exception e) {
+        log.warn("Continuous compaction of blob store {} failed", blobStoreName, e);
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+    }
+    backlog = remaining;
+  }
+
+  /**
+   * Reclaims at most the current backlog of the given blob store, so blobs whose grace period is still running
+   * are not revisited within the same pass.
+   *
+   * @return the backlog left behind
+   */
+  private long compact(final String blobStoreName, final IncrementalCompaction compaction) {
+    long budget = compaction.getCompactionBacklog();
+    long blobs = 0;
+    long bytes = 0;
+
+    for (long i = 0; i < budget && !Thread.currentThread().isInterrupted(); i++) {
+      String reason = pressure.reasonToPause(compaction.getLocalStoragePath().orElse(null));
+      if (reason != null) {
+        log.debug("Pausing continuous compaction of blob store {}: {}", blobStoreName, reason);
+        pausedReason = reason;
+        break;
+      }
+
+      opsLimiter.acquire();
+      CompactionStep step = compaction.compactNext(blobStoreUsageChecker, gracePeriod);
+      if (step == null) {
+        break;
+      }
+      if (step.isReclaimed()) {
+        blobs++;
+        bytes += step.getReclaimedBytes();
+        reclaimedBlobs.mark();
+        reclaimedBytes.mark(step.getReclaimedBytes());
+        if (step.getReclaimedBytes() > 0) {
+          bytesLimiter.acquire(Ints.saturatedCast(step.getReclaimedBytes()));
+        }
+      }
+    }
+
+    if (blobs > 0) {
+      log.info("Reclaimed {} blobs ({} bytes) from blob store {}", blobs, bytes, blobStoreName);
+    }
+    return compaction.getCompactionBacklog();
+  }
+
+  @VisibleForTesting
+  long getBacklog() {
+    return backlog;
+  }
+
+  @Nullable
+  @VisibleForTesting
+  String getPausedReason() {
+    return pausedReason;
+  }
+
+  private void registerGauge(final String metric, final Gauge<?> gauge) {
+    String metricName = name(METRIC_PREFIX, metric);
+    metricRegistry.remove(metricName);
+    metricRegistry.register(metricName, gauge);
+  }
+}
@@ -12,6 +12,8 @@
  */
 package org.sonatype.nexus.blobstore.compact.internal;
 
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -19,10 +21,15 @@ import org.sonatype.nexus.blobstore.api.BlobStore;
 import org.sonatype.nexus.blobstore.api.BlobStoreManager;
 import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
 import org.sonatype.nexus.scheduling.Cancelable;
+import org.sonatype.nexus.scheduling.TaskResource;
+import org.sonatype.nexus.scheduling.TaskResourceAware;
 import org.sonatype.nexus.scheduling.TaskSupport;
 
+import com.google.common.collect.ImmutableSet;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sonatype.nexus.blobstore.compact.internal.CompactBlobStoreTaskDescriptor.BLOB_STORE_NAME_FIELD_ID;
+import static org.sonatype.nexus.scheduling.TaskResourceClass.BLOBSTORE_IO;
 
 /**
  * Task to compact a given blob store.
@@ -32,7 +39,7 @@ import static org.sonatype.nexus.blobstore.compact.internal.CompactBlobStoreTask
 @Named
 public class CompactBlobStoreTask
     extends TaskSupport
-    implements Cancelable
+    implements Cancelable, TaskResourceAware
 {
   private final BlobStoreManager blobStoreManager;
 
@@ -58,6 +65,11 @@ public class CompactBlobStoreTask
     return null;
   }
 
+  @Override
+  public Set<TaskResource> getResources() {
+    return ImmutableSet.of(TaskResource.of(BLOBSTORE_IO, getBlobStoreField()));
+  }
+
   @Override
   public String getMessage() {
     return "Compacting " + getBlobStoreField() + " blob store";
@@ -0,0 +1,135 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.compact.internal;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.goodies.common.Time;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Decides when background compaction should back off: while requests are slow, or while the disk holding
+ * a blob store has many I/O requests in flight.
+ *
+ * @since 3.31
+ */
+class CompactionPressure
+    extends ComponentSupport
+{
+  private static final Path SYS_CLASS_BLOCK = Paths.get("/sys/class/block");
+
+  // index of the "in_flight" column of /sys/class/block/<device>/stat
+  private static final int IN_FLIGHT_FIELD = 8;
+
+  // latency is only judged while requests are flowing, otherwise a past spike would pause compaction for good
+  private static final double MIN_REQUEST_RATE = 0.1;
+
+  private final MetricRegistry metricRegistry;
+
+  private final String latencyTimerName;
+
+  private final double maxLatencyNanos;
+
+  private final int maxDiskQueueDepth;
+
+  private final Map<Path, Optional<Path>> deviceStatFiles = new ConcurrentHashMap<>();
+
+  CompactionPressure(final MetricRegistry metricRegistry,
+                     final String latencyTimerName,
+                     final Time maxLatency,
+                     final int maxDiskQueueDepth)
+  {
+    this.metricRegistry = checkNotNull(metricRegistry);
+    this.latencyTimerName = checkNotNull(latencyTimerName);
+    this.maxLatencyNanos = MILLISECONDS.toNanos(maxLatency.toMillis());
+    this.maxDiskQueueDepth = maxDiskQueueDepth;
+  }
+
+  /**
+   * @param storagePath local directory of the blob store being compacted, if any
+   * @return why compaction should pause right now, or {@code null} if it may proceed
+   */
+  @Nullable
+  String reasonToPause(@Nullable final Path storagePath) {
+    Timer timer = metricRegistry.getTimers().get(latencyTimerName);
+    if (timer != null && timer.getOneMinuteRate() >= MIN_REQUEST_RATE) {
+      double latency = timer.getSnapshot().get95thPercentile();
+      if (latency > maxLatencyNanos) {
+        return String.format("95th percentile request latency is %.0fms", latency / 1_000_000);
+      }
+    }
+
+    if (storagePath != null && maxDiskQueueDepth > 0) {
+      Optional<Path> statFile = deviceStatFiles.computeIfAbsent(storagePath, this::findDeviceStatFile);
+      if (statFile.isPresent()) {
+        long inFlight = readInFlight(statFile.get());
+        if (inFlight > maxDiskQueueDepth) {
+          return inFlight + " disk requests in flight";
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Maps a directory to the block device statistics of the file system holding it, when running on Linux.
+   */
+  private Optional<Path> findDeviceStatFile(final Path storagePath) {
+    try {
+      FileStore fileStore = Files.getFileStore(storagePath);
+      Path device = Paths.get(fileStore.name());
+      if (device.isAbsolute() && Files.exists(device)) {
+        // resolves links such as /dev/mapper/vg-data -> /dev/dm-0
+        device = device.toRealPath();
+      }
+      Path statFile = SYS_CLASS_BLOCK.resolve(device.getFileName().toString()).resolve("stat");
+      if (Files.isReadable(statFile)) {
+        log.debug("Watching disk queue depth of {} through {}", storagePath, statFile);
+        return Optional.of(statFile);
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      log.debug("Unable to find block device of {}", storagePath, e);
+    }
+    log.debug("Disk queue depth of {} is not available", storagePath);
+    return Optional.empty();
+  }
+
+  @VisibleForTesting
+  static long readInFlight(final Path statFile) {
+    try {
+      String[] fields = new String(Files.readAllBytes(statFile), US_ASCII).trim().split("\\s+");
+      return fields.length > IN_FLIGHT_FIELD ? Long.parseLong(fields[IN_FLIGHT_FIELD]) : 0L;
+    }
+    catch (IOException | NumberFormatException e) {
+      return 0L;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.integrity.internal;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.nexus.formfields.CheckboxFormField;
+import org.sonatype.nexus.formfields.ComboboxFormField;
+import org.sonatype.nexus.scheduling.TaskDescriptorSupport;
+
+import static org.sonatype.nexus.formfields.FormField.MANDATORY;
+import static org.sonatype.nexus.formfields.FormField.OPTIONAL;
+
+/**
+ * Task descriptor for {@link BlobStoreIntegrityScanTask}.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+public class BlobStoreIntegrityScanTaskDescriptor
+    extends TaskDescriptorSupport
+{
+  public static final String TYPE_ID = "blobstore.integrityScan";
+
+  public static final String BLOB_STORE_NAME_FIELD_ID = "blobstoreName";
+
+  public static final String RESTART_FIELD_ID = "restart";
+
+  @Inject
+  public BlobStoreIntegrityScanTaskDescriptor() {
+    super(TYPE_ID,
+        BlobStoreIntegrityScanTask.class,
+        "Admin - Verify blob store integrity",
+        VISIBLE,
+        EXPOSED,
+        new ComboboxFormField<String>(
+            BLOB_STORE_NAME_FIELD_ID,
+            "Blob store",
+            "Select the blob store to verify",
+            MANDATORY
+        ).withStoreApi("coreui_Blobstore.read").withIdMapping("name"),
+        new CheckboxFormField(
+            RESTART_FIELD_ID,
+            "Restart scan",
+            "Discard the checkpoints of an unfinished scan and verify the whole blob store again",
+            OPTIONAL
+        ).withInitialValue(false)
+    );
+  }
+}
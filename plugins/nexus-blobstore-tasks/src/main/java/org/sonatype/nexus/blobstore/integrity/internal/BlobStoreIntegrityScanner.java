@@ -0,0 +1,376 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.integrity.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.blobstore.PartitionedBlobStore;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobAttributes;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobMetrics;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+import org.sonatype.nexus.logging.task.ProgressLogIntervalHelper;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
+import org.slf4j.MDC;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.sonatype.nexus.blobstore.api.BlobStore.REPO_NAME_HEADER;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA1;
+
+/**
+ * Verifies the content of a blob store: every live blob is read back and its SHA1 recomputed, then compared with the
+ * SHA1 and size in its attributes and, a batch at a time, with the SHA1 the asset database recorded for it.
+ *
+ * Blob stores implementing {@link PartitionedBlobStore} are verified one partition per thread, and each finished
+ * partition is checkpointed so a cancelled or failed scan resumes where it left off. Other blob stores are verified
+ * as a single partition.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+public class BlobStoreIntegrityScanner
+    extends ComponentSupport
+{
+  static final String ALL_BLOBS = "*";
+
+  private static final String WORK_DIRECTORY = "blobs-integrity";
+
+  private final ApplicationDirectories applicationDirectories;
+
+  private final MetricRegistry metricRegistry;
+
+  private final List<AssetBlobChecksums> assetBlobChecksums;
+
+  private final int threads;
+
+  private final int batchSize;
+
+  @Inject
+  public BlobStoreIntegrityScanner(
+      final ApplicationDirectories applicationDirectories,
+      final MetricRegistry metricRegistry,
+      final List<AssetBlobChecksums> assetBlobChecksums,
+      @Named("${nexus.blobstore.integrityScan.threads:-4}") final int threads,
+      @Named("${nexus.blobstore.integrityScan.batchSize:-500}") final int batchSize)
+  {
+    checkArgument(threads > 0, "threads must be positive");
+    checkArgument(batchSize > 0, "batchSize must be positive");
+    this.applicationDirectories = checkNotNull(applicationDirectories);
+    this.metricRegistry = checkNotNull(metricRegistry);
+    this.assetBlobChecksums = checkNotNull(assetBlobChecksums);
+    this.threads = threads;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Verifies all partitions of the blob store which an earlier, unfinished scan has not verified yet.
+   *
+   * @param restart     discard the checkpoints of an unfinished scan and verify every partition
+   * @param isCancelled checked between blobs, ends the scan early without checkpointing unfinished partitions
+   */
+  public IntegrityScanProgress scan(
+      final BlobStore blobStore,
+      final boolean restart,
+      final BooleanSupplier isCancelled) throws IOException, InterruptedException
+  {
+    String blobStoreName = blobStore.getBlobStoreConfiguration().getName();
+    List<String> partitions = blobStore instanceof PartitionedBlobStore
+        ? ((PartitionedBlobStore) blobStore).getBlobIdPartitions()
+        : singletonList(ALL_BLOBS);
+
+    IntegrityScanCheckpoints checkpoints = new IntegrityScanCheckpoints(
+        new File(applicationDirectories.getWorkDirectory(WORK_DIRECTORY), blobStoreName + ".properties"));
+    checkpoints.load(restart);
+
+    IntegrityScanProgress progress = new IntegrityScanProgress(partitions.size());
+    List<String> pending = new ArrayList<>();
+    for (String partition : partitions) {
+      long[] counts = checkpoints.getCounts(partition);
+      if (counts != null) {
+        progress.add(counts[0], counts[1], counts[2]);
+        progress.partitionCompleted();
+      }
+      else {
+        pending.add(partition);
+      }
+    }
+
+    log.info("Verifying {} of {} partitions of blob store '{}' with {} threads", pending.size(), partitions.size(),
+        blobStoreName, threads);
+
+    ScanMetrics metrics = new ScanMetrics(blobStoreName);
+    long resumedBytes = progress.getBytes();
+    Map<String, String> taskContext = MDC.getCopyOfContextMap();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(pending.size(), 1)),
+        new NexusThreadFactory("integrity-scan", blobStoreName));
+
+    try (ProgressLogIntervalHelper progressLogger = new ProgressLogIntervalHelper(log, 60)) {
+      CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+      for (String partition : pending) {
+        completionService.submit(() -> {
+          withContext(taskContext,
+              () -> scanPartition(blobStore, partition, checkpoints, progress, metrics, isCancelled));
+          return null;
+        });
+      }
+
+      long started = System.nanoTime();
+      int remaining = pending.size();
+      while (remaining > 0 && !isCancelled.getAsBoolean()) {
+        Future<Void> done = completionService.poll(1, SECONDS);
+        if (done != null) {
+          remaining--;
+          try {
+            done.get();
+          }
+          catch (ExecutionException e) {
+            log.error("Integrity scan of blob store '{}' failed", blobStoreName, e.getCause());
+          }
+        }
+
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1e9;
+        progressLogger.info("Elapsed time: {}, partitions: {}/{}, verified: {} blobs ({} MB/s), mismatches: {}",
+            progressLogger.getElapsed(), progress.getCompletedPartitions(), partitions.size(), progress.getBlobs(),
+            String.format("%.1f", (progress.getBytes() - resumedBytes) / seconds / (1024 * 1024)),
+            progress.getMismatches());
+      }
+
+      if (isCancelled.getAsBoolean()) {
+        log.warn("Cancelling blob store integrity scan, verified partitions will be skipped when it runs again");
+      }
+    }
+    finally {
+      executor.shutdownNow();
+      if (!executor.awaitTermination(10, SECONDS)) {
+        log.warn("Failed to terminate integrity scan threads in allotted time");
+      }
+    }
+
+    if (progress.isComplete()) {
+      checkpoints.finish();
+    }
+
+    log.info("Integrity scan of blob store '{}' {}: {} partitions, {} blobs, {} bytes verified, {} mismatches",
+        blobStoreName, progress.isComplete() ? "finished" : "stopped", progress.getCompletedPartitions(),
+        progress.getBlobs(), progress.getBytes(), progress.getMismatches());
+    return progress;
+  }
+
+  private void scanPartition(
+      final BlobStore blobStore,
+      final String partition,
+      final IntegrityScanCheckpoints checkpoints,
+      final IntegrityScanProgress progress,
+      final ScanMetrics metrics,
+      final BooleanSupplier isCancelled)
+  {
+    if (isCancelled.getAsBoolean()) {
+      return;
+    }
+    String blobStoreName = blobStore.getBlobStoreConfiguration().getName();
+    PartitionScan scan = new PartitionScan(blobStoreName, partition, metrics);
+
+    try (Stream<BlobId> blobIds = ALL_BLOBS.equals(partition)
+        ? blobStore.getBlobIdStream()
+        : ((PartitionedBlobStore) blobStore).getBlobIdStream(partition)) {
+
+      for (BlobId blobId : (Iterable<BlobId>) blobIds::iterator) {
+        if (isCancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+          progress.add(scan.blobs, scan.bytes, scan.mismatches);
+          return;
+        }
+        long bytes = scan.bytes;
+        verifyBlob(blobStore, blobId, scan);
+        metrics.blobs.mark();
+        metrics.bytes.mark(scan.bytes - bytes);
+
+        if (scan.unchecked.size() >= batchSize) {
+          compareWithAssets(scan);
+        }
+      }
+      compareWithAssets(scan);
+
+      checkpoints.complete(partition, scan.blobs, scan.bytes, scan.mismatches);
+      progress.add(scan.blobs, scan.bytes, scan.mismatches);
+      progress.partitionCompleted();
+      log.debug("Verified partition {} of blob store '{}': {} blobs, {} mismatches", partition, blobStoreName,
+          scan.blobs, scan.mismatches);
+    }
+    catch (Exception e) {
+      progress.add(scan.blobs, scan.bytes, scan.mismatches);
+      log.error("Unable to verify partition {} of blob store '{}', it will be verified again on the next scan",
+          partition, blobStoreName, e);
+    }
+  }
+
+  private void verifyBlob(final BlobStore blobStore, final BlobId blobId, final PartitionScan scan) {
+    BlobAttributes attributes = blobStore.getBlobAttributes(blobId);
+    if (attributes == null || attributes.isDeleted()) {
+      // hard deleted since it was listed, or waiting for compaction
+      return;
+    }
+    scan.blobs++;
+
+    Blob blob = blobStore.get(blobId);
+    if (blob == null) {
+      scan.mismatch(blobId, "content is missing");
+      return;
+    }
+
+    String sha1;
+    long size;
+    try (InputStream in = blob.getInputStream()) {
+      Hasher hasher = SHA1.function().newHasher();
+      size = ByteStreams.copy(in, Funnels.asOutputStream(hasher));
+      sha1 = hasher.hash().toString();
+    }
+    catch (Exception e) {
+      log.debug("Unable to read blob {}", blobId, e);
+      scan.mismatch(blobId, "content is unreadable: " + e.getMessage());
+      return;
+    }
+    scan.bytes += size;
+
+    BlobMetrics metrics = attributes.getMetrics();
+    if (metrics == null || !sha1.equals(metrics.getSha1Hash())) {
+      scan.mismatch(blobId, "SHA1 " + sha1 + " does not match attributes SHA1 " +
+          (metrics != null ? metrics.getSha1Hash() : null));
+    }
+    else if (metrics.getContentSize() != size) {
+      scan.mismatch(blobId, "size " + size + " does not match attributes size " + metrics.getContentSize());
+    }
+
+    String repositoryName = attributes.getHeaders().get(REPO_NAME_HEADER);
+    if (repositoryName != null) {
+      scan.unchecked.computeIfAbsent(repositoryName, name -> new HashMap<>()).put(blobId, sha1);
+    }
+  }
+
+  /**
+   * Compares the recomputed SHA1s with those in the asset database, one lookup per repository.
+   */
+  private void compareWithAssets(final PartitionScan scan) {
+    if (!assetBlobChecksums.isEmpty()) {
+      AssetBlobChecksums lookup = assetBlobChecksums.get(0);
+      scan.unchecked.forEach((repositoryName, blobs) -> {
+        Map<BlobId, String> recorded = lookup.sha1(repositoryName, scan.blobStoreName, blobs.keySet());
+        recorded.forEach((blobId, assetSha1) -> {
+          String blobSha1 = blobs.get(blobId);
+          if (blobSha1 != null && !Objects.equals(assetSha1, blobSha1)) {
+            scan.mismatch(blobId,
+                "SHA1 " + blobSha1 + " does not match asset SHA1 " + assetSha1 + " in repository " + repositoryName);
+          }
+        });
+      });
+    }
+    scan.unchecked.clear();
+  }
+
+  private static void withContext(@Nullable final Map<String, String> context, final Runnable runnable) {
+    if (context != null) {
+      MDC.setContextMap(context);
+    }
+    try {
+      runnable.run();
+    }
+    finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Counts of the partition being verified by the current thread.
+   */
+  private class PartitionScan
+  {
+    final String blobStoreName;
+
+    final String partition;
+
+    final ScanMetrics metrics;
+
+    final Map<String, Map<BlobId, String>> unchecked = new HashMap<>();
+
+    long blobs;
+
+    long bytes;
+
+    long mismatches;
+
+    PartitionScan(final String blobStoreName, final String partition, final ScanMetrics metrics) {
+      this.blobStoreName = blobStoreName;
+      this.partition = partition;
+      this.metrics = metrics;
+    }
+
+    void mismatch(final BlobId blobId, final String problem) {
+      mismatches++;
+      metrics.mismatches.mark();
+      log.error("Integrity check failed for blob {} in partition {} of blob store '{}': {}", blobId, partition,
+          blobStoreName, problem);
+    }
+  }
+
+  /**
+   * Throughput and mismatch meters of a blob store, published in the metric registry.
+   */
+  private class ScanMetrics
+  {
+    final Meter blobs;
+
+    final Meter bytes;
+
+    final Meter mismatches;
+
+    ScanMetrics(final String blobStoreName) {
+      String prefix = name(BlobStoreIntegrityScanner.class, blobStoreName);
+      this.blobs = metricRegistry.meter(name(prefix, "blobs"));
+      this.bytes = metricRegistry.meter(name(prefix, "bytes"));
+      this.mismatches = metricRegistry.meter(name(prefix, "mismatches"));
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.integrity.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobRef;
+import org.sonatype.nexus.common.app.FeatureFlag;
+import org.sonatype.nexus.repository.content.AssetBlob;
+import org.sonatype.nexus.repository.content.facet.ContentFacet;
+import org.sonatype.nexus.repository.content.facet.ContentFacetSupport;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Collections.emptyMap;
+import static org.sonatype.nexus.common.app.FeatureFlags.DATASTORE_ENABLED;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA1;
+
+/**
+ * {@link AssetBlobChecksums} reading the asset blob table of the repository's content store with one query per batch.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+@FeatureFlag(name = DATASTORE_ENABLED)
+public class DatastoreAssetBlobChecksums
+    implements AssetBlobChecksums
+{
+  private final RepositoryManager repositoryManager;
+
+  @Inject
+  public DatastoreAssetBlobChecksums(final RepositoryManager repositoryManager) {
+    this.repositoryManager = checkNotNull(repositoryManager);
+  }
+
+  @Override
+  public Map<BlobId, String> sha1(
+      final String repositoryName,
+      final String blobStoreName,
+      final Collection<BlobId> blobIds)
+  {
+    Optional<ContentFacet> contentFacet = Optional.ofNullable(repositoryManager.get(repositoryName))
+        .flatMap(repository -> repository.optionalFacet(ContentFacet.class));
+    if (!contentFacet.isPresent()) {
+      return emptyMap();
+    }
+
+    ContentFacetSupport contentFacetSupport = (ContentFacetSupport) contentFacet.get();
+    Map<BlobRef, BlobId> blobRefs = new HashMap<>();
+    for (BlobId blobId : blobIds) {
+      blobRefs.put(new BlobRef(contentFacetSupport.nodeName(), blobStoreName, blobId.asUniqueString()), blobId);
+    }
+
+    Map<BlobId, String> checksums = new HashMap<>();
+    for (AssetBlob assetBlob : contentFacetSupport.stores().assetBlobStore.readAssetBlobs(blobRefs.keySet())) {
+      BlobId blobId = blobRefs.get(assetBlob.blobRef());
+      String sha1 = assetBlob.checksums().get(SHA1.name());
+      if (blobId != null && sha1 != null) {
+        checksums.put(blobId, sha1);
+      }
+    }
+    return checksums;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.integrity.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.property.PropertiesFile;
+
+import com.google.common.base.Splitter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Remembers which partitions of a blob store an unfinished integrity scan has already verified, along with their
+ * counts, so an interrupted scan resumes with the first partition it has not completed.
+ *
+ * @since 3.31
+ */
+class IntegrityScanCheckpoints
+    extends ComponentSupport
+{
+  private final PropertiesFile properties;
+
+  IntegrityScanCheckpoints(final File file) {
+    this.properties = new PropertiesFile(checkNotNull(file));
+  }
+
+  /**
+   * Loads the checkpoints left by a previous scan, or discards them when the scan restarts.
+   */
+  synchronized void load(final boolean restart) throws IOException {
+    properties.clear();
+    if (restart) {
+      Files.deleteIfExists(properties.getFile().toPath());
+    }
+    else if (properties.exists()) {
+      properties.load();
+      log.info("Resuming integrity scan, {} partitions were already verified", properties.size());
+    }
+  }
+
+  synchronized boolean isComplete(final String partition) {
+    return properties.containsKey(partition);
+  }
+
+  /**
+   * @return the blob, byte and mismatch counts recorded for the partition, or {@code null} if it is not complete
+   */
+  @Nullable
+  synchronized long[] getCounts(final String partition) {
+    String value = properties.getProperty(partition);
+    if (value == null) {
+      return null;
+    }
+    return Splitter.on(',').splitToList(value).stream().mapToLong(Long::parseLong).toArray();
+  }
+
+  synchronized void complete(final String partition, final long blobs, final long bytes, final long mismatches)
+      throws IOException
+  {
+    properties.setProperty(partition, blobs + "," + bytes + "," + mismatches);
+    properties.store();
+  }
+
+  /**
+   * Forgets all checkpoints once the whole blob store has been verified, so the next scan starts from scratch.
+   */
+  synchronized void finish() throws IOException {
+    properties.clear();
+    Files.deleteIfExists(properties.getFile().toPath());
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.integrity.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of a blob store integrity scan, shared by the threads verifying its partitions.
+ *
+ * @since 3.31
+ */
+public class IntegrityScanProgress
+{
+  private final int partitions;
+
+  private final AtomicInteger completedPartitions = new AtomicInteger();
+
+  private final LongAdder blobs = new LongAdder();
+
+  private final LongAdder bytes = new LongAdder();
+
+  private final LongAdder mismatches = new LongAdder();
+
+  IntegrityScanProgress(final int partitions) {
+    this.partitions = partitions;
+  }
+
+  void add(final long blobs, final long bytes, final long mismatches) {
+    this.blobs.add(blobs);
+    this.bytes.add(bytes);
+    this.mismatches.add(mismatches);
+  }
+
+  void partitionCompleted() {
+    completedPartitions.incrementAndGet();
+  }
+
+  public int getPartitions() {
+    return partitions;
+  }
+
+  public int getCompletedPartitions() {
+    return completedPartitions.get();
+  }
+
+  public boolean isComplete() {
+    return completedPartitions.get() == partitions;
+  }
+
+  public long getBlobs() {
+    return blobs.sum();
+  }
+
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  public long getMismatches() {
+    return mismatches.sum();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "partitions=" + getCompletedPartitions() + "/" + partitions +
+        ", blobs=" + getBlobs() +
+        ", bytes=" + getBytes() +
+        ", mismatches=" + getMismatches() +
+        '}';
+  }
+}
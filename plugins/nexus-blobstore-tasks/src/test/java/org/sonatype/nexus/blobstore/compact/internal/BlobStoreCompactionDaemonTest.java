@@ -0,0 +1,163 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.compact.internal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.CompactionStep;
+import org.sonatype.nexus.blobstore.IncrementalCompaction;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests {@link BlobStoreCompactionDaemon}.
+ */
+public class BlobStoreCompactionDaemonTest
+    extends TestSupport
+{
+  private static final String LATENCY_TIMER = "requests";
+
+  @Mock
+  private BlobStoreManager blobStoreManager;
+
+  @Mock
+  private BlobStoreUsageChecker blobStoreUsageChecker;
+
+  @Mock
+  private BlobStoreConfiguration blobStoreConfiguration;
+
+  private BlobStore blobStore;
+
+  private IncrementalCompaction compaction;
+
+  private MetricRegistry metricRegistry = new MetricRegistry();
+
+  private BlobStoreCompactionDaemon underTest;
+
+  @Before
+  public void setUp() {
+    blobStore = mock(BlobStore.class, withSettings().extraInterfaces(IncrementalCompaction.class));
+    compaction = (IncrementalCompaction) blobStore;
+    when(blobStore.isStarted()).thenReturn(true);
+    when(blobStore.getBlobStoreConfiguration()).thenReturn(blobStoreConfiguration);
+    when(blobStoreConfiguration.getName()).thenReturn("default");
+    when(compaction.getLocalStoragePath()).thenReturn(Optional.empty());
+    when(blobStoreManager.browse()).thenReturn(ImmutableList.of(blobStore));
+
+    underTest = new BlobStoreCompactionDaemon(blobStoreManager, blobStoreUsageChecker, metricRegistry, true,
+        Time.hours(1), Time.seconds(30), 1000, 1024 * 1024 * 1024, Time.seconds(2), 64, LATENCY_TIMER);
+  }
+
+  @Test
+  public void reclaimsUntilNothingIsEligible() {
+    when(compaction.getCompactionBacklog()).thenReturn(5L, 2L);
+    when(compaction.compactNext(blobStoreUsageChecker, Duration.ofHours(1))).thenReturn(
+        CompactionStep.reclaimed(new BlobId("a"), 100),
+        CompactionStep.skipped(new BlobId("b")),
+        CompactionStep.reclaimed(new BlobId("c"), 50),
+        null);
+
+    underTest.compactAll();
+
+    verify(compaction, times(4)).compactNext(blobStoreUsageChecker, Duration.ofHours(1));
+    assertThat(metricRegistry.meter(MetricRegistry.name(BlobStoreCompactionDaemon.class, "reclaimedBlobs"))
+        .getCount(), is(2L));
+    assertThat(metricRegistry.meter(MetricRegistry.name(BlobStoreCompactionDaemon.class, "reclaimedBytes"))
+        .getCount(), is(150L));
+    assertThat(underTest.getBacklog(), is(2L));
+    assertThat(underTest.getPausedReason(), nullValue());
+  }
+
+  @Test
+  public void pausesWhileRequestsAreSlow() {
+    Snapshot snapshot = mock(Snapshot.class);
+    when(snapshot.get95thPercentile()).thenReturn(5_000_000_000.0);
+    Timer timer = mock(Timer.class);
+    when(timer.getOneMinuteRate()).thenReturn(20.0);
+    when(timer.getSnapshot()).thenReturn(snapshot);
+    metricRegistry.register(LATENCY_TIMER, timer);
+    when(compaction.getCompactionBacklog()).thenReturn(5L);
+
+    underTest.compactAll();
+
+    verify(compaction, never()).compactNext(any(), any());
+    assertThat(underTest.getPausedReason(), notNullValue());
+    assertThat(underTest.getBacklog(), is(5L));
+  }
+
+  @Test
+  public void ignoresLatencyWithoutRecentTraffic() {
+    Timer timer = mock(Timer.class);
+    when(timer.getOneMinuteRate()).thenReturn(0.0);
+    metricRegistry.register(LATENCY_TIMER, timer);
+    when(compaction.getCompactionBacklog()).thenReturn(1L, 0L);
+    when(compaction.compactNext(blobStoreUsageChecker, Duration.ofHours(1)))
+        .thenReturn(CompactionStep.reclaimed(new BlobId("a"), 10));
+
+    underTest.compactAll();
+
+    verify(compaction).compactNext(blobStoreUsageChecker, Duration.ofHours(1));
+    assertThat(underTest.getPausedReason(), nullValue());
+  }
+
+  @Test
+  public void skipsBlobStoresWithoutIncrementalCompaction() {
+    BlobStore plain = mock(BlobStore.class);
+    when(plain.isStarted()).thenReturn(true);
+    when(blobStoreManager.browse()).thenReturn(ImmutableList.of(plain));
+
+    underTest.compactAll();
+
+    verify(plain, never()).compact(any());
+    assertThat(underTest.getBacklog(), is(0L));
+  }
+
+  @Test
+  public void readsInFlightRequestsFromDeviceStats() throws Exception {
+    Path statFile = util.createTempDir().toPath().resolve("stat");
+    Files.write(statFile,
+        "  4598   1057  300934  3296   24032   20193 1045848   77104     17   43480   80400\n".getBytes(US_ASCII));
+
+    assertThat(CompactionPressure.readInFlight(statFile), is(17L));
+    assertThat(CompactionPressure.readInFlight(statFile.resolveSibling("missing")), is(0L));
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.integrity.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.PartitionedBlobStore;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobAttributes;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobMetrics;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.sonatype.nexus.blobstore.api.BlobStore.REPO_NAME_HEADER;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA1;
+
+/**
+ * Tests {@link BlobStoreIntegrityScanner}.
+ */
+public class BlobStoreIntegrityScannerTest
+    extends TestSupport
+{
+  private static final String PARTITION_1 = "vol-01/chap-01";
+
+  private static final String PARTITION_2 = "vol-01/chap-02";
+
+  @Mock
+  private ApplicationDirectories applicationDirectories;
+
+  @Mock
+  private BlobStoreConfiguration blobStoreConfiguration;
+
+  @Mock
+  private AssetBlobChecksums assetBlobChecksums;
+
+  private BlobStore blobStore;
+
+  private PartitionedBlobStore partitionedBlobStore;
+
+  private File workDirectory;
+
+  private MetricRegistry metricRegistry = new MetricRegistry();
+
+  @Before
+  public void setUp() throws Exception {
+    workDirectory = util.createTempDir();
+    when(applicationDirectories.getWorkDirectory(anyString())).thenReturn(workDirectory);
+
+    blobStore = mock(BlobStore.class, withSettings().extraInterfaces(PartitionedBlobStore.class));
+    partitionedBlobStore = (PartitionedBlobStore) blobStore;
+    when(blobStore.getBlobStoreConfiguration()).thenReturn(blobStoreConfiguration);
+    when(blobStoreConfiguration.getName()).thenReturn("default");
+    when(partitionedBlobStore.getBlobIdPartitions()).thenReturn(ImmutableList.of(PARTITION_1, PARTITION_2));
+  }
+
+  @Test
+  public void verifiesEveryPartition() throws Exception {
+    BlobId good = blob("good", "hello", sha1("hello"));
+    BlobId corrupt = blob("corrupt", "hello", sha1("goodbye"));
+    when(partitionedBlobStore.getBlobIdStream(PARTITION_1)).thenAnswer(invocation -> Stream.of(good));
+    when(partitionedBlobStore.getBlobIdStream(PARTITION_2)).thenAnswer(invocation -> Stream.of(corrupt));
+
+    IntegrityScanProgress progress = underTest(emptyList()).scan(blobStore, false, () -> false);
+
+    assertThat(progress.isComplete(), is(true));
+    assertThat(progress.getBlobs(), is(2L));
+    assertThat(progress.getBytes(), is(10L));
+    assertThat(progress.getMismatches(), is(1L));
+    assertThat(metricRegistry.meter(
+        MetricRegistry.name(BlobStoreIntegrityScanner.class, "default", "mismatches")).getCount(), is(1L));
+    assertThat(new File(workDirectory, "default.properties").exists(), is(false));
+  }
+
+  @Test
+  public void comparesWithAssetDatabaseInBatches() throws Exception {
+    BlobId matching = blob("matching", "hello", sha1("hello"));
+    BlobId stale = blob("stale", "world", sha1("world"));
+    when(partitionedBlobStore.getBlobIdStream(PARTITION_1)).thenAnswer(invocation -> Stream.of(matching, stale));
+    when(partitionedBlobStore.getBlobIdStream(PARTITION_2)).thenAnswer(invocation -> Stream.empty());
+    when(assetBlobChecksums.sha1(eq("maven-releases"), eq("default"), any()))
+        .thenReturn(ImmutableMap.of(matching, sha1("hello"), stale, sha1("old world")));
+
+    IntegrityScanProgress progress =
+        underTest(ImmutableList.of(assetBlobChecksums)).scan(blobStore, false, () -> false);
+
+    assertThat(progress.getBlobs(), is(2L));
+    assertThat(progress.getMismatches(), is(1L));
+  }
+
+  @Test
+  public void resumesFromCheckpoints() throws Exception {
+    Files.write(new File(workDirectory, "default.properties").toPath(),
+        (PARTITION_1 + "=7,700,1\n").getBytes(UTF_8));
+    BlobId good = blob("good", "hello", sha1("hello"));
+    when(partitionedBlobStore.getBlobIdStream(PARTITION_2)).thenAnswer(invocation -> Stream.of(good));
+
+    IntegrityScanProgress progress = underTest(emptyList()).scan(blobStore, false, () -> false);
+
+    verify(partitionedBlobStore, never()).getBlobIdStream(PARTITION_1);
+    assertThat(progress.isComplete(), is(true));
+    assertThat(progress.getBlobs(), is(8L));
+    assertThat(progress.getMismatches(), is(1L));
+  }
+
+  @Test
+  public void restartIgnoresCheckpoints() throws Exception {
+    Files.write(new File(workDirectory, "default.properties").toPath(), (PARTITION_1 + "=7,700,1\n").getBytes(UTF_8));
+    when(partitionedBlobStore.getBlobIdStream(anyString())).thenAnswer(invocation -> Stream.empty());
+
+    IntegrityScanProgress progress = underTest(emptyList()).scan(blobStore, true, () -> false);
+
+    verify(partitionedBlobStore).getBlobIdStream(PARTITION_1);
+    assertThat(progress.getBlobs(), is(0L));
+  }
+
+  @Test
+  public void cancelledScanKeepsUnfinishedPartitions() throws Exception {
+    IntegrityScanProgress progress = underTest(emptyList()).scan(blobStore, false, () -> true);
+
+    assertThat(progress.isComplete(), is(false));
+    assertThat(progress.getCompletedPartitions(), is(0));
+  }
+
+  private BlobStoreIntegrityScanner underTest(final List<AssetBlobChecksums> checksums) {
+    return new BlobStoreIntegrityScanner(applicationDirectories, metricRegistry, checksums, 2, 1);
+  }
+
+  private BlobId blob(final String id, final String content, final String attributesSha1) {
+    BlobId blobId = new BlobId(id);
+
+    BlobMetrics metrics = mock(BlobMetrics.class);
+    when(metrics.getSha1Hash()).thenReturn(attributesSha1);
+    when(metrics.getContentSize()).thenReturn((long) content.length());
+
+    BlobAttributes attributes = mock(BlobAttributes.class);
+    when(attributes.getMetrics()).thenReturn(metrics);
+    Map<String, String> headers = ImmutableMap.of(REPO_NAME_HEADER, "maven-releases");
+    when(attributes.getHeaders()).thenReturn(headers);
+    when(blobStore.getBlobAttributes(blobId)).thenReturn(attributes);
+
+    Blob blob = mock(Blob.class);
+    when(blob.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(content.getBytes(UTF_8)));
+    when(blobStore.get(blobId)).thenReturn(blob);
+
+    return blobId;
+  }
+
+  private static String sha1(final String content) {
+    return SHA1.function().hashString(content, UTF_8).toString();
+  }
+}
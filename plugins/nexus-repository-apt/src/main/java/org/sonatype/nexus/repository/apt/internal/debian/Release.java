@@ -16,11 +16,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * @since 3.17
  */
 public class Release
 {
+  /**
+   * The fields read by this class, which leave out the long checksum lists of a release file.
+   *
+   * @since 3.31
+   */
+  public static final List<String> FIELDS = ImmutableList.of(
+      "Origin", "Label", "Suite", "Version", "Codename", "Components", "Architectures", "Description");
+
   private final ControlFile index;
 
   public Release(final ControlFile index) {
@@ -69,6 +69,7 @@ public class CompressingTempFileStore
     List<Path> notDeletedFiles = new LinkedList<>();
 
     for (FileHolder holder : holdersByKey.values()) {
+      deleteFile(holder.plainTempFile, notDeletedFiles);
       deleteFile(holder.bzTempFile, notDeletedFiles);
       deleteFile(holder.gzTempFile, notDeletedFiles);
     }
@@ -174,7 +174,7 @@ public abstract class OrientAptSnapshotFacetSupport
 
     Release release;
     try {
-      ControlFile index = new ControlFileParser().parseControlFile(releaseStream);
+      ControlFile index = new ControlFileParser().parseControlFile(releaseStream, Release.FIELDS);
       release = new Release(index);
     }
     finally {
@@ -36,6 +36,11 @@ public interface GolangHostedFacet
 
   Content getList(final String module);
 
+  /**
+   * @since 3.31
+   */
+  Content getLatest(final String module);
+
   void upload(final String path, final GolangAttributes golangAttributes, final Payload payload, final AssetKind assetKind)
       throws IOException;
 }
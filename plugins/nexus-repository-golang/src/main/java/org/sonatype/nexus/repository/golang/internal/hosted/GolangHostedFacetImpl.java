@@ -16,6 +16,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -29,7 +31,11 @@ import org.sonatype.nexus.repository.golang.internal.metadata.GolangAttributes;
 import org.sonatype.nexus.repository.golang.internal.metadata.GolangInfo;
 import org.sonatype.nexus.repository.golang.internal.util.CompressedContentExtractor;
 import org.sonatype.nexus.repository.golang.internal.util.GolangDataAccess;
+import org.sonatype.nexus.repository.golang.internal.util.GolangModuleVersions;
 import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.AssetCreatedEvent;
+import org.sonatype.nexus.repository.storage.AssetDeletedEvent;
+import org.sonatype.nexus.repository.storage.AssetEvent;
 import org.sonatype.nexus.repository.storage.StorageFacet;
 import org.sonatype.nexus.repository.storage.StorageTx;
 import org.sonatype.nexus.repository.transaction.TransactionalTouchBlob;
@@ -43,6 +49,11 @@ import org.sonatype.nexus.transaction.UnitOfWork;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.Striped;
 
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -58,6 +69,9 @@ import static org.sonatype.nexus.repository.view.Payload.UNKNOWN_SIZE;
 /**
  * Go hosted implementation
  *
+ * The {@code @v/list} and {@code @latest} responses are served from a per-module {@link GolangModuleVersions} index
+ * which is loaded on first use and then kept current from the asset created/deleted events posted after commit.
+ *
  * @since 3.17
  */
 @Named
@@ -69,16 +83,31 @@ public class GolangHostedFacetImpl
 
   private static final ObjectMapper MAPPER = new ObjectMapper();
 
+  private static final String VERSION_SEPARATOR = "/@v/";
+
+  private static final String ZIP_EXTENSION = ".zip";
+
   private final GolangDataAccess golangDataAccess;
 
   private final CompressedContentExtractor compressedContentExtractor;
 
+  private final Cache<String, GolangModuleVersions> moduleVersions;
+
+  private final Striped<Lock> moduleLocks = Striped.lazyWeakLock(64);
+
   @Inject
   public GolangHostedFacetImpl(final GolangDataAccess golangDataAccess,
-                               final CompressedContentExtractor compressedContentExtractor)
+                               final CompressedContentExtractor compressedContentExtractor,
+                               @Named("${nexus.golang.hosted.versionIndex.maxModules:-1000}") final int maxModules)
   {
     this.golangDataAccess = checkNotNull(golangDataAccess);
     this.compressedContentExtractor = checkNotNull(compressedContentExtractor);
+    this.moduleVersions = CacheBuilder.newBuilder().maximumSize(maxModules).build();
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    moduleVersions.invalidateAll();
   }
 
   @Override
@@ -98,29 +127,41 @@ public class GolangHostedFacetImpl
     return new Content(streamPayload);
   }
 
+  @Nullable
   @Transactional
   @Override
   public Content getList(final String module) {
     checkNotNull(module);
 
-    StorageTx tx = UnitOfWork.currentTx();
+    GolangModuleVersions versions = getModuleVersions(module);
+    if (versions.isEmpty()) {
+      return null;
+    }
 
-    Iterable<Asset> assetsForModule = golangDataAccess.findAssetsForModule(tx, getRepository(), module);
+    return new Content(new BytesPayload(versions.getList(), TEXT_PLAIN));
+  }
 
-    List<String> collection = StreamSupport.stream(assetsForModule.spliterator(), false)
-        .filter(asset -> PACKAGE.name().equals(asset.formatAttributes().get(P_ASSET_KIND)))
-        .map(Asset::name)
-        .map(name -> name.split("/@v/")[1])
-        .map(name -> name.replaceAll(".zip", ""))
-        .collect(Collectors.toList());
+  @Nullable
+  @Transactional
+  @Override
+  public Content getLatest(final String module) {
+    checkNotNull(module);
 
-    if (collection.isEmpty()) {
+    String latest = getModuleVersions(module).getLatest();
+    if (latest == null) {
       return null;
     }
 
-    String listOfVersions = String.join("\n", collection);
+    GolangAttributes golangAttributes = new GolangAttributes();
+    golangAttributes.setModule(module);
+    golangAttributes.setVersion(latest);
 
-    return new Content(new BytesPayload(listOfVersions.getBytes(UTF_8), TEXT_PLAIN));
+    String path = module + VERSION_SEPARATOR + latest + ZIP_EXTENSION;
+    StreamPayload streamPayload = extractInfoFromZip(golangAttributes, path);
+    if (streamPayload == null) {
+      return null;
+    }
+    return new Content(streamPayload);
   }
 
   @Nullable
@@ -154,10 +195,116 @@ public class GolangHostedFacetImpl
       throw new IllegalArgumentException("Unsupported AssetKind");
     }
 
+    // the index learns about the new version from the AssetCreatedEvent posted once the asset is committed, so a
+    // rolled back upload never shows up in the list
     storeContent(path, golangAttributes, payload, assetKind);
     extractAndSaveMod(path, golangAttributes);
   }
 
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final AssetCreatedEvent event) {
+    if (isPackageOfThisRepository(event)) {
+      String path = event.getAsset().name();
+      updateModuleVersions(path, versions -> versions.with(versionOf(path)));
+    }
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final AssetDeletedEvent event) {
+    if (isPackageOfThisRepository(event)) {
+      String path = event.getAsset().name();
+      updateModuleVersions(path, versions -> versions.without(versionOf(path)));
+    }
+  }
+
+  private boolean isPackageOfThisRepository(final AssetEvent event) {
+    return getRepository().getName().equals(event.getRepositoryName())
+        && PACKAGE.name().equals(event.getAsset().formatAttributes().get(P_ASSET_KIND))
+        && isPackagePath(event.getAsset().name());
+  }
+
+  /**
+   * Returns the version index for the module, loading it from storage when it is not cached. Loading happens under
+   * the module's lock so that a concurrent upload or event is either visible to the query or applied afterwards.
+   */
+  private GolangModuleVersions getModuleVersions(final String module) {
+    GolangModuleVersions versions = moduleVersions.getIfPresent(module);
+    if (versions != null) {
+      return versions;
+    }
+
+    Lock lock = moduleLocks.get(module);
+    lock.lock();
+    try {
+      versions = moduleVersions.getIfPresent(module);
+      if (versions == null) {
+        versions = loadModuleVersions(module);
+        moduleVersions.put(module, versions);
+        log.debug("Indexed {} versions of module {} in {}", versions.size(), module, getRepository().getName());
+      }
+      return versions;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  private GolangModuleVersions loadModuleVersions(final String module) {
+    StorageTx tx = UnitOfWork.currentTx();
+
+    // the name query also matches nested modules, so keep only this module's own packages
+    String prefix = module + VERSION_SEPARATOR;
+    Iterable<Asset> assetsForModule = golangDataAccess.findAssetsForModule(tx, getRepository(), module);
+
+    List<String> versions = StreamSupport.stream(assetsForModule.spliterator(), false)
+        .filter(asset -> PACKAGE.name().equals(asset.formatAttributes().get(P_ASSET_KIND)))
+        .map(Asset::name)
+        .filter(name -> name.startsWith(prefix) && isPackagePath(name))
+        .map(GolangHostedFacetImpl::versionOf)
+        .collect(Collectors.toList());
+
+    return GolangModuleVersions.of(versions);
+  }
+
+  /**
+   * Applies a change to the module's index if it is cached; an uncached module will be loaded fresh on next use.
+   */
+  private void updateModuleVersions(final String path, final UnaryOperator<GolangModuleVersions> update) {
+    if (!isPackagePath(path)) {
+      return;
+    }
+    String module = moduleOf(path);
+
+    Lock lock = moduleLocks.get(module);
+    lock.lock();
+    try {
+      GolangModuleVersions versions = moduleVersions.getIfPresent(module);
+      if (versions != null) {
+        moduleVersions.put(module, update.apply(versions));
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  private static boolean isPackagePath(final String path) {
+    int separator = path.lastIndexOf(VERSION_SEPARATOR);
+    return separator > 0 && path.endsWith(ZIP_EXTENSION)
+        && path.length() > separator + VERSION_SEPARATOR.length() + ZIP_EXTENSION.length();
+  }
+
+  private static String moduleOf(final String path) {
+    return path.substring(0, path.lastIndexOf(VERSION_SEPARATOR));
+  }
+
+  private static String versionOf(final String path) {
+    int start = path.lastIndexOf(VERSION_SEPARATOR) + VERSION_SEPARATOR.length();
+    return path.substring(start, path.length() - ZIP_EXTENSION.length());
+  }
+
   private String getZipAssetPathFromInfoPath(final String path) {
     return path.replaceAll("\\.info", "\\.zip");
   }
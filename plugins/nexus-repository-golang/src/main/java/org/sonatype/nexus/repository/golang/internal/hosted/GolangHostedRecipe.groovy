@@ -84,7 +84,7 @@ class GolangHostedRecipe
 
     addBrowseUnsupportedRoute(builder)
 
-    [infoMatcher(), listMatcher()].each { matcher ->
+    [infoMatcher(), listMatcher(), latestMatcher()].each { matcher ->
       builder.route(new Route.Builder().matcher(matcher)
           .handler(timingHandler)
           .handler(securityHandler)
@@ -0,0 +1,274 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.golang.internal.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable, semver sorted set of the versions published for a single go module. The ordering keys are computed once
+ * per version so that the {@code @v/list} body and {@code @latest} answer can be served without sorting on each
+ * request; {@link #with(String)} and {@link #without(String)} return updated copies.
+ *
+ * @since 3.31
+ */
+public final class GolangModuleVersions
+{
+  public static final GolangModuleVersions EMPTY = new GolangModuleVersions(new Version[0]);
+
+  private final Version[] versions;
+
+  private final Version latest;
+
+  private volatile byte[] list;
+
+  private GolangModuleVersions(final Version[] versions) {
+    this.versions = versions;
+    this.latest = findLatest(versions);
+  }
+
+  public static GolangModuleVersions of(final Collection<String> versions) {
+    Version[] sorted = versions.stream().distinct().map(Version::new).toArray(Version[]::new);
+    Arrays.sort(sorted);
+    return new GolangModuleVersions(sorted);
+  }
+
+  public GolangModuleVersions with(final String version) {
+    Version added = new Version(version);
+    int index = Arrays.binarySearch(versions, added);
+    if (index >= 0) {
+      return this;
+    }
+    int insertAt = -index - 1;
+    Version[] copy = new Version[versions.length + 1];
+    System.arraycopy(versions, 0, copy, 0, insertAt);
+    copy[insertAt] = added;
+    System.arraycopy(versions, insertAt, copy, insertAt + 1, versions.length - insertAt);
+    return new GolangModuleVersions(copy);
+  }
+
+  public GolangModuleVersions without(final String version) {
+    int index = Arrays.binarySearch(versions, new Version(version));
+    if (index < 0) {
+      return this;
+    }
+    Version[] copy = new Version[versions.length - 1];
+    System.arraycopy(versions, 0, copy, 0, index);
+    System.arraycopy(versions, index + 1, copy, index, versions.length - index - 1);
+    return new GolangModuleVersions(copy);
+  }
+
+  public boolean isEmpty() {
+    return versions.length == 0;
+  }
+
+  public int size() {
+    return versions.length;
+  }
+
+  public List<String> getVersions() {
+    List<String> result = new ArrayList<>(versions.length);
+    for (Version version : versions) {
+      result.add(version.value);
+    }
+    return result;
+  }
+
+  /**
+   * The {@code @v/list} body, one version per line in ascending semver order.
+   */
+  public byte[] getList() {
+    byte[] result = list;
+    if (result == null) {
+      result = String.join("\n", getVersions()).getBytes(UTF_8);
+      list = result;
+    }
+    return result;
+  }
+
+  /**
+   * The version go resolves {@code @latest} to: the highest release, or the highest pre-release (which includes
+   * pseudo-versions) when no release has been published.
+   */
+  @Nullable
+  public String getLatest() {
+    return latest != null ? latest.value : null;
+  }
+
+  @Nullable
+  private static Version findLatest(final Version[] versions) {
+    for (int i = versions.length - 1; i >= 0; i--) {
+      if (versions[i].isRelease()) {
+        return versions[i];
+      }
+    }
+    return versions.length > 0 ? versions[versions.length - 1] : null;
+  }
+
+  /**
+   * Precomputed semver ordering key. Versions which are not valid semver sort before all valid ones, by name.
+   */
+  static final class Version
+      implements Comparable<Version>
+  {
+    private static final String[] NO_PRERELEASE = new String[0];
+
+    private final String value;
+
+    private final boolean valid;
+
+    private final long major;
+
+    private final long minor;
+
+    private final long patch;
+
+    private final String[] prerelease;
+
+    private final String build;
+
+    Version(final String value) {
+      this.value = checkNotNull(value);
+
+      long[] core = new long[3];
+      String[] pre = NO_PRERELEASE;
+      String meta = "";
+      boolean parsed = false;
+
+      if (value.length() > 1 && value.charAt(0) == 'v') {
+        String rest = value.substring(1);
+        int plus = rest.indexOf('+');
+        if (plus >= 0) {
+          meta = rest.substring(plus + 1);
+          rest = rest.substring(0, plus);
+        }
+        int dash = rest.indexOf('-');
+        if (dash >= 0) {
+          pre = rest.substring(dash + 1).split("\\.", -1);
+          rest = rest.substring(0, dash);
+        }
+        String[] parts = rest.split("\\.", -1);
+        parsed = parts.length == 3 && isNumber(parts[0]) && isNumber(parts[1]) && isNumber(parts[2]);
+        for (int i = 0; parsed && i < 3; i++) {
+          core[i] = Long.parseLong(parts[i]);
+        }
+        for (int i = 0; parsed && i < pre.length; i++) {
+          parsed = !pre[i].isEmpty();
+        }
+      }
+
+      this.valid = parsed;
+      this.major = core[0];
+      this.minor = core[1];
+      this.patch = core[2];
+      this.prerelease = parsed ? pre : NO_PRERELEASE;
+      this.build = parsed ? meta : "";
+    }
+
+    boolean isRelease() {
+      return valid && prerelease.length == 0;
+    }
+
+    @Override
+    public int compareTo(final Version other) {
+      if (valid != other.valid) {
+        return valid ? 1 : -1;
+      }
+      if (!valid) {
+        return value.compareTo(other.value);
+      }
+      int result = Long.compare(major, other.major);
+      if (result == 0) {
+        result = Long.compare(minor, other.minor);
+      }
+      if (result == 0) {
+        result = Long.compare(patch, other.patch);
+      }
+      if (result == 0) {
+        result = comparePrerelease(prerelease, other.prerelease);
+      }
+      if (result == 0) {
+        // build metadata carries no precedence, but keeps distinct spellings (e.g. +incompatible) apart
+        result = build.compareTo(other.build);
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Version && value.equals(((Version) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(value);
+    }
+
+    @Override
+    public String toString() {
+      return value;
+    }
+
+    private static int comparePrerelease(final String[] left, final String[] right) {
+      if (left.length == 0 || right.length == 0) {
+        // a release has higher precedence than any of its pre-releases
+        return Integer.compare(right.length, left.length);
+      }
+      for (int i = 0; i < left.length && i < right.length; i++) {
+        int result = compareIdentifier(left[i], right[i]);
+        if (result != 0) {
+          return result;
+        }
+      }
+      return Integer.compare(left.length, right.length);
+    }
+
+    private static int compareIdentifier(final String left, final String right) {
+      boolean leftNumeric = isNumeric(left);
+      boolean rightNumeric = isNumeric(right);
+      if (leftNumeric && rightNumeric) {
+        int result = Integer.compare(left.length(), right.length());
+        return result != 0 ? result : left.compareTo(right);
+      }
+      if (leftNumeric != rightNumeric) {
+        return leftNumeric ? -1 : 1;
+      }
+      return left.compareTo(right);
+    }
+
+    private static boolean isNumber(final String part) {
+      return part.length() <= 18 && isNumeric(part);
+    }
+
+    private static boolean isNumeric(final String identifier) {
+      if (identifier.isEmpty()) {
+        return false;
+      }
+      for (int i = 0; i < identifier.length(); i++) {
+        char c = identifier.charAt(i);
+        if (c < '0' || c > '9') {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -25,6 +25,8 @@ import org.sonatype.nexus.repository.golang.internal.metadata.GolangAttributes;
 import org.sonatype.nexus.repository.golang.internal.util.CompressedContentExtractor;
 import org.sonatype.nexus.repository.golang.internal.util.GolangDataAccess;
 import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.AssetCreatedEvent;
+import org.sonatype.nexus.repository.storage.AssetDeletedEvent;
 import org.sonatype.nexus.repository.storage.Bucket;
 import org.sonatype.nexus.repository.storage.StorageFacet;
 import org.sonatype.nexus.repository.storage.StorageTx;
@@ -49,6 +51,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -90,7 +93,7 @@ public class GolangHostedFacetImplTest
   @Before
   public void setUp() throws Exception {
     UnitOfWork.beginBatch(tx);
-    underTest = new GolangHostedFacetImpl(dataAccess, compressExtractor);
+    underTest = new GolangHostedFacetImpl(dataAccess, compressExtractor, 100);
     underTest.attach(repository);
   }
 
@@ -153,7 +156,7 @@ public class GolangHostedFacetImplTest
   @Test
   public void getList() throws IOException {
     String expected = "v1.0.0\nv1.0.1";
-    String name = "module/@v/v1.0.0.list";
+    String name = "modulename";
 
     NestedAttributesMap attributesMap = mock(NestedAttributesMap.class);
     when(attributesMap.get("asset_kind")).thenReturn(PACKAGE.name());
@@ -173,6 +176,61 @@ public class GolangHostedFacetImplTest
     assertThat(response, is(equalTo(expected)));
   }
 
+  @Test
+  public void getListSortsBySemverAndIgnoresNestedModules() throws IOException {
+    mockPackages("modulename", "modulename/@v/v1.10.0.zip", "modulename/@v/v1.2.0.zip",
+        "modulename/@v/v1.2.0-rc.1.zip", "modulename/sub/@v/v9.0.0.zip");
+
+    Content content = underTest.getList("modulename");
+
+    assertThat(read(content), is(equalTo("v1.2.0-rc.1\nv1.2.0\nv1.10.0")));
+  }
+
+  @Test
+  public void getListIsServedFromTheIndex() throws IOException {
+    mockPackages("modulename", "modulename/@v/v1.0.0.zip");
+
+    underTest.getList("modulename");
+    underTest.getList("modulename");
+
+    verify(dataAccess, times(1)).findAssetsForModule(tx, repository, "modulename");
+  }
+
+  @Test
+  public void getListReturnsNullForUnknownModule() {
+    when(dataAccess.findAssetsForModule(tx, repository, "modulename")).thenReturn(ImmutableList.of());
+
+    assertThat(underTest.getList("modulename"), is(nullValue()));
+  }
+
+  @Test
+  public void getLatestPrefersReleases() throws IOException {
+    DateTime blobCreated = DateTime.now();
+    mockPackages("modulename", "modulename/@v/v1.0.0.zip", "modulename/@v/v1.1.0-beta.zip");
+    when(tx.findBucket(repository)).thenReturn(bucket);
+    when(dataAccess.findAsset(tx, bucket, "modulename/@v/v1.0.0.zip")).thenReturn(asset1);
+    when(asset1.blobCreated()).thenReturn(blobCreated);
+
+    Content content = underTest.getLatest("modulename");
+
+    assertThat(read(content),
+        is(equalTo(String.format("{\"Version\":\"v1.0.0\",\"Time\":\"%s\"}", blobCreated.toString()))));
+  }
+
+  @Test
+  public void deletedPackageIsRemovedFromTheIndex() throws IOException {
+    when(repository.getName()).thenReturn("go-hosted");
+    mockPackages("modulename", "modulename/@v/v1.0.0.zip", "modulename/@v/v1.0.1.zip");
+    underTest.getList("modulename");
+
+    AssetDeletedEvent event = mock(AssetDeletedEvent.class);
+    when(event.getRepositoryName()).thenReturn("go-hosted");
+    when(event.getAsset()).thenReturn(asset2);
+    underTest.on(event);
+
+    assertThat(read(underTest.getList("modulename")), is(equalTo("v1.0.0")));
+  }
+
   @Test
   public void upload() throws IOException {
     String path = "modulename/@v/v1.0.0.zip";
@@ -201,6 +259,57 @@ public class GolangHostedFacetImplTest
     verify(dataAccess).maybeCreateAndSaveComponent(eq(repository), eq(goAttributes), eq(gomod_path), eq(tempBlob), any(), eq(MODULE));
   }
 
+  @Test
+  public void uploadIsAddedToTheIndexOnceCommitted() throws IOException {
+    when(repository.getName()).thenReturn("go-hosted");
+    mockPackages("modulename", "modulename/@v/v1.0.0.zip");
+    underTest.getList("modulename");
+
+    GolangAttributes goAttributes = new GolangAttributes();
+    goAttributes.setModule("modulename");
+    goAttributes.setVersion("v1.1.0");
+    StorageFacet storageFacet = mock(StorageFacet.class);
+    when(repository.facet(StorageFacet.class)).thenReturn(storageFacet);
+    InputStream payloadStream = mock(InputStream.class);
+    when(payload.openInputStream()).thenReturn(payloadStream);
+    when(storageFacet.createTempBlob(payloadStream, GolangDataAccess.HASH_ALGORITHMS)).thenReturn(mock(TempBlob.class));
+
+    underTest.upload("modulename/@v/v1.1.0.zip", goAttributes, payload, PACKAGE);
+
+    // nothing is indexed until the commit posts the created asset
+    assertThat(read(underTest.getList("modulename")), is(equalTo("v1.0.0")));
+
+    NestedAttributesMap attributesMap = mock(NestedAttributesMap.class);
+    when(attributesMap.get("asset_kind")).thenReturn(PACKAGE.name());
+    Asset uploaded = mock(Asset.class);
+    when(uploaded.name()).thenReturn("modulename/@v/v1.1.0.zip");
+    when(uploaded.formatAttributes()).thenReturn(attributesMap);
+    AssetCreatedEvent event = mock(AssetCreatedEvent.class);
+    when(event.getRepositoryName()).thenReturn("go-hosted");
+    when(event.getAsset()).thenReturn(uploaded);
+    underTest.on(event);
+
+    assertThat(read(underTest.getList("modulename")), is(equalTo("v1.0.0\nv1.1.0")));
+    verify(dataAccess, times(1)).findAssetsForModule(tx, repository, "modulename");
+  }
+
+  private void mockPackages(final String module, final String... names) {
+    NestedAttributesMap attributesMap = mock(NestedAttributesMap.class);
+    when(attributesMap.get("asset_kind")).thenReturn(PACKAGE.name());
+    ImmutableList.Builder<Asset> assets = ImmutableList.builder();
+    for (int i = 0; i < names.length; i++) {
+      Asset asset = i == 0 ? asset1 : (i == 1 ? asset2 : mock(Asset.class));
+      when(asset.name()).thenReturn(names[i]);
+      when(asset.formatAttributes()).thenReturn(attributesMap);
+      assets.add(asset);
+    }
+    when(dataAccess.findAssetsForModule(tx, repository, module)).thenReturn(assets.build());
+  }
+
+  private static String read(final Content content) throws IOException {
+    return CharStreams.toString(new InputStreamReader(content.openInputStream(), Charsets.UTF_8));
+  }
+
   private void verifyGet(final String path) {
     BlobRef blobRef = mock(BlobRef.class);
     Blob blob = mock(Blob.class);
@@ -0,0 +1,68 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.golang.internal.util;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class GolangModuleVersionsTest
+    extends TestSupport
+{
+  @Test
+  public void versionsAreSortedBySemverPrecedence() {
+    GolangModuleVersions underTest = GolangModuleVersions.of(ImmutableList.of(
+        "v1.10.0", "v1.2.0", "v1.2.0-rc.10", "v1.2.0-rc.2", "v1.2.0-alpha", "v0.0.0-20190311183353-d8887717615a",
+        "v2.0.0+incompatible", "v1.2.0-rc.2", "not-a-version"));
+
+    assertThat(underTest.getVersions(), contains(
+        "not-a-version", "v0.0.0-20190311183353-d8887717615a", "v1.2.0-alpha", "v1.2.0-rc.2", "v1.2.0-rc.10",
+        "v1.2.0", "v1.10.0", "v2.0.0+incompatible"));
+  }
+
+  @Test
+  public void listIsNewlineSeparated() {
+    GolangModuleVersions underTest = GolangModuleVersions.of(ImmutableList.of("v1.0.1", "v1.0.0"));
+
+    assertThat(new String(underTest.getList(), UTF_8), is(equalTo("v1.0.0\nv1.0.1")));
+  }
+
+  @Test
+  public void latestPrefersReleasesOverPrereleases() {
+    assertThat(GolangModuleVersions.of(ImmutableList.of("v1.0.0", "v1.1.0-beta")).getLatest(), is(equalTo("v1.0.0")));
+    assertThat(GolangModuleVersions.of(ImmutableList.of("v0.0.0-20190311183353-d8887717615a", "v0.1.0-alpha"))
+        .getLatest(), is(equalTo("v0.1.0-alpha")));
+    assertThat(GolangModuleVersions.EMPTY.getLatest(), is(nullValue()));
+  }
+
+  @Test
+  public void withAndWithoutKeepTheOrdering() {
+    GolangModuleVersions original = GolangModuleVersions.of(ImmutableList.of("v1.0.0", "v1.2.0"));
+
+    GolangModuleVersions added = original.with("v1.1.0").with("v1.1.0");
+    assertThat(added.getVersions(), contains("v1.0.0", "v1.1.0", "v1.2.0"));
+    assertThat(original.getVersions(), contains("v1.0.0", "v1.2.0"));
+
+    GolangModuleVersions removed = added.without("v1.0.0").without("v3.0.0");
+    assertThat(removed.getVersions(), contains("v1.1.0", "v1.2.0"));
+    assertThat(removed.getLatest(), is(equalTo("v1.2.0")));
+  }
+}
@@ -18,6 +18,7 @@ import java.io.OutputStream;
 import java.util.Map;
 
 import javax.annotation.Nullable;
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.servlet.ServletException;
@@ -31,6 +32,8 @@ import org.sonatype.nexus.repository.view.Request;
 import org.sonatype.nexus.repository.view.Response;
 import org.sonatype.nexus.repository.view.Status;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Default {@link HttpResponseSender}.
  *
@@ -42,12 +45,22 @@ public class DefaultHttpResponseSender
     extends ComponentSupport
     implements HttpResponseSender
 {
+  private final GzipResponseEncoder gzipResponseEncoder;
+
+  @Inject
+  public DefaultHttpResponseSender(final GzipResponseEncoder gzipResponseEncoder) {
+    this.gzipResponseEncoder = checkNotNull(gzipResponseEncoder);
+  }
+
   @Override
   public void send(@Nullable final Request request, final Response response, final HttpServletResponse httpResponse)
       throws ServletException, IOException
   {
     log.debug("Sending response: {}", response);
 
+    // choose between the payload and its gzip variant before headers are committed
+    Payload body = gzipResponseEncoder.encode(request, response);
+
     // add response headers
     for (Map.Entry<String, String> header : response.getHeaders()) {
       httpResponse.addHeader(header.getKey(), header.getValue());
@@ -56,27 +69,27 @@ public class DefaultHttpResponseSender
     // add status followed by payload if we have one
     Status status = response.getStatus();
     String statusMessage = status.getMessage();
-    try (Payload payload = response.getPayload()) {
+    try (Payload payload = response.getPayload(); Payload variant = body != payload ? body : null) {
       if (statusMessage == null) {
         httpResponse.setStatus(status.getCode());
       }
       else {
         httpResponse.setStatus(status.getCode(), statusMessage);
       }
-      if (status.isSuccessful() || payload != null) {
-        if (payload != null) {
-          log.trace("Attaching payload: {}", payload);
+      if (status.isSuccessful() || body != null) {
+        if (body != null) {
+          log.trace("Attaching payload: {}", body);
 
-          if (payload.getContentType() != null) {
-            httpResponse.setContentType(payload.getContentType());
+          if (body.getContentType() != null) {
+            httpResponse.setContentType(body.getContentType());
           }
-          if (payload.getSize() != Payload.UNKNOWN_SIZE) {
-            httpResponse.setContentLengthLong(payload.getSize());
+          if (body.getSize() != Payload.UNKNOWN_SIZE) {
+            httpResponse.setContentLengthLong(body.getSize());
           }
 
           if (request != null && !HttpMethods.HEAD.equals(request.getAction())) {
-            try (InputStream input = payload.openInputStream(); OutputStream output = httpResponse.getOutputStream()) {
-              payload.copy(input, output);
+            try (InputStream input = body.openInputStream(); OutputStream output = httpResponse.getOutputStream()) {
+              body.copy(input, output);
             }
           }
         }
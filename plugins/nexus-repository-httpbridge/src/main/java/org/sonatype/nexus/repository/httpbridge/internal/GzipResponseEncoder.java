@@ -0,0 +1,671 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.httpbridge.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.api.RawObjectAccess;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.content.store.InternalIds;
+import org.sonatype.nexus.repository.http.HttpMethods;
+import org.sonatype.nexus.repository.http.HttpStatus;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Headers;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.payloads.BlobPayload;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+import org.sonatype.nexus.thread.io.StreamCopier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.Striped;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Thread.MIN_PRIORITY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
+import static org.sonatype.nexus.repository.ETagHeaderUtils.entityTags;
+import static org.sonatype.nexus.repository.ETagHeaderUtils.gzipVariant;
+import static org.sonatype.nexus.repository.config.ConfigurationConstants.BLOB_STORE_NAME;
+import static org.sonatype.nexus.repository.config.ConfigurationConstants.STORAGE;
+
+/**
+ * Negotiates gzip encoding of textual metadata responses with clients that accept it.
+ *
+ * Only metadata, i.e. assets which don't belong to a component such as indexes, is encoded. Metadata that is
+ * requested often gets a pre-compressed sidecar variant, stored as raw objects in the blob store next to the original,
+ * and is served from that sidecar once it exists; until then the original is sent unencoded, so no response is ever
+ * compressed while it is sent. Sidecars are created in the background, one at a time, and requests for sidecars
+ * beyond a small backlog are dropped to be asked for again by later requests.
+ *
+ * Sidecars are keyed by repository and blob name and record the id of the blob they were made from, so a changed
+ * asset (which always gets a new blob) invalidates its sidecar which is then replaced. Sidecars are removed with their
+ * asset or repository.
+ *
+ * {@code HEAD} requests are negotiated like {@code GET} requests, but never lead to sidecars being created.
+ *
+ * The etag of an encoded response gets a {@value org.sonatype.nexus.repository.ETagHeaderUtils#GZIP_SUFFIX} suffix,
+ * which conditional request handling strips again.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+@ManagedLifecycle(phase = SERVICES)
+public class GzipResponseEncoder
+    extends StateGuardLifecycleSupport
+    implements EventAware, EventAware.Asynchronous
+{
+  private static final String GZIP = "gzip";
+
+  private static final String X_GZIP = "x-gzip";
+
+  private static final String SIDECAR_ROOT = "variants/gzip";
+
+  private static final String BLOB_ID = "blobId";
+
+  private static final String SIZE = "size";
+
+  private static final String POINTER_SUFFIX = ".properties";
+
+  private static final int SIDECAR_BACKLOG = 100;
+
+  private final RepositoryManager repositoryManager;
+
+  private final BlobStoreManager blobStoreManager;
+
+  private final boolean enabled;
+
+  private final long minimumSize;
+
+  private final long maximumSize;
+
+  private final int sidecarThreshold;
+
+  /**
+   * Requests seen per blob, to tell hot blobs that deserve a sidecar.
+   */
+  private final Cache<String, AtomicInteger> requestCounts;
+
+  private final Striped<Lock> sidecarLocks = Striped.lazyWeakLock(64);
+
+  /**
+   * Pointers of the sidecars waiting to be created, so each is only asked for once.
+   */
+  private final Set<Path> pendingSidecars = ConcurrentHashMap.newKeySet();
+
+  private final Supplier<ExecutorService> executorFactory;
+
+  private volatile ExecutorService executor;
+
+  @Inject
+  public GzipResponseEncoder(
+      final RepositoryManager repositoryManager,
+      final BlobStoreManager blobStoreManager,
+      @Named("${nexus.http.response.gzip.enabled:-true}") final boolean enabled,
+      @Named("${nexus.http.response.gzip.minimumSize:-1024}") final long minimumSize,
+      @Named("${nexus.http.response.gzip.maximumSize:-67108864}") final long maximumSize,
+      @Named("${nexus.http.response.gzip.sidecarThreshold:-3}") final int sidecarThreshold)
+  {
+    this(repositoryManager, blobStoreManager, enabled, minimumSize, maximumSize, sidecarThreshold,
+        () -> new ThreadPoolExecutor(1, 1, 0L, MILLISECONDS, new ArrayBlockingQueue<>(SIDECAR_BACKLOG),
+            new NexusThreadFactory("gzip-sidecar", "Create gzip variants", MIN_PRIORITY)));
+  }
+
+  @VisibleForTesting
+  GzipResponseEncoder(
+      final RepositoryManager repositoryManager,
+      final BlobStoreManager blobStoreManager,
+      final boolean enabled,
+      final long minimumSize,
+      final long maximumSize,
+      final int sidecarThreshold,
+      final Supplier<ExecutorService> executorFactory)
+  {
+    this.repositoryManager = checkNotNull(repositoryManager);
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+    this.enabled = enabled;
+    this.minimumSize = minimumSize;
+    this.maximumSize = maximumSize;
+    this.sidecarThreshold = sidecarThreshold;
+    this.requestCounts = CacheBuilder.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterAccess(1, TimeUnit.HOURS)
+        .build();
+    this.executorFactory = checkNotNull(executorFactory);
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    executor = executorFactory.get();
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    ExecutorService stopping = executor;
+    executor = null;
+    stopping.shutdownNow();
+    if (!stopping.awaitTermination(10, SECONDS)) {
+      log.warn("Timed out waiting for gzip variants to be created");
+    }
+    pendingSidecars.clear();
+  }
+
+  /**
+   * Chooses the payload to send for a response, updating its headers to match.
+   *
+   * @return the gzip encoded sidecar of the response payload, or the payload itself when it is sent unencoded
+   */
+  @Nullable
+  public Payload encode(@Nullable final Request request, final Response response) {
+    Payload payload = response.getPayload();
+    if (!enabled || request == null) {
+      return payload;
+    }
+    boolean head = HttpMethods.HEAD.equals(request.getAction());
+    if (!head && !HttpMethods.GET.equals(request.getAction())) {
+      return payload;
+    }
+    String acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+    if (acceptEncoding == null) {
+      return payload;
+    }
+    Headers headers = response.getHeaders();
+    boolean acceptsGzip = acceptsGzip(acceptEncoding);
+
+    if (response.getStatus().getCode() == HttpStatus.NOT_MODIFIED) {
+      // echo the etag of the variant the client holds
+      String ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+      String etag = headers.get(HttpHeaders.ETAG);
+      if (acceptsGzip && etag != null && ifNoneMatch != null && entityTags(ifNoneMatch).contains(gzipVariant(etag))) {
+        headers.set(HttpHeaders.ETAG, gzipVariant(etag));
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      }
+      return payload;
+    }
+
+    if (!isEligible(response, payload)) {
+      return payload;
+    }
+    headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (!acceptsGzip) {
+      return payload;
+    }
+
+    Blob blob = checkNotNull(blob(payload));
+    Payload encoded = sidecar(blob, payload.getContentType());
+    if (encoded == null) {
+      // a HEAD request does not make the blob any hotter
+      if (!head && isHot(blob)) {
+        scheduleSidecar(blob);
+      }
+      return payload;
+    }
+
+    headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+    String etag = headers.get(HttpHeaders.ETAG);
+    if (etag != null) {
+      headers.set(HttpHeaders.ETAG, gzipVariant(etag));
+    }
+    return encoded;
+  }
+
+  private boolean isEligible(final Response response, @Nullable final Payload payload) {
+    if (response.getStatus().getCode() != HttpStatus.OK || payload == null) {
+      return false;
+    }
+    if (response.getHeaders().contains(HttpHeaders.CONTENT_ENCODING)) {
+      return false;
+    }
+    long size = payload.getSize();
+    return size >= minimumSize && size <= maximumSize && isCompressible(payload.getContentType())
+        && blob(payload) != null && isMetadata(payload);
+  }
+
+  /**
+   * Whether the payload is the content of an asset which doesn't belong to a component.
+   */
+  @VisibleForTesting
+  static boolean isMetadata(final Payload payload) {
+    if (!(payload instanceof Content)) {
+      return false;
+    }
+    AttributesMap attributes = ((Content) payload).getAttributes();
+    org.sonatype.nexus.repository.content.Asset asset =
+        attributes.get(org.sonatype.nexus.repository.content.Asset.class);
+    if (asset != null) {
+      return !InternalIds.internalComponentId(asset).isPresent();
+    }
+    Asset orientAsset = attributes.get(Asset.class);
+    return orientAsset != null && orientAsset.componentId() == null;
+  }
+
+  /**
+   * Whether the {@code Accept-Encoding} header allows gzip, taking quality values into account.
+   */
+  @VisibleForTesting
+  static boolean acceptsGzip(final String acceptEncoding) {
+    boolean wildcard = false;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].trim().toLowerCase();
+      boolean acceptable = true;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim();
+        if (parameter.startsWith("q=")) {
+          try {
+            acceptable = Double.parseDouble(parameter.substring(2)) > 0;
+          }
+          catch (NumberFormatException e) {
+            acceptable = false;
+          }
+        }
+      }
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        return acceptable;
+      }
+      if ("*".equals(coding)) {
+        wildcard = acceptable;
+      }
+    }
+    return wildcard;
+  }
+
+  /**
+   * Whether content of this type is textual and worth compressing.
+   */
+  @VisibleForTesting
+  static boolean isCompressible(@Nullable final String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    String type = contentType.split(";")[0].trim().toLowerCase();
+    return type.startsWith("text/")
+        || type.equals("application/xml")
+        || type.equals("application/json")
+        || type.equals("application/javascript")
+        || type.equals("application/x-javascript")
+        || type.equals("application/x-yaml")
+        || type.endsWith("+xml")
+        || type.endsWith("+json");
+  }
+
+  @Nullable
+  private static Blob blob(final Payload payload) {
+    Payload unwrapped = payload instanceof Content ? ((Content) payload).getPayload() : payload;
+    return unwrapped instanceof BlobPayload ? ((BlobPayload) unwrapped).getBlob() : null;
+  }
+
+  private boolean isHot(final Blob blob) {
+    try {
+      return requestCounts.get(blob.getId().asUniqueString(), AtomicInteger::new).incrementAndGet() >= sidecarThreshold;
+    }
+    catch (Exception e) {
+      return false;
+    }
+  }
+
+  /**
+   * Opens the sidecar variant of a blob.
+   *
+   * @return the sidecar, or {@code null} if there is none or it was made from another blob
+   */
+  @Nullable
+  private Payload sidecar(final Blob blob, @Nullable final String contentType) {
+    String repositoryName = blob.getHeaders().get(BlobStore.REPO_NAME_HEADER);
+    String blobName = blob.getHeaders().get(BlobStore.BLOB_NAME_HEADER);
+    if (repositoryName == null || blobName == null) {
+      return null;
+    }
+    BlobStore blobStore = blobStore(repositoryManager.get(repositoryName));
+    if (blobStore == null) {
+      return null;
+    }
+    Path base = sidecarBase(repositoryName, blobName);
+    try {
+      return openSidecar(blobStore.getRawObjectAccess(), pointerPath(base), base, blob.getId().asUniqueString(),
+          contentType);
+    }
+    catch (UnsupportedOperationException e) {
+      log.debug("Blob store of repository {} does not support raw objects", repositoryName);
+    }
+    catch (IOException | RuntimeException e) {
+      log.warn("Unable to use gzip variant of {} : {}, {}", repositoryName, blobName, e.getMessage(),
+          log.isDebugEnabled() ? e : null);
+    }
+    return null;
+  }
+
+  /**
+   * Asks for the sidecar variant of a blob to be created in the background, unless it already was.
+   */
+  private void scheduleSidecar(final Blob blob) {
+    String repositoryName = blob.getHeaders().get(BlobStore.REPO_NAME_HEADER);
+    String blobName = blob.getHeaders().get(BlobStore.BLOB_NAME_HEADER);
+    ExecutorService sidecarExecutor = executor;
+    if (repositoryName == null || blobName == null || sidecarExecutor == null) {
+      return;
+    }
+    BlobStore blobStore = blobStore(repositoryManager.get(repositoryName));
+    if (blobStore == null || !blobStore.isWritable()) {
+      return;
+    }
+    Path base = sidecarBase(repositoryName, blobName);
+    Path pointerPath = pointerPath(base);
+    if (!pendingSidecars.add(pointerPath)) {
+      return;
+    }
+    try {
+      sidecarExecutor.execute(() -> {
+        try {
+          createSidecar(blobStore, repositoryName, blobName, base, blob);
+        }
+        finally {
+          pendingSidecars.remove(pointerPath);
+        }
+      });
+    }
+    catch (RejectedExecutionException e) {
+      pendingSidecars.remove(pointerPath);
+      log.debug("Too many gzip variants waiting to be created, skipping {} : {}", repositoryName, blobName);
+    }
+  }
+
+  private void createSidecar(
+      final BlobStore blobStore,
+      final String repositoryName,
+      final String blobName,
+      final Path base,
+      final Blob blob)
+  {
+    Path pointerPath = pointerPath(base);
+    Lock lock = sidecarLocks.get(pointerPath);
+    lock.lock();
+    try {
+      RawObjectAccess rawObjects = blobStore.getRawObjectAccess();
+      Properties pointer = readPointer(rawObjects, pointerPath);
+      if (pointer == null || !blob.getId().asUniqueString().equals(pointer.getProperty(BLOB_ID))) {
+        writeSidecar(rawObjects, pointerPath, base, blob, pointer);
+      }
+    }
+    catch (UnsupportedOperationException e) {
+      log.debug("Blob store of repository {} does not support raw objects", repositoryName);
+    }
+    catch (IOException | RuntimeException e) {
+      log.warn("Unable to create gzip variant of {} : {}, {}", repositoryName, blobName, e.getMessage(),
+          log.isDebugEnabled() ? e : null);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  @Nullable
+  private BlobStore blobStore(@Nullable final Repository repository) {
+    if (repository == null) {
+      return null;
+    }
+    String blobStoreName = repository.getConfiguration().attributes(STORAGE).get(BLOB_STORE_NAME, String.class);
+    return blobStoreName != null ? blobStoreManager.get(blobStoreName) : null;
+  }
+
+  /**
+   * Sidecars of a repository are kept flat in one directory, named by the hash of their blob name, so that they can
+   * all be listed when the repository is deleted.
+   */
+  private static Path sidecarBase(final String repositoryName, final String blobName) {
+    String name = Hashing.sha1().hashString(blobName.replaceFirst("^/+", ""), UTF_8).toString();
+    return Paths.get(SIDECAR_ROOT, repositoryName, name);
+  }
+
+  private static Path pointerPath(final Path base) {
+    return base.resolveSibling(base.getFileName() + POINTER_SUFFIX);
+  }
+
+  /**
+   * Removes the sidecar of a deleted asset.
+   *
+   * @param blobName the name the asset's blob was stored under
+   */
+  public void deleteSidecar(final Repository repository, final String blobName) {
+    BlobStore blobStore = blobStore(repository);
+    if (blobStore == null) {
+      return;
+    }
+    Path base = sidecarBase(repository.getName(), blobName);
+    Path pointerPath = pointerPath(base);
+    Lock lock = sidecarLocks.get(pointerPath);
+    lock.lock();
+    try {
+      RawObjectAccess rawObjects = blobStore.getRawObjectAccess();
+      Properties pointer = readPointer(rawObjects, pointerPath);
+      if (pointer != null) {
+        rawObjects.deleteRawObject(pointerPath);
+        rawObjects.deleteRawObject(variantPath(base, pointer.getProperty(BLOB_ID)));
+        log.debug("Deleted gzip variant of {} : {}", repository.getName(), blobName);
+      }
+    }
+    catch (UnsupportedOperationException e) {
+      log.trace("Blob store of repository {} does not support raw objects", repository.getName());
+    }
+    catch (IOException | RuntimeException e) {
+      log.warn("Unable to delete gzip variant of {} : {}, {}", repository.getName(), blobName, e.getMessage(),
+          log.isDebugEnabled() ? e : null);
+    }
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final RepositoryDeletedEvent event) {
+    Repository repository = event.getRepository();
+    BlobStore blobStore = blobStore(repository);
+    if (blobStore == null) {
+      return;
+    }
+    Path directory = Paths.get(SIDECAR_ROOT, repository.getName());
+    try {
+      RawObjectAccess rawObjects = blobStore.getRawObjectAccess();
+      List<String> names;
+      try (Stream<String> listed = rawObjects.listRawObjects(directory)) {
+        names = listed.collect(toList());
+      }
+      names.forEach(name -> rawObjects.deleteRawObject(directory.resolve(name)));
+      log.debug("Deleted {} gzip variant files of repository {}", names.size(), repository.getName());
+    }
+    catch (UnsupportedOperationException e) {
+      log.trace("Blob store of repository {} does not support raw objects", repository.getName());
+    }
+    catch (RuntimeException e) {
+      log.warn("Unable to delete gzip variants of repository {}, {}", repository.getName(), e.getMessage(),
+          log.isDebugEnabled() ? e : null);
+    }
+  }
+
+  @Nullable
+  private Payload openSidecar(
+      final RawObjectAccess rawObjects,
+      final Path pointerPath,
+      final Path base,
+      final String blobId,
+      @Nullable final String contentType) throws IOException
+  {
+    Properties pointer = readPointer(rawObjects, pointerPath);
+    if (pointer == null || !blobId.equals(pointer.getProperty(BLOB_ID))) {
+      return null;
+    }
+    InputStream in = rawObjects.getRawObject(variantPath(base, blobId));
+    if (in == null) {
+      return null;
+    }
+    return new SidecarPayload(in, Long.parseLong(pointer.getProperty(SIZE)), contentType);
+  }
+
+  /**
+   * Writes the compressed variant first and then the pointer naming it, so that only complete variants are used. The
+   * variant of the blob the pointer previously named is removed last.
+   *
+   * The blob is compressed while it streams into the raw object, so large blobs are never held in memory.
+   */
+  private void writeSidecar(
+      final RawObjectAccess rawObjects,
+      final Path pointerPath,
+      final Path base,
+      final Blob blob,
+      @Nullable final Properties previous) throws IOException
+  {
+    String blobId = blob.getId().asUniqueString();
+
+    Path variantPath = variantPath(base, blobId);
+    long size;
+    try {
+      size = new StreamCopier<>(
+          output -> compress(blob, output),
+          input -> {
+            CountingInputStream counter = new CountingInputStream(input);
+            rawObjects.putRawObject(variantPath, counter);
+            return counter.getCount();
+          }).read();
+    }
+    catch (RuntimeException e) {
+      rawObjects.deleteRawObject(variantPath);
+      throw e;
+    }
+
+    Properties pointer = new Properties();
+    pointer.setProperty(BLOB_ID, blobId);
+    pointer.setProperty(SIZE, Long.toString(size));
+    ByteArrayOutputStream pointerBytes = new ByteArrayOutputStream();
+    pointer.store(pointerBytes, null);
+    rawObjects.putRawObject(pointerPath, new ByteArrayInputStream(pointerBytes.toByteArray()));
+    log.debug("Created gzip variant of {} ({} -> {} bytes)", base, blob.getMetrics().getContentSize(), size);
+
+    String previousBlobId = previous != null ? previous.getProperty(BLOB_ID) : null;
+    if (previousBlobId != null && !previousBlobId.equals(blobId)) {
+      rawObjects.deleteRawObject(variantPath(base, previousBlobId));
+    }
+  }
+
+  private static void compress(final Blob blob, final OutputStream output) {
+    try (InputStream in = blob.getInputStream(); OutputStream gzip = new GZIPOutputStream(output)) {
+      ByteStreams.copy(in, gzip);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Nullable
+  private static Properties readPointer(final RawObjectAccess rawObjects, final Path pointerPath) throws IOException {
+    InputStream in = rawObjects.getRawObject(pointerPath);
+    if (in == null) {
+      return null;
+    }
+    Properties pointer = new Properties();
+    try (InputStream input = in) {
+      pointer.load(input);
+    }
+    return pointer.getProperty(BLOB_ID) != null && pointer.getProperty(SIZE) != null ? pointer : null;
+  }
+
+  private static Path variantPath(final Path base, final String blobId) {
+    return base.resolveSibling(base.getFileName() + "." + blobId + ".gz");
+  }
+
+  /**
+   * Pre-compressed variant read from the blob store.
+   */
+  private static class SidecarPayload
+      implements Payload
+  {
+    private final InputStream in;
+
+    private final long size;
+
+    private final String contentType;
+
+    SidecarPayload(final InputStream in, final long size, @Nullable final String contentType) {
+      this.in = in;
+      this.size = size;
+      this.contentType = contentType;
+    }
+
+    @Override
+    public InputStream openInputStream() {
+      return in;
+    }
+
+    @Override
+    public long getSize() {
+      return size;
+    }
+
+    @Nullable
+    @Override
+    public String getContentType() {
+      return contentType;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.httpbridge.internal;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.app.FeatureFlag;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.storage.AssetDeletedEvent;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.common.app.FeatureFlags.ORIENT_ENABLED;
+
+/**
+ * Removes the gzip sidecar of deleted assets.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+@FeatureFlag(name = ORIENT_ENABLED)
+public class OrientGzipSidecarCleaner
+    extends ComponentSupport
+    implements EventAware, EventAware.Asynchronous
+{
+  private final RepositoryManager repositoryManager;
+
+  private final GzipResponseEncoder gzipResponseEncoder;
+
+  @Inject
+  public OrientGzipSidecarCleaner(
+      final RepositoryManager repositoryManager,
+      final GzipResponseEncoder gzipResponseEncoder)
+  {
+    this.repositoryManager = checkNotNull(repositoryManager);
+    this.gzipResponseEncoder = checkNotNull(gzipResponseEncoder);
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final AssetDeletedEvent event) {
+    if (!event.isLocal()) {
+      return;
+    }
+    Repository repository = repositoryManager.get(event.getRepositoryName());
+    if (repository != null) {
+      gzipResponseEncoder.deleteSidecar(repository, event.getAsset().name());
+    }
+  }
+}
@@ -39,6 +39,7 @@ import org.sonatype.nexus.repository.view.ContentTypes;
 import org.sonatype.nexus.repository.view.Request;
 import org.sonatype.nexus.repository.view.Response;
 import org.sonatype.nexus.repository.view.ViewFacet;
+import org.sonatype.nexus.repository.view.handlers.RequestMetrics;
 import org.sonatype.nexus.repository.view.payloads.StringPayload;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -52,6 +53,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.view.handlers.RequestMetrics.Phase.WRITE;
 
 /**
  * Repository view servlet.
@@ -226,7 +228,13 @@ public class ViewServlet
         throw failure;
       }
       log.debug("Request: {}", request);
-      sender.send(request, response, httpResponse);
+      long start = System.nanoTime();
+      try {
+        sender.send(request, response, httpResponse);
+      }
+      finally {
+        RequestMetrics.record(response, WRITE, start);
+      }
     }
   }
 
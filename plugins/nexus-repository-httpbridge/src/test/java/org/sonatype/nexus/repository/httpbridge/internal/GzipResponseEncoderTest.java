@@ -0,0 +1,413 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.httpbridge.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobMetrics;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.blobstore.api.RawObjectAccess;
+import org.sonatype.nexus.common.entity.DetachedEntityId;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.http.HttpMethods;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.Status;
+import org.sonatype.nexus.repository.view.payloads.BlobPayload;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.config.ConfigurationConstants.BLOB_STORE_NAME;
+import static org.sonatype.nexus.repository.config.ConfigurationConstants.STORAGE;
+import static org.sonatype.nexus.repository.http.HttpStatus.NOT_MODIFIED;
+import static org.sonatype.nexus.repository.http.HttpStatus.OK;
+
+/**
+ * Tests for {@link GzipResponseEncoder}.
+ */
+public class GzipResponseEncoderTest
+    extends TestSupport
+{
+  private static final byte[] METADATA = new String(new char[4096]).replace('\0', 'x').getBytes(UTF_8);
+
+  @Mock
+  private RepositoryManager repositoryManager;
+
+  @Mock
+  private BlobStoreManager blobStoreManager;
+
+  @Mock(answer = RETURNS_DEEP_STUBS)
+  private Repository repository;
+
+  @Mock
+  private BlobStore blobStore;
+
+  private final InMemoryRawObjectAccess rawObjects = new InMemoryRawObjectAccess();
+
+  private GzipResponseEncoder underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    when(repositoryManager.get("maven-public")).thenReturn(repository);
+    when(repository.getName()).thenReturn("maven-public");
+    when(repository.getConfiguration().attributes(STORAGE).get(BLOB_STORE_NAME, String.class)).thenReturn("default");
+    when(blobStoreManager.get("default")).thenReturn(blobStore);
+    when(blobStore.isWritable()).thenReturn(true);
+    when(blobStore.getRawObjectAccess()).thenReturn(rawObjects);
+
+    // sidecars are created on the calling thread, so each test sees them as soon as they are asked for
+    underTest = new GzipResponseEncoder(repositoryManager, blobStoreManager, true, 1024, 1024 * 1024, 2,
+        MoreExecutors::newDirectExecutorService);
+    underTest.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (underTest.isStarted()) {
+      underTest.stop();
+    }
+  }
+
+  @Test
+  public void acceptEncodingNegotiation() {
+    assertThat(GzipResponseEncoder.acceptsGzip("gzip, deflate, br"), is(true));
+    assertThat(GzipResponseEncoder.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"), is(true));
+    assertThat(GzipResponseEncoder.acceptsGzip("gzip;q=0"), is(false));
+    assertThat(GzipResponseEncoder.acceptsGzip("identity"), is(false));
+    assertThat(GzipResponseEncoder.acceptsGzip("*"), is(true));
+    assertThat(GzipResponseEncoder.acceptsGzip("*, gzip;q=0"), is(false));
+  }
+
+  @Test
+  public void onlyTextualContentIsCompressed() {
+    assertThat(GzipResponseEncoder.isCompressible("text/xml; charset=UTF-8"), is(true));
+    assertThat(GzipResponseEncoder.isCompressible("application/json"), is(true));
+    assertThat(GzipResponseEncoder.isCompressible("application/vnd.docker.distribution.manifest.v2+json"), is(true));
+    assertThat(GzipResponseEncoder.isCompressible("application/java-archive"), is(false));
+    assertThat(GzipResponseEncoder.isCompressible("application/x-gzip"), is(false));
+    assertThat(GzipResponseEncoder.isCompressible(null), is(false));
+  }
+
+  @Test
+  public void unencodedWhenClientDoesNotAcceptGzip() {
+    Response response = ok(metadata(blob("blob-1")));
+
+    Payload payload = underTest.encode(get(null), response);
+
+    assertThat(payload, sameInstance(response.getPayload()));
+    assertThat(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING), nullValue());
+  }
+
+  @Test
+  public void identityVaryingOnEncodingWhenGzipNotAcceptable() {
+    Response response = ok(metadata(blob("blob-1")));
+
+    Payload payload = underTest.encode(get("identity"), response);
+
+    assertThat(payload, sameInstance(response.getPayload()));
+    assertThat(response.getHeaders().get(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+    assertThat(response.getHeaders().get(HttpHeaders.ETAG), is("\"abc\""));
+  }
+
+  @Test
+  public void smallAndBinaryContentIsNotEncoded() {
+    Response small = ok(new BytesPayload(new byte[10], "text/xml"));
+    Response binary = ok(new BytesPayload(METADATA, "application/java-archive"));
+
+    assertThat(underTest.encode(get("gzip"), small), sameInstance(small.getPayload()));
+    assertThat(underTest.encode(get("gzip"), binary), sameInstance(binary.getPayload()));
+  }
+
+  @Test
+  public void onlyMetadataIsEncoded() {
+    Blob blob = blob("blob-1");
+    Asset componentAsset = new Asset().componentId(new DetachedEntityId("component-1"));
+
+    assertThat(GzipResponseEncoder.isMetadata(metadata(blob)), is(true));
+    assertThat(GzipResponseEncoder.isMetadata(content(blob, componentAsset)), is(false));
+    assertThat(GzipResponseEncoder.isMetadata(new Content(new BlobPayload(blob, "text/xml"))), is(false));
+    assertThat(GzipResponseEncoder.isMetadata(new BytesPayload(METADATA, "text/xml")), is(false));
+
+    for (int i = 0; i < 3; i++) {
+      Response response = ok(content(blob, componentAsset));
+      assertThat(underTest.encode(get("gzip"), response), sameInstance(response.getPayload()));
+      assertThat(response.getHeaders().get(HttpHeaders.VARY), nullValue());
+    }
+    assertThat(rawObjects.objects.isEmpty(), is(true));
+  }
+
+  @Test
+  public void metadataIsSentUnencodedUntilItsSidecarExists() throws Exception {
+    Blob blob = blob("blob-1");
+
+    // the first request leaves the blob short of hot
+    Response first = ok(metadata(blob));
+    assertThat(underTest.encode(get("gzip"), first), sameInstance(first.getPayload()));
+    assertThat(first.getHeaders().get(HttpHeaders.CONTENT_ENCODING), nullValue());
+    assertThat(first.getHeaders().get(HttpHeaders.ETAG), is("\"abc\""));
+    assertThat(rawObjects.objects.isEmpty(), is(true));
+
+    // the second request is still sent unencoded, but asks for the sidecar
+    Response second = ok(metadata(blob));
+    assertThat(underTest.encode(get("gzip"), second), sameInstance(second.getPayload()));
+    assertThat(second.getHeaders().get(HttpHeaders.CONTENT_ENCODING), nullValue());
+    assertThat(rawObjects.objects.size(), is(2));
+
+    // later requests are served from the sidecar
+    Response third = ok(metadata(blob));
+    Payload sidecar = underTest.encode(get("gzip"), third);
+    assertThat(sidecar, not(sameInstance(third.getPayload())));
+    assertThat(third.getHeaders().get(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+    assertThat(third.getHeaders().get(HttpHeaders.ETAG), is("\"abc-gzip\""));
+    byte[] sent = send(sidecar);
+    assertThat((long) sent.length, is(sidecar.getSize()));
+    assertThat(gunzip(sent), is(METADATA));
+  }
+
+  @Test
+  public void changedAssetReplacesSidecar() throws Exception {
+    Blob blob = blob("blob-1");
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    assertThat(rawObjects.objects.size(), is(2));
+
+    Blob changed = blob("blob-2");
+    Response stale = ok(metadata(changed));
+    assertThat(underTest.encode(get("gzip"), stale), sameInstance(stale.getPayload()));
+    underTest.encode(get("gzip"), ok(metadata(changed)));
+
+    Payload replaced = underTest.encode(get("gzip"), ok(metadata(changed)));
+    assertThat(gunzip(send(replaced)), is(METADATA));
+    assertThat(rawObjects.objects.size(), is(2));
+    assertThat(rawObjects.objects.keySet().stream().anyMatch(path -> path.toString().contains("blob-1")), is(false));
+  }
+
+  @Test
+  public void headRequestsAreNegotiatedWithoutCreatingSidecars() throws Exception {
+    Blob blob = blob("blob-1");
+
+    Response response = ok(metadata(blob));
+    assertThat(underTest.encode(head("gzip"), response), sameInstance(response.getPayload()));
+    underTest.encode(head("gzip"), ok(metadata(blob)));
+    underTest.encode(head("gzip"), ok(metadata(blob)));
+
+    assertThat(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING), nullValue());
+    assertThat(response.getHeaders().get(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+    assertThat(rawObjects.objects.isEmpty(), is(true));
+
+    // once GET requests created the sidecar, HEAD reports its size
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    Payload sidecar = underTest.encode(get("gzip"), ok(metadata(blob)));
+    Response headResponse = ok(metadata(blob));
+    Payload headOfSidecar = underTest.encode(head("gzip"), headResponse);
+    assertThat(headOfSidecar.getSize(), is(sidecar.getSize()));
+    assertThat(headResponse.getHeaders().get(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+    assertThat(headResponse.getHeaders().get(HttpHeaders.ETAG), is("\"abc-gzip\""));
+    sidecar.close();
+    headOfSidecar.close();
+  }
+
+  @Test
+  public void sidecarsAreDeletedWithTheirAssetAndRepository() throws Exception {
+    Blob blob = blob("blob-1");
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    assertThat(rawObjects.objects.size(), is(2));
+
+    underTest.deleteSidecar(repository, "/org/example/maven-metadata.xml");
+    assertThat(rawObjects.objects.isEmpty(), is(true));
+
+    underTest.encode(get("gzip"), ok(metadata(blob)));
+    assertThat(rawObjects.objects.size(), is(2));
+
+    underTest.on(new RepositoryDeletedEvent(repository));
+    assertThat(rawObjects.objects.isEmpty(), is(true));
+  }
+
+  @Test
+  public void noSidecarsAreCreatedOnceStopped() throws Exception {
+    underTest.stop();
+
+    Blob blob = blob("blob-1");
+    for (int i = 0; i < 3; i++) {
+      Response response = ok(metadata(blob));
+      assertThat(underTest.encode(get("gzip"), response), sameInstance(response.getPayload()));
+    }
+    assertThat(rawObjects.objects.isEmpty(), is(true));
+  }
+
+  @Test
+  public void notModifiedEchoesVariantEtag() {
+    Response response = notModified("\"abc-gzip\"");
+
+    assertThat(response.getHeaders().get(HttpHeaders.ETAG), is("\"abc-gzip\""));
+  }
+
+  @Test
+  public void notModifiedOnlyEchoesVariantEtagOfAnExactMatch() {
+    Response response = notModified("W/\"abc-gzip\", \"xabc-gzip\"");
+
+    assertThat(response.getHeaders().get(HttpHeaders.ETAG), is("\"abc\""));
+  }
+
+  private Response notModified(final String ifNoneMatch) {
+    Request request = new Request.Builder()
+        .action(HttpMethods.GET)
+        .path("/maven-metadata.xml")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+        .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)
+        .build();
+    Response response = new Response.Builder()
+        .status(Status.success(NOT_MODIFIED))
+        .header(HttpHeaders.ETAG, "\"abc\"")
+        .build();
+
+    underTest.encode(request, response);
+    return response;
+  }
+
+  private static Request get(final String acceptEncoding) {
+    return request(HttpMethods.GET, acceptEncoding);
+  }
+
+  private static Request head(final String acceptEncoding) {
+    return request(HttpMethods.HEAD, acceptEncoding);
+  }
+
+  private static Request request(final String action, final String acceptEncoding) {
+    Request.Builder builder = new Request.Builder().action(action).path("/maven-metadata.xml");
+    if (acceptEncoding != null) {
+      builder.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    return builder.build();
+  }
+
+  private static Response ok(final Payload payload) {
+    return new Response.Builder()
+        .status(Status.success(OK))
+        .header(HttpHeaders.ETAG, "\"abc\"")
+        .payload(payload)
+        .build();
+  }
+
+  private static Content metadata(final Blob blob) {
+    return content(blob, new Asset());
+  }
+
+  private static Content content(final Blob blob, final Asset asset) {
+    Content content = new Content(new BlobPayload(blob, "text/xml"));
+    content.getAttributes().set(Asset.class, asset);
+    return content;
+  }
+
+  private static Blob blob(final String id) {
+    Blob blob = mock(Blob.class);
+    when(blob.getId()).thenReturn(new BlobId(id));
+    when(blob.getHeaders()).thenReturn(ImmutableMap.of(
+        BlobStore.REPO_NAME_HEADER, "maven-public",
+        BlobStore.BLOB_NAME_HEADER, "org/example/maven-metadata.xml"));
+    when(blob.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(METADATA));
+    BlobMetrics metrics = mock(BlobMetrics.class);
+    when(metrics.getContentSize()).thenReturn((long) METADATA.length);
+    when(blob.getMetrics()).thenReturn(metrics);
+    return blob;
+  }
+
+  private static byte[] send(final Payload payload) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = payload.openInputStream()) {
+      payload.copy(in, out);
+    }
+    payload.close();
+    return out.toByteArray();
+  }
+
+  private static byte[] gunzip(final byte[] bytes) throws Exception {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  private static class InMemoryRawObjectAccess
+      implements RawObjectAccess
+  {
+    private final Map<Path, byte[]> objects = new HashMap<>();
+
+    @Override
+    public Stream<String> listRawObjects(final Path path) {
+      return objects.keySet().stream()
+          .filter(object -> object.getParent().equals(path))
+          .map(object -> object.getFileName().toString());
+    }
+
+    @Override
+    public InputStream getRawObject(final Path path) {
+      byte[] bytes = objects.get(path);
+      return bytes != null ? new ByteArrayInputStream(bytes) : null;
+    }
+
+    @Override
+    public void putRawObject(final Path path, final InputStream in) {
+      try {
+        objects.put(path, ByteStreams.toByteArray(in));
+      }
+      catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public boolean hasRawObject(final Path path) {
+      return objects.containsKey(path);
+    }
+
+    @Override
+    public void deleteRawObject(final Path path) {
+      objects.remove(path);
+    }
+  }
+}
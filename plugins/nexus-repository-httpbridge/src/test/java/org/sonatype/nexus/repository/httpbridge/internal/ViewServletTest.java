@@ -18,6 +18,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
 import org.sonatype.nexus.common.app.BaseUrlHolder;
 import org.sonatype.nexus.repository.BadRequestException;
 import org.sonatype.nexus.repository.httpbridge.HttpResponseSender;
@@ -82,7 +83,8 @@ public class ViewServletTest
 
   @Before
   public void setUp() throws Exception {
-    defaultResponseSender = spy(new DefaultHttpResponseSender());
+    defaultResponseSender = spy(new DefaultHttpResponseSender(
+        new GzipResponseEncoder(mock(RepositoryManager.class), mock(BlobStoreManager.class), true, 1024, 1024 * 1024, 3)));
 
     when(descriptionRenderer.renderHtml(any(Description.class))).thenReturn("HTML");
     when(descriptionRenderer.renderJson(any(Description.class))).thenReturn("JSON");
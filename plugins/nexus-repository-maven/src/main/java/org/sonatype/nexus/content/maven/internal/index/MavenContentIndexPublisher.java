@@ -19,12 +19,18 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -39,27 +45,34 @@ import org.sonatype.nexus.repository.content.Component;
 import org.sonatype.nexus.repository.content.fluent.FluentAsset;
 import org.sonatype.nexus.repository.content.fluent.FluentQuery;
 import org.sonatype.nexus.repository.maven.MavenPath;
+import org.sonatype.nexus.repository.maven.MavenPath.Coordinates;
 import org.sonatype.nexus.repository.maven.MavenPath.SignatureType;
 import org.sonatype.nexus.repository.maven.MavenPathParser;
 import org.sonatype.nexus.repository.maven.internal.Maven2Format;
+import org.sonatype.nexus.repository.maven.internal.MavenIndexChain;
+import org.sonatype.nexus.repository.maven.internal.MavenIndexChain.PublishedIndex;
 import org.sonatype.nexus.repository.maven.internal.MavenIndexPublisher;
 import org.sonatype.nexus.repository.maven.internal.filter.DuplicateDetectionStrategy;
 import org.sonatype.nexus.repository.view.Content;
 
+import com.google.common.base.MoreObjects;
 import com.google.common.io.Closer;
-import org.apache.maven.index.reader.IndexWriter;
 import org.apache.maven.index.reader.Record;
 import org.apache.maven.index.reader.WritableResourceHandler;
 import org.apache.maven.index.reader.WritableResourceHandler.WritableResource;
 import org.joda.time.DateTime;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.maven.index.reader.Record.*;
 import static org.apache.maven.index.reader.Record.Type.ARTIFACT_ADD;
 import static org.sonatype.nexus.repository.maven.internal.Attributes.AssetKind.ARTIFACT;
+import static org.sonatype.nexus.repository.maven.internal.MavenIndexChain.gav;
 import static org.sonatype.nexus.repository.maven.internal.Attributes.P_BASE_VERSION;
 import static org.sonatype.nexus.repository.maven.internal.Attributes.P_CLASSIFIER;
 import static org.sonatype.nexus.repository.maven.internal.Attributes.P_PACKAGING;
@@ -77,6 +90,8 @@ import static org.sonatype.nexus.repository.view.Content.CONTENT_LAST_MODIFIED;
 public class MavenContentIndexPublisher
     extends MavenIndexPublisher
 {
+  private static final Duration CHANGE_SKEW = Duration.ofMinutes(1);
+
   private final int browseAssetsPageSize;
 
   @Inject
@@ -115,24 +130,30 @@ public class MavenContentIndexPublisher
     return records;
   }
 
+  /**
+   * Publishes the hosted index. When an index was published before, only the records of components changed since
+   * then are rebuilt from content, the other records are carried over from the published index.
+   */
   @Override
   public void publishHostedIndex(
       final Repository repository, final DuplicateDetectionStrategy<Record> duplicateDetectionStrategy)
       throws IOException
   {
+    Date timestamp = new Date();
     try (Maven2WritableResourceHandler resourceHandler = new Maven2WritableResourceHandler(repository)) {
-      try (IndexWriter indexWriter = new IndexWriter(resourceHandler, repository.getName(), false)) {
-        indexWriter.writeChunk(records(repository, duplicateDetectionStrategy).iterator());
-      }
+      PublishedIndex previous = MavenIndexChain.read(resourceHandler, repository.getName());
+      List<Map<String, String>> records = previous != null && MAX_INCREMENTS > 0
+          ? updatedRecords(repository, previous.getTimestamp(), previous.records(resourceHandler))
+          : records(repository, duplicateDetectionStrategy);
+      publishIndex(repository, resourceHandler, previous, records.iterator(), timestamp, emptyMap());
     }
   }
 
-  private Iterable<Map<String, String>> records(
+  private List<Map<String, String>> records(
       final Repository repository,
       final DuplicateDetectionStrategy<Record> duplicateDetectionStrategy)
   {
-    List<Record> hostedRecords = getHostedRecords(repository, duplicateDetectionStrategy);
-    return StreamSupport.stream(decorate(hostedRecords, repository.getName()).spliterator(), false)
+    return getHostedRecords(repository, duplicateDetectionStrategy).stream()
         .map(RECORD_COMPACTOR::apply)
         .collect(toList());
   }
@@ -154,6 +175,95 @@ public class MavenContentIndexPublisher
     return records;
   }
 
+  /**
+   * Returns the compact records for all artifacts, rebuilding only those of components that changed since the
+   * index was published and re-using the {@code published} records for the rest.
+   */
+  private List<Map<String, String>> updatedRecords(
+      final Repository repository,
+      final Date publishedTimestamp,
+      final Map<String, Map<String, String>> published)
+  {
+    MavenContentFacet mavenContentFacet = repository.facet(MavenContentFacet.class);
+    MavenPathParser mavenPathParser = mavenContentFacet.getMavenPathParser();
+    Set<String> changedGavs = changedGavs(mavenContentFacet, publishedTimestamp);
+
+    Map<String, Map<String, String>> records = new LinkedHashMap<>();
+    Map<String, String> reusedPaths = new HashMap<>();
+
+    FluentQuery<FluentAsset> artifactQuery = mavenContentFacet.assets().byKind(ARTIFACT.name());
+    Continuation<FluentAsset> assets = artifactQuery.browse(browseAssetsPageSize, null);
+    while (!assets.isEmpty()) {
+      for (FluentAsset asset : assets) {
+        MavenPath mavenPath = mavenPathParser.parsePath(asset.path());
+        Coordinates coordinates = mavenPath.getCoordinates();
+        if (coordinates == null || mavenPath.isSubordinate()) {
+          continue;
+        }
+        String uinfo = artifactUinfo(coordinates, mavenPath);
+        Map<String, String> record = changedGavs.contains(gav(uinfo)) ? null : published.get(uinfo);
+        if (record != null) {
+          if (records.putIfAbsent(uinfo, record) == null) {
+            reusedPaths.put(uinfo, asset.path());
+          }
+        }
+        else if (asset.component().isPresent()) {
+          record = RECORD_COMPACTOR.apply(toRecord(asset, mavenContentFacet));
+          records.putIfAbsent(MoreObjects.firstNonNull(MavenIndexChain.uinfo(record), uinfo), record);
+        }
+      }
+      assets = artifactQuery.browse(browseAssetsPageSize, assets.nextContinuationToken());
+    }
+
+    // removed artifacts, such as sources, affect the records of the remaining artifacts of the same component
+    Set<String> removedGavs = published.keySet().stream()
+        .filter(uinfo -> !records.containsKey(uinfo))
+        .map(MavenIndexChain::gav)
+        .collect(toSet());
+    if (!removedGavs.isEmpty()) {
+      reusedPaths.forEach((uinfo, path) -> {
+        if (removedGavs.contains(gav(uinfo))) {
+          mavenContentFacet.assets().path(path).find()
+              .filter(asset -> asset.component().isPresent())
+              .ifPresent(asset -> records.put(uinfo, RECORD_COMPACTOR.apply(toRecord(asset, mavenContentFacet))));
+        }
+      });
+    }
+
+    return new ArrayList<>(records.values());
+  }
+
+  /**
+   * Returns the {@code groupId|artifactId|version} of all components with assets changed since the given time.
+   */
+  private Set<String> changedGavs(final MavenContentFacet mavenContentFacet, final Date since) {
+    // allow for clock skew and transactions still in flight when the index was published
+    OffsetDateTime lastUpdated = OffsetDateTime.ofInstant(since.toInstant(), ZoneOffset.UTC).minus(CHANGE_SKEW);
+
+    MavenPathParser mavenPathParser = mavenContentFacet.getMavenPathParser();
+    FluentQuery<FluentAsset> changedQuery = mavenContentFacet.assets()
+        .byFilter("last_updated > #{filterParams.lastUpdated}", singletonMap("lastUpdated", lastUpdated));
+
+    Set<String> changedGavs = new HashSet<>();
+    Continuation<FluentAsset> assets = changedQuery.browse(browseAssetsPageSize, null);
+    while (!assets.isEmpty()) {
+      for (FluentAsset asset : assets) {
+        Coordinates coordinates = mavenPathParser.parsePath(asset.path()).getCoordinates();
+        if (coordinates != null) {
+          changedGavs.add(gav(MavenIndexChain.uinfo(
+              coordinates.getGroupId(), coordinates.getArtifactId(), coordinates.getBaseVersion(), null, null)));
+        }
+      }
+      assets = changedQuery.browse(browseAssetsPageSize, assets.nextContinuationToken());
+    }
+    return changedGavs;
+  }
+
+  private static String artifactUinfo(final Coordinates coordinates, final MavenPath mavenPath) {
+    return MavenIndexChain.uinfo(coordinates.getGroupId(), coordinates.getArtifactId(), coordinates.getBaseVersion(),
+        coordinates.getClassifier(), pathExtension(mavenPath.getFileName()));
+  }
+
   private List<Record> assetsToRecords(
       final Continuation<FluentAsset> assets,
       final MavenContentFacet mavenContentFacet,
@@ -226,7 +336,7 @@ public class MavenContentIndexPublisher
   }
 
   /**
-   * NX3 {@link MavenContentFacet} backed {@link WritableResourceHandler} to be used by {@link IndexWriter}.
+   * NX3 {@link MavenContentFacet} backed {@link WritableResourceHandler} to be used by {@link MavenIndexChain}.
    */
   static class Maven2WritableResourceHandler
       implements WritableResourceHandler
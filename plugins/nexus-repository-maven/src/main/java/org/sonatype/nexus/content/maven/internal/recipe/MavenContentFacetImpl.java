@@ -17,7 +17,6 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -72,6 +71,7 @@ import org.sonatype.nexus.repository.view.Payload;
 import org.sonatype.nexus.repository.view.payloads.TempBlob;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.hash.HashCode;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Model;
@@ -117,6 +117,8 @@ public class MavenContentFacetImpl
 
   private static final String CONFIG_KEY = "maven";
 
+  private static final int NAMESPACE_BATCH_SIZE = 500;
+
   private final Map<String, MavenPathParser> mavenPathParsers;
 
   private final MavenMetadataContentValidator metadataValidator;
@@ -434,7 +436,7 @@ public class MavenContentFacetImpl
     if (!ProxyType.NAME.equals(repository().getType().getValue())) {
       Set<List<String>> gavs = collectGavs(componentIds);
       int deletedCount = componentStore.purge(contentFacet.contentRepositoryId(), componentIds);
-      gavs.forEach(gav -> deleteMetadataOrFlagForRebuild(gav.get(0), gav.get(1), gav.get(2)));
+      deleteMetadataOrFlagForRebuild(gavs);
       return deletedCount;
     }
     else {
@@ -464,53 +466,58 @@ public class MavenContentFacetImpl
   @Override
   public Set<String> deleteMetadataOrFlagForRebuild(final Component component) {
     if (!ProxyType.NAME.equals(repository().getType().getValue())) {
-      String[] gav = collectGabv(component);
-      return deleteMetadataOrFlagForRebuild(gav[0], gav[1], gav[2]);
+      String[] gabv = collectGabv(component);
+      return reconcileMetadata(Collections.singleton(Arrays.asList(gabv)), findRemainingGavs(gabv[0], gabv[1]));
     }
     return Collections.emptySet();
   }
 
   /**
-   * @return set of deleted metadata assets' paths
+   * Finds what remains of a single artifact; the rest of its namespace is only checked once the artifact is gone.
    */
-  private Set<String> deleteMetadataOrFlagForRebuild(
-      final String groupId,
-      final String artifactId,
-      final String baseVersion)
-  {
-    checkNotNull(groupId);
-    checkNotNull(artifactId);
-    checkNotNull(baseVersion);
-
-    List<String[]> metadataCoordinatesToDelete = new ArrayList<>();
-    ImmutableMap<String, Object> gabvQueryParameters =
-        ImmutableMap.of("groupId", groupId, "artifactId", artifactId, "baseVersion", baseVersion);
-    boolean gNonEmpty = components().byFilter("namespace = #{filterParams.groupId}", gabvQueryParameters).count() > 0;
-    boolean gaNonEmpty = components()
-        .byFilter("namespace = #{filterParams.groupId} AND name = #{filterParams.artifactId}", gabvQueryParameters)
-        .count() > 0;
-    boolean gabvNonEmpty = components().byFilter(
-        "namespace = #{filterParams.groupId} AND name = #{filterParams.artifactId} AND base_version = #{filterParams.baseVersion}",
-        gabvQueryParameters).count() > 0;
-
-    if (gabvNonEmpty) {
-      flagForMetadataRebuild(groupId, artifactId, baseVersion);
-    }
-    else if (gaNonEmpty) {
-      metadataCoordinatesToDelete.add(new String[]{groupId, artifactId, baseVersion});
-      flagForMetadataRebuild(groupId, artifactId, null);
+  private Set<GAV> findRemainingGavs(final String groupId, final String artifactId) {
+    Maven2ComponentStore componentStore = (Maven2ComponentStore) stores().componentStore;
+    Set<GAV> remainingGavs = new HashSet<>(
+        componentStore.findGavsForArtifact(contentRepositoryId(), checkNotNull(groupId), checkNotNull(artifactId)));
+    if (remainingGavs.isEmpty()) {
+      componentStore.findAnyGavInNamespace(contentRepositoryId(), groupId).ifPresent(remainingGavs::add);
     }
-    else if (gNonEmpty) {
-      metadataCoordinatesToDelete.add(new String[]{groupId, artifactId, baseVersion});
-      metadataCoordinatesToDelete.add(new String[]{groupId, artifactId, null});
-      flagForMetadataRebuild(groupId, null, null);
+    return remainingGavs;
+  }
+
+  /**
+   * Reconciles metadata for a batch of deleted components: a single grouped query finds what remains in the
+   * affected namespaces, then each metadata level is deleted or flagged for rebuild at most once.
+   *
+   * @return set of deleted metadata assets' paths
+   */
+  private Set<String> deleteMetadataOrFlagForRebuild(final Set<List<String>> gabvs) {
+    if (gabvs.isEmpty()) {
+      return Collections.emptySet();
     }
-    else {
-      metadataCoordinatesToDelete.add(new String[]{groupId, artifactId, baseVersion});
-      metadataCoordinatesToDelete.add(new String[]{groupId, artifactId, null});
-      metadataCoordinatesToDelete.add(new String[]{groupId, null, null});
+
+    Set<String> namespaces = gabvs.stream().map(gabv -> checkNotNull(gabv.get(0))).collect(toSet());
+    Maven2ComponentStore componentStore = (Maven2ComponentStore) stores().componentStore;
+    Set<GAV> remainingGavs = new HashSet<>();
+    for (List<String> batch : Iterables.partition(namespaces, NAMESPACE_BATCH_SIZE)) {
+      remainingGavs.addAll(componentStore.findGavsInNamespaces(contentRepositoryId(), batch));
     }
+    return reconcileMetadata(gabvs, remainingGavs);
+  }
 
+  /**
+   * Deletes or flags for rebuild each metadata level affected by the deleted components, given what remains.
+   *
+   * @return set of deleted metadata assets' paths
+   */
+  private Set<String> reconcileMetadata(final Set<List<String>> gabvs, final Set<GAV> remainingGavs) {
+    MavenMetadataReconciliation reconciliation = MavenMetadataReconciliation.reconcile(gabvs, remainingGavs);
+    reconciliation.metadataToFlag().forEach(gav -> flagForMetadataRebuild(gav[0], gav[1], gav[2]));
+
+    List<String[]> metadataCoordinatesToDelete = reconciliation.metadataToDelete();
+    if (metadataCoordinatesToDelete.isEmpty()) {
+      return Collections.emptySet();
+    }
     return metadataRebuilder.deleteMetadata(getRepository(), metadataCoordinatesToDelete);
   }
 
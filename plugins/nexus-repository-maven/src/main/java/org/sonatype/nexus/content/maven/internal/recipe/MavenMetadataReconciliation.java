@@ -0,0 +1,108 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.content.maven.internal.recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.sonatype.nexus.content.maven.store.GAV;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Decides, for a batch of deleted group/artifact/baseVersion coordinates, which maven-metadata.xml files can be
+ * deleted outright and which must be flagged for rebuild because content remains at that level.
+ *
+ * Each metadata level is considered once per batch, so deleting many versions of the same artifact results in a
+ * single rebuild flag on the GA metadata instead of one per deleted component.
+ *
+ * @since 3.31
+ */
+final class MavenMetadataReconciliation
+{
+  private final List<String[]> metadataToDelete = new ArrayList<>();
+
+  private final List<String[]> metadataToFlag = new ArrayList<>();
+
+  private MavenMetadataReconciliation() {
+    // use reconcile
+  }
+
+  /**
+   * @param deletedGabvs coordinates (groupId, artifactId, baseVersion) of the deleted components
+   * @param remainingGavs GAVs still present in the namespaces of the deleted components
+   */
+  static MavenMetadataReconciliation reconcile(
+      final Collection<List<String>> deletedGabvs,
+      final Collection<GAV> remainingGavs)
+  {
+    Set<String> remainingG = new HashSet<>();
+    Set<List<String>> remainingGa = new HashSet<>();
+    Set<List<String>> remainingGabv = new HashSet<>();
+    for (GAV gav : remainingGavs) {
+      remainingG.add(gav.group);
+      remainingGa.add(Arrays.asList(gav.group, gav.name));
+      remainingGabv.add(Arrays.asList(gav.group, gav.name, gav.baseVersion));
+    }
+
+    Set<List<String>> toDelete = new LinkedHashSet<>();
+    Set<List<String>> toFlag = new LinkedHashSet<>();
+    for (List<String> gabv : deletedGabvs) {
+      String groupId = checkNotNull(gabv.get(0));
+      String artifactId = checkNotNull(gabv.get(1));
+      String baseVersion = checkNotNull(gabv.get(2));
+
+      if (remainingGabv.contains(gabv)) {
+        toFlag.add(Arrays.asList(groupId, artifactId, baseVersion));
+      }
+      else if (remainingGa.contains(Arrays.asList(groupId, artifactId))) {
+        toDelete.add(Arrays.asList(groupId, artifactId, baseVersion));
+        toFlag.add(Arrays.asList(groupId, artifactId, null));
+      }
+      else if (remainingG.contains(groupId)) {
+        toDelete.add(Arrays.asList(groupId, artifactId, baseVersion));
+        toDelete.add(Arrays.asList(groupId, artifactId, null));
+        toFlag.add(Arrays.asList(groupId, null, null));
+      }
+      else {
+        toDelete.add(Arrays.asList(groupId, artifactId, baseVersion));
+        toDelete.add(Arrays.asList(groupId, artifactId, null));
+        toDelete.add(Arrays.asList(groupId, null, null));
+      }
+    }
+
+    MavenMetadataReconciliation reconciliation = new MavenMetadataReconciliation();
+    toDelete.forEach(coordinates -> reconciliation.metadataToDelete.add(coordinates.toArray(new String[0])));
+    toFlag.forEach(coordinates -> reconciliation.metadataToFlag.add(coordinates.toArray(new String[0])));
+    return reconciliation;
+  }
+
+  /**
+   * @return metadata coordinates whose maven-metadata.xml should be deleted, without duplicates
+   */
+  List<String[]> metadataToDelete() {
+    return metadataToDelete;
+  }
+
+  /**
+   * @return metadata coordinates whose maven-metadata.xml should be flagged for rebuild, without duplicates
+   */
+  List<String[]> metadataToFlag() {
+    return metadataToFlag;
+  }
+}
@@ -15,6 +15,7 @@ package org.sonatype.nexus.content.maven.store;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import org.sonatype.nexus.repository.content.store.ComponentDAO;
@@ -52,6 +53,45 @@ public interface Maven2ComponentDAO
   Set<GAV> findGavsWithSnaphots(@Param("repositoryId") final int repositoryId,
                                 @Param("minimumRetained") final int minimumRetained);
 
+  /**
+   * Find all GAVs remaining in the given namespaces, used to decide in a single round-trip which metadata levels
+   * became empty after a bulk delete.
+   *
+   * @param repositoryId the repository to select from
+   * @param namespaces the maven groupIds to inspect
+   * @return all GAVs remaining in the given namespaces, with their component count
+   *
+   * @since 3.31
+   */
+  Set<GAV> findGavsInNamespaces(@Param("repositoryId") final int repositoryId,
+                                @Param("namespaces") final Collection<String> namespaces);
+
+  /**
+   * Find all GAVs remaining for the given artifact, used to reconcile metadata after a single component is deleted.
+   *
+   * @param repositoryId the repository to select from
+   * @param namespace the maven groupId
+   * @param name the maven artifactId
+   * @return all GAVs remaining for the given artifact, with their component count
+   *
+   * @since 3.31
+   */
+  Set<GAV> findGavsForArtifact(@Param("repositoryId") final int repositoryId,
+                               @Param("namespace") final String namespace,
+                               @Param("name") final String name);
+
+  /**
+   * Find any one GAV remaining in the given namespace, used to check whether the group still has content.
+   *
+   * @param repositoryId the repository to select from
+   * @param namespace the maven groupId
+   * @return a GAV in the given namespace, if there is one
+   *
+   * @since 3.31
+   */
+  Optional<GAV> findAnyGavInNamespace(@Param("repositoryId") final int repositoryId,
+                                      @Param("namespace") final String namespace);
+
   /**
    * Find components by Group Artifact Version(GAVs)
    *
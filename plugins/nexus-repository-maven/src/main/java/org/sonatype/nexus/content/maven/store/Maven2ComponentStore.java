@@ -15,6 +15,7 @@ package org.sonatype.nexus.content.maven.store;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -54,6 +55,21 @@ public class Maven2ComponentStore
     return dao().findGavsWithSnaphots(repositoryId, minimumRetained);
   }
 
+  @Transactional
+  public Set<GAV> findGavsInNamespaces(final int repositoryId, final Collection<String> namespaces) {
+    return dao().findGavsInNamespaces(repositoryId, namespaces);
+  }
+
+  @Transactional
+  public Set<GAV> findGavsForArtifact(final int repositoryId, final String namespace, final String name) {
+    return dao().findGavsForArtifact(repositoryId, namespace, name);
+  }
+
+  @Transactional
+  public Optional<GAV> findAnyGavInNamespace(final int repositoryId, final String namespace) {
+    return dao().findAnyGavInNamespace(repositoryId, namespace);
+  }
+
   @Transactional
   public List<Maven2ComponentData> findComponentsForGav(final int repositoryId,
                                                         final String name,
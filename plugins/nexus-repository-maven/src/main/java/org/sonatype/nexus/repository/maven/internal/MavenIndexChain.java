@@ -0,0 +1,406 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.maven.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.apache.maven.index.reader.ChunkReader;
+import org.apache.maven.index.reader.ChunkWriter;
+import org.apache.maven.index.reader.RecordCompactor;
+import org.apache.maven.index.reader.WritableResourceHandler;
+import org.apache.maven.index.reader.WritableResourceHandler.WritableResource;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Iterables.concat;
+import static com.google.common.collect.Iterables.transform;
+import static java.util.Collections.singletonList;
+import static org.apache.maven.index.reader.Utils.allGroups;
+import static org.apache.maven.index.reader.Utils.descriptor;
+import static org.apache.maven.index.reader.Utils.rootGroup;
+import static org.apache.maven.index.reader.Utils.rootGroups;
+
+/**
+ * Reads and writes a published Maven index as a chain: the full {@code nexus-maven-repository-index.gz} chunk plus
+ * {@code nexus-maven-repository-index.N.gz} chunks holding only the records added, changed or removed since the
+ * previous publish. The properties file lists the retained increments newest first, the same way Nexus 2 did, so
+ * clients holding an index from the same chain only download the increments they are missing.
+ *
+ * @since 3.31
+ */
+public final class MavenIndexChain
+{
+  public static final String INDEX_FILE_PREFIX = "nexus-maven-repository-index";
+
+  public static final String PROPERTIES_FILE = INDEX_FILE_PREFIX + ".properties";
+
+  public static final String MAIN_CHUNK_FILE = INDEX_FILE_PREFIX + ".gz";
+
+  private static final String INDEX_ID = "nexus.index.id";
+
+  private static final String CHAIN_ID = "nexus.index.chain-id";
+
+  private static final String TIMESTAMP = "nexus.index.timestamp";
+
+  private static final String LAST_INCREMENTAL = "nexus.index.last-incremental";
+
+  private static final String INCREMENTAL_PREFIX = "nexus.index.incremental-";
+
+  private static final String SOURCE_PREFIX = "nexus.index.source.";
+
+  private static final String TIMESTAMP_FORMAT = "yyyyMMddHHmmss.SSS Z";
+
+  // compact record fields, see RecordCompactor
+  private static final String UINFO = "u";
+
+  private static final String DELETED = "del";
+
+  private static final String MODIFIED = "m";
+
+  private static final String FIELD_SEPARATOR = "|";
+
+  private static final String NOT_AVAILABLE = "NA";
+
+  private static final int CHUNK_VERSION = 1;
+
+  private static final RecordCompactor RECORD_COMPACTOR = new RecordCompactor();
+
+  private MavenIndexChain() {
+    // utility class
+  }
+
+  /**
+   * Returns the state of the index currently published with the given id, or {@code null} if there is no usable
+   * index.
+   */
+  @Nullable
+  public static PublishedIndex read(final WritableResourceHandler resourceHandler, final String indexId)
+      throws IOException
+  {
+    Properties properties = new Properties();
+    try (WritableResource resource = resourceHandler.locate(PROPERTIES_FILE)) {
+      InputStream in = resource.read();
+      if (in == null) {
+        return null;
+      }
+      try (InputStream stream = in) {
+        properties.load(stream);
+      }
+    }
+    if (!indexId.equals(properties.getProperty(INDEX_ID)) || properties.getProperty(CHAIN_ID) == null) {
+      return null;
+    }
+    try {
+      return new PublishedIndex(properties, newTimestampFormat().parse(properties.getProperty(TIMESTAMP, "")));
+    }
+    catch (ParseException e) { // NOSONAR
+      return null;
+    }
+  }
+
+  /**
+   * Publishes the given compact artifact records as the new full chunk and, when {@code previous} is given and
+   * {@code maxIncrements} is positive, as an increment holding the differences against the previous full chunk.
+   *
+   * @param records      compacted {@code ARTIFACT_ADD} records, free of duplicates
+   * @param sources      opaque per-source markers to remember alongside the index, see {@link
+   *                     PublishedIndex#hasSources}
+   * @return the names of chunks that are no longer part of the chain and can be deleted
+   */
+  public static Set<String> write(
+      final WritableResourceHandler resourceHandler,
+      final String indexId,
+      @Nullable final PublishedIndex previous,
+      final Iterator<Map<String, String>> records,
+      final Date timestamp,
+      final int maxIncrements,
+      final Map<String, String> sources) throws IOException
+  {
+    checkNotNull(resourceHandler);
+    checkNotNull(indexId);
+
+    boolean incremental = previous != null && maxIncrements > 0;
+
+    Properties properties = new Properties();
+    if (incremental) {
+      for (String key : previous.properties.stringPropertyNames()) {
+        if (!key.startsWith(SOURCE_PREFIX)) {
+          properties.setProperty(key, previous.properties.getProperty(key));
+        }
+      }
+    }
+    else {
+      properties.setProperty(INDEX_ID, indexId);
+      properties.setProperty(CHAIN_ID, UUID.randomUUID().toString());
+      if (maxIncrements > 0) {
+        properties.setProperty(LAST_INCREMENTAL, "0");
+      }
+    }
+
+    List<Map<String, String>> changes = new ArrayList<>();
+    if (incremental) {
+      Map<String, Map<String, String>> remaining = previous.records(resourceHandler);
+      writeChunk(resourceHandler, MAIN_CHUNK_FILE, indexId, transform(() -> records, record -> {
+        Map<String, String> published = remaining.remove(record.get(UINFO));
+        if (!record.equals(published)) {
+          changes.add(record);
+        }
+        return record;
+      }), timestamp);
+
+      String modified = Long.toString(timestamp.getTime());
+      for (String uinfo : remaining.keySet()) {
+        Map<String, String> removal = new HashMap<>();
+        removal.put(DELETED, uinfo);
+        removal.put(MODIFIED, modified);
+        changes.add(removal);
+      }
+      remaining.clear();
+
+      if (!changes.isEmpty()) {
+        String counter = Integer.toString(Integer.parseInt(properties.getProperty(LAST_INCREMENTAL, "0")) + 1);
+        writeChunk(resourceHandler, chunkName(counter), indexId, changes, timestamp);
+        addIncrement(properties, counter, maxIncrements);
+      }
+    }
+    else {
+      writeChunk(resourceHandler, MAIN_CHUNK_FILE, indexId, () -> records, timestamp);
+    }
+
+    properties.setProperty(TIMESTAMP, newTimestampFormat().format(timestamp));
+    sources.forEach((source, marker) -> properties.setProperty(SOURCE_PREFIX + source, marker));
+
+    // store the properties last, so the chain never refers to chunks that are not written yet
+    try (WritableResource resource = resourceHandler.locate(PROPERTIES_FILE)) {
+      try (OutputStream out = resource.write()) {
+        properties.store(out, null);
+      }
+    }
+
+    Set<String> obsolete = previous != null ? previous.getChunkNames() : new LinkedHashSet<>();
+    obsolete.removeAll(new PublishedIndex(properties, timestamp).getChunkNames());
+    return obsolete;
+  }
+
+  /**
+   * Returns the {@code uinfo} key identifying an artifact in compact records, see {@link RecordCompactor}.
+   */
+  public static String uinfo(
+      final String groupId,
+      final String artifactId,
+      final String version,
+      @Nullable final String classifier,
+      @Nullable final String extension)
+  {
+    StringBuilder buf = new StringBuilder()
+        .append(groupId).append(FIELD_SEPARATOR)
+        .append(artifactId).append(FIELD_SEPARATOR)
+        .append(version).append(FIELD_SEPARATOR)
+        .append(classifier != null ? classifier : NOT_AVAILABLE);
+    if (extension != null) {
+      buf.append(FIELD_SEPARATOR).append(extension);
+    }
+    return buf.toString();
+  }
+
+  /**
+   * Returns the {@code groupId|artifactId|version} prefix of the given {@code uinfo} key.
+   */
+  public static String gav(final String uinfo) {
+    int end = uinfo.indexOf(FIELD_SEPARATOR);
+    end = end < 0 ? end : uinfo.indexOf(FIELD_SEPARATOR, end + 1);
+    end = end < 0 ? end : uinfo.indexOf(FIELD_SEPARATOR, end + 1);
+    return end < 0 ? uinfo : uinfo.substring(0, end);
+  }
+
+  /**
+   * Returns the {@code uinfo} key of the given compact record; {@code null} if it doesn't describe an artifact.
+   */
+  @Nullable
+  public static String uinfo(final Map<String, String> record) {
+    return record.get(UINFO);
+  }
+
+  /**
+   * Adds the given increment as the newest in the chain, dropping the oldest ones beyond {@code maxIncrements}.
+   */
+  private static void addIncrement(final Properties properties, final String counter, final int maxIncrements) {
+    Map<Integer, String> increments = new TreeMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      if (key.startsWith(INCREMENTAL_PREFIX)) {
+        increments.put(Integer.valueOf(key.substring(INCREMENTAL_PREFIX.length())), properties.getProperty(key));
+        properties.remove(key);
+      }
+    }
+    properties.setProperty(INCREMENTAL_PREFIX + "0", counter);
+    int position = 1;
+    for (String increment : increments.values()) {
+      if (position >= maxIncrements) {
+        break;
+      }
+      properties.setProperty(INCREMENTAL_PREFIX + position++, increment);
+    }
+    properties.setProperty(LAST_INCREMENTAL, counter);
+  }
+
+  private static void writeChunk(
+      final WritableResourceHandler resourceHandler,
+      final String chunkName,
+      final String indexId,
+      final Iterable<Map<String, String>> records,
+      final Date timestamp) throws IOException
+  {
+    try (WritableResource resource = resourceHandler.locate(chunkName)) {
+      try (ChunkWriter chunkWriter = new ChunkWriter(chunkName, resource.write(), CHUNK_VERSION, timestamp)) {
+        chunkWriter.writeChunk(decorate(records, indexId).iterator());
+      }
+    }
+  }
+
+  /**
+   * Surrounds the given compact records with the descriptor record and the group records, where group records are
+   * calculated while iterating over the records.
+   */
+  private static Iterable<Map<String, String>> decorate(
+      final Iterable<Map<String, String>> records,
+      final String indexId)
+  {
+    TreeSet<String> allGroups = new TreeSet<>();
+    TreeSet<String> rootGroups = new TreeSet<>();
+    return concat(
+        singletonList(RECORD_COMPACTOR.apply(descriptor(indexId))),
+        transform(records, record -> {
+          String uinfo = record.get(UINFO);
+          if (uinfo != null) {
+            int end = uinfo.indexOf(FIELD_SEPARATOR);
+            String groupId = end >= 0 ? uinfo.substring(0, end) : uinfo;
+            allGroups.add(groupId);
+            rootGroups.add(rootGroup(groupId));
+          }
+          return record;
+        }),
+        // evaluated lazily, once all records have been seen
+        () -> Arrays.asList(
+            RECORD_COMPACTOR.apply(allGroups(allGroups)),
+            RECORD_COMPACTOR.apply(rootGroups(rootGroups))).iterator()
+    );
+  }
+
+  private static String chunkName(final String counter) {
+    return INDEX_FILE_PREFIX + '.' + counter + ".gz";
+  }
+
+  private static DateFormat newTimestampFormat() {
+    DateFormat format = new SimpleDateFormat(TIMESTAMP_FORMAT, Locale.ENGLISH);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    return format;
+  }
+
+  /**
+   * State of a published index.
+   */
+  public static final class PublishedIndex
+  {
+    private final Properties properties;
+
+    private final Date timestamp;
+
+    private Map<String, Map<String, String>> records;
+
+    private PublishedIndex(final Properties properties, final Date timestamp) {
+      this.properties = properties;
+      this.timestamp = timestamp;
+    }
+
+    /**
+     * When the index was published; records changed after this time are not yet in the index.
+     */
+    public Date getTimestamp() {
+      return timestamp;
+    }
+
+    /**
+     * Returns {@code true} if the index was published from exactly the given sources.
+     */
+    public boolean hasSources(final Map<String, String> sources) {
+      Map<String, String> published = new HashMap<>();
+      for (String key : properties.stringPropertyNames()) {
+        if (key.startsWith(SOURCE_PREFIX)) {
+          published.put(key.substring(SOURCE_PREFIX.length()), properties.getProperty(key));
+        }
+      }
+      return published.equals(sources);
+    }
+
+    /**
+     * Returns the published compact artifact records keyed by {@code uinfo}, reading the full chunk on first use.
+     * The returned map is consumed by {@link MavenIndexChain#write}.
+     */
+    public Map<String, Map<String, String>> records(final WritableResourceHandler resourceHandler)
+        throws IOException
+    {
+      if (records == null) {
+        records = new HashMap<>();
+        try (WritableResource resource = resourceHandler.locate(MAIN_CHUNK_FILE)) {
+          InputStream in = resource.read();
+          if (in != null) {
+            try (ChunkReader chunkReader = new ChunkReader(MAIN_CHUNK_FILE, in)) {
+              for (Map<String, String> record : chunkReader) {
+                String uinfo = record.get(UINFO);
+                if (uinfo != null) {
+                  records.putIfAbsent(uinfo, record);
+                }
+              }
+            }
+          }
+        }
+      }
+      return records;
+    }
+
+    /**
+     * Returns the names of the incremental chunks in the chain.
+     */
+    public Set<String> getChunkNames() {
+      Set<String> names = new LinkedHashSet<>();
+      for (Entry<Object, Object> entry : properties.entrySet()) {
+        if (entry.getKey().toString().startsWith(INCREMENTAL_PREFIX)) {
+          names.add(chunkName(entry.getValue().toString()));
+        }
+      }
+      return names;
+    }
+  }
+}
@@ -18,16 +18,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
 
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.maven.MavenIndexFacet;
 import org.sonatype.nexus.repository.maven.MavenPath;
 import org.sonatype.nexus.repository.maven.MavenPathParser;
+import org.sonatype.nexus.repository.maven.internal.MavenIndexChain.PublishedIndex;
 import org.sonatype.nexus.repository.maven.internal.filter.DuplicateDetectionStrategy;
 import org.sonatype.nexus.repository.proxy.ProxyFacet;
 import org.sonatype.nexus.repository.types.ProxyType;
@@ -40,7 +46,6 @@ import com.google.common.base.Predicate;
 import com.google.common.io.Closer;
 import org.apache.maven.index.reader.ChunkReader;
 import org.apache.maven.index.reader.IndexReader;
-import org.apache.maven.index.reader.IndexWriter;
 import org.apache.maven.index.reader.Record;
 import org.apache.maven.index.reader.Record.Type;
 import org.apache.maven.index.reader.RecordCompactor;
@@ -54,11 +59,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.transform;
-import static java.util.Collections.singletonList;
-import static org.apache.maven.index.reader.Utils.allGroups;
-import static org.apache.maven.index.reader.Utils.descriptor;
-import static org.apache.maven.index.reader.Utils.rootGroup;
-import static org.apache.maven.index.reader.Utils.rootGroups;
+import static org.sonatype.nexus.common.property.SystemPropertiesHelper.getInteger;
 import static org.sonatype.nexus.repository.http.HttpMethods.GET;
 import static org.sonatype.nexus.repository.maven.internal.Constants.INDEX_MAIN_CHUNK_FILE_PATH;
 import static org.sonatype.nexus.repository.maven.internal.Constants.INDEX_PROPERTY_FILE_PATH;
@@ -74,8 +75,15 @@ public abstract class MavenIndexPublisher extends ComponentSupport
 
   private static final String INDEX_MAIN_CHUNK_FILE = "/" + INDEX_MAIN_CHUNK_FILE_PATH;
 
+  private static final String INDEX_DIRECTORY = "/.index/";
+
   private static final RecordExpander RECORD_EXPANDER = new RecordExpander();
 
+  /**
+   * How many incremental chunks to retain in the published index chain; {@code 0} always publishes a new chain.
+   */
+  protected static final int MAX_INCREMENTS = getInteger("nexus.maven.index.publisher.maxIncrements", 30);
+
   protected static final RecordCompactor RECORD_COMPACTOR = new RecordCompactor();
 
   /**
@@ -99,6 +107,15 @@ public abstract class MavenIndexPublisher extends ComponentSupport
    */
   public boolean unpublishIndexFiles(final Repository repository) throws IOException {
     checkNotNull(repository);
+    PublishedIndex published;
+    try (WritableResourceHandler resourceHandler = getResourceHandler(repository)) {
+      published = MavenIndexChain.read(resourceHandler, repository.getName());
+    }
+    if (published != null) {
+      for (String chunkName : published.getChunkNames()) {
+        delete(repository, INDEX_DIRECTORY + chunkName);
+      }
+    }
     return delete(repository, INDEX_PROPERTY_FILE)
         && delete(repository, INDEX_MAIN_CHUNK_FILE);
   }
@@ -133,12 +150,17 @@ public abstract class MavenIndexPublisher extends ComponentSupport
       final DuplicateDetectionStrategy<Record> strategy) throws IOException
   {
     List<String> withoutIndex = new ArrayList<>();
+    Map<String, String> memberIndexes = new TreeMap<>();
     for (Iterator<Repository> ri = leafMembers.iterator(); ri.hasNext(); ) {
       Repository leafMemberRepository = ri.next();
-      if (leafMemberRepository.facet(MavenIndexFacet.class).lastPublished() == null) {
+      DateTime lastPublished = leafMemberRepository.facet(MavenIndexFacet.class).lastPublished();
+      if (lastPublished == null) {
         withoutIndex.add(leafMemberRepository.getName());
         ri.remove();
       }
+      else {
+        memberIndexes.put(leafMemberRepository.getName(), Long.toString(lastPublished.getMillis()));
+      }
     }
     if (!withoutIndex.isEmpty()) {
       log.info("Following members of group {} have no index, will not participate in merged index: {}",
@@ -146,7 +168,7 @@ public abstract class MavenIndexPublisher extends ComponentSupport
           withoutIndex
       );
     }
-    publishMergedIndex(groupRepository, leafMembers, strategy);
+    publishMergedIndex(groupRepository, leafMembers, memberIndexes, strategy);
   }
 
   /**
@@ -169,27 +191,30 @@ public abstract class MavenIndexPublisher extends ComponentSupport
   }
 
   /**
-   * Publishes MI index into {@code target}, sourced from {@code repositories} repositories.
+   * Publishes MI index into {@code target}, sourced from {@code repositories} repositories. Nothing is published when
+   * the member indexes are the same ones the current group index was merged from.
    */
   private void publishMergedIndex(
       final Repository target,
       final List<Repository> repositories,
+      final Map<String, String> memberIndexes,
       final DuplicateDetectionStrategy<Record> duplicateDetectionStrategy) throws IOException
   {
     checkNotNull(target);
     checkNotNull(repositories);
+    Date timestamp = new Date();
     Closer closer = Closer.create();
-    try (WritableResourceHandler resourceHandler = getResourceHandler(target);
-         IndexWriter indexWriter = new IndexWriter(resourceHandler, target.getName(), false)) {
-      indexWriter.writeChunk(
-          transform(
-              decorate(
-                  filter(concat(getGroupRecords(repositories, closer)), duplicateDetectionStrategy),
-                  target.getName()
-              ),
-              RECORD_COMPACTOR::apply
-          ).iterator()
-      );
+    try (WritableResourceHandler resourceHandler = getResourceHandler(target)) {
+      PublishedIndex previous = MavenIndexChain.read(resourceHandler, target.getName());
+      if (previous != null && previous.hasSources(memberIndexes)) {
+        log.debug("Member indexes of group {} unchanged since {}, nothing to publish",
+            target.getName(), previous.getTimestamp());
+        return;
+      }
+      publishIndex(target, resourceHandler, previous,
+          transform(filter(concat(getGroupRecords(repositories, closer)), duplicateDetectionStrategy),
+              RECORD_COMPACTOR::apply).iterator(),
+          timestamp, memberIndexes);
     }
     catch (Throwable t) {
       throw closer.rethrow(t);
@@ -199,6 +224,25 @@ public abstract class MavenIndexPublisher extends ComponentSupport
     }
   }
 
+  /**
+   * Publishes the given compact artifact records into {@code repository}, adding an incremental chunk with the
+   * differences to the {@code previous} index when there is one, and deleting chunks that dropped out of the chain.
+   */
+  protected void publishIndex(
+      final Repository repository,
+      final WritableResourceHandler resourceHandler,
+      @Nullable final PublishedIndex previous,
+      final Iterator<Map<String, String>> records,
+      final Date timestamp,
+      final Map<String, String> sources) throws IOException
+  {
+    Set<String> obsolete = MavenIndexChain.write(
+        resourceHandler, repository.getName(), previous, records, timestamp, MAX_INCREMENTS, sources);
+    for (String chunkName : obsolete) {
+      delete(repository, INDEX_DIRECTORY + chunkName);
+    }
+  }
+
   /**
    * Returns the {@link DateTime} when index of the given repository was last published.
    */
@@ -274,46 +318,6 @@ public abstract class MavenIndexPublisher extends ComponentSupport
     return null;
   }
 
-  /**
-   * Method creating decorated {@link Iterable} of records where "decorated" means that special records
-   * like descriptor, rootGroups and allGroups are automatically added as first and two last records (where group
-   * related ones are being calculated during iterating over returned iterable).
-   */
-  protected static Iterable<Record> decorate(
-      final Iterable<Record> iterable,
-      final String repositoryName)
-  {
-    final TreeSet<String> allGroups = new TreeSet<>();
-    final TreeSet<String> rootGroups = new TreeSet<>();
-    return transform(
-        concat(
-            singletonList(descriptor(repositoryName)),
-            iterable,
-            singletonList(allGroups(allGroups)), // placeholder, will be recreated at the end with proper content
-            singletonList(rootGroups(rootGroups)) // placeholder, will be recreated at the end with proper content
-        ),
-        (Record rec) -> {
-          if (Type.DESCRIPTOR == rec.getType()) {
-            return rec;
-          }
-          else if (Type.ALL_GROUPS == rec.getType()) {
-            return allGroups(allGroups);
-          }
-          else if (Type.ROOT_GROUPS == rec.getType()) {
-            return rootGroups(rootGroups);
-          }
-          else {
-            final String groupId = rec.get(Record.GROUP_ID);
-            if (groupId != null) {
-              allGroups.add(groupId);
-              rootGroups.add(rootGroup(groupId));
-            }
-            return rec;
-          }
-        }
-    );
-  }
-
   protected static String determineContentType(final String name) {
     String contentType;
     if (name.endsWith(".properties")) {
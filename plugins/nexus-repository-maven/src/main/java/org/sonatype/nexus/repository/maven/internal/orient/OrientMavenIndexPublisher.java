@@ -20,6 +20,7 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,7 @@ import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.maven.MavenPath;
 import org.sonatype.nexus.repository.maven.MavenPathParser;
 import org.sonatype.nexus.repository.maven.internal.Attributes.AssetKind;
+import org.sonatype.nexus.repository.maven.internal.MavenIndexChain;
 import org.sonatype.nexus.repository.maven.internal.MavenIndexPublisher;
 import org.sonatype.nexus.repository.maven.internal.filter.DuplicateDetectionStrategy;
 import org.sonatype.nexus.repository.storage.StorageFacet;
@@ -48,7 +50,6 @@ import org.sonatype.nexus.transaction.UnitOfWork;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.io.Closer;
 import com.orientechnologies.orient.core.record.impl.ODocument;
-import org.apache.maven.index.reader.IndexWriter;
 import org.apache.maven.index.reader.Record;
 import org.apache.maven.index.reader.WritableResourceHandler;
 import org.apache.maven.index.reader.WritableResourceHandler.WritableResource;
@@ -56,6 +57,7 @@ import org.apache.maven.index.reader.WritableResourceHandler.WritableResource;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.transform;
+import static java.util.Collections.emptyMap;
 import static org.apache.maven.index.reader.Record.*;
 import static org.apache.maven.index.reader.Record.Type.ARTIFACT_ADD;
 import static org.sonatype.nexus.repository.maven.MavenPath.SignatureType.GPG;
@@ -150,18 +152,19 @@ public final class OrientMavenIndexPublisher extends MavenIndexPublisher
     Transactional.operation.throwing(IOException.class).call(
         () -> {
           final StorageTx tx = UnitOfWork.currentTx();
+          final Date timestamp = new Date();
           try (Maven2WritableResourceHandler resourceHandler = new Maven2WritableResourceHandler(repository)) {
-            try (IndexWriter indexWriter = new IndexWriter(resourceHandler, repository.getName(), false)) {
-              indexWriter.writeChunk(
-                  transform(
-                      decorate(
-                          filter(getHostedRecords(tx, repository), duplicateDetectionStrategy),
-                          repository.getName()
-                      ),
-                      RECORD_COMPACTOR::apply
-                  ).iterator()
-              );
-            }
+            publishIndex(
+                repository,
+                resourceHandler,
+                MavenIndexChain.read(resourceHandler, repository.getName()),
+                transform(
+                    filter(getHostedRecords(tx, repository), duplicateDetectionStrategy),
+                    RECORD_COMPACTOR::apply
+                ).iterator(),
+                timestamp,
+                emptyMap()
+            );
           }
           return null;
         }
@@ -243,7 +246,7 @@ public final class OrientMavenIndexPublisher extends MavenIndexPublisher
   }
 
    /**
-   * NX3 {@link OrientMavenFacet} backed {@link WritableResourceHandler} to be used by {@link IndexWriter}.
+   * NX3 {@link OrientMavenFacet} backed {@link WritableResourceHandler} to be used by {@link MavenIndexChain}.
    */
   static class Maven2WritableResourceHandler
       implements WritableResourceHandler
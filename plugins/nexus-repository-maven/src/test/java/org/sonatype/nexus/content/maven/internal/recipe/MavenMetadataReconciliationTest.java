@@ -0,0 +1,88 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.content.maven.internal.recipe;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.content.maven.store.GAV;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Tests for {@link MavenMetadataReconciliation}
+ */
+public class MavenMetadataReconciliationTest
+    extends TestSupport
+{
+  @Test
+  public void flagsBaseVersionWhenComponentsRemainInIt() {
+    MavenMetadataReconciliation reconciliation = MavenMetadataReconciliation.reconcile(
+        ImmutableSet.of(gabv("org", "foo", "1.0-SNAPSHOT")),
+        ImmutableSet.of(new GAV("org", "foo", "1.0-SNAPSHOT", 2)));
+
+    assertThat(reconciliation.metadataToDelete(), empty());
+    assertThat(asLists(reconciliation.metadataToFlag()), contains(gabv("org", "foo", "1.0-SNAPSHOT")));
+  }
+
+  @Test
+  public void deletesBaseVersionAndFlagsArtifactOncePerBatch() {
+    MavenMetadataReconciliation reconciliation = MavenMetadataReconciliation.reconcile(
+        ImmutableSet.of(gabv("org", "foo", "1.0-SNAPSHOT"), gabv("org", "foo", "1.1-SNAPSHOT")),
+        ImmutableSet.of(new GAV("org", "foo", "2.0", 1)));
+
+    assertThat(asLists(reconciliation.metadataToDelete()),
+        containsInAnyOrder(gabv("org", "foo", "1.0-SNAPSHOT"), gabv("org", "foo", "1.1-SNAPSHOT")));
+    assertThat(asLists(reconciliation.metadataToFlag()), contains(gabv("org", "foo", null)));
+  }
+
+  @Test
+  public void deletesArtifactAndFlagsGroupWhenOnlySiblingsRemain() {
+    MavenMetadataReconciliation reconciliation = MavenMetadataReconciliation.reconcile(
+        ImmutableSet.of(gabv("org", "foo", "1.0"), gabv("org", "bar", "1.0")),
+        ImmutableSet.of(new GAV("org", "baz", "1.0", 1)));
+
+    assertThat(asLists(reconciliation.metadataToDelete()), containsInAnyOrder(
+        gabv("org", "foo", "1.0"), gabv("org", "foo", null),
+        gabv("org", "bar", "1.0"), gabv("org", "bar", null)));
+    assertThat(asLists(reconciliation.metadataToFlag()), contains(gabv("org", null, null)));
+  }
+
+  @Test
+  public void deletesEveryLevelWhenGroupIsEmpty() {
+    MavenMetadataReconciliation reconciliation = MavenMetadataReconciliation.reconcile(
+        ImmutableSet.of(gabv("org", "foo", "1.0"), gabv("org", "foo", "2.0")),
+        Collections.emptySet());
+
+    assertThat(asLists(reconciliation.metadataToDelete()), containsInAnyOrder(
+        gabv("org", "foo", "1.0"), gabv("org", "foo", "2.0"), gabv("org", "foo", null), gabv("org", null, null)));
+    assertThat(reconciliation.metadataToFlag(), empty());
+  }
+
+  private static List<String> gabv(final String groupId, final String artifactId, final String baseVersion) {
+    return Arrays.asList(groupId, artifactId, baseVersion);
+  }
+
+  private static List<List<String>> asLists(final List<String[]> coordinates) {
+    return coordinates.stream().map(Arrays::asList).collect(Collectors.toList());
+  }
+}
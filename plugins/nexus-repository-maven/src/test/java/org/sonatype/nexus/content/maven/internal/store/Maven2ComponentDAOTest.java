@@ -109,6 +109,31 @@ public class Maven2ComponentDAOTest
     }
   }
 
+  @Test
+  public void findGavsForArtifact() {
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      Maven2ComponentDAO dao = session.access(Maven2ComponentDAO.class);
+      Set<GAV> gavs = dao.findGavsForArtifact(repositoryId, "group", "artifact");
+      assertThat(gavs.size(), is(2));
+      assertThat(gavs.contains(new GAV("group", "artifact", "1.0.0", 1)), is(true));
+      assertThat(gavs.contains(new GAV("group", "artifact", "1.0.0-SNAPSHOT", 3)), is(true));
+
+      assertThat(dao.findGavsForArtifact(repositoryId, "group", "other").isEmpty(), is(true));
+    }
+  }
+
+  @Test
+  public void findAnyGavInNamespace() {
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      Maven2ComponentDAO dao = session.access(Maven2ComponentDAO.class);
+      Optional<GAV> gav = dao.findAnyGavInNamespace(repositoryId, "group");
+      assertTrue(gav.isPresent());
+      assertThat(gav.get().group, is("group"));
+
+      assertThat(dao.findAnyGavInNamespace(repositoryId, "other").isPresent(), is(false));
+    }
+  }
+
   @Test
   public void findComponentsForGav() {
     try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
@@ -0,0 +1,231 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.maven.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.maven.internal.MavenIndexChain.PublishedIndex;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.maven.index.reader.ChunkReader;
+import org.apache.maven.index.reader.WritableResourceHandler;
+import org.junit.Test;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MavenIndexChainTest
+    extends TestSupport
+{
+  private static final String INDEX_ID = "maven-releases";
+
+  private final MemoryResourceHandler resourceHandler = new MemoryResourceHandler();
+
+  @Test
+  public void testFirstPublishStartsChain() throws IOException {
+    assertThat(MavenIndexChain.read(resourceHandler, INDEX_ID), nullValue());
+
+    Set<String> obsolete = write(null, 30, artifact("org.foo", "foo", "1.0", "1"));
+
+    assertThat(obsolete, empty());
+    Properties properties = properties();
+    assertThat(properties.getProperty("nexus.index.id"), is(INDEX_ID));
+    assertThat(properties.getProperty("nexus.index.chain-id"), notNullValue());
+    assertThat(properties.getProperty("nexus.index.last-incremental"), is("0"));
+    assertThat(properties.getProperty("nexus.index.incremental-0"), nullValue());
+    assertThat(artifacts(MavenIndexChain.MAIN_CHUNK_FILE), contains("org.foo|foo|1.0|NA|jar"));
+  }
+
+  @Test
+  public void testPublishWritesIncrementOfChanges() throws IOException {
+    write(null, 30, artifact("org.foo", "foo", "1.0", "1"), artifact("org.foo", "foo", "1.1", "1"));
+    String chainId = properties().getProperty("nexus.index.chain-id");
+
+    PublishedIndex previous = MavenIndexChain.read(resourceHandler, INDEX_ID);
+    write(previous, 30, artifact("org.foo", "foo", "1.1", "2"), artifact("org.bar", "bar", "2.0", "2"));
+
+    Properties properties = properties();
+    assertThat(properties.getProperty("nexus.index.chain-id"), is(chainId));
+    assertThat(properties.getProperty("nexus.index.last-incremental"), is("1"));
+    assertThat(properties.getProperty("nexus.index.incremental-0"), is("1"));
+    assertThat(properties.getProperty("nexus.index.incremental-1"), nullValue());
+
+    assertThat(artifacts(MavenIndexChain.MAIN_CHUNK_FILE),
+        contains("org.foo|foo|1.1|NA|jar", "org.bar|bar|2.0|NA|jar"));
+
+    List<Map<String, String>> increment = records("nexus-maven-repository-index.1.gz");
+    assertThat(artifacts(increment), contains("org.foo|foo|1.1|NA|jar", "org.bar|bar|2.0|NA|jar"));
+    assertThat(increment.stream().anyMatch(record -> "org.foo|foo|1.0|NA|jar".equals(record.get("del"))), is(true));
+  }
+
+  @Test
+  public void testUnchangedPublishAddsNoIncrement() throws IOException {
+    write(null, 30, artifact("org.foo", "foo", "1.0", "1"));
+    write(MavenIndexChain.read(resourceHandler, INDEX_ID), 30, artifact("org.foo", "foo", "1.0", "1"));
+
+    assertThat(properties().getProperty("nexus.index.last-incremental"), is("0"));
+    assertThat(resourceHandler.files.containsKey("nexus-maven-repository-index.1.gz"), is(false));
+  }
+
+  @Test
+  public void testOldIncrementsDropOutOfChain() throws IOException {
+    write(null, 2, artifact("org.foo", "foo", "1.0", "1"));
+    write(MavenIndexChain.read(resourceHandler, INDEX_ID), 2, artifact("org.foo", "foo", "1.0", "2"));
+    write(MavenIndexChain.read(resourceHandler, INDEX_ID), 2, artifact("org.foo", "foo", "1.0", "3"));
+    Set<String> obsolete = write(MavenIndexChain.read(resourceHandler, INDEX_ID), 2,
+        artifact("org.foo", "foo", "1.0", "4"));
+
+    assertThat(obsolete, contains("nexus-maven-repository-index.1.gz"));
+    Properties properties = properties();
+    assertThat(properties.getProperty("nexus.index.incremental-0"), is("3"));
+    assertThat(properties.getProperty("nexus.index.incremental-1"), is("2"));
+    assertThat(properties.getProperty("nexus.index.incremental-2"), nullValue());
+  }
+
+  @Test
+  public void testIncrementsDisabledStartsNewChain() throws IOException {
+    write(null, 30, artifact("org.foo", "foo", "1.0", "1"));
+    write(MavenIndexChain.read(resourceHandler, INDEX_ID), 30, artifact("org.foo", "foo", "1.0", "2"));
+    String chainId = properties().getProperty("nexus.index.chain-id");
+
+    Set<String> obsolete = write(MavenIndexChain.read(resourceHandler, INDEX_ID), 0,
+        artifact("org.foo", "foo", "1.0", "3"));
+
+    assertThat(obsolete, contains("nexus-maven-repository-index.1.gz"));
+    assertThat(properties().getProperty("nexus.index.chain-id").equals(chainId), is(false));
+    assertThat(properties().getProperty("nexus.index.last-incremental"), nullValue());
+  }
+
+  @Test
+  public void testSources() throws IOException {
+    MavenIndexChain.write(resourceHandler, INDEX_ID, null, Arrays.asList(artifact("org.foo", "foo", "1.0", "1"))
+        .iterator(), new Date(), 30, ImmutableMap.of("maven-releases", "1", "maven-snapshots", "2"));
+
+    PublishedIndex published = MavenIndexChain.read(resourceHandler, INDEX_ID);
+    assertThat(published.hasSources(ImmutableMap.of("maven-releases", "1", "maven-snapshots", "2")), is(true));
+    assertThat(published.hasSources(ImmutableMap.of("maven-releases", "1", "maven-snapshots", "3")), is(false));
+    assertThat(published.hasSources(singletonMap("maven-releases", "1")), is(false));
+  }
+
+  @Test
+  public void testGav() {
+    assertThat(MavenIndexChain.gav(MavenIndexChain.uinfo("org.foo", "foo", "1.0", null, "jar")), is("org.foo|foo|1.0"));
+    assertThat(MavenIndexChain.uinfo("org.foo", "foo", "1.0", "sources", null), is("org.foo|foo|1.0|sources"));
+  }
+
+  @SafeVarargs
+  private final Set<String> write(final PublishedIndex previous, final int maxIncrements,
+                                  final Map<String, String>... records) throws IOException
+  {
+    return MavenIndexChain.write(resourceHandler, INDEX_ID, previous, Arrays.asList(records).iterator(), new Date(),
+        maxIncrements, emptyMap());
+  }
+
+  private static Map<String, String> artifact(final String groupId,
+                                              final String artifactId,
+                                              final String version,
+                                              final String modified)
+  {
+    Map<String, String> record = new HashMap<>();
+    record.put("u", MavenIndexChain.uinfo(groupId, artifactId, version, null, "jar"));
+    record.put("i", "jar|0|0|0|0|0|jar");
+    record.put("m", modified);
+    return record;
+  }
+
+  private Properties properties() throws IOException {
+    Properties properties = new Properties();
+    properties.load(new ByteArrayInputStream(resourceHandler.files.get(MavenIndexChain.PROPERTIES_FILE)));
+    return properties;
+  }
+
+  private List<Map<String, String>> records(final String chunkName) throws IOException {
+    List<Map<String, String>> records = new ArrayList<>();
+    try (ChunkReader chunkReader = new ChunkReader(chunkName,
+        new ByteArrayInputStream(resourceHandler.files.get(chunkName)))) {
+      chunkReader.forEach(records::add);
+    }
+    return records;
+  }
+
+  private List<String> artifacts(final String chunkName) throws IOException {
+    return artifacts(records(chunkName));
+  }
+
+  private static List<String> artifacts(final List<Map<String, String>> records) {
+    List<String> artifacts = new ArrayList<>();
+    records.forEach(record -> {
+      if (record.containsKey("u")) {
+        artifacts.add(record.get("u"));
+      }
+    });
+    return artifacts;
+  }
+
+  private static class MemoryResourceHandler
+      implements WritableResourceHandler
+  {
+    private final Map<String, byte[]> files = new HashMap<>();
+
+    @Override
+    public WritableResource locate(final String name) {
+      return new WritableResource()
+      {
+        private ByteArrayOutputStream out;
+
+        @Override
+        public InputStream read() {
+          byte[] bytes = files.get(name);
+          return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        }
+
+        @Override
+        public OutputStream write() {
+          out = new ByteArrayOutputStream();
+          return out;
+        }
+
+        @Override
+        public void close() {
+          if (out != null) {
+            files.put(name, out.toByteArray());
+          }
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+      // nop
+    }
+  }
+}
@@ -12,8 +12,8 @@
  */
 package org.sonatype.nexus.repository.p2.internal.proxy;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -57,8 +57,8 @@ import org.sonatype.nexus.repository.view.payloads.TempBlob;
 import org.sonatype.nexus.transaction.Transactional;
 import org.sonatype.nexus.transaction.UnitOfWork;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.reflect.TypeToken;
-import org.apache.commons.io.IOUtils;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sonatype.nexus.repository.p2.internal.AssetKind.BINARY_BUNDLE;
@@ -86,18 +86,23 @@ public class P2ProxyFacetImpl
 
   public static final String CHILD_URLS = "child_urls";
 
+  private static final int MIME_DETECTION_LIMIT = 64 * 1024;
+
   private final P2TempBlobUtils p2TempBlobUtils;
 
   private final ContentValidator contentValidator;
 
+  private final PipedStreamCopier pipedStreamCopier;
+
   @Inject
   public P2ProxyFacetImpl(
       final P2TempBlobUtils p2TempBlobUtils,
-      final ContentValidator contentValidator)
+      final ContentValidator contentValidator,
+      final PipedStreamCopier pipedStreamCopier)
   {
     this.p2TempBlobUtils = checkNotNull(p2TempBlobUtils);
     this.contentValidator = checkNotNull(contentValidator);
-
+    this.pipedStreamCopier = checkNotNull(pipedStreamCopier);
   }
 
   // HACK: Workaround for known CGLIB issue, forces an Import-Package for org.sonatype.nexus.repository.config
@@ -350,40 +355,48 @@ public class P2ProxyFacetImpl
       final Consumer<Asset> assetModifier) throws IOException
   {
     String siteHash = getSiteHash(matcherState);
-    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-    try (InputStream in = content.openInputStream()) {
-      IOUtils.copy(in, buffer);
-    }
-
-    ByteArrayInputStream in = new ByteArrayInputStream(buffer.toByteArray());
-    buffer.reset();
-
-    String mimeType = contentValidator.determineContentType(false, () -> in, null, assetPath, content.getContentType());
-    in.reset();
-    StreamCopier.copierFor(mimeType, internalFilename, in, buffer).process(transformer);
-
     StorageFacet storageFacet = facet(StorageFacet.class);
-    try (ByteArrayInputStream rewritten = new ByteArrayInputStream(buffer.toByteArray());
-        TempBlob metadataContent = storageFacet.createTempBlob(rewritten, HASH_ALGORITHMS)) {
-      StorageTx tx = UnitOfWork.currentTx();
-      Bucket bucket = tx.findBucket(getRepository());
 
-      Asset asset = facet(P2Facet.class).findAsset(tx, bucket, assetPath);
-      if (asset == null) {
-        asset = tx.createAsset(bucket, getRepository().getFormat());
-        asset.name(assetPath);
-        asset.formatAttributes().set(P_ASSET_KIND, assetKind.name());
-      }
-      asset.formatAttributes().set(REMOTE_URL, remoteUrl);
-      asset.formatAttributes().set(REMOTE_HASH, siteHash);
+    // remote content is decompressed, transformed, recompressed and stored in a single pass
+    try (InputStream remote = new BufferedInputStream(content.openInputStream(), MIME_DETECTION_LIMIT)) {
+      String mimeType = determineContentType(remote, assetPath, content.getContentType());
+      try (InputStream rewritten = pipedStreamCopier.open(assetPath, remote,
+          (in, out) -> StreamCopier.copierFor(mimeType, internalFilename, in, out), transformer);
+          TempBlob metadataContent = storageFacet.createTempBlob(rewritten, HASH_ALGORITHMS)) {
+        StorageTx tx = UnitOfWork.currentTx();
+        Bucket bucket = tx.findBucket(getRepository());
+
+        Asset asset = facet(P2Facet.class).findAsset(tx, bucket, assetPath);
+        if (asset == null) {
+          asset = tx.createAsset(bucket, getRepository().getFormat());
+          asset.name(assetPath);
+          asset.formatAttributes().set(P_ASSET_KIND, assetKind.name());
+        }
+        asset.formatAttributes().set(REMOTE_URL, remoteUrl);
+        asset.formatAttributes().set(REMOTE_HASH, siteHash);
 
-      assetModifier.accept(asset);
+        assetModifier.accept(asset);
 
-      return facet(P2Facet.class).saveAsset(tx, asset, metadataContent, content);
+        return facet(P2Facet.class).saveAsset(tx, asset, metadataContent, content);
+      }
     }
   }
 
+  /**
+   * Determines the type of the remote metadata from its name and leading bytes, leaving the stream at its start.
+   */
+  private String determineContentType(
+      final InputStream remote,
+      final String assetPath,
+      @Nullable final String declaredContentType) throws IOException
+  {
+    remote.mark(MIME_DETECTION_LIMIT);
+    byte[] prefix = ByteStreams.toByteArray(ByteStreams.limit(remote, MIME_DETECTION_LIMIT));
+    remote.reset();
+    return contentValidator.determineContentType(false, () -> new ByteArrayInputStream(prefix), null, assetPath,
+        declaredContentType);
+  }
+
   private String getSiteHash(final TokenMatcher.State matcherState) {
     String site = matcherState.getTokens().get("site");
     if (site == null) {
@@ -0,0 +1,378 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.p2.internal.proxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.common.stateguard.Guarded;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.repository.p2.internal.proxy.StreamCopier.StreamTransformer;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.google.common.io.CountingInputStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
+import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.STARTED;
+
+/**
+ * Runs a {@link StreamCopier} on a separate thread and exposes what it writes as an {@link InputStream}, so rewritten
+ * metadata can be stored while the remote content is still being read and transformed. Only a bounded number of
+ * chunks of the rewritten content are held in memory, whatever the size of the metadata.
+ *
+ * @since 3.31
+ */
+@Named
+@Singleton
+@ManagedLifecycle(phase = SERVICES)
+public class PipedStreamCopier
+    extends StateGuardLifecycleSupport
+{
+  /**
+   * Creates the {@link StreamCopier} which reads from {@code in} and writes to {@code out}.
+   */
+  @FunctionalInterface
+  public interface CopierFactory
+  {
+    StreamCopier create(InputStream in, OutputStream out) throws IOException;
+  }
+
+  private static final byte[] END = new byte[0];
+
+  private ExecutorService executor;
+
+  private final int chunkSize;
+
+  private final int maxChunks;
+
+  private final long progressIntervalMillis;
+
+  @Inject
+  public PipedStreamCopier(
+      @Named("${nexus.p2.metadata.pipe.chunkSize:-65536}") final int chunkSize,
+      @Named("${nexus.p2.metadata.pipe.maxChunks:-16}") final int maxChunks,
+      @Named("${nexus.p2.metadata.progressInterval:-10s}") final Time progressInterval)
+  {
+    checkArgument(chunkSize > 0, "chunkSize must be positive");
+    checkArgument(maxChunks > 0, "maxChunks must be positive");
+    this.chunkSize = chunkSize;
+    this.maxChunks = maxChunks;
+    this.progressIntervalMillis = progressInterval.toMillis();
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    // idle threads expire, so the pool only holds threads while metadata is being rewritten
+    executor = Executors.newCachedThreadPool(new NexusThreadFactory("p2-metadata", "p2-metadata-rewrite"));
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    executor.shutdownNow();
+    if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+      log.warn("Timed out waiting for metadata rewrites to stop");
+    }
+    executor = null;
+  }
+
+  /**
+   * Starts copying {@code in} through the transformer and returns the transformed content. The returned stream
+   * reports any failure of the copy when it reaches the end of the content, so a failed transformation never looks
+   * like truncated content. Closing the returned stream early aborts the copy; {@code in} is closed by the copy.
+   *
+   * @param name used to report progress
+   */
+  @Guarded(by = STARTED)
+  public InputStream open(
+      final String name,
+      final InputStream in,
+      final CopierFactory copierFactory,
+      final StreamTransformer transformer) throws IOException
+  {
+    checkNotNull(name);
+    checkNotNull(in);
+    checkNotNull(copierFactory);
+    checkNotNull(transformer);
+
+    Pipe pipe = new Pipe(name);
+    CountingInputStream remote = new CountingInputStream(in);
+    StreamCopier copier = copierFactory.create(remote, pipe.sink);
+    pipe.remote = remote;
+    pipe.copy = executor.submit(() -> {
+      try {
+        copier.process(transformer);
+      }
+      finally {
+        pipe.sink.close();
+        in.close();
+      }
+      return null;
+    });
+    return pipe.source;
+  }
+
+  /**
+   * Hands chunks from the copying thread to the reading thread through a bounded queue.
+   */
+  private class Pipe
+  {
+    private final String name;
+
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(maxChunks);
+
+    private final long start = System.nanoTime();
+
+    private final Sink sink = new Sink();
+
+    private final Source source = new Source();
+
+    private volatile boolean aborted;
+
+    private volatile CountingInputStream remote;
+
+    private volatile Future<Void> copy;
+
+    private Pipe(final String name) {
+      this.name = name;
+    }
+
+    private long elapsedMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Written by the copying thread.
+     */
+    private class Sink
+        extends OutputStream
+    {
+      private byte[] buffer = new byte[chunkSize];
+
+      private int count;
+
+      private long written;
+
+      private long lastReport = System.nanoTime();
+
+      private boolean closed;
+
+      @Override
+      public void write(final int b) throws IOException {
+        if (count == buffer.length) {
+          flush();
+        }
+        buffer[count++] = (byte) b;
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+          if (count == buffer.length) {
+            flush();
+          }
+          int n = Math.min(remaining, buffer.length - count);
+          System.arraycopy(b, offset, buffer, count, n);
+          count += n;
+          offset += n;
+          remaining -= n;
+        }
+      }
+
+      @Override
+      public void flush() throws IOException {
+        if (count > 0) {
+          byte[] chunk = count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+          put(chunk);
+          written += count;
+          buffer = new byte[chunkSize];
+          count = 0;
+          maybeReportProgress();
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (!closed) {
+          closed = true;
+          try {
+            flush();
+          }
+          finally {
+            if (!aborted) {
+              put(END);
+            }
+          }
+        }
+      }
+
+      private void put(final byte[] chunk) throws IOException {
+        try {
+          while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (aborted) {
+              throw new IOException("Reader closed the pipe for " + name);
+            }
+          }
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while rewriting " + name);
+        }
+      }
+
+      private void maybeReportProgress() {
+        long now = System.nanoTime();
+        if (TimeUnit.NANOSECONDS.toMillis(now - lastReport) >= progressIntervalMillis) {
+          lastReport = now;
+          log.info("Rewriting {}: {} bytes read from remote, {} bytes written in {} ms", name,
+              remote != null ? remote.getCount() : 0, written, elapsedMillis());
+        }
+      }
+    }
+
+    /**
+     * Read by the storing thread.
+     */
+    private class Source
+        extends InputStream
+    {
+      @Nullable
+      private byte[] current;
+
+      private int position;
+
+      private boolean finished;
+
+      @Override
+      public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n == -1 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        if (!ensureChunk()) {
+          return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+      }
+
+      @Override
+      public int available() {
+        return current != null ? current.length - position : 0;
+      }
+
+      @Override
+      public void close() {
+        if (!finished) {
+          finished = true;
+          aborted = true;
+          chunks.clear();
+          if (copy != null) {
+            copy.cancel(true);
+          }
+        }
+      }
+
+      private boolean ensureChunk() throws IOException {
+        while (current == null || position == current.length) {
+          if (finished) {
+            return false;
+          }
+          byte[] next = takeChunk();
+          if (next == END) {
+            finished = true;
+            current = null;
+            awaitCopy();
+            log.debug("Rewrote {}: {} bytes read from remote, {} bytes written in {} ms", name,
+                remote.getCount(), sink.written, elapsedMillis());
+            return false;
+          }
+          current = next;
+          position = 0;
+        }
+        return true;
+      }
+
+      private byte[] takeChunk() throws IOException {
+        try {
+          byte[] next;
+          while ((next = chunks.poll(100, TimeUnit.MILLISECONDS)) == null) {
+            if (copy.isDone()) {
+              // the copy failed before it could signal the end of the content
+              next = chunks.poll();
+              if (next == null) {
+                awaitCopy();
+                throw new IOException("Rewriting " + name + " ended unexpectedly");
+              }
+              break;
+            }
+          }
+          return next;
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while storing " + name);
+        }
+      }
+
+      private void awaitCopy() throws IOException {
+        try {
+          copy.get();
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while storing " + name);
+        }
+        catch (CancellationException e) {
+          throw new IOException("Rewriting " + name + " was cancelled", e);
+        }
+        catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw new IOException("Failed to rewrite " + name + ": " + cause.getMessage(), cause);
+          }
+          throw new IOException("Failed to rewrite " + name, cause);
+        }
+      }
+    }
+  }
+}
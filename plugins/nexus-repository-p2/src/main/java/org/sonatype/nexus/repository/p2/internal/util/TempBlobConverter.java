@@ -12,9 +12,9 @@
  */
 package org.sonatype.nexus.repository.p2.internal.util;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.jar.JarOutputStream;
@@ -31,6 +31,8 @@ import org.sonatype.nexus.repository.view.payloads.TempBlob;
 import static java.nio.file.Files.createTempFile;
 import static java.nio.file.Files.newInputStream;
 import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
 
 /**
  * Utility methods for turning a TempBlob into thing(s)
@@ -44,17 +46,22 @@ public class TempBlobConverter
     // no-op
   }
 
+  /**
+   * Unpacks a pack.gz temp blob into a temporary jar file, which is deleted when the returned stream is closed.
+   */
   public InputStream getJarFromPackGz(final TempBlob tempBlob) throws IOException {
     Path tempFile = createTempFile("pack-file", "jar.pack");
-    try (GZIPInputStream gzis = new GZIPInputStream(tempBlob.get()); OutputStream os = newOutputStream(tempFile)) {
-      Unpacker unpacker = Pack200.newUnpacker();
-      try (JarOutputStream jos = new JarOutputStream(os)) {
+    try {
+      try (GZIPInputStream gzis = new GZIPInputStream(tempBlob.get());
+          JarOutputStream jos = new JarOutputStream(new BufferedOutputStream(newOutputStream(tempFile)))) {
+        Unpacker unpacker = Pack200.newUnpacker();
         unpacker.unpack(gzis, jos);
-        return newInputStream(tempFile);
       }
+      return newInputStream(tempFile, READ, DELETE_ON_CLOSE);
     }
-    finally {
-      Files.delete(tempFile);
+    catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
     }
   }
 }
@@ -0,0 +1,136 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.p2.internal.proxy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.p2.internal.metadata.RemoveMirrorTransformer;
+
+import com.google.common.io.ByteStreams;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.fail;
+
+public class PipedStreamCopierTest
+    extends TestSupport
+{
+  private static final String ARTIFACTS_XZ = "/org/sonatype/nexus/repository/p2/internal/metadata/artifacts.xml.xz";
+
+  private PipedStreamCopier underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    // tiny chunks and queue so the copy regularly waits for the reader
+    underTest = new PipedStreamCopier(16, 2, Time.seconds(10));
+    underTest.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    underTest.stop();
+  }
+
+  @Test
+  public void rewritesCompressedMetadataInOnePass() throws Exception {
+    RemoveMirrorTransformer transformer = new RemoveMirrorTransformer();
+
+    byte[] rewritten;
+    try (InputStream remote = getClass().getResourceAsStream(ARTIFACTS_XZ);
+        InputStream in = underTest.open("artifacts.xml.xz", remote, StreamCopier::xz, transformer)) {
+      rewritten = ByteStreams.toByteArray(in);
+    }
+
+    String xml = new String(ByteStreams.toByteArray(new XZCompressorInputStream(new ByteArrayInputStream(rewritten))),
+        UTF_8);
+    assertThat(xml, not(containsString("p2.mirrorsURL")));
+    assertThat(xml, containsString("<properties size=\"4\">"));
+    assertThat(transformer.getMirrorsUrl().get(), is("mirrors.xml"));
+  }
+
+  @Test
+  public void failuresAreReportedInsteadOfTruncating() throws Exception {
+    StreamCopier.StreamTransformer failing = (in, out) -> {
+      out.write(new byte[100]);
+      throw new IOException("broken metadata");
+    };
+
+    try (InputStream in = underTest.open("broken.xml", new ByteArrayInputStream(new byte[10]),
+        StreamCopier::passthrough, failing)) {
+      ByteStreams.toByteArray(in);
+      fail("Expected failure");
+    }
+    catch (IOException e) {
+      assertThat(e.getMessage(), containsString("broken metadata"));
+    }
+  }
+
+  @Test
+  public void closingEarlyAbortsTheCopy() throws Exception {
+    CountDownLatch stopped = new CountDownLatch(1);
+    StreamCopier.StreamTransformer endless = (in, out) -> {
+      try {
+        byte[] chunk = new byte[64];
+        while (true) {
+          out.write(chunk);
+        }
+      }
+      finally {
+        stopped.countDown();
+      }
+    };
+
+    InputStream in = underTest.open("endless.xml", new ByteArrayInputStream(new byte[0]),
+        StreamCopier::passthrough, endless);
+    assertThat(in.read(new byte[8]), is(8));
+    in.close();
+
+    // the copy gives up rather than blocking forever on the abandoned pipe
+    assertThat(stopped.await(10, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test
+  public void stoppingAbortsRunningCopies() throws Exception {
+    CountDownLatch stopped = new CountDownLatch(1);
+    StreamCopier.StreamTransformer endless = (in, out) -> {
+      try {
+        byte[] chunk = new byte[64];
+        while (true) {
+          out.write(chunk);
+        }
+      }
+      finally {
+        stopped.countDown();
+      }
+    };
+
+    underTest.open("endless.xml", new ByteArrayInputStream(new byte[0]), StreamCopier::passthrough, endless);
+    underTest.stop();
+
+    assertThat(stopped.await(10, TimeUnit.SECONDS), is(true));
+    underTest.start();
+  }
+}
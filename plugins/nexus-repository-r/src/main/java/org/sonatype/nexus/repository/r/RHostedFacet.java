@@ -50,4 +50,22 @@ public interface RHostedFacet
    * @param basePath the path to build the metadata for
    */
   Content buildAndPutPackagesGz(String basePath) throws IOException;
+
+  /**
+   * Records that an archive was created or updated, so the package information kept for its base path stays current
+   * without rescanning the base path.
+   *
+   * @param archive the archive asset
+   * @since 3.31
+   */
+  void archiveUpdated(Asset archive);
+
+  /**
+   * Records that an archive was deleted, so the package information kept for its base path stays current without
+   * rescanning the base path.
+   *
+   * @param archive the archive asset
+   * @since 3.31
+   */
+  void archiveDeleted(Asset archive);
 }
@@ -12,35 +12,38 @@
  */
 package org.sonatype.nexus.repository.r.internal.group;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import javax.annotation.Nonnull;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.sonatype.nexus.repository.HasFacet;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.group.GroupFacet;
 import org.sonatype.nexus.repository.group.GroupHandler;
 import org.sonatype.nexus.repository.http.HttpResponses;
 import org.sonatype.nexus.repository.http.HttpStatus;
-import org.sonatype.nexus.repository.r.internal.RException;
-import org.sonatype.nexus.repository.r.internal.util.RPackagesUtils;
+import org.sonatype.nexus.repository.proxy.ProxyFacet;
+import org.sonatype.nexus.repository.view.Content;
 import org.sonatype.nexus.repository.view.Context;
-import org.sonatype.nexus.repository.view.Payload;
 import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.transaction.RetryDeniedException;
 
-import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import com.google.common.base.Predicate;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-import static org.apache.commons.compress.compressors.CompressorStreamFactory.GZIP;
+import static com.google.common.base.Predicates.or;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.sonatype.nexus.repository.r.internal.util.RPathUtils.extractRequestPath;
 
 /**
- * Support for merging R PACKAGES.gz together.
+ * Support for merging R PACKAGES.gz together. The merged result is cached by {@link RGroupFacet} until a member's
+ * copy changes.
  * @since 3.28
  */
 @Named
@@ -48,16 +51,43 @@ import static org.apache.commons.compress.compressors.CompressorStreamFactory.GZ
 class PackagesGroupHandler
     extends GroupHandler
 {
+  private static final Predicate<Repository> PROXY_OR_GROUP =
+      or(new HasFacet(ProxyFacet.class), new HasFacet(GroupFacet.class));
+
   @Override
   protected Response doGet(@Nonnull final Context context,
                            @Nonnull final GroupHandler.DispatchedRepositories dispatched)
       throws Exception
   {
-    GroupFacet groupFacet = context.getRepository().facet(GroupFacet.class);
-    Map<Repository, Response> responses = getAll(context, groupFacet.members(), dispatched);
-    List<Response> successfulResponses = responses.values().stream()
-        .filter(response -> response.getStatus().getCode() == HttpStatus.OK && response.getPayload() != null)
-        .collect(Collectors.toList());
+    final RGroupFacet groupFacet = context.getRepository().facet(RGroupFacet.class);
+    final Repository repository = context.getRepository();
+    final String path = extractRequestPath(context);
+    final List<Repository> members = groupFacet.members();
+
+    // fetch from proxies and nested groups first, so any changes there invalidate the cached merge
+    List<Repository> proxiesOrGroups = members.stream().filter(PROXY_OR_GROUP::apply).collect(toList());
+    Map<Repository, Response> passThroughResponses = getAll(context, proxiesOrGroups, dispatched);
+
+    Optional<Content> cached = checkCache(groupFacet, path, repository);
+    if (cached.isPresent()) {
+      log.trace("Serving cached content {} : {}", repository.getName(), path);
+      return HttpResponses.ok(cached.get());
+    }
+
+    // this will fetch the remaining responses, thanks to the 'dispatched' tracking
+    Map<Repository, Response> remainingResponses = getAll(context, members, dispatched);
+
+    // keep the successful responses in member order
+    List<Response> successfulResponses = new ArrayList<>();
+    for (Repository member : members) {
+      Response response = passThroughResponses.get(member);
+      if (response == null) {
+        response = remainingResponses.get(member);
+      }
+      if (response != null && response.getStatus().getCode() == HttpStatus.OK && response.getPayload() != null) {
+        successfulResponses.add(response);
+      }
+    }
     if (successfulResponses.isEmpty()) {
       return notFoundResponse(context);
     }
@@ -65,24 +95,21 @@ class PackagesGroupHandler
       return successfulResponses.get(0);
     }
 
-    List<List<Map<String, String>>> parts = successfulResponses.stream().map(this::parseResponse).collect(
-        Collectors.toList());
-    List<Map<String, String>> merged = RPackagesUtils.merge(parts);
-
-    return HttpResponses.ok(RPackagesUtils.buildPackages(merged));
+    return HttpResponses.ok(groupFacet.mergeAndCache(path, successfulResponses));
   }
 
-  protected List<Map<String, String>> parseResponse(@Nonnull final Response response) {
-    Payload payload = checkNotNull(response.getPayload());
-    try (InputStream in = payload.openInputStream()) {
-      final CompressorStreamFactory compressorStreamFactory = new CompressorStreamFactory();
-      try (InputStream cin = compressorStreamFactory.createCompressorInputStream(GZIP, in)) {
-        return RPackagesUtils.parseMetadata(cin);
-      }
+  private Optional<Content> checkCache(
+      @Nonnull final RGroupFacet groupFacet,
+      @Nonnull final String path,
+      @Nonnull final Repository repository)
+  {
+    try {
+      // check group-level cache to see if it's been invalidated by any updates
+      return ofNullable(groupFacet.getCached(path));
     }
-    catch (IOException | CompressorException e) {
-      throw new RException(null, e);
+    catch (RetryDeniedException e) {
+      log.debug("Conflict fetching cached content {} : {}", repository.getName(), path, e);
     }
+    return empty();
   }
-
 }
@@ -0,0 +1,260 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.r.internal.group;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.repository.Facet;
+import org.sonatype.nexus.repository.Type;
+import org.sonatype.nexus.repository.cache.CacheInfo;
+import org.sonatype.nexus.repository.group.GroupFacetImpl;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.r.RFacet;
+import org.sonatype.nexus.repository.r.internal.RException;
+import org.sonatype.nexus.repository.r.internal.util.RPackagesGzInputStream;
+import org.sonatype.nexus.repository.r.internal.util.RPackagesReader;
+import org.sonatype.nexus.repository.r.internal.util.RPackagesUtils;
+import org.sonatype.nexus.repository.r.internal.util.RPackagesUtils.UnsortedPackagesException;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.AssetEvent;
+import org.sonatype.nexus.repository.storage.MissingBlobException;
+import org.sonatype.nexus.repository.storage.StorageFacet;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.transaction.TransactionalStoreBlob;
+import org.sonatype.nexus.repository.transaction.TransactionalTouchBlob;
+import org.sonatype.nexus.repository.types.GroupType;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+import org.sonatype.nexus.repository.view.payloads.TempBlob;
+import org.sonatype.nexus.transaction.Transactional;
+import org.sonatype.nexus.transaction.UnitOfWork;
+import org.sonatype.nexus.validation.ConstraintViolationFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.io.Closer;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.exception.ORecordNotFoundException;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.io.ByteStreams.toByteArray;
+import static org.apache.commons.compress.compressors.CompressorStreamFactory.GZIP;
+import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.HASH_ALGORITHMS;
+import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.findAsset;
+import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.saveAsset;
+import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.toContent;
+
+/**
+ * R specific implementation of {@link GroupFacetImpl}: merged PACKAGES files are cached in the group and invalidated
+ * whenever a member's copy changes.
+ *
+ * @since 3.31
+ */
+@Facet.Exposed
+@Named
+public class RGroupFacet
+    extends GroupFacetImpl
+{
+  private static final String PACKAGES_CONTENT_TYPE = "application/x-gzip";
+
+  @Inject
+  public RGroupFacet(
+      final RepositoryManager repositoryManager,
+      final ConstraintViolationFactory constraintViolationFactory,
+      @Named(GroupType.NAME) final Type groupType)
+  {
+    super(repositoryManager, constraintViolationFactory, groupType);
+  }
+
+  /**
+   * Fetches cached merged content if it exists and is not stale, or {@code null}.
+   */
+  @Nullable
+  @TransactionalTouchBlob
+  public Content getCached(final String path) {
+    checkNotNull(path);
+    StorageTx tx = UnitOfWork.currentTx();
+    Asset asset = findAsset(tx, tx.findBucket(getRepository()), path);
+    if (asset == null) {
+      return null;
+    }
+    Content content = toContent(asset, tx.requireBlob(asset.requireBlobRef()));
+    return !isStale(content) ? content : null;
+  }
+
+  /**
+   * Merges the PACKAGES.gz files of the given member responses, earlier responses taking precedence, then caches and
+   * returns the result.
+   */
+  public Content mergeAndCache(final String path, final List<Response> responses) throws IOException {
+    checkNotNull(path);
+    try (TempBlob tempBlob = merge(responses)) {
+      return cache(path, tempBlob);
+    }
+  }
+
+  /**
+   * Merges member PACKAGES.gz files entry by entry, which needs them to be sorted by package name. Should one not be
+   * sorted, the merge is repeated in memory.
+   */
+  @VisibleForTesting
+  TempBlob merge(final List<Response> responses) throws IOException {
+    StorageFacet storageFacet = facet(StorageFacet.class);
+    try (Closer closer = Closer.create()) {
+      List<RPackagesReader> parts = new ArrayList<>(responses.size());
+      for (Response response : responses) {
+        parts.add(closer.register(openPackages(response)));
+      }
+      try (InputStream in = new RPackagesGzInputStream(RPackagesUtils.mergeSorted(parts))) {
+        return storageFacet.createTempBlob(in, HASH_ALGORITHMS);
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      // the blob store wraps whatever the stream throws while it is being stored
+      UnsortedPackagesException unsorted = findUnsorted(e);
+      if (unsorted == null) {
+        throw e;
+      }
+      log.debug("Merging unsorted PACKAGES in memory for {}: {}", getRepository().getName(), unsorted.getMessage());
+    }
+
+    List<List<Map<String, String>>> parts = new ArrayList<>(responses.size());
+    for (Response response : responses) {
+      List<Map<String, String>> part = new ArrayList<>();
+      try (RPackagesReader reader = openPackages(response)) {
+        reader.forEachRemaining(part::add);
+      }
+      parts.add(part);
+    }
+    try (InputStream in = new RPackagesGzInputStream(RPackagesUtils.merge(parts).iterator())) {
+      return storageFacet.createTempBlob(in, HASH_ALGORITHMS);
+    }
+  }
+
+  @Nullable
+  private static UnsortedPackagesException findUnsorted(final Throwable failure) {
+    return Throwables.getCausalChain(failure).stream()
+        .filter(UnsortedPackagesException.class::isInstance)
+        .map(UnsortedPackagesException.class::cast)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Opens a member PACKAGES.gz reading only the fields that are written back.
+   */
+  private RPackagesReader openPackages(final Response response) throws IOException {
+    Payload payload = checkNotNull(response.getPayload());
+    InputStream in = payload.openInputStream();
+    try {
+      return new RPackagesReader(new CompressorStreamFactory().createCompressorInputStream(GZIP, in),
+          RPackagesUtils.PACKAGE_FIELDS);
+    }
+    catch (CompressorException e) {
+      in.close();
+      throw new RException(null, e);
+    }
+  }
+
+  /**
+   * Attempts to cache the merged content, falling back to temporary uncached result if necessary.
+   */
+  private Content cache(final String path, final TempBlob tempBlob) throws IOException {
+    AttributesMap attributesMap = new AttributesMap();
+    maintainCacheInfo(attributesMap);
+
+    try {
+      return doCache(path, tempBlob, attributesMap);
+    }
+    catch (ONeedRetryException | ORecordDuplicatedException | MissingBlobException e) {
+      log.debug("Conflict caching merged content {} : {}", getRepository().getName(), path, e);
+    }
+    catch (Exception e) {
+      log.warn("Problem caching merged content {} : {}", getRepository().getName(), path, e);
+    }
+
+    invalidatePath(path); // sanity: force re-merge on next request
+
+    try (InputStream in = tempBlob.get()) {
+      // load bytes in memory before tempBlob vanishes
+      // (don't include cache-related attributes since this content has not been cached)
+      return new Content(new BytesPayload(toByteArray(in), PACKAGES_CONTENT_TYPE));
+    }
+  }
+
+  @TransactionalStoreBlob
+  protected Content doCache(final String path, final TempBlob tempBlob, final AttributesMap attributesMap)
+      throws IOException
+  {
+    StorageTx tx = UnitOfWork.currentTx();
+    Asset asset = facet(RFacet.class).findOrCreateAsset(tx, path);
+    return saveAsset(tx, asset, tempBlob, PACKAGES_CONTENT_TYPE, attributesMap);
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final AssetEvent event) {
+    // only make DB changes on the originating node, as orient will also replicate those for us
+    if (event.isLocal() && event.getComponentId() == null && member(event.getRepositoryName())) {
+      UnitOfWork.begin(getRepository().facet(StorageFacet.class).txSupplier());
+      try {
+        invalidatePath(event.getAsset().name());
+      }
+      finally {
+        UnitOfWork.end();
+      }
+    }
+  }
+
+  /**
+   * Invalidates the previously cached content for the given path.
+   *
+   * @see #getCached(String)
+   */
+  private void invalidatePath(final String path) {
+    try {
+      doInvalidate(path);
+    }
+    catch (Exception e) {
+      log.warn("Problem invalidating cached content {} : {}", getRepository().getName(), path, e);
+    }
+  }
+
+  /**
+   * Tries to invalidate the current cached asset for the given path.
+   */
+  @Transactional(retryOn = ONeedRetryException.class, swallow = ORecordNotFoundException.class)
+  protected void doInvalidate(final String path) {
+    StorageTx tx = UnitOfWork.currentTx();
+    Asset asset = findAsset(tx, tx.findBucket(getRepository()), path);
+    if (asset != null && CacheInfo.invalidateAsset(asset)) {
+      tx.saveAsset(asset);
+    }
+  }
+}
@@ -21,7 +21,6 @@ import javax.inject.Singleton
 import org.sonatype.nexus.repository.Format
 import org.sonatype.nexus.repository.Repository
 import org.sonatype.nexus.repository.Type
-import org.sonatype.nexus.repository.group.GroupFacetImpl
 import org.sonatype.nexus.repository.group.GroupHandler
 import org.sonatype.nexus.repository.http.HttpHandlers
 import org.sonatype.nexus.repository.r.internal.AssetKind
@@ -45,7 +44,7 @@ class RGroupRecipe
   public static final String NAME = 'r-group'
 
   @Inject
-  Provider<GroupFacetImpl> groupFacet
+  Provider<RGroupFacet> groupFacet
 
   @Inject
   PackagesGroupHandler packagesGroupHandler
@@ -65,6 +64,7 @@ class RGroupRecipe
   void apply(@Nonnull final Repository repository) throws Exception {
     repository.attach(groupFacet.get())
     repository.attach(storageFacet.get())
+    repository.attach(rFacet.get())
     repository.attach(securityFacet.get())
     repository.attach(configure(viewFacet.get()))
     repository.attach(attributesFacet.get())
@@ -88,6 +88,7 @@ class RGroupRecipe
         .handler(highAvailabilitySupportHandler)
         .handler(exceptionHandler)
         .handler(handlerContributor)
+        .handler(unitOfWorkHandler)
         .handler(packagesGroupHandler)
         .create())
 
@@ -98,6 +99,7 @@ class RGroupRecipe
         .handler(highAvailabilitySupportHandler)
         .handler(exceptionHandler)
         .handler(handlerContributor)
+        .handler(unitOfWorkHandler)
         .handler(packagesGroupHandler)
         .create())
 
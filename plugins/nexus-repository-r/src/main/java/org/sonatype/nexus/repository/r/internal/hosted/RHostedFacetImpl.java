@@ -12,12 +12,12 @@
  */
 package org.sonatype.nexus.repository.r.internal.hosted;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.sonatype.nexus.repository.FacetSupport;
@@ -37,10 +37,12 @@ import org.sonatype.nexus.repository.view.Payload;
 import org.sonatype.nexus.repository.view.payloads.TempBlob;
 import org.sonatype.nexus.transaction.UnitOfWork;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.sonatype.nexus.repository.r.internal.AssetKind.ARCHIVE;
 import static org.sonatype.nexus.repository.r.internal.util.RDescriptionUtils.extractDescriptionFromArchive;
-import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.browseAllAssetsByKind;
+import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.browseArchivesUnderBasePath;
 import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.findAsset;
 import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.saveAsset;
 import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.toContent;
@@ -57,6 +59,22 @@ public class RHostedFacetImpl
     extends FacetSupport
     implements RHostedFacet
 {
+  /**
+   * Package information per base path, kept current through {@link #archiveUpdated} and {@link #archiveDeleted} once
+   * it has been loaded. Evicted base paths are loaded again on their next rebuild.
+   */
+  private final Cache<String, RPackagesBuilder> packagesByBasePath;
+
+  /**
+   * Count of archive changes seen, used to detect changes that raced with loading a base path.
+   */
+  private final AtomicLong archiveChanges = new AtomicLong();
+
+  @Inject
+  public RHostedFacetImpl(@Named("${nexus.r.hosted.packages.maxBasePaths:-1000}") final int maxBasePaths) {
+    this.packagesByBasePath = CacheBuilder.newBuilder().maximumSize(maxBasePaths).build();
+  }
+
   @Override
   protected void doInit(final Configuration configuration) throws Exception {
     super.doInit(configuration);
@@ -115,19 +133,55 @@ public class RHostedFacetImpl
   public Content buildAndPutPackagesGz(final String basePath) throws IOException {
     checkNotNull(basePath);
     StorageTx tx = UnitOfWork.currentTx();
-    RPackagesBuilder packagesBuilder = new RPackagesBuilder();
-    Iterable<Asset> archiveAssets = browseAllAssetsByKind(tx, tx.findBucket(getRepository()), ARCHIVE);
-    StreamSupport.stream(archiveAssets.spliterator(), false) // packageInfoBuilder doesn't support multithreading
-        .filter(asset -> basePath.equals(getBasePath(asset.name())))
-        .forEach(packagesBuilder::append);
-    byte[] packagesBytes = packagesBuilder.buildPackagesGz();
+    RPackagesBuilder packagesBuilder = packagesByBasePath.getIfPresent(basePath);
+    if (packagesBuilder == null) {
+      packagesBuilder = loadPackages(tx, basePath);
+    }
     StorageFacet storageFacet = getRepository().facet(StorageFacet.class);
-    try (InputStream is = new ByteArrayInputStream(packagesBytes)) {
-      TempBlob tempPackagesGz = storageFacet.createTempBlob(is, RFacetUtils.HASH_ALGORITHMS);
+    try (InputStream is = packagesBuilder.openPackagesGz();
+         TempBlob tempPackagesGz = storageFacet.createTempBlob(is, RFacetUtils.HASH_ALGORITHMS)) {
       return doPutPackagesGz(tx, basePath, tempPackagesGz);
     }
   }
 
+  /**
+   * Loads package information for the archives directly under the base path. The result is only kept for later
+   * rebuilds when no archive changed while loading, as such a change may or may not be reflected in what was read.
+   */
+  private RPackagesBuilder loadPackages(final StorageTx tx, final String basePath) {
+    long changesBefore = archiveChanges.get();
+    RPackagesBuilder packagesBuilder = new RPackagesBuilder();
+    for (Asset asset : browseArchivesUnderBasePath(tx, tx.findBucket(getRepository()), basePath)) {
+      // the query also matches archives in nested directories
+      if (basePath.equals(getBasePath(asset.name()))) {
+        packagesBuilder.append(asset);
+      }
+    }
+    if (archiveChanges.get() == changesBefore) {
+      RPackagesBuilder existing = packagesByBasePath.asMap().putIfAbsent(basePath, packagesBuilder);
+      return existing != null ? existing : packagesBuilder;
+    }
+    return packagesBuilder;
+  }
+
+  @Override
+  public void archiveUpdated(final Asset archive) {
+    archiveChanges.incrementAndGet();
+    RPackagesBuilder packagesBuilder = packagesByBasePath.getIfPresent(getBasePath(archive.name()));
+    if (packagesBuilder != null) {
+      packagesBuilder.append(archive);
+    }
+  }
+
+  @Override
+  public void archiveDeleted(final Asset archive) {
+    archiveChanges.incrementAndGet();
+    RPackagesBuilder packagesBuilder = packagesByBasePath.getIfPresent(getBasePath(archive.name()));
+    if (packagesBuilder != null) {
+      packagesBuilder.remove(archive.name());
+    }
+  }
+
   @TransactionalStoreBlob
   protected Content doPutPackagesGz(final StorageTx tx, final String basePath, final TempBlob tempPackagesGz)
       throws IOException
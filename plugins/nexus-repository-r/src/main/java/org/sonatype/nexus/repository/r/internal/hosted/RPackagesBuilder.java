@@ -12,26 +12,21 @@
  */
 package org.sonatype.nexus.repository.r.internal.hosted;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.util.Enumeration;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.TreeMap;
 
-import javax.mail.internet.InternetHeaders;
-
+import org.sonatype.nexus.repository.r.internal.util.RPackagesGzInputStream;
 import org.sonatype.nexus.repository.storage.Asset;
 
-import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorOutputStream;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import com.google.common.io.ByteStreams;
 
-import static com.google.common.base.Charsets.UTF_8;
 import static java.util.Collections.unmodifiableMap;
-import static org.apache.commons.compress.compressors.CompressorStreamFactory.GZIP;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_DEPENDS;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_IMPORTS;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_LICENSE;
@@ -40,13 +35,15 @@ import static org.sonatype.nexus.repository.r.internal.RAttributes.P_NEEDS_COMPI
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_PACKAGE;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_SUGGESTS;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_VERSION;
+import static org.sonatype.nexus.repository.r.internal.util.RPackagesUtils.PACKAGE_NAME_ORDER;
 
 /**
  * Builds the contents of a PACKAGES.gz file based on the provided assets, taking into account the greatest version of a
  * particular package that is available in a (hosted) repository.
  *
- * Note that this maintains all pertinent information for the "latest" version of each package in memory, though the
- * actual amount of information for each package is rather small.
+ * The builder keeps a sorted table of every version of each package it has been given, so it can be kept up to date
+ * with single archive additions and removals instead of being rebuilt from all assets. The amount of information kept
+ * for each archive is rather small. All methods are thread-safe.
  *
  * TODO: Add support for other metadata types (PACKAGES, PACKAGES.rds etc.)
  *
@@ -55,15 +52,17 @@ import static org.sonatype.nexus.repository.r.internal.RAttributes.P_VERSION;
 public class RPackagesBuilder
 {
   /**
-   * The greatest version of each package currently encountered during this run.
+   * The package information of every archive, keyed by package name, then version, then asset name. A {@code TreeMap}
+   * is used to maintain ordering by package name and by version; package names are kept in the order group merges
+   * expect.
    */
-  private final Map<String, RPackageVersion> packageVersions = new HashMap<>();
+  private final Map<String, NavigableMap<RPackageVersion, Map<String, Map<String, String>>>> packages =
+      new TreeMap<>(PACKAGE_NAME_ORDER);
 
   /**
-   * The package information as of the last time we processed the greatest version of this package. A {@code TreeMap} is
-   * used to maintain ordering by package name.
+   * The package name and version of each archive, keyed by asset name, so that archives can be removed again.
    */
-  private final Map<String, Map<String, String>> packageInformation = new TreeMap<>();
+  private final Map<String, ArchiveKey> archives = new HashMap<>();
 
   /**
    * Returns an unmodifiable map containing the package information to write to a PACKAGES file. The iteration order of
@@ -71,79 +70,97 @@ public class RPackagesBuilder
    *
    * @return The map of package information, keyed by package name.
    */
-  public Map<String, Map<String, String>> getPackageInformation() {
+  public synchronized Map<String, Map<String, String>> getPackageInformation() {
+    Map<String, Map<String, String>> packageInformation = new LinkedHashMap<>();
+    packages.forEach((packageName, versions) ->
+        packageInformation.put(packageName, versions.lastEntry().getValue().values().iterator().next()));
     return unmodifiableMap(packageInformation);
   }
 
   /**
-   * Processes an asset, updating the greatest version and details for the package if appropriate.
+   * Processes an asset, recording its package information. An asset that was appended before is replaced.
    *
    * @param asset The asset to process.
    */
-  public void append(final Asset asset) {
-    // is this a newer version of this asset's package than the one we currently have (if we have one)?
+  public synchronized void append(final Asset asset) {
+    String assetName = asset.name();
+    remove(assetName);
+
     String packageName = asset.formatAttributes().get(P_PACKAGE, String.class);
-    RPackageVersion oldVersion = packageVersions.get(packageName);
-    RPackageVersion newVersion = new RPackageVersion(asset.formatAttributes().get(P_VERSION, String.class));
-    if (oldVersion == null || newVersion.compareTo(oldVersion) > 0) {
-
-      // if so, use the most recent information instead and update the greatest version encountered
-      Map<String, String> newInformation = new HashMap<>();
-      newInformation.put(P_PACKAGE, asset.formatAttributes().get(P_PACKAGE, String.class));
-      newInformation.put(P_VERSION, asset.formatAttributes().get(P_VERSION, String.class));
-      newInformation.put(P_DEPENDS, asset.formatAttributes().get(P_DEPENDS, String.class));
-      newInformation.put(P_IMPORTS, asset.formatAttributes().get(P_IMPORTS, String.class));
-      newInformation.put(P_SUGGESTS, asset.formatAttributes().get(P_SUGGESTS, String.class));
-      newInformation.put(P_LINKINGTO, asset.formatAttributes().get(P_LINKINGTO, String.class));
-      newInformation.put(P_LICENSE, asset.formatAttributes().get(P_LICENSE, String.class));
-      newInformation.put(P_NEEDS_COMPILATION, asset.formatAttributes().get(P_NEEDS_COMPILATION, String.class));
-
-      packageVersions.put(packageName, newVersion);
-      packageInformation.put(packageName, newInformation);
+    RPackageVersion version = new RPackageVersion(asset.formatAttributes().get(P_VERSION, String.class));
+
+    Map<String, String> information = new HashMap<>();
+    information.put(P_PACKAGE, packageName);
+    information.put(P_VERSION, asset.formatAttributes().get(P_VERSION, String.class));
+    information.put(P_DEPENDS, asset.formatAttributes().get(P_DEPENDS, String.class));
+    information.put(P_IMPORTS, asset.formatAttributes().get(P_IMPORTS, String.class));
+    information.put(P_SUGGESTS, asset.formatAttributes().get(P_SUGGESTS, String.class));
+    information.put(P_LINKINGTO, asset.formatAttributes().get(P_LINKINGTO, String.class));
+    information.put(P_LICENSE, asset.formatAttributes().get(P_LICENSE, String.class));
+    information.put(P_NEEDS_COMPILATION, asset.formatAttributes().get(P_NEEDS_COMPILATION, String.class));
+
+    // the first archive seen for a given version wins, as the archives for the same version are interchangeable
+    packages.computeIfAbsent(packageName, k -> new TreeMap<>())
+        .computeIfAbsent(version, k -> new LinkedHashMap<>())
+        .put(assetName, information);
+    archives.put(assetName, new ArchiveKey(packageName, version));
+  }
+
+  /**
+   * Removes the package information previously recorded for an asset, if any.
+   *
+   * @param assetName The name of the asset to remove.
+   */
+  public synchronized void remove(final String assetName) {
+    ArchiveKey key = archives.remove(assetName);
+    if (key == null) {
+      return;
+    }
+    NavigableMap<RPackageVersion, Map<String, Map<String, String>>> versions = packages.get(key.packageName);
+    Map<String, Map<String, String>> sameVersion = versions.get(key.version);
+    sameVersion.remove(assetName);
+    if (sameVersion.isEmpty()) {
+      versions.remove(key.version);
+      if (versions.isEmpty()) {
+        packages.remove(key.packageName);
+      }
     }
   }
 
   /**
    * Using collected package details builds PACKAGES.gz file and returns it as byte array.
-   * <p>
-   * Call this method ONLY after all information about packages is appended to packageInformation map.
    *
    * @return PACKAGES.gz as byte array.
    */
   public byte[] buildPackagesGz() throws IOException {
-    try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-      CompressorStreamFactory compressorStreamFactory = new CompressorStreamFactory();
-      try (CompressorOutputStream cos = compressorStreamFactory.createCompressorOutputStream(GZIP, os);
-           OutputStreamWriter writer = new OutputStreamWriter(cos, UTF_8)) {
-        for (Entry<String, Map<String, String>> eachPackage : packageInformation.entrySet()) {
-          writePackageInfo(writer, eachPackage.getValue());
-        }
-      }
-      return os.toByteArray();
-    }
-    catch (CompressorException e) {
-      throw new IOException("Error compressing metadata", e);
+    try (InputStream in = openPackagesGz()) {
+      return ByteStreams.toByteArray(in);
     }
   }
 
-  private void writePackageInfo(final OutputStreamWriter writer, final Map<String, String> packageInfo)
-      throws IOException
+  /**
+   * Opens a stream of the PACKAGES.gz file for the package details collected so far. The content is compressed as the
+   * stream is read, so the complete file is never held in memory. Later changes to this builder do not affect streams
+   * already opened.
+   *
+   * @return PACKAGES.gz as a stream.
+   */
+  public InputStream openPackagesGz() throws IOException {
+    return new RPackagesGzInputStream(new ArrayList<>(getPackageInformation().values()).iterator());
+  }
+
+  /**
+   * Package name and version recorded for an archive.
+   */
+  private static class ArchiveKey
   {
-    InternetHeaders headers = new InternetHeaders();
-    headers.addHeader(P_PACKAGE, packageInfo.get(P_PACKAGE));
-    headers.addHeader(P_VERSION, packageInfo.get(P_VERSION));
-    headers.addHeader(P_DEPENDS, packageInfo.get(P_DEPENDS));
-    headers.addHeader(P_IMPORTS, packageInfo.get(P_IMPORTS));
-    headers.addHeader(P_SUGGESTS, packageInfo.get(P_SUGGESTS));
-    headers.addHeader(P_LINKINGTO, packageInfo.get(P_LINKINGTO));
-    headers.addHeader(P_LICENSE, packageInfo.get(P_LICENSE));
-    headers.addHeader(P_NEEDS_COMPILATION, packageInfo.get(P_NEEDS_COMPILATION));
-    Enumeration<String> headerLines = headers.getAllHeaderLines();
-    while (headerLines.hasMoreElements()) {
-      String line = headerLines.nextElement();
-      writer.write(line, 0, line.length());
-      writer.write('\n');
+    private final String packageName;
+
+    private final RPackageVersion version;
+
+    ArchiveKey(final String packageName, final RPackageVersion version) {
+      this.packageName = packageName;
+      this.version = version;
     }
-    writer.write('\n');
   }
 }
@@ -26,6 +26,7 @@ import org.sonatype.nexus.repository.r.RHostedFacet;
 import org.sonatype.nexus.repository.r.RPackagesBuilderFacet;
 import org.sonatype.nexus.repository.r.internal.util.RFacetUtils;
 import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.AssetDeletedEvent;
 import org.sonatype.nexus.repository.storage.AssetEvent;
 import org.sonatype.nexus.repository.storage.StorageFacet;
 import org.sonatype.nexus.transaction.UnitOfWork;
@@ -90,8 +91,18 @@ public class RPackagesBuilderFacetImpl
   @Guarded(by = STARTED)
   @AllowConcurrentEvents
   public void on(final AssetEvent event) {
-    if (shouldInvalidate(event)) {
-      invalidateMetadata(getBasePath(event.getAsset().name()));
+    if (isArchiveOfThisRepository(event)) {
+      // keep package information current even for changes made on other nodes
+      RHostedFacet hostedFacet = getRepository().facet(RHostedFacet.class);
+      if (event instanceof AssetDeletedEvent) {
+        hostedFacet.archiveDeleted(event.getAsset());
+      }
+      else {
+        hostedFacet.archiveUpdated(event.getAsset());
+      }
+      if (event.isLocal()) {
+        invalidateMetadata(getBasePath(event.getAsset().name()));
+      }
     }
   }
 
@@ -143,17 +154,16 @@ public class RPackagesBuilderFacetImpl
   }
 
   /**
-   * Returns whether or not an asset event should result in an invalidation request. In order for the event to mandate
-   * that we rebuild metadata, it must both refer to this particular repository, and it also must refer to an uploaded
-   * archive and not to one of the metadata files itself. This helps ensure that we don't end up responding to metadata
-   * changes when rebuilding metadata and end up in a loop.
+   * Returns whether or not an asset event concerns package information. In order for the event to mandate that we
+   * update and rebuild metadata, it must both refer to this particular repository, and it also must refer to an
+   * uploaded archive and not to one of the metadata files itself. This helps ensure that we don't end up responding to
+   * metadata changes when rebuilding metadata and end up in a loop. Only local events request a rebuild.
    *
    * @param assetEvent The asset event to process.
    * @return true if an archive, false if a packages file
    */
-  private boolean shouldInvalidate(final AssetEvent assetEvent) {
-    return assetEvent.isLocal() &&
-        getRepository().getName().equals(assetEvent.getRepositoryName()) &&
+  private boolean isArchiveOfThisRepository(final AssetEvent assetEvent) {
+    return getRepository().getName().equals(assetEvent.getRepositoryName()) &&
         isArchiveAssetKind(assetEvent.getAsset());
   }
 
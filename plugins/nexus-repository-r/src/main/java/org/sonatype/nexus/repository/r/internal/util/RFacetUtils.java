@@ -122,6 +122,24 @@ public final class RFacetUtils
     return tx.browseAssets(query, bucket);
   }
 
+  /**
+   * Browse archive assets in bucket whose names start with the given base path
+   *
+   * @return {@link Iterable} of assets or empty one
+   * @since 3.31
+   */
+  public static Iterable<Asset> browseArchivesUnderBasePath(final StorageTx tx,
+                                                            final Bucket bucket,
+                                                            final String basePath)
+  {
+    final Query query = builder()
+        .where(P_NAME).like(basePath + "/%")
+        .and(P_ATTRIBUTES + "." + RFormat.NAME + "." + P_ASSET_KIND)
+        .eq(AssetKind.ARCHIVE.name())
+        .build();
+    return tx.browseAssets(query, bucket);
+  }
+
   /**
    * Save an asset && create blob.
    *
@@ -12,17 +12,16 @@
  */
 package org.sonatype.nexus.repository.r.internal.util;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-import javax.mail.Header;
-import javax.mail.MessagingException;
-import javax.mail.internet.InternetHeaders;
-
+import org.sonatype.nexus.common.text.StanzaScanner;
 import org.sonatype.nexus.repository.r.internal.RException;
 
+import com.google.common.base.CharMatcher;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -40,23 +39,32 @@ public final class RMetadataUtils
   public static Map<String, String> parseDescriptionFile(final InputStream in) {
     checkNotNull(in);
     try {
-      LinkedHashMap<String, String> results = new LinkedHashMap<>();
-      InternetHeaders headers = new InternetHeaders(in);
-      Enumeration headerEnumeration = headers.getAllHeaders();
-      while (headerEnumeration.hasMoreElements()) {
-        Header header = (Header) headerEnumeration.nextElement();
-        String name = header.getName();
-        String value = header.getValue()
-            .replace("\r\n", "\n")
-            .replace("\r", "\n"); // TODO: "should" be ASCII only, otherwise need to know encoding?
-        results.put(name, value); // TODO: Supposedly no duplicates, is this true?
-      }
-      return results;
-    } catch (MessagingException e) {
+      StanzaScanner scanner = new StanzaScanner(in);
+      return scanner.next() ? toMetadata(scanner) : new LinkedHashMap<>();
+    }
+    catch (IOException e) {
       throw new RException(null, e);
     }
   }
 
+  /**
+   * Copies the fields of the current stanza. A value left empty on the line of its field name starts with its first
+   * continuation line, without the indentation.
+   *
+   * @since 3.31
+   */
+  public static Map<String, String> toMetadata(final StanzaScanner scanner) {
+    Map<String, String> results = new LinkedHashMap<>();
+    for (int i = 0; i < scanner.size(); i++) {
+      String value = scanner.value(i);
+      if (!value.isEmpty() && value.charAt(0) == '\n') {
+        value = CharMatcher.whitespace().trimLeadingFrom(value);
+      }
+      results.put(scanner.name(i), value);
+    }
+    return results;
+  }
+
   private RMetadataUtils() {
     // empty
   }
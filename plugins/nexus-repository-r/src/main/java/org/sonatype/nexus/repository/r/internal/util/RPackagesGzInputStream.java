@@ -0,0 +1,115 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.r.internal.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.apache.commons.compress.compressors.CompressorStreamFactory.GZIP;
+import static org.sonatype.nexus.repository.r.internal.util.RPackagesUtils.writePackageInfo;
+
+/**
+ * A PACKAGES.gz file whose entries are pulled from an iterator and compressed on demand as the stream is read, so the
+ * complete file is never held in memory.
+ *
+ * @since 3.31
+ */
+public class RPackagesGzInputStream
+    extends InputStream
+{
+  private final Iterator<Map<String, String>> packages;
+
+  private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+  private final Writer writer;
+
+  private byte[] chunk = new byte[0];
+
+  private int position;
+
+  private boolean finished;
+
+  public RPackagesGzInputStream(final Iterator<Map<String, String>> packages) throws IOException {
+    this.packages = checkNotNull(packages);
+    try {
+      this.writer = new OutputStreamWriter(
+          new CompressorStreamFactory().createCompressorOutputStream(GZIP, compressed), UTF_8);
+    }
+    catch (CompressorException e) {
+      throw new IOException("Error compressing metadata", e);
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] single = new byte[1];
+    return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (position == chunk.length) {
+      if (!fill()) {
+        return -1;
+      }
+    }
+    int n = Math.min(len, chunk.length - position);
+    System.arraycopy(chunk, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!finished) {
+      finished = true;
+      writer.close();
+    }
+  }
+
+  /**
+   * Compresses further entries until some output is available.
+   *
+   * @return {@code false} once all output has been consumed
+   */
+  private boolean fill() throws IOException {
+    if (finished) {
+      return false;
+    }
+    while (compressed.size() == 0 && packages.hasNext()) {
+      writePackageInfo(writer, packages.next());
+      writer.flush();
+    }
+    if (compressed.size() == 0) {
+      finished = true;
+      writer.close(); // writes the gzip trailer
+    }
+    chunk = compressed.toByteArray();
+    position = 0;
+    compressed.reset();
+    return chunk.length > 0;
+  }
+}
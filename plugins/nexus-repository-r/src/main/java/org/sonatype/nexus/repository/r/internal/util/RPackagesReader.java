@@ -0,0 +1,98 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.r.internal.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.common.text.StanzaScanner;
+import org.sonatype.nexus.repository.r.internal.RException;
+
+import static org.sonatype.nexus.repository.r.internal.util.RMetadataUtils.toMetadata;
+
+/**
+ * Reads the entries of an uncompressed PACKAGES file one at a time, so that only the current entry is held in memory.
+ *
+ * @since 3.31
+ */
+public class RPackagesReader
+    implements Iterator<Map<String, String>>, Closeable
+{
+  private final StanzaScanner scanner;
+
+  private Map<String, String> next;
+
+  private boolean finished;
+
+  public RPackagesReader(final InputStream in) {
+    this(in, null);
+  }
+
+  /**
+   * @param fields the only fields to read from each entry, or {@code null} for all of them
+   */
+  public RPackagesReader(final InputStream in, @Nullable final Collection<String> fields) {
+    this.scanner = new StanzaScanner(in, fields);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null && !finished) {
+      next = readEntry();
+      finished = next == null;
+    }
+    return next != null;
+  }
+
+  @Override
+  public Map<String, String> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Map<String, String> entry = next;
+    next = null;
+    return entry;
+  }
+
+  @Override
+  public void close() throws IOException {
+    scanner.close();
+  }
+
+  /**
+   * Reads the next entry with at least one field.
+   *
+   * @return the parsed entry, or {@code null} at the end of the file
+   */
+  @Nullable
+  private Map<String, String> readEntry() {
+    try {
+      while (scanner.next()) {
+        if (scanner.size() > 0) {
+          return toMetadata(scanner);
+        }
+      }
+      return null;
+    }
+    catch (IOException e) {
+      throw new RException(null, e);
+    }
+  }
+}
@@ -12,19 +12,21 @@
  */
 package org.sonatype.nexus.repository.r.internal.util;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 
 import javax.mail.internet.InternetHeaders;
 
@@ -32,6 +34,7 @@ import org.sonatype.nexus.repository.r.internal.RException;
 import org.sonatype.nexus.repository.view.Content;
 import org.sonatype.nexus.repository.view.payloads.BytesPayload;
 
+import com.google.common.collect.ImmutableList;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
@@ -46,7 +49,6 @@ import static org.sonatype.nexus.repository.r.internal.RAttributes.P_NEEDS_COMPI
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_PACKAGE;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_SUGGESTS;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_VERSION;
-import static org.sonatype.nexus.repository.r.internal.util.RMetadataUtils.parseDescriptionFile;
 
 /**
  * Utility methods for working with R Packages.
@@ -55,30 +57,27 @@ import static org.sonatype.nexus.repository.r.internal.util.RMetadataUtils.parse
  */
 public final class RPackagesUtils
 {
+  /**
+   * Order of package names in PACKAGES files, ignoring case first as CRAN does. Merging relies on member PACKAGES
+   * files being sorted this way.
+   *
+   * @since 3.31
+   */
+  public static final Comparator<String> PACKAGE_NAME_ORDER =
+      String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+  /**
+   * The fields written for each entry of a PACKAGES file, in order; readers that only rewrite entries need no others.
+   *
+   * @since 3.31
+   */
+  public static final List<String> PACKAGE_FIELDS = ImmutableList.of(
+      P_PACKAGE, P_VERSION, P_DEPENDS, P_IMPORTS, P_SUGGESTS, P_LINKINGTO, P_LICENSE, P_NEEDS_COMPILATION);
+
   public static List<Map<String, String>> parseMetadata(final InputStream in) {
     List<Map<String, String>> entries = new ArrayList<>();
-    try (InputStreamReader inr = new InputStreamReader(in, UTF_8)) {
-      try (BufferedReader br = new BufferedReader(inr)) {
-        StringBuilder sb = new StringBuilder();
-        String line;
-        while ((line = br.readLine()) != null) {
-          if (line.trim().isEmpty()) {
-            String content = sb.toString();
-            if (!content.trim().isEmpty()) {
-              entries.add(parseDescriptionFile(new ByteArrayInputStream(content.getBytes(UTF_8))));
-            }
-            sb = new StringBuilder();
-          }
-          else {
-            sb.append(line);
-            sb.append('\n');
-          }
-        }
-        String content = sb.toString();
-        if (!content.trim().isEmpty()) {
-          entries.add(parseDescriptionFile(new ByteArrayInputStream(content.getBytes(UTF_8))));
-        }
-      }
+    try (RPackagesReader reader = new RPackagesReader(in)) {
+      reader.forEachRemaining(entries::add);
       return entries;
     }
     catch (IOException e) {
@@ -92,22 +91,7 @@ public final class RPackagesUtils
     try (CompressorOutputStream cos = compressorStreamFactory.createCompressorOutputStream(GZIP, os)) {
       try (OutputStreamWriter writer = new OutputStreamWriter(cos, UTF_8)) {
         for (Map<String, String> entry : entries) {
-          InternetHeaders headers = new InternetHeaders();
-          headers.addHeader(P_PACKAGE, entry.get(P_PACKAGE));
-          headers.addHeader(P_VERSION, entry.get(P_VERSION));
-          headers.addHeader(P_DEPENDS, entry.get(P_DEPENDS));
-          headers.addHeader(P_IMPORTS, entry.get(P_IMPORTS));
-          headers.addHeader(P_SUGGESTS, entry.get(P_SUGGESTS));
-          headers.addHeader(P_LINKINGTO, entry.get(P_LINKINGTO));
-          headers.addHeader(P_LICENSE, entry.get(P_LICENSE));
-          headers.addHeader(P_NEEDS_COMPILATION, entry.get(P_NEEDS_COMPILATION));
-          Enumeration<String> headerLines = headers.getAllHeaderLines();
-          while (headerLines.hasMoreElements()) {
-            String line = headerLines.nextElement();
-            writer.write(line, 0, line.length());
-            writer.write('\n');
-          }
-          writer.write('\n');
+          writePackageInfo(writer, entry);
         }
       }
     }
@@ -117,6 +101,25 @@ public final class RPackagesUtils
     return new Content(new BytesPayload(os.toByteArray(), "application/x-gzip"));
   }
 
+  /**
+   * Writes a single entry of a PACKAGES file, including the blank line that terminates it.
+   *
+   * @since 3.31
+   */
+  public static void writePackageInfo(final Writer writer, final Map<String, String> entry) throws IOException {
+    InternetHeaders headers = new InternetHeaders();
+    for (String field : PACKAGE_FIELDS) {
+      headers.addHeader(field, entry.get(field));
+    }
+    Enumeration<String> headerLines = headers.getAllHeaderLines();
+    while (headerLines.hasMoreElements()) {
+      String line = headerLines.nextElement();
+      writer.write(line, 0, line.length());
+      writer.write('\n');
+    }
+    writer.write('\n');
+  }
+
   public static List<Map<String, String>> merge(List<List<Map<String, String>>> parts) {
     final LinkedHashMap<String, Map<String, String>> merged = new LinkedHashMap<>();
     for (List<Map<String, String>> part : parts) {
@@ -127,6 +130,127 @@ public final class RPackagesUtils
     return new ArrayList<>(merged.values());
   }
 
+  /**
+   * Lazily merges PACKAGES entries from parts that are each sorted by {@link #PACKAGE_NAME_ORDER}. As with
+   * {@link #merge(List)} the entry of the earliest part wins when a package appears in several parts, and the result is
+   * sorted by package name. Only the current entry of each part is held in memory.
+   *
+   * @throws UnsortedPackagesException from the returned iterator when a part turns out not to be sorted
+   * @since 3.31
+   */
+  public static Iterator<Map<String, String>> mergeSorted(final List<? extends Iterator<Map<String, String>>> parts) {
+    return new SortedMergeIterator(parts);
+  }
+
+  /**
+   * Thrown while merging when PACKAGES entries are not in the expected order.
+   *
+   * @since 3.31
+   */
+  public static class UnsortedPackagesException
+      extends RuntimeException
+  {
+    public UnsortedPackagesException(final String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * K-way merge over sorted parts using a heap holding the current entry of each part.
+   */
+  private static class SortedMergeIterator
+      implements Iterator<Map<String, String>>
+  {
+    private final PriorityQueue<Head> heads = new PriorityQueue<>();
+
+    private String lastName;
+
+    private Map<String, String> next;
+
+    SortedMergeIterator(final List<? extends Iterator<Map<String, String>>> parts) {
+      for (int i = 0; i < parts.size(); i++) {
+        Head head = new Head(i, parts.get(i));
+        if (head.advance()) {
+          heads.add(head);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null && !heads.isEmpty()) {
+        Head head = heads.poll();
+        if (lastName == null || PACKAGE_NAME_ORDER.compare(lastName, head.name) != 0) {
+          next = head.entry;
+          lastName = head.name;
+        }
+        if (head.advance()) {
+          heads.add(head);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Map<String, String> entry = next;
+      next = null;
+      return entry;
+    }
+  }
+
+  /**
+   * The current entry of a part being merged. Ties between parts are broken by part index so earlier parts win.
+   */
+  private static class Head
+      implements Comparable<Head>
+  {
+    private final int index;
+
+    private final Iterator<Map<String, String>> part;
+
+    private Map<String, String> entry;
+
+    private String name;
+
+    Head(final int index, final Iterator<Map<String, String>> part) {
+      this.index = index;
+      this.part = part;
+    }
+
+    /**
+     * Moves to the next entry that names a package.
+     *
+     * @return {@code false} once the part is exhausted
+     */
+    boolean advance() {
+      while (part.hasNext()) {
+        Map<String, String> candidate = part.next();
+        String candidateName = candidate.get(P_PACKAGE);
+        if (candidateName == null) {
+          continue;
+        }
+        if (name != null && PACKAGE_NAME_ORDER.compare(name, candidateName) > 0) {
+          throw new UnsortedPackagesException(
+              "Package " + candidateName + " follows " + name + " in part " + index);
+        }
+        entry = candidate;
+        name = candidateName;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public int compareTo(final Head other) {
+      int result = PACKAGE_NAME_ORDER.compare(name, other.name);
+      return result != 0 ? result : Integer.compare(index, other.index);
+    }
+  }
+
   private RPackagesUtils() {
     // empty
   }
@@ -0,0 +1,97 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.r.internal.group;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.sonatype.nexus.blobstore.api.BlobStoreException;
+import org.sonatype.nexus.repository.Type;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.r.internal.RepositoryFacetTestSupport;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+import org.sonatype.nexus.repository.view.payloads.TempBlob;
+import org.sonatype.nexus.validation.ConstraintViolationFactory;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.http.HttpResponses.ok;
+
+public class RGroupFacetTest
+    extends RepositoryFacetTestSupport<RGroupFacet>
+{
+  @Mock
+  private TempBlob tempBlob;
+
+  @Override
+  protected RGroupFacet initialiseSystemUnderTest() {
+    return new RGroupFacet(mock(RepositoryManager.class), mock(ConstraintViolationFactory.class), mock(Type.class));
+  }
+
+  @Test
+  public void unsortedMembersFallBackToTheFullMerge() throws Exception {
+    List<String> stored = new ArrayList<>();
+    when(storageFacet.createTempBlob(any(InputStream.class), any())).thenAnswer(invocation -> {
+      try (InputStream in = new GZIPInputStream((InputStream) invocation.getArguments()[0])) {
+        stored.add(new String(ByteStreams.toByteArray(in), UTF_8));
+      }
+      catch (Exception e) {
+        // as blob stores do with whatever the stream throws
+        throw new BlobStoreException("Unable to create blob", e, null);
+      }
+      return tempBlob;
+    });
+
+    TempBlob merged = underTest.merge(asList(
+        packages("Package: c\nVersion: 1.0\n\nPackage: a\nVersion: 1.0\n"),
+        packages("Package: b\nVersion: 2.0\n")));
+
+    assertThat(merged, is(sameInstance(tempBlob)));
+    assertThat(stored.size(), is(1));
+    String content = stored.get(0);
+    assertThat(content.indexOf("Package: a") < content.indexOf("Package: b"), is(true));
+    assertThat(content.indexOf("Package: b") < content.indexOf("Package: c"), is(true));
+  }
+
+  @Test(expected = BlobStoreException.class)
+  public void otherFailuresArePropagated() throws Exception {
+    when(storageFacet.createTempBlob(any(InputStream.class), any()))
+        .thenThrow(new BlobStoreException("Disk full", new IOException("Disk full"), null));
+
+    underTest.merge(asList(packages("Package: a\nVersion: 1.0\n")));
+  }
+
+  private static Response packages(final String content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(content.getBytes(UTF_8));
+    }
+    return ok(new BytesPayload(bytes.toByteArray(), "application/x-gzip"));
+  }
+}
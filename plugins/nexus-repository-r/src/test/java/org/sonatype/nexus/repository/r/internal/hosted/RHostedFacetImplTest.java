@@ -14,8 +14,10 @@ package org.sonatype.nexus.repository.r.internal.hosted;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.sonatype.nexus.repository.r.RFacet;
 import org.sonatype.nexus.repository.r.internal.RepositoryFacetTestSupport;
@@ -44,6 +46,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sonatype.nexus.repository.r.internal.RAttributes.P_DEPENDS;
@@ -104,7 +107,7 @@ public class RHostedFacetImplTest
 
   @Override
   protected RHostedFacetImpl initialiseSystemUnderTest() {
-    return new RHostedFacetImpl();
+    return new RHostedFacetImpl(1000);
   }
 
   @Before
@@ -226,4 +229,29 @@ public class RHostedFacetImplTest
     }
     verify(storageTx).saveAsset(asset);
   }
+
+  @Test
+  public void shouldReusePackagesOfBasePathAndApplyArchiveChanges() throws Exception {
+    when(assetBlob.getBlob()).thenReturn(blob);
+    doReturn(assetBlob).when(storageTx).setBlob(any(), any(), any(), any(), any(), any(), anyBoolean());
+    List<byte[]> packagesGz = new ArrayList<>();
+    when(storageFacet.createTempBlob(any(InputStream.class), eq(RFacetUtils.HASH_ALGORITHMS))).thenAnswer(
+        invocation -> {
+          packagesGz.add(ByteStreams.toByteArray((InputStream) invocation.getArguments()[0]));
+          return tempBlob;
+        });
+    assets.add(asset);
+
+    underTest.buildAndPutPackagesGz(BASE_PATH);
+    underTest.archiveDeleted(asset);
+    underTest.buildAndPutPackagesGz(BASE_PATH);
+
+    verify(storageTx, times(1)).browseAssets(any(), any(Bucket.class));
+    try (InputStream in = new ByteArrayInputStream(packagesGz.get(0))) {
+      assertThat(extractDescriptionFromArchive(PACKAGE_NAME, in).get(P_PACKAGE), is(equalTo(PACKAGE_NAME)));
+    }
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(packagesGz.get(1)))) {
+      assertThat(ByteStreams.toByteArray(in).length, is(0));
+    }
+  }
 }
@@ -112,6 +112,7 @@ public class RPackagesBuilderFacetImplTest
 
     underTest.on(assetDeletedEvent);
 
+    verify(hostedFacet).archiveDeleted(asset);
     ArgumentCaptor<RMetadataInvalidationEvent> eventCaptor = ArgumentCaptor.forClass(RMetadataInvalidationEvent.class);
     verify(eventManager).post(eventCaptor.capture());
 
@@ -130,6 +131,7 @@ public class RPackagesBuilderFacetImplTest
 
     underTest.on(assetDeletedEvent);
 
+    verify(hostedFacet).archiveDeleted(asset);
     verifyNoMoreInteractions(eventManager);
   }
 
@@ -157,6 +159,7 @@ public class RPackagesBuilderFacetImplTest
     underTest.on(assetDeletedEvent);
 
     verifyNoMoreInteractions(eventManager);
+    verifyNoMoreInteractions(hostedFacet);
   }
 
   @Test
@@ -169,6 +172,7 @@ public class RPackagesBuilderFacetImplTest
 
     underTest.on(assetCreatedEvent);
 
+    verify(hostedFacet).archiveUpdated(asset);
     ArgumentCaptor<RMetadataInvalidationEvent> eventCaptor = ArgumentCaptor.forClass(RMetadataInvalidationEvent.class);
     verify(eventManager).post(eventCaptor.capture());
 
@@ -12,10 +12,13 @@
  */
 package org.sonatype.nexus.repository.r.internal.hosted;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.common.collect.NestedAttributesMap;
@@ -23,6 +26,7 @@ import org.sonatype.nexus.repository.storage.Asset;
 
 import org.junit.Test;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -98,6 +102,52 @@ public class RPackagesBuilderTest
     }
   }
 
+  @Test
+  public void shouldFallBackToPreviousVersionWhenLatestIsRemoved() {
+    RPackagesBuilder underTest = new RPackagesBuilder();
+    underTest.append(createAsset("/foo/bar/a-1", "a", "1.0.0"));
+    underTest.append(createAsset("/foo/bar/a-3", "a", "3.0.0"));
+    underTest.append(createAsset("/foo/bar/b-4", "b", "4.0.0"));
+
+    underTest.remove("/foo/bar/a-3");
+    underTest.remove("/foo/bar/b-4");
+    underTest.remove("/foo/bar/unknown");
+
+    Map<String, Map<String, String>> packageInformation = underTest.getPackageInformation();
+    assertThat(packageInformation.keySet(), contains("a"));
+    assertThat(packageInformation.get("a").get(P_VERSION), is("1.0.0"));
+  }
+
+  @Test
+  public void shouldReplaceAppendedAsset() {
+    RPackagesBuilder underTest = new RPackagesBuilder();
+    underTest.append(createAsset("/foo/bar/a", "a", "3.0.0"));
+    underTest.append(createAsset("/foo/bar/a", "a", "1.0.0"));
+
+    assertThat(underTest.getPackageInformation().get("a").get(P_VERSION), is("1.0.0"));
+  }
+
+  @Test
+  public void shouldStreamManyPackages() throws IOException {
+    RPackagesBuilder underTest = new RPackagesBuilder();
+    for (int i = 0; i < 5000; i++) {
+      underTest.append(createAsset("/foo/bar/p" + i, String.format("p%05d", i), "1.0." + i));
+    }
+
+    int entries = 0;
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new GZIPInputStream(underTest.openPackagesGz()), UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith(P_PACKAGE + ":")) {
+          assertThat(line, is(P_PACKAGE + ": " + String.format("p%05d", entries)));
+          entries++;
+        }
+      }
+    }
+    assertThat(entries, is(5000));
+  }
+
   private Asset createAsset(final String assetName,
                             final String packageName,
                             final String packageVersion)
@@ -32,10 +32,12 @@ import org.sonatype.nexus.repository.view.Payload;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.mockito.Matchers.any;
@@ -43,6 +45,7 @@ import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.browseArchivesUnderBasePath;
 import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.findAsset;
 import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.findComponent;
 import static org.sonatype.nexus.repository.r.internal.util.RFacetUtils.saveAsset;
@@ -134,6 +137,15 @@ public class RFacetUtilsTest
     assertThat(findAsset(tx, bucket, ASSET_NAME), is(equalTo(this.asset)));
   }
 
+  @Test
+  public void browseArchivesMatchesBasePathAsIs() throws Exception {
+    browseArchivesUnderBasePath(tx, bucket, "src/contrib_1");
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(tx).browseAssets(query.capture(), eq(bucket));
+    assertThat(query.getValue().getParameters().values(), hasItem("src/contrib_1/%"));
+  }
+
   @Test
   public void returnContentOnSaveAsset() throws Exception {
     assertThat(saveAsset(tx, asset, supplier, payload), is(notNullValue()));
@@ -12,6 +12,8 @@
  */
 package org.sonatype.nexus.repository.r.internal.util
 
+import java.util.zip.GZIPInputStream
+
 import spock.lang.Specification
 
 /**
@@ -142,4 +144,55 @@ class RPackagesUtilsTest
           ]
       ]
   }
+
+  def 'Merge sorted metadata entry by entry, earlier parts winning'() {
+    when:
+      List<Map<String, String>> metadata = RPackagesUtils.mergeSorted(
+          [
+              [
+                  [Package: 'A3', Version: '1.0.0'],
+                  [Package: 'abc', Version: '2.1'],
+                  [Package: 'Zelig', Version: '5.1']
+              ].iterator(),
+              [
+                  [Package: 'abbyyR', Version: '0.5.0'],
+                  [Package: 'abc', Version: '2.2'],
+                  [Package: 'ABCanalysis', Version: '1.1.1'],
+                  [Package: 'zoo', Version: '1.8']
+              ].iterator(),
+              [].iterator()
+          ]).collect()
+    then:
+      metadata == [
+          [Package: 'A3', Version: '1.0.0'],
+          [Package: 'abbyyR', Version: '0.5.0'],
+          [Package: 'abc', Version: '2.1'],
+          [Package: 'ABCanalysis', Version: '1.1.1'],
+          [Package: 'Zelig', Version: '5.1'],
+          [Package: 'zoo', Version: '1.8']
+      ]
+  }
+
+  def 'Merging reports parts that are not sorted'() {
+    when:
+      RPackagesUtils.mergeSorted(
+          [
+              [[Package: 'abc', Version: '2.1']].iterator(),
+              [[Package: 'zoo', Version: '1.8'], [Package: 'abc', Version: '2.2']].iterator()
+          ]).collect()
+    then:
+      thrown(RPackagesUtils.UnsortedPackagesException)
+  }
+
+  def 'Stream merged metadata as PACKAGES.gz'() {
+    given:
+      List<Map<String, String>> entries = getClass().getResourceAsStream('/org/sonatype/nexus/repository/r/internal/PACKAGES').
+          withCloseable { input -> RPackagesUtils.parseMetadata(input) }
+    when:
+      List<Map<String, String>> metadata = new RPackagesGzInputStream(entries.iterator()).withCloseable { input ->
+        new GZIPInputStream(input).withCloseable { gunzipped -> RPackagesUtils.parseMetadata(gunzipped) }
+      }
+    then:
+      metadata == entries
+  }
 }